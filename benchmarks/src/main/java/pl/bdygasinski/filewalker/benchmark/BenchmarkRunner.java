@@ -0,0 +1,24 @@
+package pl.bdygasinski.filewalker.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs benchmarks with JMH command line options and always with the GC profiler, so every result has
+ * {@code gc.alloc.rate.norm} next to the throughput. Benchmarks walking a tree count one operation per entry.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String... args) throws RunnerException, CommandLineOptionException {
+        var options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,58 @@
+package pl.bdygasinski.filewalker.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import pl.bdygasinski.filewalker.model.Entry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Entry#fromPathAndGraphDepth(Path, int)}, which reads the path again to find out what it is.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EntryBenchmark {
+
+    private Path root;
+    private Path file;
+    private Path dir;
+
+    @Setup(Level.Trial)
+    public void createPaths() throws IOException {
+        root = Files.createTempDirectory("file-walker-entry-");
+        file = Files.writeString(root.resolve("file.txt"), "content");
+        dir = Files.createDirectory(root.resolve("dir"));
+    }
+
+    @TearDown(Level.Trial)
+    public void deletePaths() throws IOException {
+        TreeShape.delete(root);
+    }
+
+    @Benchmark
+    public Entry fileFromPath() {
+        return Entry.fromPathAndGraphDepth(file, 1);
+    }
+
+    @Benchmark
+    public Entry dirFromPath() {
+        return Entry.fromPathAndGraphDepth(dir, 1);
+    }
+}
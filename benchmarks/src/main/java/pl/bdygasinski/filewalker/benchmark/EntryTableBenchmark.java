@@ -0,0 +1,104 @@
+package pl.bdygasinski.filewalker.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pl.bdygasinski.filewalker.filesystem.EntriesProvider;
+import pl.bdygasinski.filewalker.filesystem.EntryFileVisitor;
+import pl.bdygasinski.filewalker.model.Entry;
+import pl.bdygasinski.filewalker.model.EntryTable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link EntryTable} which walked entries are collected into, against a plain list of entries. Results are per entry.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EntryTableBenchmark {
+
+    private static final int MAX_DEPTH = 1_000;
+
+    @Param
+    private TreeShape shape;
+
+    private Path root;
+    private List<Entry> entries;
+    private EntryTable table;
+
+    @Setup(Level.Trial)
+    public void createTree() throws IOException {
+        root = shape.create();
+        entries = new ArrayList<>(EntriesProvider.withVisitor(new EntryFileVisitor(MAX_DEPTH, entry -> true))
+                .getEntriesFromPath(root));
+        table = new EntryTable();
+        entries.forEach(table::add);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteTree() throws IOException {
+        TreeShape.delete(root);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TreeShape.ENTRIES)
+    public List<Entry> collectIntoList() {
+        var result = new ArrayList<Entry>();
+        entries.forEach(result::add);
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TreeShape.ENTRIES)
+    public EntryTable collectIntoTable() {
+        var result = new EntryTable();
+        entries.forEach(result::add);
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TreeShape.ENTRIES)
+    public void recreateFromTable(Blackhole blackhole) {
+        table.forEachEntry(blackhole::consume);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TreeShape.ENTRIES)
+    public long totalSizeFromEntries() {
+        long total = 0;
+        for (Entry entry : entries) {
+            total += entry.sizeInBytes().orElse(0L);
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TreeShape.ENTRIES)
+    public long totalSizeFromColumns() {
+        long total = 0;
+        for (int i = 0; i < table.size(); i++) {
+            total += Math.max(0, table.sizeInBytes(i));
+        }
+        return total;
+    }
+}
@@ -0,0 +1,73 @@
+package pl.bdygasinski.filewalker.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pl.bdygasinski.filewalker.filesystem.EntriesProvider;
+import pl.bdygasinski.filewalker.filesystem.EntryFileVisitor;
+import pl.bdygasinski.filewalker.memoryfs.MemoryFileSystem;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Providers walking a generated in-memory tree, free of page cache noise. With latency every file system call
+ * is delayed like on a network file system, which is where the concurrent walkers should pay off.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MemoryFileSystemBenchmark {
+
+    private static final int MAX_DEPTH = 1_000;
+
+    @Param({"100000"})
+    private int entries;
+
+    @Param({"0", "100"})
+    private long latencyMicros;
+
+    private Path root;
+
+    @Setup(Level.Trial)
+    public void createFileSystem() {
+        root = MemoryFileSystem.builder()
+                .seed(42)
+                .latency(Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(latencyMicros)))
+                .generate("/data", entries)
+                .build()
+                .getPath("/data");
+    }
+
+    @Benchmark
+    public void sequential(Blackhole blackhole) {
+        EntriesProvider.withVisitor(new EntryFileVisitor(MAX_DEPTH, entry -> true))
+                .forEachEntryFromPath(root, blackhole::consume);
+    }
+
+    @Benchmark
+    public void forkJoin(Blackhole blackhole) {
+        EntriesProvider.parallelWithVisitor(new EntryFileVisitor(MAX_DEPTH, entry -> true), Runtime.getRuntime().availableProcessors())
+                .forEachEntryFromPath(root, blackhole::consume);
+    }
+
+    @Benchmark
+    public void virtualThreads(Blackhole blackhole) {
+        EntriesProvider.virtualThreadsWithVisitor(new EntryFileVisitor(MAX_DEPTH, entry -> true), 256)
+                .forEachEntryFromPath(root, blackhole::consume);
+    }
+}
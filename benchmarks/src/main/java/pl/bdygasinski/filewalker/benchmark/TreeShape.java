@@ -0,0 +1,91 @@
+package pl.bdygasinski.filewalker.benchmark;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Shapes of generated trees. Every shape has {@link #ENTRIES} files and directories below the root, so results
+ * per entry of different shapes can be compared directly.
+ */
+public enum TreeShape {
+
+    /** All entries are files in the root directory. */
+    WIDE {
+        @Override
+        void generate(Path root) throws IOException {
+            files(root, ENTRIES);
+        }
+    },
+
+    /** Chain of 100 nested directories, each with 99 files. */
+    DEEP {
+        @Override
+        void generate(Path root) throws IOException {
+            Path dir = root;
+            for (int level = 0; level < 100; level++) {
+                dir = Files.createDirectory(dir.resolve("level-" + level));
+                files(dir, 99);
+            }
+        }
+    },
+
+    /** 10 directories with 9 files and 10 subdirectories each, every subdirectory with 98 files. */
+    MIXED {
+        @Override
+        void generate(Path root) throws IOException {
+            for (int top = 0; top < 10; top++) {
+                Path dir = Files.createDirectory(root.resolve("dir-" + top));
+                files(dir, 9);
+                for (int sub = 0; sub < 10; sub++) {
+                    files(Files.createDirectory(dir.resolve("sub-" + sub)), 98);
+                }
+            }
+        }
+    };
+
+    public static final int ENTRIES = 10_000;
+
+    private static final String[] EXTENSIONS = {"txt", "java", "html", "png", "json", "md", "xml", "jar"};
+
+    abstract void generate(Path root) throws IOException;
+
+    /**
+     * @return new temporary directory with the tree
+     */
+    public Path create() throws IOException {
+        Path root = Files.createTempDirectory("file-walker-" + name().toLowerCase() + "-");
+        generate(root);
+        return root;
+    }
+
+    public static void delete(Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static void files(Path dir, int count) throws IOException {
+        byte[] content = new byte[0];
+        for (int i = 0; i < count; i++) {
+            Path file = dir.resolve("file-%d.%s".formatted(i, EXTENSIONS[i % EXTENSIONS.length]));
+            if (i % 10 == 0) {
+                content = new byte[i * 16];
+            }
+            Files.write(file, content);
+        }
+    }
+}
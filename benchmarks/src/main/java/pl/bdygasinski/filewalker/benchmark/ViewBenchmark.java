@@ -0,0 +1,107 @@
+package pl.bdygasinski.filewalker.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pl.bdygasinski.filewalker.filesystem.EntriesProvider;
+import pl.bdygasinski.filewalker.filesystem.EntryFileVisitor;
+import pl.bdygasinski.filewalker.view.ContentVisualizer;
+import pl.bdygasinski.filewalker.view.DisplayableEntry;
+import pl.bdygasinski.filewalker.view.FileSizeFormatter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting and printing of entries of a generated tree, results are per entry. Console output goes
+ * to a discarding stream, so only the cost of formatting and buffering is measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ViewBenchmark {
+
+    @Param({"MIXED"})
+    private TreeShape shape;
+
+    private Path root;
+    private List<DisplayableEntry> entries;
+    private long[] sizes;
+    private PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void createEntries() throws IOException {
+        root = shape.create();
+        entries = EntriesProvider.withVisitor(new EntryFileVisitor(1_000, entry -> true))
+                .getEntriesFromPath(root)
+                .stream()
+                .skip(1)
+                .map(DisplayableEntry::new)
+                .toList();
+
+        sizes = new long[TreeShape.ENTRIES];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = 1L << (i % 40);
+        }
+
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteTree() throws IOException {
+        System.setOut(originalOut);
+        TreeShape.delete(root);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TreeShape.ENTRIES)
+    public void entryName(Blackhole blackhole) {
+        for (DisplayableEntry entry : entries) {
+            blackhole.consume(entry.entryName());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TreeShape.ENTRIES)
+    public void toHumanReadable(Blackhole blackhole) {
+        for (long size : sizes) {
+            blackhole.consume(FileSizeFormatter.toHumanReadable(size));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TreeShape.ENTRIES)
+    public void listVisible() {
+        ContentVisualizer.forEntries(entries).listVisible();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TreeShape.ENTRIES)
+    public void listVisibleFromSource() {
+        ContentVisualizer.forEntrySource(action -> {
+            for (DisplayableEntry entry : entries) {
+                action.accept(entry.entry());
+            }
+        }).listVisible();
+    }
+}
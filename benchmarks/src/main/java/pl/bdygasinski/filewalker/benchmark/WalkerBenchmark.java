@@ -0,0 +1,75 @@
+package pl.bdygasinski.filewalker.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pl.bdygasinski.filewalker.filesystem.EntriesProvider;
+import pl.bdygasinski.filewalker.filesystem.EntryFileVisitor;
+import pl.bdygasinski.filewalker.model.Entry;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link EntryFileVisitor} with the sequential provider walking generated trees, results are per entry.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WalkerBenchmark {
+
+    private static final int MAX_DEPTH = 1_000;
+
+    @Param
+    private TreeShape shape;
+
+    private Path root;
+
+    @Setup(Level.Trial)
+    public void createTree() throws IOException {
+        root = shape.create();
+
+        int entries = EntriesProvider.withVisitor(new EntryFileVisitor(MAX_DEPTH, entry -> true))
+                .getEntriesFromPath(root)
+                .size();
+        if (entries != TreeShape.ENTRIES + 1) {
+            throw new IllegalStateException("Tree %s has %s entries instead of %s".formatted(shape, entries, TreeShape.ENTRIES + 1));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteTree() throws IOException {
+        TreeShape.delete(root);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TreeShape.ENTRIES)
+    public List<Entry> collectEntries() {
+        var visitor = new EntryFileVisitor(MAX_DEPTH, entry -> true);
+        return EntriesProvider.withVisitor(visitor).getEntriesFromPath(root);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TreeShape.ENTRIES)
+    public void streamEntries(Blackhole blackhole) {
+        var visitor = new EntryFileVisitor(MAX_DEPTH, entry -> true);
+        EntriesProvider.withVisitor(visitor).forEachEntryFromPath(root, blackhole::consume);
+    }
+}
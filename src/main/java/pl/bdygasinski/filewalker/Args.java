@@ -2,6 +2,9 @@ package pl.bdygasinski.filewalker;
 
 import com.beust.jcommander.Parameter;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class Args {
 
     @Parameter(description = "Root path", required = true)
@@ -10,14 +13,68 @@ public class Args {
     @Parameter(names = "--max-depth", description = "Max directory depth")
     private int maxDepth = 0;
 
-    @Parameter(names = "--name", description = "Partial name match")
-    private String name;
+    @Parameter(names = "--name", description = "Comma-separated list of partial names, any of them has to match")
+    private List<String> name = new ArrayList<>();
 
-    @Parameter(names = "--size", description = "Size range like 1kB-10MB")
+    @Parameter(names = "--size", description = "Size range like 1kB-10MB, 1kB- or -10MB")
     private String size;
 
     @Parameter(names = "--ext", description = "Comma-separated list of extensions")
-    private String ext;
+    private List<String> ext = new ArrayList<>();
+
+    @Parameter(names = "--exclude", description = "Comma-separated list of directory names or globs skipped with their content")
+    private List<String> exclude = new ArrayList<>();
+
+    @Parameter(names = "--snapshot", description = "Snapshot file, only directories changed since it was written are listed again")
+    private String snapshot;
+
+    @Parameter(names = "--parallelism", description = "Number of threads walking the tree, 1 walks sequentially")
+    private int parallelism = 1;
+
+    @Parameter(names = "--max-in-flight", description = "Walks on virtual threads with up to N file system calls in flight, for network file systems")
+    private int maxInFlight = 0;
+
+    @Parameter(names = "--watch", description = "Keeps the tree indexed in memory and answers queries read from stdin, one set of options per line")
+    private boolean watch = false;
+
+    @Parameter(names = "--stats", description = "Prints walk statistics to stderr at the end")
+    private boolean stats = false;
+
+    @Parameter(names = "--progress", description = "Prints progress of the walk to stderr every second")
+    private boolean progress = false;
+
+    @Parameter(names = "--du", description = "Prints total size of every directory down to max depth, walking the whole tree")
+    private boolean du = false;
+
+    @Parameter(names = "--top", description = "Prints N highest ranked files of the whole tree, ignoring max depth")
+    private int top = 0;
+
+    @Parameter(names = "--by", description = "Ranking of --top, size or mtime, size by default")
+    private String by;
+
+    @Parameter(names = "--duplicates", description = "Prints groups of files with the same content in the whole tree")
+    private boolean duplicates = false;
+
+    @Parameter(names = "--hash", description = "Prints checksum of every listed file, sha256, crc32c or xxh")
+    private String hash;
+
+    @Parameter(names = "--checksum-cache", description = "Checksum cache file of --hash, only files changed since it was written are read again")
+    private String checksumCache;
+
+    @Parameter(names = "--compact-cache", description = "Keeps in the checksum cache only files hashed in this run")
+    private boolean compactCache = false;
+
+    @Parameter(names = "--contains", description = "Prints lines of listed files containing the text, binary files are skipped")
+    private String contains;
+
+    @Parameter(names = "--regex", description = "Treats pattern of --contains as a regular expression")
+    private boolean regex = false;
+
+    @Parameter(names = "--count-lines", description = "Prints number of lines of listed code, script, data and text files per type and extension")
+    private boolean countLines = false;
+
+    @Parameter(names = "--sniff", description = "Detects types of listed files from their content instead of extensions")
+    private boolean sniff = false;
 
     @Parameter(names = {"--help", "-h"}, description = "Shows description", help = true)
     private boolean help = false;
@@ -30,7 +87,7 @@ public class Args {
         return maxDepth;
     }
 
-    public String getName() {
+    public List<String> getName() {
         return name;
     }
 
@@ -38,10 +95,82 @@ public class Args {
         return size;
     }
 
-    public String getExt() {
+    public List<String> getExt() {
         return ext;
     }
 
+    public List<String> getExclude() {
+        return exclude;
+    }
+
+    public String getSnapshot() {
+        return snapshot;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public boolean isWatch() {
+        return watch;
+    }
+
+    public boolean isStats() {
+        return stats;
+    }
+
+    public boolean isProgress() {
+        return progress;
+    }
+
+    public boolean isDu() {
+        return du;
+    }
+
+    public int getTop() {
+        return top;
+    }
+
+    public String getBy() {
+        return by;
+    }
+
+    public boolean isDuplicates() {
+        return duplicates;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public String getChecksumCache() {
+        return checksumCache;
+    }
+
+    public boolean isCompactCache() {
+        return compactCache;
+    }
+
+    public String getContains() {
+        return contains;
+    }
+
+    public boolean isRegex() {
+        return regex;
+    }
+
+    public boolean isCountLines() {
+        return countLines;
+    }
+
+    public boolean isSniff() {
+        return sniff;
+    }
+
     public boolean help() {
         return help;
     }
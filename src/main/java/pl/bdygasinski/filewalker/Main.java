@@ -1,17 +1,49 @@
 package pl.bdygasinski.filewalker;
 
 import com.beust.jcommander.JCommander;
+import com.beust.jcommander.ParameterException;
+import pl.bdygasinski.filewalker.count.LineCounting;
+import pl.bdygasinski.filewalker.duplicate.DuplicateFinder;
 import pl.bdygasinski.filewalker.filesystem.EntriesProvider;
 import pl.bdygasinski.filewalker.filesystem.EntryFileVisitor;
+import pl.bdygasinski.filewalker.filesystem.ForkJoinFileTreeWalker;
+import pl.bdygasinski.filewalker.filesystem.RankingKey;
+import pl.bdygasinski.filewalker.filesystem.SequentialFileTreeWalker;
+import pl.bdygasinski.filewalker.filesystem.SizeRollup;
+import pl.bdygasinski.filewalker.filesystem.TopFiles;
+import pl.bdygasinski.filewalker.filesystem.TopFilesVisitor;
+import pl.bdygasinski.filewalker.filesystem.VirtualThreadFileTreeWalker;
+import pl.bdygasinski.filewalker.filesystem.WalkScope;
+import pl.bdygasinski.filewalker.filesystem.WalkStats;
+import pl.bdygasinski.filewalker.filter.CompiledNameFilter;
+import pl.bdygasinski.filewalker.filter.ExcludedDirectoriesFilter;
+import pl.bdygasinski.filewalker.filter.SizeRange;
+import pl.bdygasinski.filewalker.hash.ChecksumCache;
+import pl.bdygasinski.filewalker.hash.ContentHashing;
+import pl.bdygasinski.filewalker.hash.HashAlgorithm;
+import pl.bdygasinski.filewalker.index.LiveIndex;
 import pl.bdygasinski.filewalker.model.Entry;
+import pl.bdygasinski.filewalker.model.EntrySource;
+import pl.bdygasinski.filewalker.search.ContentPattern;
+import pl.bdygasinski.filewalker.search.ContentSearch;
+import pl.bdygasinski.filewalker.sniff.ContentSniffing;
 import pl.bdygasinski.filewalker.view.ContentVisualizer;
-import pl.bdygasinski.filewalker.view.DisplayableEntry;
+import pl.bdygasinski.filewalker.view.FileTypeClassifier;
+import pl.bdygasinski.filewalker.view.ProgressReporter;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
 public class Main {
@@ -20,24 +52,339 @@ public class Main {
 
     public static void main(String... notParsedArgs) {
         var jcommander = setUpJCommander(notParsedArgs);
+        checkModesFromArgs(parsedArgs);
 
-        var filter = prepareCombinedFilterFromArgs(parsedArgs);
-        var visitor = new EntryFileVisitor(parsedArgs.getMaxDepth(), filter
-        );
-        var provider = EntriesProvider.withVisitor(visitor);
-        var entries = extractEntriesFromProvider(parsedArgs, provider);
-        var visualizer = ContentVisualizer.forEntries(entries);
+        if (parsedArgs.isWatch()) {
+            watch(Path.of(parsedArgs.getPath()));
+            return;
+        }
+
+        var root = Path.of(parsedArgs.getPath());
+        if (parsedArgs.isDu()) {
+            ContentVisualizer.forDirectoryTotals(prepareSizeRollupFromArgs(parsedArgs).sourceFromPath(root)).listVisible();
+            return;
+        }
+
+        if (parsedArgs.isDuplicates()) {
+            ContentVisualizer.forDuplicateGroups(prepareDuplicateFinderFromArgs(parsedArgs).fromPath(root)).listVisible();
+            return;
+        }
+
+        if (parsedArgs.getTop() > 0) {
+            ContentVisualizer.forRankedFiles(prepareTopFilesFromArgs(parsedArgs).fromPath(root)).listVisible();
+            return;
+        }
+
+        var stats = new WalkStats();
+        var visitor = parsedArgs.isStats() || parsedArgs.isProgress()
+                ? prepareVisitorFromArgs(parsedArgs).recordingTo(stats)
+                : prepareVisitorFromArgs(parsedArgs);
+        var provider = prepareProviderFromArgs(parsedArgs, visitor);
+        var source = provider.sourceFromPath(root);
+        var checksumCache = prepareChecksumCacheFromArgs(parsedArgs);
+        var visualizer = prepareVisualizerFromArgs(parsedArgs, source, checksumCache);
+
+        long start = System.nanoTime();
+        if (parsedArgs.isProgress()) {
+            var reporter = ProgressReporter.start(root, stats);
+            try {
+                visualizer.listVisible();
+
+            } finally {
+                reporter.close();
+            }
+        } else {
+            visualizer.listVisible();
+        }
+
+        if (parsedArgs.isStats()) {
+            System.err.println(stats.summary(Duration.ofNanos(System.nanoTime() - start)));
+        }
+
+        if (nonNull(checksumCache)) {
+            saveChecksumCache(checksumCache, parsedArgs);
+        }
+    }
+
+    /**
+     * Indexes the tree once, lists it like a regular run and then answers every line read from stdin,
+     * parsed with the same options as the command line, from the index kept up to date with file system events.
+     * Queries given {@code --stats} also print how long they took.
+     */
+    private static void watch(Path root) {
+        try (var index = LiveIndex.watching(root);
+             var reader = new BufferedReader(new InputStreamReader(System.in))) {
+
+            query(index, parsedArgs);
+            if (index.getUnwatchedDirectories() > 0) {
+                System.err.printf("%d directories can't be watched, their changes show up within %d s%n",
+                        index.getUnwatchedDirectories(), LiveIndex.RECONCILE_INTERVAL.toSeconds());
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                try {
+                    query(index, parseQuery(root, line));
+
+                } catch (ParameterException | IllegalArgumentException e) {
+                    System.err.println(e.getMessage());
+                }
+            }
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void query(LiveIndex index, Args args) {
+        long start = System.nanoTime();
+        ContentVisualizer.forEntrySource(index.sourceFor(prepareVisitorFromArgs(args), args.getExt())).listVisible();
+        if (args.isStats()) {
+            System.err.printf("Answered in %d us%n", TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        }
+    }
+
+    private static Args parseQuery(Path root, String line) {
+        var args = new Args();
+        var tokens = new ArrayList<String>();
+        tokens.add(root.toString());
+        tokens.addAll(List.of(line.trim().split("\\s+")));
+
+        JCommander.newBuilder()
+                .addObject(args)
+                .build()
+                .parse(tokens.toArray(String[]::new));
+        var modes = modesFromArgs(args);
+        if (!modes.isEmpty()) {
+            throw new ParameterException("Queries accept only listing options but got %s".formatted(String.join(", ", modes)));
+        }
+        return args;
+    }
+
+    static EntryFileVisitor prepareVisitorFromArgs(Args args) {
+        var filter = prepareCombinedFilterFromArgs(args);
+        var directoryFilter = prepareDirectoryFilterFromArgs(args);
+        var attributesFilter = prepareAttributesFilterFromArgs(args);
+        return new EntryFileVisitor(args.getMaxDepth(), filter, directoryFilter, attributesFilter);
+    }
+
+    private static EntriesProvider prepareProviderFromArgs(Args args, EntryFileVisitor visitor) {
+        if (nonNull(args.getSnapshot())) {
+            return EntriesProvider.snapshotWithVisitor(visitor, Path.of(args.getSnapshot()));
+        }
+
+        if (args.getMaxInFlight() > 0) {
+            return EntriesProvider.virtualThreadsWithVisitor(visitor, args.getMaxInFlight());
+        }
+
+        if (args.getParallelism() > 1) {
+            return EntriesProvider.parallelWithVisitor(visitor, args.getParallelism());
+        }
+
+        return EntriesProvider.withVisitor(visitor);
+    }
+
+    private static SizeRollup prepareSizeRollupFromArgs(Args args) {
+        var scope = prepareWalkScopeFromArgs(args);
+        if (args.getMaxInFlight() > 0) {
+            return SizeRollup.virtualThreads(args.getMaxDepth(), args.getMaxInFlight()).within(scope);
+        }
+
+        if (args.getParallelism() > 1) {
+            return SizeRollup.parallel(args.getMaxDepth(), args.getParallelism()).within(scope);
+        }
+
+        return SizeRollup.sequential(args.getMaxDepth()).within(scope);
+    }
+
+    private static TopFiles prepareTopFilesFromArgs(Args args) {
+        var by = isNull(args.getBy()) ? "size" : args.getBy();
+        var key = RankingKey.parse(by)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid ranking: %s".formatted(by)));
+        var visitor = new TopFilesVisitor(args.getTop(), key,
+                CompiledNameFilter.compileForBaseNames(args.getName(), args.getExt()), prepareAttributesFilterFromArgs(args),
+                prepareWalkScopeFromArgs(args));
+
+        if (args.getMaxInFlight() > 0) {
+            return TopFiles.virtualThreads(visitor, args.getMaxInFlight());
+        }
+
+        if (args.getParallelism() > 1) {
+            return TopFiles.parallel(visitor, args.getParallelism());
+        }
+
+        return TopFiles.sequential(visitor);
+    }
+
+    private static ContentVisualizer prepareVisualizerFromArgs(Args args, EntrySource source, ChecksumCache checksumCache) {
+        if (args.isCountLines()) {
+            var counting = new LineCounting(FileTypeClassifier::classifyExtension, FileTypeClassifier.TEXT_TYPES, contentThreadsFromArgs(args));
+            return ContentVisualizer.forLineCounts(() -> counting.count(source));
+        }
+
+        if (nonNull(args.getContains())) {
+            return ContentVisualizer.forMatches(prepareContentSearchFromArgs(args).sourceFor(source));
+        }
+
+        if (nonNull(args.getHash())) {
+            return ContentVisualizer.forChecksums(prepareContentHashingFromArgs(args, checksumCache).sourceFor(source));
+        }
+
+        if (args.isSniff()) {
+            var sniffing = new ContentSniffing(FileTypeClassifier::classifyExtension, FileTypeClassifier.TEXT_TYPES, contentThreadsFromArgs(args));
+            return ContentVisualizer.forTypedEntrySource(sniffing.sourceFor(source));
+        }
+
+        return ContentVisualizer.forEntrySource(source);
+    }
+
+    private static ContentSearch prepareContentSearchFromArgs(Args args) {
+        var pattern = args.isRegex()
+                ? ContentPattern.regex(args.getContains())
+                : ContentPattern.literal(args.getContains());
+        return new ContentSearch(pattern, contentThreadsFromArgs(args));
+    }
+
+    private static ContentHashing prepareContentHashingFromArgs(Args args, ChecksumCache cache) {
+        return new ContentHashing(hashAlgorithmFromArgs(args), contentThreadsFromArgs(args), cache);
+    }
+
+    private static HashAlgorithm hashAlgorithmFromArgs(Args args) {
+        return HashAlgorithm.parse(args.getHash())
+                .orElseThrow(() -> new IllegalArgumentException("Invalid hash algorithm: %s".formatted(args.getHash())));
+    }
+
+    /**
+     * @return cache of the file given with --hash or null, unreadable cache is treated like a missing one
+     */
+    private static ChecksumCache prepareChecksumCacheFromArgs(Args args) {
+        if (isNull(args.getHash()) || isNull(args.getChecksumCache())) {
+            return null;
+        }
+
+        var algorithm = hashAlgorithmFromArgs(args);
+        try {
+            return ChecksumCache.load(Path.of(args.getChecksumCache()), algorithm);
+
+        } catch (IOException e) {
+            System.err.printf("Can't read checksum cache %s, hashing all files: %s%n", args.getChecksumCache(), e.getMessage());
+            return ChecksumCache.empty(algorithm);
+        }
+    }
 
-        visualizer.listVisible();
+    private static void saveChecksumCache(ChecksumCache cache, Args args) {
+        cache.getLoadFailure().ifPresent(e -> System.err.printf(
+                "Can't read checksum cache %s, hashed files it couldn't answer: %s%n", args.getChecksumCache(), e.getMessage()));
+        try {
+            cache.save(Path.of(args.getChecksumCache()), args.isCompactCache());
+
+        } catch (IOException e) {
+            System.err.printf("Can't save checksum cache %s: %s%n", args.getChecksumCache(), e.getMessage());
+        }
     }
 
-    private static List<DisplayableEntry> extractEntriesFromProvider(Args parsedArgs, EntriesProvider entriesProvider) {
-        Path path = Path.of(parsedArgs.getPath());
+    private static DuplicateFinder prepareDuplicateFinderFromArgs(Args args) {
+        int hashingThreads = contentThreadsFromArgs(args);
+        var scope = prepareWalkScopeFromArgs(args);
+
+        if (args.getMaxInFlight() > 0) {
+            return new DuplicateFinder(new VirtualThreadFileTreeWalker(args.getMaxInFlight()), hashingThreads, scope);
+        }
+
+        if (args.getParallelism() > 1) {
+            return new DuplicateFinder(new ForkJoinFileTreeWalker(args.getParallelism()), hashingThreads, scope);
+        }
 
-        return entriesProvider.getEntriesFromPath(path)
-                .stream()
-                .map(DisplayableEntry::new)
-                .toList();
+        return new DuplicateFinder(new SequentialFileTreeWalker(), hashingThreads, scope);
+    }
+
+    /**
+     * Hashing, searching, counting and sniffing are bound by reads, so they run on all processors unless parallelism is given explicitly.
+     */
+    private static int contentThreadsFromArgs(Args args) {
+        return args.getParallelism() > 1 ? args.getParallelism() : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * @return options selecting what is printed instead of the listing, at most one of them can be given
+     */
+    private static List<String> modesFromArgs(Args args) {
+        var modes = new ArrayList<String>();
+        if (args.isWatch()) {
+            modes.add("--watch");
+        }
+        if (args.isDu()) {
+            modes.add("--du");
+        }
+        if (args.isDuplicates()) {
+            modes.add("--duplicates");
+        }
+        if (args.getTop() > 0) {
+            modes.add("--top");
+        }
+        if (args.isCountLines()) {
+            modes.add("--count-lines");
+        }
+        if (nonNull(args.getContains())) {
+            modes.add("--contains");
+        }
+        if (nonNull(args.getHash())) {
+            modes.add("--hash");
+        }
+        if (args.isSniff()) {
+            modes.add("--sniff");
+        }
+        return modes;
+    }
+
+    /**
+     * Rejects modes given together, options of the listing walk given with modes which walk the tree on their own
+     * and options which would be ignored with the others given.
+     */
+    static void checkModesFromArgs(Args args) {
+        var modes = modesFromArgs(args);
+        if (modes.size() > 1) {
+            throw new ParameterException("Only one of %s can be given".formatted(String.join(", ", modes)));
+        }
+
+        if ((nonNull(args.getChecksumCache()) || args.isCompactCache()) && isNull(args.getHash())) {
+            throw new ParameterException("--checksum-cache and --compact-cache can be used only with --hash");
+        }
+
+        if (args.isRegex() && isNull(args.getContains())) {
+            throw new ParameterException("--regex can be used only with --contains");
+        }
+
+        if (nonNull(args.getBy()) && args.getTop() <= 0) {
+            throw new ParameterException("--by can be used only with --top");
+        }
+
+        if (nonNull(args.getSnapshot()) && (args.getParallelism() > 1 || args.getMaxInFlight() > 0)) {
+            throw new ParameterException("--snapshot can't be used with --parallelism or --max-in-flight");
+        }
+
+        boolean walksOnItsOwn = args.isWatch() || args.isDu() || args.isDuplicates() || args.getTop() > 0;
+        if (!walksOnItsOwn) {
+            return;
+        }
+
+        var listingOptions = new ArrayList<String>();
+        if (args.isStats()) {
+            listingOptions.add("--stats");
+        }
+        if (args.isProgress()) {
+            listingOptions.add("--progress");
+        }
+        if (nonNull(args.getSnapshot())) {
+            listingOptions.add("--snapshot");
+        }
+        if (!listingOptions.isEmpty()) {
+            throw new ParameterException("%s can't be used with %s".formatted(String.join(", ", listingOptions), modes.getFirst()));
+        }
     }
 
     private static JCommander setUpJCommander(String[] notParsedArgs) {
@@ -51,24 +398,28 @@ public class Main {
     }
 
     static Predicate<Entry> prepareCombinedFilterFromArgs(Args args) {
-        List<Predicate<Entry>> filters = new ArrayList<>();
+        return CompiledNameFilter.compile(args.getName(), args.getExt());
+    }
 
-        if (nonNull(args.getName())) {
-            Predicate<Entry> newFilter = entry -> entry.baseName().contains(args.getName());
-            filters.add(newFilter);
+    static Predicate<BasicFileAttributes> prepareAttributesFilterFromArgs(Args args) {
+        if (isNull(args.getSize())) {
+            return attrs -> true;
         }
 
-        if (nonNull(args.getExt())) {
-            Predicate<Entry> newFilter = entry -> entry.fileExtension()
-                    .map(extension -> extension.equals(args.getExt()))
-                    .orElse(false);
-            filters.add(newFilter);
-        }
+        return SizeRange.parse(args.getSize())
+                .orElseThrow(() -> new IllegalArgumentException("Invalid size range: %s".formatted(args.getSize())));
+    }
 
+    static WalkScope prepareWalkScopeFromArgs(Args args) {
+        return WalkScope.listed(prepareDirectoryFilterFromArgs(args));
+    }
+
+    static Predicate<Entry> prepareDirectoryFilterFromArgs(Args args) {
+        if (args.getExclude().isEmpty()) {
+            return entry -> true;
+        }
 
-        return filters
-                .stream()
-                .reduce(entry -> true, Predicate::and);
+        return ExcludedDirectoriesFilter.fromPatterns(args.getExclude());
     }
 
 
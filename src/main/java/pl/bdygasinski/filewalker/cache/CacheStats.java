@@ -0,0 +1,14 @@
+package pl.bdygasinski.filewalker.cache;
+
+/**
+ * Counters of a directory cache. Stale listings found for a changed directory count as misses.
+ *
+ * @param cachedChildren children held by all cached listings, the main contributor to the heap used by the cache
+ */
+public record CacheStats(long hits, long misses, long evictions, int cachedDirectories, long cachedChildren) {
+
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
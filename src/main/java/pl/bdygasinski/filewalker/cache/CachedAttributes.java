@@ -0,0 +1,78 @@
+package pl.bdygasinski.filewalker.cache;
+
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attributes of a directory child remembered from an earlier listing. File key is kept in its string form,
+ * which is all that is needed to compare it with a fresh one.
+ */
+public record CachedAttributes(byte kind, long size, long lastModifiedNanos, String fileKey) implements BasicFileAttributes {
+
+    public static final byte REGULAR_FILE = 0;
+    public static final byte DIRECTORY = 1;
+    public static final byte SYMBOLIC_LINK = 2;
+    public static final byte OTHER = 3;
+
+    public CachedAttributes {
+        if (kind < REGULAR_FILE || kind > OTHER) {
+            throw new IllegalArgumentException("Unknown kind of file %s".formatted(kind));
+        }
+    }
+
+    public static CachedAttributes copyOf(BasicFileAttributes attrs) {
+        return new CachedAttributes(kindOf(attrs), attrs.size(), lastModifiedNanos(attrs), fileKeyOf(attrs));
+    }
+
+    static long lastModifiedNanos(BasicFileAttributes attrs) {
+        return attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+    }
+
+    static String fileKeyOf(BasicFileAttributes attrs) {
+        Object fileKey = attrs.fileKey();
+        return fileKey == null ? null : fileKey.toString();
+    }
+
+    private static byte kindOf(BasicFileAttributes attrs) {
+        if (attrs.isRegularFile()) return REGULAR_FILE;
+        if (attrs.isDirectory()) return DIRECTORY;
+        if (attrs.isSymbolicLink()) return SYMBOLIC_LINK;
+        return OTHER;
+    }
+
+    @Override
+    public FileTime lastModifiedTime() {
+        return FileTime.from(lastModifiedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public FileTime lastAccessTime() {
+        return lastModifiedTime();
+    }
+
+    @Override
+    public FileTime creationTime() {
+        return lastModifiedTime();
+    }
+
+    @Override
+    public boolean isRegularFile() {
+        return kind == REGULAR_FILE;
+    }
+
+    @Override
+    public boolean isDirectory() {
+        return kind == DIRECTORY;
+    }
+
+    @Override
+    public boolean isSymbolicLink() {
+        return kind == SYMBOLIC_LINK;
+    }
+
+    @Override
+    public boolean isOther() {
+        return kind == OTHER;
+    }
+}
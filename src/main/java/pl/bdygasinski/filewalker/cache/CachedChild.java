@@ -0,0 +1,4 @@
+package pl.bdygasinski.filewalker.cache;
+
+public record CachedChild(String name, CachedAttributes attrs) {
+}
@@ -0,0 +1,28 @@
+package pl.bdygasinski.filewalker.cache;
+
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Children of a directory together with the modification time and file key the directory had when it was listed.
+ */
+public record CachedDirectory(long lastModifiedNanos, String fileKey, List<CachedChild> children) {
+
+    public CachedDirectory {
+        children = List.copyOf(children);
+    }
+
+    public static CachedDirectory of(BasicFileAttributes dirAttrs, List<CachedChild> children) {
+        return new CachedDirectory(CachedAttributes.lastModifiedNanos(dirAttrs), CachedAttributes.fileKeyOf(dirAttrs), children);
+    }
+
+    /**
+     * Adding, removing or renaming a child changes modification time of the directory, replacing the directory
+     * changes its file key. Changes inside child files are not visible here.
+     */
+    public boolean isValidFor(BasicFileAttributes dirAttrs) {
+        return lastModifiedNanos == CachedAttributes.lastModifiedNanos(dirAttrs)
+                && Objects.equals(fileKey, CachedAttributes.fileKeyOf(dirAttrs));
+    }
+}
@@ -0,0 +1,150 @@
+package pl.bdygasinski.filewalker.cache;
+
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.FileVisitor;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Walks file tree like {@link Files#walkFileTree(Path, FileVisitor)} without following links, but reuses directory
+ * listings from the cache. Every directory is stat'ed and, when its modification time and file key still match
+ * the cached listing, its files are visited with cached attributes instead of being listed and stat'ed again.
+ * Only a result other than {@link FileVisitResult#CONTINUE} from {@code preVisitDirectory} is honored,
+ * it skips the subtree.
+ */
+public class CachingFileTreeWalker {
+
+    /**
+     * Directories modified this close to the start of the walk are not cached, since a change made within
+     * the same tick of the file system clock would not move their modification time.
+     */
+    static final Duration MODIFICATION_TIME_GRANULARITY = Duration.ofSeconds(2);
+
+    private final DirectoryCache cache;
+
+    public CachingFileTreeWalker(DirectoryCache cache) {
+        this.cache = requireNonNull(cache, "Cache is required but got %s".formatted(cache));
+    }
+
+    public void walk(Path root, FileVisitor<? super Path> visitor) throws IOException {
+        long cacheableBeforeNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis())
+                - MODIFICATION_TIME_GRANULARITY.toNanos();
+        new Walk(visitor, cacheableBeforeNanos).visit(root);
+    }
+
+    private final class Walk {
+        private final FileVisitor<? super Path> visitor;
+        private final long cacheableBeforeNanos;
+
+        private Walk(FileVisitor<? super Path> visitor, long cacheableBeforeNanos) {
+            this.visitor = visitor;
+            this.cacheableBeforeNanos = cacheableBeforeNanos;
+        }
+
+        void visit(Path path) throws IOException {
+            BasicFileAttributes attrs;
+            try {
+                attrs = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+
+            } catch (IOException e) {
+                visitor.visitFileFailed(path, e);
+                return;
+            }
+
+            if (attrs.isDirectory()) {
+                visitDirectory(path, attrs);
+            } else {
+                visitor.visitFile(path, attrs);
+            }
+        }
+
+        private void visitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+            Optional<CachedDirectory> cached = cache.getValid(dir, attrs);
+
+            if (cached.isPresent()) {
+                visitCachedDirectory(dir, attrs, cached.get());
+            } else {
+                visitListedDirectory(dir, attrs);
+            }
+        }
+
+        private void visitCachedDirectory(Path dir, BasicFileAttributes attrs, CachedDirectory cached) throws IOException {
+            if (visitor.preVisitDirectory(dir, attrs) != FileVisitResult.CONTINUE) {
+                return;
+            }
+
+            for (CachedChild child : cached.children()) {
+                Path childPath = dir.resolve(child.name());
+                if (child.attrs().isDirectory()) {
+                    visit(childPath);
+                } else {
+                    visitor.visitFile(childPath, child.attrs());
+                }
+            }
+
+            visitor.postVisitDirectory(dir, null);
+        }
+
+        private void visitListedDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+            DirectoryStream<Path> stream;
+            try {
+                stream = Files.newDirectoryStream(dir);
+
+            } catch (IOException e) {
+                visitor.visitFileFailed(dir, e);
+                return;
+            }
+
+            List<CachedChild> children = new ArrayList<>();
+            boolean isComplete = true;
+            IOException iterationException = null;
+
+            try (stream) {
+                if (visitor.preVisitDirectory(dir, attrs) != FileVisitResult.CONTINUE) {
+                    return;
+                }
+
+                for (Path child : stream) {
+                    BasicFileAttributes childAttrs;
+                    try {
+                        childAttrs = Files.readAttributes(child, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+
+                    } catch (IOException e) {
+                        isComplete = false;
+                        visitor.visitFileFailed(child, e);
+                        continue;
+                    }
+
+                    children.add(new CachedChild(child.getFileName().toString(), CachedAttributes.copyOf(childAttrs)));
+                    if (childAttrs.isDirectory()) {
+                        visitDirectory(child, childAttrs);
+                    } else {
+                        visitor.visitFile(child, childAttrs);
+                    }
+                }
+
+            } catch (DirectoryIteratorException e) {
+                isComplete = false;
+                iterationException = e.getCause();
+            }
+
+            if (isComplete && CachedAttributes.lastModifiedNanos(attrs) < cacheableBeforeNanos) {
+                cache.put(dir, CachedDirectory.of(attrs, children));
+            }
+
+            visitor.postVisitDirectory(dir, iterationException);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package pl.bdygasinski.filewalker.cache;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+
+public interface DirectoryCache {
+
+    /**
+     * Gives listing remembered for the directory, it still has to be validated against fresh directory attributes.
+     */
+    Optional<CachedDirectory> get(Path dir);
+
+    /**
+     * Gives listing remembered for the directory only if it is still valid for the fresh directory attributes.
+     */
+    default Optional<CachedDirectory> getValid(Path dir, BasicFileAttributes dirAttrs) {
+        return get(dir).filter(listing -> listing.isValidFor(dirAttrs));
+    }
+
+    void put(Path dir, CachedDirectory listing);
+}
@@ -0,0 +1,88 @@
+package pl.bdygasinski.filewalker.cache;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Directory listings kept in memory for repeated walks within one process. The cache is bounded by the total number
+ * of children of cached listings, least recently used listings are evicted first. Listing found stale for a changed
+ * directory is dropped right away. Safe to share between threads.
+ */
+public class LruDirectoryCache implements DirectoryCache {
+
+    private final long maxChildren;
+    private final Map<Path, CachedDirectory> listings = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedChildren;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public LruDirectoryCache(long maxChildren) {
+        if (maxChildren < 1) {
+            throw new IllegalArgumentException("Max children must be positive but got %s".formatted(maxChildren));
+        }
+
+        this.maxChildren = maxChildren;
+    }
+
+    @Override
+    public synchronized Optional<CachedDirectory> get(Path dir) {
+        return Optional.ofNullable(listings.get(dir));
+    }
+
+    @Override
+    public synchronized Optional<CachedDirectory> getValid(Path dir, BasicFileAttributes dirAttrs) {
+        CachedDirectory listing = listings.get(dir);
+        if (listing != null && listing.isValidFor(dirAttrs)) {
+            hits++;
+            return Optional.of(listing);
+        }
+
+        misses++;
+        if (listing != null) {
+            remove(dir);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Listing with more children than the whole cache can hold is not stored.
+     */
+    @Override
+    public synchronized void put(Path dir, CachedDirectory listing) {
+        int size = listing.children().size();
+        if (size > maxChildren) {
+            return;
+        }
+
+        remove(dir);
+        listings.put(dir, listing);
+        cachedChildren += size;
+
+        Iterator<CachedDirectory> eldest = listings.values().iterator();
+        while (cachedChildren > maxChildren) {
+            cachedChildren -= eldest.next().children().size();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(hits, misses, evictions, listings.size(), cachedChildren);
+    }
+
+    public long getMaxChildren() {
+        return maxChildren;
+    }
+
+    private void remove(Path dir) {
+        CachedDirectory removed = listings.remove(dir);
+        if (removed != null) {
+            cachedChildren -= removed.children().size();
+        }
+    }
+}
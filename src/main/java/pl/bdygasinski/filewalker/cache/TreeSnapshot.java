@@ -0,0 +1,147 @@
+package pl.bdygasinski.filewalker.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Directory listings persisted between runs. Only listings validated or stored since the snapshot was loaded are
+ * saved, so directories which disappeared from the tree or changed since drop out of the next snapshot.
+ */
+public class TreeSnapshot implements DirectoryCache {
+
+    private static final int MAGIC = 0x46575331;
+    private static final int VERSION = 1;
+
+    private final Map<String, CachedDirectory> loaded;
+    private final Map<String, CachedDirectory> touched = new LinkedHashMap<>();
+
+    private TreeSnapshot(Map<String, CachedDirectory> loaded) {
+        this.loaded = loaded;
+    }
+
+    public static TreeSnapshot empty() {
+        return new TreeSnapshot(new HashMap<>());
+    }
+
+    /**
+     * @return snapshot saved in the file or empty snapshot if the file does not exist
+     */
+    public static TreeSnapshot load(Path file) throws IOException {
+        try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                throw new IOException("Unsupported snapshot format: %s".formatted(file));
+            }
+
+            int dirCount = input.readInt();
+            Map<String, CachedDirectory> directories = new HashMap<>(dirCount * 2);
+            for (int i = 0; i < dirCount; i++) {
+                String dir = input.readUTF();
+                long lastModifiedNanos = input.readLong();
+                String fileKey = readNullableUTF(input);
+                int childCount = input.readInt();
+
+                List<CachedChild> children = new ArrayList<>(childCount);
+                for (int j = 0; j < childCount; j++) {
+                    String name = input.readUTF();
+                    var attrs = new CachedAttributes(input.readByte(), input.readLong(), input.readLong(), readNullableUTF(input));
+                    children.add(new CachedChild(name, attrs));
+                }
+                directories.put(dir, new CachedDirectory(lastModifiedNanos, fileKey, children));
+            }
+            return new TreeSnapshot(directories);
+
+        } catch (NoSuchFileException e) {
+            return empty();
+        }
+    }
+
+    /**
+     * Writes to a temporary file next to the target first, so an interrupted save leaves the previous snapshot intact.
+     */
+    public void save(Path file) throws IOException {
+        Path absoluteFile = file.toAbsolutePath();
+        Path tmpFile = Files.createTempFile(absoluteFile.getParent(), absoluteFile.getFileName().toString(), ".tmp");
+        try {
+            try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeInt(touched.size());
+
+                for (Map.Entry<String, CachedDirectory> directory : touched.entrySet()) {
+                    CachedDirectory listing = directory.getValue();
+                    output.writeUTF(directory.getKey());
+                    output.writeLong(listing.lastModifiedNanos());
+                    writeNullableUTF(output, listing.fileKey());
+                    output.writeInt(listing.children().size());
+
+                    for (CachedChild child : listing.children()) {
+                        output.writeUTF(child.name());
+                        output.writeByte(child.attrs().kind());
+                        output.writeLong(child.attrs().size());
+                        output.writeLong(child.attrs().lastModifiedNanos());
+                        writeNullableUTF(output, child.attrs().fileKey());
+                    }
+                }
+            }
+            Files.move(tmpFile, absoluteFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+    }
+
+    /**
+     * Lookup alone does not keep a loaded listing for the next snapshot, only {@link #getValid} does.
+     */
+    @Override
+    public Optional<CachedDirectory> get(Path dir) {
+        String key = dir.toString();
+        CachedDirectory listing = touched.get(key);
+        return Optional.ofNullable(listing != null ? listing : loaded.get(key));
+    }
+
+    /**
+     * Loaded listing is kept for the next snapshot once it validated, stale listing stays behind and is saved
+     * only when the walker puts a fresh one.
+     */
+    @Override
+    public Optional<CachedDirectory> getValid(Path dir, BasicFileAttributes dirAttrs) {
+        Optional<CachedDirectory> listing = get(dir).filter(found -> found.isValidFor(dirAttrs));
+        listing.ifPresent(found -> touched.put(dir.toString(), found));
+        return listing;
+    }
+
+    @Override
+    public void put(Path dir, CachedDirectory listing) {
+        touched.put(dir.toString(), listing);
+    }
+
+    public int directoryCount() {
+        return touched.size();
+    }
+
+    private static String readNullableUTF(DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+
+    private static void writeNullableUTF(DataOutputStream output, String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+}
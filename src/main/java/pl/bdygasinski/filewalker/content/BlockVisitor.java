@@ -0,0 +1,28 @@
+package pl.bdygasinski.filewalker.content;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Receives content of a single file read by {@link ContentReader}, block after block. Blocks are read by absolute
+ * index from 0 to their limit and are valid only until the call returns.
+ */
+public interface BlockVisitor {
+
+    /**
+     * Called once before any block, with up to the first {@value ContentReader#HEAD_SIZE} bytes of content, so the
+     * rest is not read when the head already decides the file is not worth it.
+     *
+     * @return false to stop reading the file
+     */
+    default boolean head(ByteBuffer head) {
+        return true;
+    }
+
+    /**
+     * @param last true when the block ends with the end of file
+     * @return number of bytes consumed from index 0, at least one of a non empty block, the rest is given again at
+     * the start of the next block
+     */
+    int block(ByteBuffer block, boolean last) throws IOException;
+}
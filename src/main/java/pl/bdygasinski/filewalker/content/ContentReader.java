@@ -0,0 +1,120 @@
+package pl.bdygasinski.filewalker.content;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Reads file content for hashing, searching and counting, safe to use from many threads. Files from {@value
+ * #MAPPED_THRESHOLD} bytes up are given in memory mapped regions of their {@link FileChannel}, smaller ones and
+ * files of file systems without file channels are read into direct buffers borrowed from a fixed pool, so steady
+ * reading allocates nothing per file.
+ * <p>
+ * Only the first {@value #HEAD_SIZE} bytes are read before the visitor sees the head, a pooled buffer is filled
+ * further only when it asks for the rest.
+ */
+public final class ContentReader {
+
+    public static final long MAPPED_THRESHOLD = 1024 * 1024;
+    public static final int BUFFER_SIZE = 256 * 1024;
+    public static final int HEAD_SIZE = 8 * 1024;
+    private static final long MAPPED_REGION_SIZE = 64L * 1024 * 1024;
+
+    private final BlockingQueue<ByteBuffer> buffers;
+
+    /**
+     * @param pooledBuffers number of direct buffers, callers reading on more threads wait for a free one
+     */
+    public ContentReader(int pooledBuffers) {
+        if (pooledBuffers < 1) {
+            throw new IllegalArgumentException("Pooled buffers must be positive but got %s".formatted(pooledBuffers));
+        }
+
+        this.buffers = new ArrayBlockingQueue<>(pooledBuffers);
+        for (int i = 0; i < pooledBuffers; i++) {
+            buffers.add(ByteBuffer.allocateDirect(BUFFER_SIZE));
+        }
+    }
+
+    public void read(Path path, BlockVisitor visitor) throws IOException {
+        try (SeekableByteChannel channel = Files.newByteChannel(path)) {
+            long size = channel.size();
+            if (channel instanceof FileChannel fileChannel && size >= MAPPED_THRESHOLD) {
+                readMapped(fileChannel, size, visitor);
+            } else {
+                readWithPooledBuffer(channel, visitor);
+            }
+        }
+    }
+
+    private static void readMapped(FileChannel channel, long size, BlockVisitor visitor) throws IOException {
+        long position = 0;
+        while (position < size) {
+            ByteBuffer region = channel.map(
+                    FileChannel.MapMode.READ_ONLY, position, Math.min(MAPPED_REGION_SIZE, size - position));
+            if (position == 0 && !visitor.head(region.slice(0, Math.min(HEAD_SIZE, region.limit())))) {
+                return;
+            }
+
+            position += visitor.block(region, position + region.limit() == size);
+        }
+    }
+
+    private void readWithPooledBuffer(SeekableByteChannel channel, BlockVisitor visitor) throws IOException {
+        ByteBuffer buffer = borrowBuffer();
+        try {
+            buffer.clear().limit(HEAD_SIZE);
+            boolean endOfFile = fill(channel, buffer);
+            int headEnd = buffer.flip().limit();
+            if (!visitor.head(buffer)) {
+                return;
+            }
+            buffer.limit(buffer.capacity()).position(headEnd);
+
+            while (true) {
+                if (!endOfFile) {
+                    endOfFile = fill(channel, buffer);
+                }
+                int limit = buffer.flip().limit();
+                int consumed = visitor.block(buffer, endOfFile);
+                if (endOfFile) {
+                    return;
+                }
+
+                buffer.limit(limit).position(consumed);
+                buffer.compact();
+            }
+
+        } finally {
+            buffers.add(buffer);
+        }
+    }
+
+    /**
+     * @return true when the end of file was reached
+     */
+    private static boolean fill(SeekableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ByteBuffer borrowBuffer() throws InterruptedIOException {
+        try {
+            return buffers.take();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a read buffer");
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package pl.bdygasinski.filewalker.content;
+
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Runs tasks on a fixed pool of platform workers while the thread submitting them goes on, for example with a walk.
+ * Results are passed on in the submitting thread in the order tasks came, as soon as all earlier ones are done.
+ * Submitting waits only when the oldest of {@value #PENDING_PER_WORKER} tasks per worker is still running, which
+ * keeps memory bound when tasks come faster than workers read content.
+ * <p>
+ * Tasks report expected failures in their results, anything they throw is rethrown when their result is due.
+ * Results still pending when the pipeline is closed without {@link #finish()} are dropped.
+ */
+public final class OrderedPipeline<T> implements AutoCloseable {
+
+    static final int PENDING_PER_WORKER = 4;
+
+    private final String name;
+    private final Consumer<? super T> action;
+    private final int maxPending;
+    private final ExecutorService pool;
+    private final Queue<Future<T>> pending = new ArrayDeque<>();
+
+    /**
+     * @param name prefix of worker thread names
+     */
+    public OrderedPipeline(String name, int workers, Consumer<? super T> action) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Workers must be positive but got %s".formatted(workers));
+        }
+
+        this.name = requireNonNull(name, "Name is required but got %s".formatted(name));
+        this.action = requireNonNull(action, "Action is required but got %s".formatted(action));
+        this.maxPending = workers * PENDING_PER_WORKER;
+        this.pool = Executors.newFixedThreadPool(workers, Thread.ofPlatform().name(name + "-", 0).daemon().factory());
+    }
+
+    public void submit(Supplier<? extends T> task) {
+        Callable<T> callable = task::get;
+        pending.add(pool.submit(callable));
+        while (!pending.isEmpty() && (pending.size() > maxPending || pending.peek().isDone())) {
+            action.accept(await(pending.poll()));
+        }
+    }
+
+    /**
+     * Waits for all submitted tasks and passes on their results.
+     */
+    public void finish() {
+        while (!pending.isEmpty()) {
+            action.accept(await(pending.poll()));
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.close();
+    }
+
+    private T await(Future<T> result) {
+        try {
+            return result.get();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Interrupted while waiting for %s workers".formatted(name)));
+
+        } catch (ExecutionException e) {
+            switch (e.getCause()) {
+                case RuntimeException cause -> throw cause;
+                case Error cause -> throw cause;
+                default -> throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+}
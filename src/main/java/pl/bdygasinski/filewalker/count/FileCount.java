@@ -0,0 +1,7 @@
+package pl.bdygasinski.filewalker.count;
+
+/**
+ * Lines and bytes of a single file.
+ */
+record FileCount(long lines, long bytes) {
+}
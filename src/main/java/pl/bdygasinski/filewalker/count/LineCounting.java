@@ -0,0 +1,121 @@
+package pl.bdygasinski.filewalker.count;
+
+import pl.bdygasinski.filewalker.content.OrderedPipeline;
+import pl.bdygasinski.filewalker.model.EntrySource;
+import pl.bdygasinski.filewalker.model.FileEntry;
+import pl.bdygasinski.filewalker.model.LineCount;
+import pl.bdygasinski.filewalker.model.LineCountReport;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Counts lines of every file of the counted categories pushed by an entry source in an {@link OrderedPipeline},
+ * while the walk goes on in the thread pushing entries. Counts come back to the walking thread, which adds them to
+ * per category and per extension tallies, so tallies need no synchronization.
+ */
+public final class LineCounting {
+
+    private final Function<String, String> categoryOfExtension;
+    private final Set<String> countedCategories;
+    private final LineCounter counter;
+    private final int workers;
+
+    /**
+     * @param categoryOfExtension gives category of a lower case extension without the dot
+     */
+    public LineCounting(Function<String, String> categoryOfExtension, Set<String> countedCategories, int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Workers must be positive but got %s".formatted(workers));
+        }
+
+        this.categoryOfExtension = requireNonNull(categoryOfExtension, "Classifier is required but got %s".formatted(categoryOfExtension));
+        this.countedCategories = Set.copyOf(requireNonNull(countedCategories, "Categories are required but got %s".formatted(countedCategories)));
+        this.counter = new LineCounter(workers);
+        this.workers = workers;
+    }
+
+    public LineCountReport count(EntrySource entries) {
+        requireNonNull(entries, "Entries are required but got %s".formatted(entries));
+
+        Map<String, Tally> categories = new HashMap<>();
+        Map<String, Tally> extensions = new HashMap<>();
+        try (var pipeline = new OrderedPipeline<Counted>("line-counter", workers, counted -> {
+            categories.computeIfAbsent(counted.category(), Tally::new).add(counted.count());
+            extensions.computeIfAbsent(counted.extension(), Tally::new).add(counted.count());
+        })) {
+            entries.forEachEntry(entry -> {
+                if (!(entry instanceof FileEntry file)) {
+                    return;
+                }
+
+                var extension = file.fileExtension().map(ext -> ext.toLowerCase(Locale.ROOT)).orElse("");
+                var category = categoryOfExtension.apply(extension);
+                if (countedCategories.contains(category)) {
+                    pipeline.submit(() -> new Counted(category, extension, countOf(file)));
+                }
+            });
+            pipeline.finish();
+        }
+
+        return new LineCountReport(toLineCounts(categories), toLineCounts(extensions));
+    }
+
+    /**
+     * @return empty for unreadable file
+     */
+    private Optional<FileCount> countOf(FileEntry file) {
+        try {
+            return Optional.of(counter.count(file.path()));
+
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static List<LineCount> toLineCounts(Map<String, Tally> tallies) {
+        return tallies.values().stream()
+                .map(Tally::toLineCount)
+                .sorted(Comparator.comparingLong(LineCount::lines).reversed().thenComparing(LineCount::name))
+                .toList();
+    }
+
+    private record Counted(String category, String extension, Optional<FileCount> count) {
+    }
+
+    private static final class Tally {
+        private final String name;
+        private long files;
+        private long lines;
+        private long bytes;
+        private long unreadable;
+
+        private Tally(String name) {
+            this.name = name;
+        }
+
+        void add(Optional<FileCount> count) {
+            if (count.isEmpty()) {
+                unreadable++;
+                return;
+            }
+
+            files++;
+            lines += count.get().lines();
+            bytes += count.get().bytes();
+        }
+
+        LineCount toLineCount() {
+            return new LineCount(name, files, lines, bytes, unreadable);
+        }
+    }
+}
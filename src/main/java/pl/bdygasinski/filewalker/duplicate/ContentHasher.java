@@ -0,0 +1,70 @@
+package pl.bdygasinski.filewalker.duplicate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 of the edges of file content, cheap to compare before whole files are hashed.
+ */
+final class ContentHasher {
+
+    static final int EDGE_SIZE = 64 * 1024;
+    private static final String ALGORITHM = "SHA-256";
+
+    private ContentHasher() {
+    }
+
+    /**
+     * Hashes the first and the last {@value #EDGE_SIZE} bytes, which for files up to twice that size
+     * is the whole content, see {@link #isEdgeHashComplete(long)}.
+     */
+    static String edgeHash(Path path, long size) throws IOException {
+        MessageDigest digest = newDigest();
+        ByteBuffer buffer = ByteBuffer.allocate(EDGE_SIZE);
+
+        try (SeekableByteChannel channel = Files.newByteChannel(path)) {
+            if (isEdgeHashComplete(size)) {
+                readFully(channel, 0, size, buffer, digest);
+            } else {
+                readFully(channel, 0, EDGE_SIZE, buffer, digest);
+                readFully(channel, size - EDGE_SIZE, EDGE_SIZE, buffer, digest);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    static boolean isEdgeHashComplete(long size) {
+        return size <= 2L * EDGE_SIZE;
+    }
+
+    private static void readFully(SeekableByteChannel channel, long position, long length,
+                                  ByteBuffer buffer, MessageDigest digest) throws IOException {
+        channel.position(position);
+        long remaining = length;
+        while (remaining > 0) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), remaining));
+            int read = channel.read(buffer);
+            if (read < 0) {
+                return;
+            }
+            buffer.flip();
+            digest.update(buffer);
+            remaining -= read;
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("%s is required by every Java platform".formatted(ALGORITHM), e);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package pl.bdygasinski.filewalker.duplicate;
+
+import pl.bdygasinski.filewalker.filesystem.ConcurrentFileTreeWalker;
+import pl.bdygasinski.filewalker.filesystem.WalkScope;
+import pl.bdygasinski.filewalker.hash.FileHasher;
+import pl.bdygasinski.filewalker.hash.HashAlgorithm;
+import pl.bdygasinski.filewalker.model.DuplicateGroup;
+import pl.bdygasinski.filewalker.model.FileEntry;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Finds files with the same content in stages, each one reading more of fewer files. Files are grouped by size
+ * from the walk, groups of one are dropped, then the rest is grouped by hash of the first and the last 64 KiB and
+ * only files still sharing it are hashed whole with {@link FileHasher}. Hashing of every stage runs on a pool of platform threads.
+ * Files which can't be read are left out.
+ */
+public final class DuplicateFinder {
+
+    private final ConcurrentFileTreeWalker walker;
+    private final int hashingThreads;
+    private final WalkScope scope;
+
+    public DuplicateFinder(ConcurrentFileTreeWalker walker, int hashingThreads) {
+        this(walker, hashingThreads, WalkScope.wholeTree());
+    }
+
+    /**
+     * @param scope decides which directories are walked and which files are compared
+     */
+    public DuplicateFinder(ConcurrentFileTreeWalker walker, int hashingThreads, WalkScope scope) {
+        if (hashingThreads < 1) {
+            throw new IllegalArgumentException("Hashing threads must be positive but got %s".formatted(hashingThreads));
+        }
+
+        this.walker = requireNonNull(walker, "Walker is required but got %s".formatted(walker));
+        this.hashingThreads = hashingThreads;
+        this.scope = requireNonNull(scope, "Scope is required but got %s".formatted(scope));
+    }
+
+    /**
+     * @return groups of files with the same content, the ones wasting the most space first
+     */
+    public List<DuplicateGroup> fromPath(Path root) {
+        requireNonNull(root, "Root is required but got %s".formatted(root));
+        var visitor = new SizeGroupingVisitor(scope);
+        try {
+            walker.walk(root, visitor);
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        var threadFactory = Thread.ofPlatform().name("duplicate-hasher-", 0).daemon().factory();
+        try (ExecutorService pool = Executors.newFixedThreadPool(hashingThreads, threadFactory)) {
+            List<DuplicateGroup> duplicates = new ArrayList<>();
+            List<List<FileEntry>> remaining = new ArrayList<>();
+
+            for (DuplicateGroup group : regroup(visitor.candidateGroups(), ContentHasher::edgeHash, pool)) {
+                if (ContentHasher.isEdgeHashComplete(group.sizeInBytes())) {
+                    duplicates.add(group);
+                } else {
+                    remaining.add(group.files());
+                }
+            }
+
+            var fullHasher = new FileHasher(HashAlgorithm.SHA256, hashingThreads);
+            duplicates.addAll(regroup(remaining, (path, size) -> fullHasher.hash(path), pool));
+            duplicates.sort(Comparator.comparingLong(DuplicateGroup::wastedBytes).reversed());
+            return duplicates;
+        }
+    }
+
+    private static List<DuplicateGroup> regroup(List<List<FileEntry>> groups, Hash hash, ExecutorService pool) {
+        List<List<Future<String>>> digests = new ArrayList<>(groups.size());
+        for (List<FileEntry> group : groups) {
+            List<Future<String>> groupDigests = new ArrayList<>(group.size());
+            for (FileEntry file : group) {
+                groupDigests.add(pool.submit(() -> hash.of(file.path(), sizeOf(file))));
+            }
+            digests.add(groupDigests);
+        }
+
+        List<DuplicateGroup> regrouped = new ArrayList<>();
+        for (int i = 0; i < groups.size(); i++) {
+            List<FileEntry> group = groups.get(i);
+            Map<String, List<FileEntry>> byDigest = new LinkedHashMap<>();
+            for (int j = 0; j < group.size(); j++) {
+                String digest = await(digests.get(i).get(j));
+                if (digest != null) {
+                    byDigest.computeIfAbsent(digest, any -> new ArrayList<>(2)).add(group.get(j));
+                }
+            }
+
+            long size = sizeOf(group.getFirst());
+            byDigest.forEach((digest, files) -> {
+                if (files.size() > 1) {
+                    regrouped.add(new DuplicateGroup(size, digest, files));
+                }
+            });
+        }
+        return regrouped;
+    }
+
+    private static long sizeOf(FileEntry file) {
+        return file.sizeInBytes().orElseThrow();
+    }
+
+    /**
+     * @return digest or null when file could not be read
+     */
+    private static String await(Future<String> digest) {
+        try {
+            return digest.get();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Interrupted while hashing files"));
+
+        } catch (ExecutionException e) {
+            switch (e.getCause()) {
+                case IOException cause -> {
+                    return null;
+                }
+                case RuntimeException cause -> throw cause;
+                case Error cause -> throw cause;
+                default -> throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Hash {
+        String of(Path path, long size) throws IOException;
+    }
+}
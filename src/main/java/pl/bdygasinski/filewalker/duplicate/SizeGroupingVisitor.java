@@ -0,0 +1,92 @@
+package pl.bdygasinski.filewalker.duplicate;
+
+import pl.bdygasinski.filewalker.filesystem.ForkableFileVisitor;
+import pl.bdygasinski.filewalker.filesystem.WalkScope;
+import pl.bdygasinski.filewalker.model.FileEntry;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups regular, non-empty files of the whole tree by size taken from attributes supplied by the walker.
+ * Files outside of the {@link WalkScope} are left out. Within a group files are kept once per file key, so hard
+ * links to the same file are not hashed and reported as duplicates of each other, files of file systems without
+ * file keys are kept once per path. Forked visitor collects its own groups, which are merged into the origin's
+ * groups on join.
+ */
+class SizeGroupingVisitor implements ForkableFileVisitor<SizeGroupingVisitor> {
+
+    private final Map<Long, Map<Object, FileEntry>> bySize = new HashMap<>();
+    private final WalkScope scope;
+    private int currDepth;
+
+    SizeGroupingVisitor(WalkScope scope) {
+        this.scope = scope;
+        this.currDepth = 0;
+    }
+
+    private SizeGroupingVisitor(SizeGroupingVisitor origin) {
+        this.scope = origin.scope;
+        this.currDepth = origin.currDepth;
+    }
+
+    /**
+     * @return groups of at least two files of the same size
+     */
+    List<List<FileEntry>> candidateGroups() {
+        return bySize.values().stream()
+                .filter(group -> group.size() > 1)
+                .map(group -> List.copyOf(group.values()))
+                .toList();
+    }
+
+    @Override
+    public SizeGroupingVisitor fork() {
+        return new SizeGroupingVisitor(this);
+    }
+
+    @Override
+    public void join(SizeGroupingVisitor forked) {
+        forked.bySize.forEach((size, files) -> {
+            Map<Object, FileEntry> group = bySize.computeIfAbsent(size, any -> new LinkedHashMap<>(4));
+            files.forEach(group::putIfAbsent);
+        });
+    }
+
+    @Override
+    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+        if (!scope.entersDirectory(dir, attrs, currDepth)) {
+            return FileVisitResult.SKIP_SUBTREE;
+        }
+
+        currDepth++;
+        return FileVisitResult.CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+        if (attrs != null && attrs.isRegularFile() && attrs.size() > 0 && scope.includes(file, attrs, currDepth)) {
+            var entry = (FileEntry) FileEntry.fromAttributesAndDepthLevel(file, attrs, currDepth);
+            Object key = attrs.fileKey() != null ? attrs.fileKey() : file;
+            bySize.computeIfAbsent(attrs.size(), any -> new LinkedHashMap<>(4)).putIfAbsent(key, entry);
+        }
+        return FileVisitResult.CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult visitFileFailed(Path file, IOException exc) {
+        return FileVisitResult.CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+        currDepth--;
+        return FileVisitResult.CONTINUE;
+    }
+}
@@ -0,0 +1,46 @@
+package pl.bdygasinski.filewalker.filesystem;
+
+import pl.bdygasinski.filewalker.cache.CachingFileTreeWalker;
+import pl.bdygasinski.filewalker.cache.DirectoryCache;
+import pl.bdygasinski.filewalker.model.Entry;
+import pl.bdygasinski.filewalker.model.ErrorEntry;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Provider for repeated walks within one process, directories unchanged since the previous walk are not listed
+ * again but read from the cache shared between walks.
+ */
+class CachingEntriesProvider implements EntriesProvider {
+
+    private final EntryFileVisitor entryFileVisitor;
+    private final CachingFileTreeWalker walker;
+
+    CachingEntriesProvider(EntryFileVisitor entryFileVisitor, DirectoryCache cache) {
+        this.entryFileVisitor = requireNonNull(entryFileVisitor, "Visitor is required but got %s".formatted(entryFileVisitor));
+        this.walker = new CachingFileTreeWalker(cache);
+    }
+
+    @Override
+    public List<Entry> getEntriesFromPath(Path path) {
+        List<Entry> entries = new ArrayList<>();
+        forEachEntryFromPath(path, entries::add);
+        return List.copyOf(entries);
+    }
+
+    @Override
+    public void forEachEntryFromPath(Path path, Consumer<? super Entry> action) {
+        try {
+            walker.walk(path, entryFileVisitor.streamingTo(action));
+
+        } catch (IOException e) {
+            action.accept(new ErrorEntry(entryFileVisitor.getMaxDepth(), path));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package pl.bdygasinski.filewalker.filesystem;
+
+import pl.bdygasinski.filewalker.model.Entry;
+import pl.bdygasinski.filewalker.model.ErrorEntry;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+class ConcurrentEntriesProvider implements EntriesProvider {
+
+    private final EntryFileVisitor entryFileVisitor;
+    private final ConcurrentFileTreeWalker walker;
+
+    ConcurrentEntriesProvider(EntryFileVisitor entryFileVisitor, ConcurrentFileTreeWalker walker) {
+        this.entryFileVisitor = requireNonNull(entryFileVisitor, "Visitor is required but got %s".formatted(entryFileVisitor));
+        this.walker = requireNonNull(walker, "Walker is required but got %s".formatted(walker));
+    }
+
+    @Override
+    public List<Entry> getEntriesFromPath(Path path) {
+        try {
+            walker.walk(path, entryFileVisitor);
+            return entryFileVisitor.getEntries();
+
+        } catch (IOException e) {
+            return List.of(new ErrorEntry(entryFileVisitor.getMaxDepth(), path));
+        }
+    }
+
+    @Override
+    public void forEachEntryFromPath(Path path, Consumer<? super Entry> action) {
+        try {
+            walker.walk(path, entryFileVisitor.streamingTo(action));
+
+        } catch (IOException e) {
+            action.accept(new ErrorEntry(entryFileVisitor.getMaxDepth(), path));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package pl.bdygasinski.filewalker.filesystem;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Walks file tree like {@link java.nio.file.Files#walkFileTree(Path, java.nio.file.FileVisitor)} without following
+ * links, visiting separate subtrees concurrently with forked visitors. Within a directory visitor receives callbacks
+ * in listing order, any result other than {@link java.nio.file.FileVisitResult#CONTINUE} from
+ * {@code preVisitDirectory} skips the subtree.
+ */
+public interface ConcurrentFileTreeWalker {
+
+    <V extends ForkableFileVisitor<V>> void walk(Path root, V visitor) throws IOException;
+}
@@ -0,0 +1,30 @@
+package pl.bdygasinski.filewalker.filesystem;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Spans from entering a directory to the end of its listing. Walkers running subdirectories on other visitors
+ * report the end through {@link ForkableFileVisitor#directoryListed(java.nio.file.Path)}, other walkers leave the
+ * directory only after its whole subtree, so {@link #listingTime} leaves out time spent in subdirectories.
+ */
+@Name("pl.bdygasinski.filewalker.DirectoryVisit")
+@Label("Directory Visit")
+@Category("File Walker")
+@Description("Time spent listing a directory and visiting its files")
+class DirectoryVisitEvent extends jdk.jfr.Event {
+
+    @Label("Path")
+    String path;
+
+    @Label("Depth")
+    int depth;
+
+    @Label("Listing Time")
+    @Description("Duration without time spent in subdirectories")
+    @Timespan(Timespan.NANOSECONDS)
+    long listingTime;
+}
@@ -1,9 +1,12 @@
 package pl.bdygasinski.filewalker.filesystem;
 
+import pl.bdygasinski.filewalker.cache.DirectoryCache;
 import pl.bdygasinski.filewalker.model.Entry;
+import pl.bdygasinski.filewalker.model.EntrySource;
 
 import java.nio.file.Path;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static java.util.Objects.requireNonNull;
 
@@ -11,7 +14,34 @@ public interface EntriesProvider {
 
     List<Entry> getEntriesFromPath(Path path);
 
+    default void forEachEntryFromPath(Path path, Consumer<? super Entry> action) {
+        getEntriesFromPath(path).forEach(action);
+    }
+
+    default EntrySource sourceFromPath(Path path) {
+        return action -> forEachEntryFromPath(path, action);
+    }
+
     static EntriesProvider withVisitor(EntryFileVisitor visitor) {
         return new FileSystemEntriesProvider(requireNonNull(visitor));
     }
-}
\ No newline at end of file
+
+    static EntriesProvider parallelWithVisitor(EntryFileVisitor visitor, int parallelism) {
+        return new ConcurrentEntriesProvider(requireNonNull(visitor), new ForkJoinFileTreeWalker(parallelism));
+    }
+
+    /**
+     * Gives provider for repeated walks, sharing directory listings with every other user of the cache.
+     */
+    static EntriesProvider cachingWithVisitor(EntryFileVisitor visitor, DirectoryCache cache) {
+        return new CachingEntriesProvider(requireNonNull(visitor), cache);
+    }
+
+    static EntriesProvider snapshotWithVisitor(EntryFileVisitor visitor, Path snapshotFile) {
+        return new SnapshotEntriesProvider(requireNonNull(visitor), snapshotFile);
+    }
+
+    static EntriesProvider virtualThreadsWithVisitor(EntryFileVisitor visitor, int maxInFlight) {
+        return new ConcurrentEntriesProvider(requireNonNull(visitor), new VirtualThreadFileTreeWalker(maxInFlight));
+    }
+}
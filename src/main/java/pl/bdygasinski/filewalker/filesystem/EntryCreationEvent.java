@@ -0,0 +1,21 @@
+package pl.bdygasinski.filewalker.filesystem;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Emitted for every entry built by the visitor, so it is disabled unless recording settings turn it on.
+ */
+@Name("pl.bdygasinski.filewalker.EntryCreation")
+@Label("Entry Creation")
+@Category("File Walker")
+@Description("Time spent building an entry from attributes")
+@Enabled(false)
+class EntryCreationEvent extends jdk.jfr.Event {
+
+    @Label("Path")
+    String path;
+}
@@ -1,93 +1,390 @@
 package pl.bdygasinski.filewalker.filesystem;
 
+import jdk.jfr.EventType;
 import pl.bdygasinski.filewalker.model.Entry;
+import pl.bdygasinski.filewalker.model.EntryTable;
 import pl.bdygasinski.filewalker.model.ErrorEntry;
 
 import java.io.IOException;
 import java.nio.file.FileVisitResult;
-import java.nio.file.FileVisitor;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 import static java.util.Objects.requireNonNull;
 
-public class EntryFileVisitor implements FileVisitor<Path> {
-    private final List<Entry> entries;
+/**
+ * Collects visited entries into a table, or streams them to a sink. Visitors forked for a parallel walk don't
+ * collect anything, they hand their entries over to the sink of the visitor they were forked from through an
+ * {@link EntryHandoff}, which passes them on in listing order as soon as every earlier segment is joined.
+ */
+public class EntryFileVisitor implements ForkableFileVisitor<EntryFileVisitor> {
+    private static final EventType ENTRY_CREATION = EventType.getEventType(EntryCreationEvent.class);
+    private static final EventType FILTER_REJECTION = EventType.getEventType(FilterRejectionEvent.class);
+    private static final EventType VISIT_FAILURE = EventType.getEventType(VisitFailureEvent.class);
+    private static final EventType DIRECTORY_VISIT = EventType.getEventType(DirectoryVisitEvent.class);
+
+    private final EntryTable entries;
+    private final Consumer<? super Entry> sink;
+    private EntryHandoff.Segment segment;
     private final int maxDepth;
     private final Predicate<Entry> filter;
+    private final Predicate<Entry> directoryFilter;
+    private final Predicate<BasicFileAttributes> attributesFilter;
+    private final WalkStats stats;
     private int currDepth;
+    private int openDirectories;
     private boolean isRooVisited = false;
+    private DirectoryVisitEvent[] openDirectoryEvents;
+    private long[] openDirectoryStarts;
+    private long[] subdirectoryNanos;
 
     public EntryFileVisitor(int maxDepth, Predicate<Entry> filter) {
         this(maxDepth, filter, new ArrayList<>());
     }
 
     public EntryFileVisitor(int maxDepth, Predicate<Entry> filter, List<Entry> startList) {
+        this(maxDepth, filter, entry -> true, attrs -> true, startList);
+    }
+
+    /**
+     * @param directoryFilter checked for every directory below the root before it is entered,
+     *                        directories it rejects are skipped together with their whole subtree
+     */
+    public EntryFileVisitor(int maxDepth, Predicate<Entry> filter, Predicate<Entry> directoryFilter) {
+        this(maxDepth, filter, directoryFilter, attrs -> true, new ArrayList<>());
+    }
+
+    /**
+     * @param attributesFilter checked for every file against attributes supplied by the walker, before entry
+     *                         is created and before {@code filter}, so rejected files cost no allocation
+     */
+    public EntryFileVisitor(int maxDepth, Predicate<Entry> filter, Predicate<Entry> directoryFilter,
+                            Predicate<BasicFileAttributes> attributesFilter) {
+        this(maxDepth, filter, directoryFilter, attributesFilter, new ArrayList<>());
+    }
+
+    private EntryFileVisitor(int maxDepth, Predicate<Entry> filter, Predicate<Entry> directoryFilter,
+                             Predicate<BasicFileAttributes> attributesFilter, List<Entry> startList) {
         if (maxDepth < 0) {
             throw new IllegalArgumentException("Max depth must be positive but got %s".formatted(maxDepth));
         }
 
         this.filter = requireNonNull(filter, "Filter is required but bot %s".formatted(filter));
+        this.directoryFilter = requireNonNull(directoryFilter, "Directory filter is required but got %s".formatted(directoryFilter));
+        this.attributesFilter = requireNonNull(attributesFilter, "Attributes filter is required but got %s".formatted(attributesFilter));
         this.maxDepth = maxDepth;
-        this.entries = new ArrayList<>(startList);
+        this.entries = new EntryTable();
+        startList.forEach(entries::add);
+        this.sink = entries::add;
+        this.stats = null;
         this.currDepth = 0;
     }
 
+    private EntryFileVisitor(EntryFileVisitor origin, Consumer<? super Entry> sink, WalkStats stats) {
+        this.filter = origin.filter;
+        this.directoryFilter = origin.directoryFilter;
+        this.attributesFilter = origin.attributesFilter;
+        this.maxDepth = origin.maxDepth;
+        this.entries = sink == null ? new EntryTable() : null;
+        this.sink = sink == null ? entries::add : sink;
+        this.stats = stats;
+    }
+
+    private EntryFileVisitor(EntryFileVisitor origin, EntryHandoff.Segment segment) {
+        this.filter = origin.filter;
+        this.directoryFilter = origin.directoryFilter;
+        this.attributesFilter = origin.attributesFilter;
+        this.maxDepth = origin.maxDepth;
+        this.entries = null;
+        this.sink = null;
+        this.segment = segment;
+        this.stats = origin.stats;
+        this.currDepth = origin.currDepth;
+        this.openDirectories = origin.openDirectories;
+        this.isRooVisited = origin.isRooVisited;
+    }
+
+    /**
+     * Gives fresh visitor with the same depth limit and filter, which passes entries to the sink as soon as they
+     * are visited instead of collecting them, so {@link #getEntries()} of the new visitor stays empty.
+     */
+    public EntryFileVisitor streamingTo(Consumer<? super Entry> sink) {
+        return new EntryFileVisitor(this, requireNonNull(sink, "Sink is required but got %s".formatted(sink)), stats);
+    }
+
+    /**
+     * Gives fresh visitor with the same depth limit and filters, which counts its callbacks and callbacks of every
+     * visitor forked or streamed from it in the given stats.
+     */
+    public EntryFileVisitor recordingTo(WalkStats stats) {
+        return new EntryFileVisitor(this, null, requireNonNull(stats, "Stats are required but got %s".formatted(stats)));
+    }
+
+    /**
+     * @return copy of entries collected so far, empty for streaming and forked visitors
+     */
     public List<Entry> getEntries() {
-        return List.copyOf(entries);
+        return entries == null ? List.of() : List.copyOf(entries.asList());
+    }
+
+    /**
+     * Forked visitor writes to a segment placed right after everything this visitor wrote so far, entries this
+     * visitor gets later go after the forked ones.
+     */
+    @Override
+    public EntryFileVisitor fork() {
+        if (segment == null) {
+            segment = EntryHandoff.start(sink);
+        }
+
+        EntryHandoff.Segment forked = segment.append();
+        EntryHandoff.Segment previous = segment;
+        segment = forked.append();
+        previous.finish();
+        return new EntryFileVisitor(this, forked);
+    }
+
+    /**
+     * Forked visitor is done, so entries after it may pass on as soon as it passed its own.
+     */
+    @Override
+    public void join(EntryFileVisitor forked) {
+        forked.segment.finish();
+    }
+
+    @Override
+    public void directoryListed(Path dirPath) {
+        finishDirectoryEvent();
     }
 
     @Override
     public FileVisitResult preVisitDirectory(Path dirPath, BasicFileAttributes attrs) {
         if (currDepth > maxDepth) {
+            if (stats != null) {
+                stats.directorySkipped();
+                topLevelEntryDone();
+            }
             return FileVisitResult.SKIP_SUBTREE;
         }
 
-        if (!isRooVisited && maxDepth == 0 && currDepth == maxDepth) {
-            isRooVisited = true;
+        boolean isRoot = !isRooVisited;
+        isRooVisited = true;
+        if (isRoot && maxDepth == 0) {
+            directoryEntered(dirPath);
             return FileVisitResult.CONTINUE;
         }
 
-        Entry entry = Entry.fromPathAndGraphDepth(dirPath, currDepth);
+        Entry entry = createEntry(dirPath, attrs);
+        if (!isRoot && !directoryFilter.test(entry)) {
+            if (stats != null) {
+                stats.directoryExcluded();
+                topLevelEntryDone();
+            }
+            rejected(dirPath, FilterRejectionEvent.EXCLUDED_DIRECTORY);
+            return FileVisitResult.SKIP_SUBTREE;
+        }
+
         if (entry.isVisible()) {
-            entries.add(entry);
+            pass(entry);
         }
 
         incrementCurrDepth();
+        directoryEntered(dirPath);
         return FileVisitResult.CONTINUE;
     }
 
     @Override
     public FileVisitResult postVisitDirectory(Path dirPath, IOException exc) {
+        finishDirectoryEvent();
         decrementCurrDepth();
+        openDirectories--;
+        if (stats != null) {
+            topLevelEntryDone();
+        }
         return FileVisitResult.CONTINUE;
     }
 
     @Override
     public FileVisitResult visitFile(Path filePath, BasicFileAttributes attrs) {
-        if (currDepth <= maxDepth) {
-            Entry entry = Entry.fromPathAndGraphDepth(filePath, currDepth);
-            if (filter.test(entry) && entry.isVisible()) {
-                entries.add(entry);
+        if (stats != null) {
+            stats.fileVisited();
+            topLevelEntryDone();
+            if (attrs != null) {
+                stats.bytesSeen(attrs.size());
+            }
+        }
+
+        if (currDepth > maxDepth) {
+            return FileVisitResult.CONTINUE;
+        }
+
+        if (attrs != null && !attributesFilter.test(attrs)) {
+            fileRejected(filePath, FilterRejectionEvent.ATTRIBUTES);
+            return FileVisitResult.CONTINUE;
+        }
 
+        Entry entry = createEntry(filePath, attrs);
+        if (!filter.test(entry)) {
+            fileRejected(filePath, FilterRejectionEvent.FILTER);
+        } else if (entry.isVisible()) {
+            if (stats != null) {
+                stats.fileMatched();
             }
+            pass(entry);
         }
         return FileVisitResult.CONTINUE;
     }
 
     @Override
     public FileVisitResult visitFileFailed(Path filePath, IOException exc) {
-        entries.add(new ErrorEntry(currDepth, filePath));
+        if (stats != null) {
+            stats.visitFailed();
+            topLevelEntryDone();
+        }
+
+        if (VISIT_FAILURE.isEnabled()) {
+            var event = new VisitFailureEvent();
+            if (event.shouldCommit()) {
+                event.path = filePath.toString();
+                event.exception = String.valueOf(exc);
+                event.commit();
+            }
+        }
+
+        pass(new ErrorEntry(currDepth, filePath));
         return FileVisitResult.CONTINUE;
     }
 
+    /**
+     * Visitor which never forked passes entries straight to its sink, without the handoff.
+     */
+    private void pass(Entry entry) {
+        if (segment == null) {
+            sink.accept(entry);
+        } else {
+            segment.accept(entry);
+        }
+    }
+
+    /**
+     * Events are created only while a recording enables them, so walks without recording allocate none.
+     */
+    private Entry createEntry(Path path, BasicFileAttributes attrs) {
+        if (!ENTRY_CREATION.isEnabled()) {
+            return Entry.fromAttributesAndGraphDepth(path, attrs, currDepth);
+        }
+
+        var event = new EntryCreationEvent();
+        event.begin();
+        Entry entry = Entry.fromAttributesAndGraphDepth(path, attrs, currDepth);
+        if (event.shouldCommit()) {
+            event.path = path.toString();
+            event.commit();
+        }
+        return entry;
+    }
+
+    /**
+     * Counts entry finished with its subtree, when it is a direct child of the root.
+     */
+    private void topLevelEntryDone() {
+        if (openDirectories == 1) {
+            stats.topLevelEntryDone();
+        }
+    }
+
+    private void fileRejected(Path path, String reason) {
+        if (stats != null) {
+            stats.fileRejected();
+        }
+        rejected(path, reason);
+    }
+
+    private static void rejected(Path path, String reason) {
+        if (!FILTER_REJECTION.isEnabled()) {
+            return;
+        }
+
+        var event = new FilterRejectionEvent();
+        if (event.shouldCommit()) {
+            event.path = path.toString();
+            event.reason = reason;
+            event.commit();
+        }
+    }
+
+    /**
+     * Open events are kept by the depth reached after entering directory, which is the depth
+     * {@link #postVisitDirectory(Path, IOException)} sees before leaving it. Time of every finished directory is
+     * added to its parent, so the parent can leave it out of its own listing time.
+     */
+    private void directoryEntered(Path dirPath) {
+        openDirectories++;
+        if (stats != null) {
+            stats.directoryEntered(currDepth);
+        }
+
+        if (!DIRECTORY_VISIT.isEnabled()) {
+            return;
+        }
+
+        var event = new DirectoryVisitEvent();
+        event.path = dirPath.toString();
+        event.depth = currDepth;
+        event.begin();
+        if (openDirectoryEvents == null) {
+            openDirectoryEvents = new DirectoryVisitEvent[currDepth + 8];
+            openDirectoryStarts = new long[currDepth + 8];
+            subdirectoryNanos = new long[currDepth + 8];
+        } else if (currDepth >= openDirectoryEvents.length) {
+            openDirectoryEvents = Arrays.copyOf(openDirectoryEvents, currDepth * 2);
+            openDirectoryStarts = Arrays.copyOf(openDirectoryStarts, currDepth * 2);
+            subdirectoryNanos = Arrays.copyOf(subdirectoryNanos, currDepth * 2);
+        }
+        openDirectoryEvents[currDepth] = event;
+        openDirectoryStarts[currDepth] = System.nanoTime();
+        subdirectoryNanos[currDepth] = 0;
+    }
+
+    private void finishDirectoryEvent() {
+        if (openDirectoryEvents == null || currDepth < 0 || currDepth >= openDirectoryEvents.length) {
+            return;
+        }
+
+        DirectoryVisitEvent event = openDirectoryEvents[currDepth];
+        openDirectoryEvents[currDepth] = null;
+        if (event == null) {
+            return;
+        }
+
+        long elapsed = System.nanoTime() - openDirectoryStarts[currDepth];
+        if (currDepth > 0) {
+            subdirectoryNanos[currDepth - 1] += elapsed;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.listingTime = elapsed - subdirectoryNanos[currDepth];
+            event.commit();
+        }
+    }
+
     public int getMaxDepth() {
         return maxDepth;
     }
 
+    /**
+     * @return true when the visitor is below its max depth, where it ignores files and skips directories,
+     * so a replay of the tree may leave out the rest of the current directory
+     */
+    public boolean isPastMaxDepth() {
+        return currDepth > maxDepth;
+    }
+
     protected int getCurrDepth() {
         return currDepth;
     }
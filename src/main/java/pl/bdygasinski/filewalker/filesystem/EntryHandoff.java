@@ -0,0 +1,106 @@
+package pl.bdygasinski.filewalker.filesystem;
+
+import pl.bdygasinski.filewalker.model.Entry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Passes entries of a visitor and of every visitor forked from it to a single sink in listing order, while forked
+ * visitors walk their subtrees on other threads. Each visitor writes to its own segment of a chain kept in listing
+ * order. Entries of the first segment which is not finished go straight to the sink, entries of later segments are
+ * buffered in plain lists until every segment before them is finished, so a parallel walk streams like a sequential
+ * one and holds only entries waiting for an earlier subtree.
+ * <p>
+ * Sink is called by one thread at a time, under the lock of the segment passing entries to it.
+ */
+final class EntryHandoff {
+
+    private final Consumer<? super Entry> sink;
+    private Segment cursor;
+
+    /**
+     * @return segment at the head of a new chain, its entries go straight to the sink
+     */
+    static Segment start(Consumer<? super Entry> sink) {
+        return new EntryHandoff(sink).cursor;
+    }
+
+    private EntryHandoff(Consumer<? super Entry> sink) {
+        this.sink = sink;
+        this.cursor = new Segment();
+        this.cursor.live = true;
+    }
+
+    /**
+     * Moves the cursor past finished segments, passing on what they buffered, and lets the first segment which is
+     * not finished pass its entries straight on.
+     */
+    private synchronized void advance() {
+        while (true) {
+            Segment segment = cursor;
+            synchronized (segment) {
+                if (!segment.live) {
+                    segment.passBuffered();
+                }
+                if (!segment.finished || segment.next == null) {
+                    return;
+                }
+                cursor = segment.next;
+            }
+        }
+    }
+
+    final class Segment {
+        private List<Entry> buffered;
+        private boolean live;
+        private boolean finished;
+        private Segment next;
+
+        synchronized void accept(Entry entry) {
+            if (live) {
+                sink.accept(entry);
+                return;
+            }
+
+            if (buffered == null) {
+                buffered = new ArrayList<>();
+            }
+            buffered.add(entry);
+        }
+
+        /**
+         * @return new segment placed right after this one, before any segment which followed it so far
+         */
+        synchronized Segment append() {
+            var appended = new Segment();
+            appended.next = next;
+            next = appended;
+            return appended;
+        }
+
+        /**
+         * Marks that no more entries come to this segment.
+         */
+        void finish() {
+            boolean wasLive;
+            synchronized (this) {
+                finished = true;
+                wasLive = live;
+            }
+
+            if (wasLive) {
+                advance();
+            }
+        }
+
+        private void passBuffered() {
+            live = true;
+            if (buffered != null) {
+                buffered.forEach(sink);
+                buffered = null;
+            }
+        }
+    }
+}
@@ -7,6 +7,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static java.util.Objects.requireNonNull;
 
@@ -20,12 +21,43 @@ class FileSystemEntriesProvider implements EntriesProvider {
 
     @Override
     public List<Entry> getEntriesFromPath(Path path) {
+        var event = new WalkEvent();
+        event.begin();
         try {
             Files.walkFileTree(path, entryFileVisitor);
             return entryFileVisitor.getEntries();
 
         } catch (IOException e) {
+            event.failed = true;
             return List.of(new ErrorEntry(entryFileVisitor.getMaxDepth(), path));
+
+        } finally {
+            commit(event, path);
+        }
+    }
+
+    @Override
+    public void forEachEntryFromPath(Path path, Consumer<? super Entry> action) {
+        var event = new WalkEvent();
+        event.begin();
+        try {
+            Files.walkFileTree(path, entryFileVisitor.streamingTo(action));
+
+        } catch (IOException e) {
+            event.failed = true;
+            action.accept(new ErrorEntry(entryFileVisitor.getMaxDepth(), path));
+
+        } finally {
+            commit(event, path);
+        }
+    }
+
+    private void commit(WalkEvent event, Path path) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.root = path.toString();
+            event.maxDepth = entryFileVisitor.getMaxDepth();
+            event.commit();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+package pl.bdygasinski.filewalker.filesystem;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted for every file or directory rejected by one of the visitor filters, disabled unless recording settings
+ * turn it on. Counts per reason are the number of events, like {@code jfr summary} shows them.
+ */
+@Name("pl.bdygasinski.filewalker.FilterRejection")
+@Label("Filter Rejection")
+@Category("File Walker")
+@Description("Entry rejected by a filter")
+@Enabled(false)
+@StackTrace(false)
+class FilterRejectionEvent extends jdk.jfr.Event {
+
+    static final String ATTRIBUTES = "attributes";
+    static final String FILTER = "filter";
+    static final String EXCLUDED_DIRECTORY = "excluded directory";
+
+    @Label("Path")
+    String path;
+
+    @Label("Reason")
+    String reason;
+}
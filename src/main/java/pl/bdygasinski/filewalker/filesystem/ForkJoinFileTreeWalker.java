@@ -0,0 +1,168 @@
+package pl.bdygasinski.filewalker.filesystem;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Walker running every subdirectory as a separate fork/join task, so idle threads steal
+ * subtrees from busy ones. Segments are joined in listing order, each as soon as its subtree is done,
+ * so visitors streaming their results can pass them on while later subtrees are still walked.
+ */
+public class ForkJoinFileTreeWalker implements ConcurrentFileTreeWalker {
+
+    private final int parallelism;
+
+    public ForkJoinFileTreeWalker(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive but got %s".formatted(parallelism));
+        }
+
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public <V extends ForkableFileVisitor<V>> void walk(Path root, V visitor) throws IOException {
+        try (ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+            pool.invoke(new RootTask<>(root, visitor));
+
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    @SuppressWarnings("serial")
+    private static final class RootTask<V extends ForkableFileVisitor<V>> extends RecursiveAction {
+        private final Path root;
+        private final V visitor;
+
+        private RootTask(Path root, V visitor) {
+            this.root = root;
+            this.visitor = visitor;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                BasicFileAttributes attrs = readAttributes(root);
+                if (attrs == null) {
+                    return;
+                }
+
+                if (attrs.isDirectory()) {
+                    new DirectoryTask<>(root, attrs, visitor).compute();
+                } else {
+                    visitor.visitFile(root, attrs);
+                }
+
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private BasicFileAttributes readAttributes(Path path) throws IOException {
+            try {
+                return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+
+            } catch (IOException e) {
+                visitor.visitFileFailed(path, e);
+                return null;
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class DirectoryTask<V extends ForkableFileVisitor<V>> extends RecursiveAction {
+        private final Path dir;
+        private final BasicFileAttributes attrs;
+        private final V visitor;
+
+        private DirectoryTask(Path dir, BasicFileAttributes attrs, V visitor) {
+            this.dir = dir;
+            this.attrs = attrs;
+            this.visitor = visitor;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                visitDirectory();
+
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void visitDirectory() throws IOException {
+            DirectoryStream<Path> stream;
+            try {
+                stream = Files.newDirectoryStream(dir);
+
+            } catch (IOException e) {
+                visitor.visitFileFailed(dir, e);
+                return;
+            }
+
+            List<DirectoryTask<V>> subtasks = new ArrayList<>();
+            List<V> segments = new ArrayList<>();
+            IOException iterationException = null;
+
+            try (stream) {
+                if (visitor.preVisitDirectory(dir, attrs) != FileVisitResult.CONTINUE) {
+                    return;
+                }
+
+                V current = visitor;
+                for (Path child : stream) {
+                    BasicFileAttributes childAttrs;
+                    try {
+                        childAttrs = Files.readAttributes(child, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+
+                    } catch (IOException e) {
+                        current.visitFileFailed(child, e);
+                        continue;
+                    }
+
+                    if (childAttrs.isDirectory()) {
+                        V childVisitor = current.fork();
+                        DirectoryTask<V> subtask = new DirectoryTask<>(child, childAttrs, childVisitor);
+                        subtask.fork();
+                        subtasks.add(subtask);
+                        segments.add(childVisitor);
+
+                        current = current.fork();
+                        segments.add(current);
+                    } else {
+                        current.visitFile(child, childAttrs);
+                    }
+                }
+
+            } catch (DirectoryIteratorException e) {
+                iterationException = e.getCause();
+            }
+            visitor.directoryListed(dir);
+
+            for (int i = 0; i < subtasks.size(); i++) {
+                subtasks.get(i).join();
+                visitor.join(segments.get(2 * i));
+                visitor.join(segments.get(2 * i + 1));
+            }
+
+            visitor.postVisitDirectory(dir, iterationException);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package pl.bdygasinski.filewalker.filesystem;
+
+import java.nio.file.FileVisitor;
+import java.nio.file.Path;
+
+/**
+ * Visitor which can be split between threads walking separate subtrees.
+ * Forked visitor starts from the current state of its origin and collects its own results,
+ * which are merged back with {@link #join(ForkableFileVisitor)} in the order the subtrees were listed,
+ * each as soon as it and every visitor forked before it are done.
+ */
+public interface ForkableFileVisitor<V extends ForkableFileVisitor<V>> extends FileVisitor<Path> {
+
+    V fork();
+
+    void join(V forked);
+
+    /**
+     * Called by walkers which run subdirectories on other visitors once the directory is listed and its files are
+     * visited, before they wait for the subdirectories to finish and call
+     * {@link #postVisitDirectory(Object, java.io.IOException)}.
+     */
+    default void directoryListed(Path dirPath) {
+    }
+}
@@ -0,0 +1,30 @@
+package pl.bdygasinski.filewalker.filesystem;
+
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Value files are ranked by, bigger values rank higher.
+ */
+public enum RankingKey {
+    SIZE,
+    MTIME;
+
+    long of(long sizeInBytes, long lastModifiedMillis) {
+        return this == SIZE ? sizeInBytes : lastModifiedMillis;
+    }
+
+    long of(BasicFileAttributes attrs) {
+        return this == SIZE ? attrs.size() : attrs.lastModifiedTime().toMillis();
+    }
+
+    public static Optional<RankingKey> parse(String name) {
+        try {
+            return Optional.of(valueOf(name.trim().toUpperCase(Locale.ROOT)));
+
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return Optional.empty();
+        }
+    }
+}
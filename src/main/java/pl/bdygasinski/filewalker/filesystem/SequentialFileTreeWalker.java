@@ -0,0 +1,17 @@
+package pl.bdygasinski.filewalker.filesystem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Walker visiting the whole tree on the calling thread with {@link Files#walkFileTree(Path, java.nio.file.FileVisitor)},
+ * for modes written against forkable visitors when no parallelism is requested.
+ */
+public class SequentialFileTreeWalker implements ConcurrentFileTreeWalker {
+
+    @Override
+    public <V extends ForkableFileVisitor<V>> void walk(Path root, V visitor) throws IOException {
+        Files.walkFileTree(root, visitor);
+    }
+}
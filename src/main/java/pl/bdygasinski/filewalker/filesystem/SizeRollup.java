@@ -0,0 +1,80 @@
+package pl.bdygasinski.filewalker.filesystem;
+
+import pl.bdygasinski.filewalker.model.DirectoryTotal;
+import pl.bdygasinski.filewalker.model.DirectoryTotalSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Gives du-like totals of directories down to the max depth, computed in a single walk of the whole tree
+ * from attributes supplied by the walker, without creating entries.
+ */
+public final class SizeRollup {
+
+    private final int maxDepth;
+    private final ConcurrentFileTreeWalker walker;
+    private final WalkScope scope;
+
+    private SizeRollup(int maxDepth, ConcurrentFileTreeWalker walker) {
+        this(maxDepth, walker, WalkScope.wholeTree());
+    }
+
+    private SizeRollup(int maxDepth, ConcurrentFileTreeWalker walker, WalkScope scope) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Max depth must be positive but got %s".formatted(maxDepth));
+        }
+
+        this.maxDepth = maxDepth;
+        this.walker = requireNonNull(walker, "Walker is required but got %s".formatted(walker));
+        this.scope = requireNonNull(scope, "Scope is required but got %s".formatted(scope));
+    }
+
+    public static SizeRollup sequential(int maxDepth) {
+        return new SizeRollup(maxDepth, new SequentialFileTreeWalker());
+    }
+
+    public static SizeRollup parallel(int maxDepth, int parallelism) {
+        return new SizeRollup(maxDepth, new ForkJoinFileTreeWalker(parallelism));
+    }
+
+    public static SizeRollup virtualThreads(int maxDepth, int maxInFlight) {
+        return new SizeRollup(maxDepth, new VirtualThreadFileTreeWalker(maxInFlight));
+    }
+
+    /**
+     * Gives rollup walking only the part of the tree in the scope.
+     */
+    public SizeRollup within(WalkScope scope) {
+        return new SizeRollup(maxDepth, walker, scope);
+    }
+
+    public List<DirectoryTotal> totalsFromPath(Path path) {
+        var visitor = new SizeRollupVisitor(maxDepth, null, scope);
+        walk(path, visitor);
+        return visitor.getTotals();
+    }
+
+    public void forEachTotalFromPath(Path path, Consumer<? super DirectoryTotal> action) {
+        walk(path, new SizeRollupVisitor(maxDepth, requireNonNull(action, "Action is required but got %s".formatted(action)), scope));
+    }
+
+    public DirectoryTotalSource sourceFromPath(Path path) {
+        return action -> forEachTotalFromPath(path, action);
+    }
+
+    private void walk(Path path, SizeRollupVisitor visitor) {
+        requireNonNull(path, "Path is required but got %s".formatted(path));
+        try {
+            walker.walk(path, visitor);
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package pl.bdygasinski.filewalker.filesystem;
+
+import pl.bdygasinski.filewalker.model.DirectoryTotal;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Walks the whole tree summing sizes and counts of files into primitive stacks, one frame per open directory,
+ * which are folded into the parent frame when directory is left. Totals are reported only for directories down
+ * to the max depth. Forked visitor starts with a single frame for the directory its origin is in, joining adds it
+ * to the origin's top frame, so subtrees walked on other threads are summed without shared counters.
+ * Directories and files outside of the {@link WalkScope} are not summed, hidden directories are summed into their
+ * parents without being reported themselves.
+ */
+public class SizeRollupVisitor implements ForkableFileVisitor<SizeRollupVisitor> {
+    private static final int INITIAL_STACK_SIZE = 16;
+
+    private final int maxDepth;
+    private final List<DirectoryTotal> totals = new ArrayList<>();
+    private final Consumer<? super DirectoryTotal> sink;
+    private final int baseDepth;
+    private final WalkScope scope;
+    private long[] bytes = new long[INITIAL_STACK_SIZE];
+    private long[] files = new long[INITIAL_STACK_SIZE];
+    private long[] failures = new long[INITIAL_STACK_SIZE];
+    private boolean[] reported = new boolean[INITIAL_STACK_SIZE];
+    private int top;
+
+    public SizeRollupVisitor(int maxDepth) {
+        this(maxDepth, null);
+    }
+
+    public SizeRollupVisitor(int maxDepth, Consumer<? super DirectoryTotal> sink) {
+        this(maxDepth, sink, WalkScope.wholeTree());
+    }
+
+    public SizeRollupVisitor(int maxDepth, Consumer<? super DirectoryTotal> sink, WalkScope scope) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Max depth must be positive but got %s".formatted(maxDepth));
+        }
+
+        this.maxDepth = maxDepth;
+        this.sink = sink == null ? totals::add : sink;
+        this.baseDepth = 0;
+        this.scope = requireNonNull(scope, "Scope is required but got %s".formatted(scope));
+        this.top = -1;
+    }
+
+    private SizeRollupVisitor(SizeRollupVisitor origin) {
+        this.maxDepth = origin.maxDepth;
+        this.sink = totals::add;
+        this.baseDepth = origin.depthOf(origin.top);
+        this.scope = origin.scope;
+        this.top = 0;
+    }
+
+    public List<DirectoryTotal> getTotals() {
+        return List.copyOf(totals);
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    @Override
+    public SizeRollupVisitor fork() {
+        return new SizeRollupVisitor(this);
+    }
+
+    @Override
+    public void join(SizeRollupVisitor forked) {
+        forked.totals.forEach(sink);
+        bytes[top] += forked.bytes[0];
+        files[top] += forked.files[0];
+        failures[top] += forked.failures[0];
+    }
+
+    @Override
+    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+        int depth = depthOf(top + 1);
+        if (!scope.entersDirectory(dir, attrs, depth)) {
+            return FileVisitResult.SKIP_SUBTREE;
+        }
+
+        push(scope.includes(dir, attrs, depth));
+        return FileVisitResult.CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+        if (!scope.includes(file, attrs, depthOf(top + 1))) {
+            return FileVisitResult.CONTINUE;
+        }
+
+        if (top < 0) {
+            sink.accept(new DirectoryTotal(file, 0, attrs.size(), 1, 0));
+            return FileVisitResult.CONTINUE;
+        }
+
+        bytes[top] += attrs.size();
+        files[top]++;
+        return FileVisitResult.CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult visitFileFailed(Path file, IOException exc) {
+        if (top < 0) {
+            sink.accept(new DirectoryTotal(file, 0, 0, 0, 1));
+            return FileVisitResult.CONTINUE;
+        }
+
+        failures[top]++;
+        return FileVisitResult.CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+        if (exc != null) {
+            failures[top]++;
+        }
+
+        int depth = depthOf(top);
+        long dirBytes = bytes[top];
+        long dirFiles = files[top];
+        long dirFailures = failures[top];
+        boolean dirReported = reported[top];
+        top--;
+
+        if (depth <= maxDepth && dirReported) {
+            sink.accept(new DirectoryTotal(dir, depth, dirBytes, dirFiles, dirFailures));
+        }
+
+        if (top >= 0) {
+            bytes[top] += dirBytes;
+            files[top] += dirFiles;
+            failures[top] += dirFailures;
+        }
+        return FileVisitResult.CONTINUE;
+    }
+
+    private int depthOf(int frame) {
+        return baseDepth + frame;
+    }
+
+    private void push(boolean isReported) {
+        top++;
+        if (top == bytes.length) {
+            bytes = Arrays.copyOf(bytes, top * 2);
+            files = Arrays.copyOf(files, top * 2);
+            failures = Arrays.copyOf(failures, top * 2);
+            reported = Arrays.copyOf(reported, top * 2);
+        }
+        bytes[top] = 0;
+        files[top] = 0;
+        failures[top] = 0;
+        reported[top] = isReported;
+    }
+}
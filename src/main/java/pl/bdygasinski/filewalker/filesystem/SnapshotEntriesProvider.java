@@ -0,0 +1,71 @@
+package pl.bdygasinski.filewalker.filesystem;
+
+import pl.bdygasinski.filewalker.cache.CachingFileTreeWalker;
+import pl.bdygasinski.filewalker.cache.TreeSnapshot;
+import pl.bdygasinski.filewalker.model.Entry;
+import pl.bdygasinski.filewalker.model.ErrorEntry;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Provider re-listing only directories changed since the snapshot taken by the previous run, the snapshot file
+ * is replaced with the listings seen in this run. Unreadable snapshot is treated like a missing one.
+ */
+class SnapshotEntriesProvider implements EntriesProvider {
+
+    private final EntryFileVisitor entryFileVisitor;
+    private final Path snapshotFile;
+
+    SnapshotEntriesProvider(EntryFileVisitor entryFileVisitor, Path snapshotFile) {
+        this.entryFileVisitor = requireNonNull(entryFileVisitor, "Visitor is required but got %s".formatted(entryFileVisitor));
+        this.snapshotFile = requireNonNull(snapshotFile, "Snapshot file is required but got %s".formatted(snapshotFile));
+    }
+
+    @Override
+    public List<Entry> getEntriesFromPath(Path path) {
+        try {
+            walk(path, entryFileVisitor);
+            return entryFileVisitor.getEntries();
+
+        } catch (IOException e) {
+            return List.of(new ErrorEntry(entryFileVisitor.getMaxDepth(), path));
+        }
+    }
+
+    @Override
+    public void forEachEntryFromPath(Path path, Consumer<? super Entry> action) {
+        try {
+            walk(path, entryFileVisitor.streamingTo(action));
+
+        } catch (IOException e) {
+            action.accept(new ErrorEntry(entryFileVisitor.getMaxDepth(), path));
+        }
+    }
+
+    private void walk(Path path, EntryFileVisitor visitor) throws IOException {
+        TreeSnapshot snapshot = loadSnapshot();
+        new CachingFileTreeWalker(snapshot).walk(path, visitor);
+
+        try {
+            snapshot.save(snapshotFile);
+
+        } catch (IOException e) {
+            System.err.printf("Can't save snapshot %s: %s%n", snapshotFile, e.getMessage());
+        }
+    }
+
+    private TreeSnapshot loadSnapshot() {
+        try {
+            return TreeSnapshot.load(snapshotFile);
+
+        } catch (IOException e) {
+            System.err.printf("Can't read snapshot %s, scanning whole tree: %s%n", snapshotFile, e.getMessage());
+            return TreeSnapshot.empty();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package pl.bdygasinski.filewalker.filesystem;
+
+import pl.bdygasinski.filewalker.model.RankedFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Gives the highest ranked files of the whole tree below the path. Every walk starts from a fresh copy of the
+ * visitor, with parallel walkers every forked visitor keeps its own heap until it is joined.
+ */
+public final class TopFiles {
+
+    private final TopFilesVisitor visitor;
+    private final ConcurrentFileTreeWalker walker;
+
+    private TopFiles(TopFilesVisitor visitor, ConcurrentFileTreeWalker walker) {
+        this.visitor = requireNonNull(visitor, "Visitor is required but got %s".formatted(visitor));
+        this.walker = walker;
+    }
+
+    public static TopFiles sequential(TopFilesVisitor visitor) {
+        return new TopFiles(visitor, new SequentialFileTreeWalker());
+    }
+
+    public static TopFiles parallel(TopFilesVisitor visitor, int parallelism) {
+        return new TopFiles(visitor, new ForkJoinFileTreeWalker(parallelism));
+    }
+
+    public static TopFiles virtualThreads(TopFilesVisitor visitor, int maxInFlight) {
+        return new TopFiles(visitor, new VirtualThreadFileTreeWalker(maxInFlight));
+    }
+
+    public List<RankedFile> fromPath(Path path) {
+        requireNonNull(path, "Path is required but got %s".formatted(path));
+        var walkVisitor = visitor.fresh();
+        try {
+            walker.walk(path, walkVisitor);
+            return walkVisitor.getRanking();
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
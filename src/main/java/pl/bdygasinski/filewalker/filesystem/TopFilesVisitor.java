@@ -0,0 +1,281 @@
+package pl.bdygasinski.filewalker.filesystem;
+
+import pl.bdygasinski.filewalker.model.RankedFile;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Keeps the highest ranked files of the whole tree in a min-heap bounded by the limit, held in primitive arrays
+ * growing up to the limit, so memory does not depend on size of the tree. File ranking lower than the current
+ * minimum of a full heap is dropped after a single comparison.
+ * <p>
+ * Walkers fork a visitor for every directory segment, so forked visitor takes a heap only when the first file gets
+ * into it, from heaps released by joined visitors of the same walk when there is one. Joining offers the forked
+ * heap to the origin's heap and releases it, so the walk holds heaps only for visitors not joined yet. Forked
+ * visitor also starts from the minimum of the origin's full heap, as files ranking lower can't get into the result.
+ */
+public class TopFilesVisitor implements ForkableFileVisitor<TopFilesVisitor> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int limit;
+    private final RankingKey key;
+    private final Predicate<String> nameFilter;
+    private final Predicate<BasicFileAttributes> attributesFilter;
+    private final WalkScope scope;
+    private final Queue<Heap> releasedHeaps;
+    private final long floor;
+    private Heap heap;
+    private int currDepth;
+
+    public TopFilesVisitor(int limit, RankingKey key) {
+        this(limit, key, baseName -> true, attrs -> true);
+    }
+
+    /**
+     * @param nameFilter checked against base names of files which would get into the heap
+     */
+    public TopFilesVisitor(int limit, RankingKey key, Predicate<String> nameFilter,
+                           Predicate<BasicFileAttributes> attributesFilter) {
+        this(limit, key, nameFilter, attributesFilter, WalkScope.wholeTree());
+    }
+
+    /**
+     * @param scope decides which directories are walked and which files are ranked
+     */
+    public TopFilesVisitor(int limit, RankingKey key, Predicate<String> nameFilter,
+                           Predicate<BasicFileAttributes> attributesFilter, WalkScope scope) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive but got %s".formatted(limit));
+        }
+
+        this.limit = limit;
+        this.key = requireNonNull(key, "Key is required but got %s".formatted(key));
+        this.nameFilter = requireNonNull(nameFilter, "Name filter is required but got %s".formatted(nameFilter));
+        this.attributesFilter = requireNonNull(attributesFilter, "Attributes filter is required but got %s".formatted(attributesFilter));
+        this.scope = requireNonNull(scope, "Scope is required but got %s".formatted(scope));
+        this.releasedHeaps = new ConcurrentLinkedQueue<>();
+        this.floor = Long.MIN_VALUE;
+    }
+
+    private TopFilesVisitor(TopFilesVisitor origin) {
+        this.limit = origin.limit;
+        this.key = origin.key;
+        this.nameFilter = origin.nameFilter;
+        this.attributesFilter = origin.attributesFilter;
+        this.scope = origin.scope;
+        this.releasedHeaps = origin.releasedHeaps;
+        this.floor = origin.heap != null && origin.heap.isFull() ? Math.max(origin.floor, origin.heap.min()) : origin.floor;
+        this.currDepth = origin.currDepth;
+    }
+
+    /**
+     * Gives fresh visitor with the same limit, key and filters and an empty heap.
+     */
+    public TopFilesVisitor fresh() {
+        return new TopFilesVisitor(limit, key, nameFilter, attributesFilter, scope);
+    }
+
+    /**
+     * @return files held in the heap, highest ranked first
+     */
+    public List<RankedFile> getRanking() {
+        if (heap == null) {
+            return List.of();
+        }
+
+        var ranking = new ArrayList<RankedFile>(heap.size);
+        for (int i = 0; i < heap.size; i++) {
+            ranking.add(new RankedFile(heap.paths[i], heap.sizes[i], heap.mtimes[i]));
+        }
+        ranking.sort(Comparator.comparingLong((RankedFile file) -> key.of(file.sizeInBytes(), file.lastModifiedMillis())).reversed());
+        return ranking;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public TopFilesVisitor fork() {
+        return new TopFilesVisitor(this);
+    }
+
+    @Override
+    public void join(TopFilesVisitor forked) {
+        Heap forkedHeap = forked.heap;
+        if (forkedHeap == null) {
+            return;
+        }
+
+        for (int i = 0; i < forkedHeap.size; i++) {
+            offer(forkedHeap.keys[i], forkedHeap.paths[i], forkedHeap.sizes[i], forkedHeap.mtimes[i]);
+        }
+        forked.heap = null;
+        forkedHeap.clear();
+        releasedHeaps.offer(forkedHeap);
+    }
+
+    @Override
+    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+        if (!scope.entersDirectory(dir, attrs, currDepth)) {
+            return FileVisitResult.SKIP_SUBTREE;
+        }
+
+        currDepth++;
+        return FileVisitResult.CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+        if (attrs == null || !attrs.isRegularFile()) {
+            return FileVisitResult.CONTINUE;
+        }
+
+        long fileKey = key.of(attrs);
+        if (fileKey <= floor || heap != null && heap.isFull() && fileKey <= heap.min()) {
+            return FileVisitResult.CONTINUE;
+        }
+
+        Path fileName = file.getFileName();
+        if (fileName != null && !nameFilter.test(fileName.toString())) {
+            return FileVisitResult.CONTINUE;
+        }
+
+        if (attributesFilter.test(attrs) && scope.includes(file, attrs, currDepth)) {
+            offer(fileKey, file, attrs.size(), attrs.lastModifiedTime().toMillis());
+        }
+        return FileVisitResult.CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult visitFileFailed(Path file, IOException exc) {
+        return FileVisitResult.CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+        currDepth--;
+        return FileVisitResult.CONTINUE;
+    }
+
+    private void offer(long fileKey, Path path, long fileSize, long mtime) {
+        if (heap == null) {
+            Heap released = releasedHeaps.poll();
+            heap = released != null ? released : new Heap(limit);
+        }
+        heap.offer(fileKey, path, fileSize, mtime);
+    }
+
+    private static final class Heap {
+        private final int limit;
+        private long[] keys;
+        private long[] sizes;
+        private long[] mtimes;
+        private Path[] paths;
+        private int size;
+
+        private Heap(int limit) {
+            int capacity = Math.min(limit, INITIAL_CAPACITY);
+            this.limit = limit;
+            this.keys = new long[capacity];
+            this.sizes = new long[capacity];
+            this.mtimes = new long[capacity];
+            this.paths = new Path[capacity];
+        }
+
+        private boolean isFull() {
+            return size == limit;
+        }
+
+        private long min() {
+            return keys[0];
+        }
+
+        private void offer(long fileKey, Path path, long fileSize, long mtime) {
+            if (size < limit) {
+                if (size == keys.length) {
+                    grow();
+                }
+                set(size, fileKey, path, fileSize, mtime);
+                siftUp(size++);
+                return;
+            }
+
+            if (fileKey > keys[0]) {
+                set(0, fileKey, path, fileSize, mtime);
+                siftDown(0);
+            }
+        }
+
+        private void clear() {
+            Arrays.fill(paths, 0, size, null);
+            size = 0;
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (keys[parent] <= keys[index]) {
+                    return;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int smallest = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < size && keys[left] < keys[smallest]) {
+                    smallest = left;
+                }
+                if (right < size && keys[right] < keys[smallest]) {
+                    smallest = right;
+                }
+                if (smallest == index) {
+                    return;
+                }
+                swap(index, smallest);
+                index = smallest;
+            }
+        }
+
+        private void set(int index, long fileKey, Path path, long fileSize, long mtime) {
+            keys[index] = fileKey;
+            paths[index] = path;
+            sizes[index] = fileSize;
+            mtimes[index] = mtime;
+        }
+
+        private void swap(int first, int second) {
+            long fileKey = keys[first];
+            Path path = paths[first];
+            long fileSize = sizes[first];
+            long mtime = mtimes[first];
+            set(first, keys[second], paths[second], sizes[second], mtimes[second]);
+            set(second, fileKey, path, fileSize, mtime);
+        }
+
+        private void grow() {
+            int capacity = (int) Math.min(limit, keys.length * 2L);
+            keys = Arrays.copyOf(keys, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+            mtimes = Arrays.copyOf(mtimes, capacity);
+            paths = Arrays.copyOf(paths, capacity);
+        }
+    }
+}
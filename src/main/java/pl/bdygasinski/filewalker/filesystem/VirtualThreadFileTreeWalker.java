@@ -0,0 +1,181 @@
+package pl.bdygasinski.filewalker.filesystem;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Walker for high latency file systems. Every directory is listed on its own virtual thread and attributes
+ * of its children are read concurrently, while a semaphore caps number of file system calls in flight.
+ * Segments are joined in listing order, each as soon as its subtree is done.
+ */
+public class VirtualThreadFileTreeWalker implements ConcurrentFileTreeWalker {
+
+    private final int maxInFlight;
+
+    public VirtualThreadFileTreeWalker(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Max in flight calls must be positive but got %s".formatted(maxInFlight));
+        }
+
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Override
+    public <V extends ForkableFileVisitor<V>> void walk(Path root, V visitor) throws IOException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            new Walk(executor, new Semaphore(maxInFlight)).visitRoot(root, visitor);
+        }
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    private record Walk(ExecutorService executor, Semaphore inFlight) {
+
+        <V extends ForkableFileVisitor<V>> void visitRoot(Path root, V visitor) throws IOException {
+            BasicFileAttributes attrs;
+            try {
+                attrs = readAttributes(root);
+
+            } catch (IOException e) {
+                visitor.visitFileFailed(root, e);
+                return;
+            }
+
+            if (attrs.isDirectory()) {
+                visitDirectory(root, attrs, visitor);
+            } else {
+                visitor.visitFile(root, attrs);
+            }
+        }
+
+        <V extends ForkableFileVisitor<V>> Void visitDirectory(Path dir, BasicFileAttributes attrs, V visitor) throws IOException {
+            List<Path> children = new ArrayList<>();
+            IOException iterationException = null;
+
+            acquire();
+            try {
+                DirectoryStream<Path> stream;
+                try {
+                    stream = Files.newDirectoryStream(dir);
+
+                } catch (IOException e) {
+                    visitor.visitFileFailed(dir, e);
+                    return null;
+                }
+
+                try (stream) {
+                    if (visitor.preVisitDirectory(dir, attrs) != FileVisitResult.CONTINUE) {
+                        return null;
+                    }
+
+                    for (Path child : stream) {
+                        children.add(child);
+                    }
+
+                } catch (DirectoryIteratorException e) {
+                    iterationException = e.getCause();
+                }
+            } finally {
+                inFlight.release();
+            }
+
+            List<Future<BasicFileAttributes>> childrenAttrs = new ArrayList<>(children.size());
+            for (Path child : children) {
+                childrenAttrs.add(executor.submit(() -> readAttributes(child)));
+            }
+
+            List<Future<Void>> subtasks = new ArrayList<>();
+            List<V> segments = new ArrayList<>();
+            V current = visitor;
+
+            for (int i = 0; i < children.size(); i++) {
+                Path child = children.get(i);
+                BasicFileAttributes childAttrs;
+                try {
+                    childAttrs = await(childrenAttrs.get(i));
+
+                } catch (IOException e) {
+                    current.visitFileFailed(child, e);
+                    continue;
+                }
+
+                if (childAttrs.isDirectory()) {
+                    V childVisitor = current.fork();
+                    subtasks.add(executor.submit(() -> visitDirectory(child, childAttrs, childVisitor)));
+                    segments.add(childVisitor);
+
+                    current = current.fork();
+                    segments.add(current);
+                } else {
+                    current.visitFile(child, childAttrs);
+                }
+            }
+            visitor.directoryListed(dir);
+
+            for (int i = 0; i < subtasks.size(); i++) {
+                await(subtasks.get(i));
+                visitor.join(segments.get(2 * i));
+                visitor.join(segments.get(2 * i + 1));
+            }
+
+            visitor.postVisitDirectory(dir, iterationException);
+            return null;
+        }
+
+        private BasicFileAttributes readAttributes(Path path) throws IOException {
+            acquire();
+            try {
+                return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+
+            } finally {
+                inFlight.release();
+            }
+        }
+
+        private void acquire() throws InterruptedIOException {
+            try {
+                inFlight.acquire();
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for file system call slot");
+            }
+        }
+
+        private static <T> T await(Future<T> future) throws IOException {
+            try {
+                return future.get();
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for file tree walk");
+
+            } catch (ExecutionException e) {
+                switch (e.getCause()) {
+                    case IOException cause -> throw cause;
+                    case UncheckedIOException cause -> throw cause.getCause();
+                    case RuntimeException cause -> throw cause;
+                    case Error cause -> throw cause;
+                    default -> throw new IOException(e.getCause());
+                }
+            }
+        }
+    }
+}
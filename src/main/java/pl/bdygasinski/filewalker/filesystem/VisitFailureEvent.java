@@ -0,0 +1,21 @@
+package pl.bdygasinski.filewalker.filesystem;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("pl.bdygasinski.filewalker.VisitFailure")
+@Label("Visit Failure")
+@Category("File Walker")
+@Description("File or directory which attributes or listing could not be read")
+@StackTrace(false)
+class VisitFailureEvent extends jdk.jfr.Event {
+
+    @Label("Path")
+    String path;
+
+    @Label("Exception")
+    String exception;
+}
@@ -0,0 +1,22 @@
+package pl.bdygasinski.filewalker.filesystem;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("pl.bdygasinski.filewalker.Walk")
+@Label("Walk")
+@Category("File Walker")
+@Description("Whole walk of a file tree")
+class WalkEvent extends jdk.jfr.Event {
+
+    @Label("Root")
+    String root;
+
+    @Label("Max Depth")
+    int maxDepth;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,54 @@
+package pl.bdygasinski.filewalker.filesystem;
+
+import pl.bdygasinski.filewalker.model.Entry;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.function.Predicate;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Part of the tree seen by visitors working on paths and attributes instead of entries, with the same rules as
+ * the listing: directories rejected by the directory filter are skipped together with their subtree and hidden
+ * files and directories are left out of results, while content of hidden directories is still walked.
+ * The root is never skipped nor left out.
+ */
+public final class WalkScope {
+
+    private static final WalkScope WHOLE_TREE = new WalkScope(null, true);
+
+    private final Predicate<Entry> directoryFilter;
+    private final boolean includesHidden;
+
+    private WalkScope(Predicate<Entry> directoryFilter, boolean includesHidden) {
+        this.directoryFilter = directoryFilter;
+        this.includesHidden = includesHidden;
+    }
+
+    /**
+     * @return scope with every directory and hidden files included
+     */
+    public static WalkScope wholeTree() {
+        return WHOLE_TREE;
+    }
+
+    /**
+     * @return scope of the listing with the given directory filter
+     */
+    public static WalkScope listed(Predicate<Entry> directoryFilter) {
+        return new WalkScope(requireNonNull(directoryFilter, "Directory filter is required but got %s".formatted(directoryFilter)), false);
+    }
+
+    /**
+     * Directory entry is created only when there is a filter to check it against.
+     */
+    public boolean entersDirectory(Path dir, BasicFileAttributes attrs, int depth) {
+        return directoryFilter == null || depth == 0
+                || directoryFilter.test(Entry.fromAttributesAndGraphDepth(dir, attrs, depth));
+    }
+
+    public boolean includes(Path path, BasicFileAttributes attrs, int depth) {
+        return includesHidden || depth == 0 || Entry.isVisible(path, attrs);
+    }
+}
@@ -0,0 +1,144 @@
+package pl.bdygasinski.filewalker.filesystem;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Counters updated by visitors of a walk, safe to share between forked visitors running on many threads.
+ * Visitor callbacks count every path the walker handed over and every directory it entered. They match file
+ * system calls only for walkers which read attributes and list directories themselves, walkers answering from
+ * a cache make fewer calls.
+ */
+public final class WalkStats {
+    private final LongAdder directories = new LongAdder();
+    private final LongAdder files = new LongAdder();
+    private final LongAdder skippedDirectories = new LongAdder();
+    private final LongAdder excludedDirectories = new LongAdder();
+    private final LongAdder rejectedFiles = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder matchedFiles = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder topLevelDone = new LongAdder();
+    private final AtomicInteger currentDepth = new AtomicInteger();
+
+    void directoryEntered(int depth) {
+        directories.increment();
+        currentDepth.setOpaque(depth);
+    }
+
+    void directorySkipped() {
+        skippedDirectories.increment();
+    }
+
+    void directoryExcluded() {
+        excludedDirectories.increment();
+    }
+
+    void fileVisited() {
+        files.increment();
+    }
+
+    void fileRejected() {
+        rejectedFiles.increment();
+    }
+
+    void visitFailed() {
+        failures.increment();
+    }
+
+    void fileMatched() {
+        matchedFiles.increment();
+    }
+
+    void bytesSeen(long size) {
+        bytes.add(size);
+    }
+
+    void topLevelEntryDone() {
+        topLevelDone.increment();
+    }
+
+    public long directories() {
+        return directories.sum();
+    }
+
+    public long files() {
+        return files.sum();
+    }
+
+    /**
+     * @return directories not entered because of the depth limit or directory filter
+     */
+    public long skippedDirectories() {
+        return skippedDirectories.sum() + excludedDirectories.sum();
+    }
+
+    public long excludedDirectories() {
+        return excludedDirectories.sum();
+    }
+
+    public long rejectedFiles() {
+        return rejectedFiles.sum();
+    }
+
+    public long failures() {
+        return failures.sum();
+    }
+
+    public long matchedFiles() {
+        return matchedFiles.sum();
+    }
+
+    /**
+     * @return sum of sizes of all visited files, including rejected ones
+     */
+    public long bytes() {
+        return bytes.sum();
+    }
+
+    /**
+     * @return direct children of the root, which were visited together with their whole subtree
+     */
+    public long topLevelDone() {
+        return topLevelDone.sum();
+    }
+
+    /**
+     * @return depth of the directory entered most recently by any of the visitors
+     */
+    public int currentDepth() {
+        return currentDepth.getOpaque();
+    }
+
+    public long visitedPaths() {
+        return directories() + files() + skippedDirectories() + failures();
+    }
+
+    public long visitorCallbacks() {
+        return visitedPaths() + directories();
+    }
+
+    public String summary(Duration elapsed) {
+        requireNonNull(elapsed, "Elapsed time is required but got %s".formatted(elapsed));
+        long nanos = Math.max(1, elapsed.toNanos());
+
+        return """
+                Walked %d directories and %d files in %d ms (%d dirs/s, %d files/s)
+                Rejected %d files, excluded %d directories, %d failures
+                %d visitor callbacks: %d paths visited, %d directories entered"""
+                .formatted(
+                        directories(), files(), TimeUnit.NANOSECONDS.toMillis(nanos),
+                        perSecond(directories(), nanos), perSecond(files(), nanos),
+                        rejectedFiles(), excludedDirectories(), failures(),
+                        visitorCallbacks(), visitedPaths(), directories()
+                );
+    }
+
+    private static long perSecond(long count, long nanos) {
+        return (long) (count * (double) TimeUnit.SECONDS.toNanos(1) / nanos);
+    }
+}
@@ -0,0 +1,60 @@
+package pl.bdygasinski.filewalker.filter;
+
+import pl.bdygasinski.filewalker.model.Entry;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Entry filter compiled once from name and extension lists. Base name of the entry is read once and matched
+ * against any of the extensions and, independently, any of the partial names.
+ */
+public final class CompiledNameFilter implements Predicate<Entry> {
+
+    private final ExtensionSet extensions;
+    private final SubstringMatcher names;
+
+    private CompiledNameFilter(ExtensionSet extensions, SubstringMatcher names) {
+        this.extensions = extensions;
+        this.names = names;
+    }
+
+    /**
+     * @param names      partial names, empty list accepts every name
+     * @param extensions extensions, empty list accepts every extension
+     */
+    public static Predicate<Entry> compile(List<String> names, List<String> extensions) {
+        requireNonNull(names, "Names are required but got %s".formatted(names));
+        requireNonNull(extensions, "Extensions are required but got %s".formatted(extensions));
+
+        ExtensionSet extensionSet = extensions.isEmpty() ? null : ExtensionSet.of(extensions);
+        SubstringMatcher nameMatcher = names.isEmpty() ? null : SubstringMatcher.of(names);
+        if (extensionSet == null && nameMatcher == null) {
+            return entry -> true;
+        }
+
+        return new CompiledNameFilter(extensionSet, nameMatcher);
+    }
+
+    /**
+     * Compiles the same filter for base names, for callers which have not created entries.
+     */
+    public static Predicate<String> compileForBaseNames(List<String> names, List<String> extensions) {
+        return switch (compile(names, extensions)) {
+            case CompiledNameFilter filter -> filter::testBaseName;
+            default -> baseName -> true;
+        };
+    }
+
+    @Override
+    public boolean test(Entry entry) {
+        return testBaseName(entry.baseName());
+    }
+
+    public boolean testBaseName(String baseName) {
+        return (extensions == null || extensions.containsExtensionOf(baseName))
+                && (names == null || names.matchesAny(baseName));
+    }
+}
@@ -0,0 +1,84 @@
+package pl.bdygasinski.filewalker.filter;
+
+import pl.bdygasinski.filewalker.model.Entry;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Directory filter rejecting directories whose base name matches any of the patterns.
+ * Plain names are looked up in a hash set, only patterns with glob syntax go through a {@link PathMatcher}.
+ */
+public final class ExcludedDirectoriesFilter implements Predicate<Entry> {
+
+    private static final String GLOB_SPECIAL_CHARACTERS = "*?[]{}\\";
+
+    private final Set<String> excludedNames;
+    private final List<PathMatcher> excludedGlobs;
+
+    private ExcludedDirectoriesFilter(Set<String> excludedNames, List<PathMatcher> excludedGlobs) {
+        this.excludedNames = excludedNames;
+        this.excludedGlobs = excludedGlobs;
+    }
+
+    public static ExcludedDirectoriesFilter fromPatterns(List<String> patterns) {
+        requireNonNull(patterns, "Patterns are required but got %s".formatted(patterns));
+        Set<String> names = new HashSet<>();
+        List<PathMatcher> globs = new ArrayList<>();
+
+        for (String pattern : patterns) {
+            String trimmed = pattern.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+
+            if (isGlob(trimmed)) {
+                globs.add(FileSystems.getDefault().getPathMatcher("glob:" + trimmed));
+            } else {
+                names.add(trimmed);
+            }
+        }
+
+        return new ExcludedDirectoriesFilter(Set.copyOf(names), List.copyOf(globs));
+    }
+
+    @Override
+    public boolean test(Entry entry) {
+        if (excludedNames.contains(entry.baseName())) {
+            return false;
+        }
+
+        if (excludedGlobs.isEmpty()) {
+            return true;
+        }
+
+        Path fileName = entry.path().getFileName();
+        if (fileName == null) {
+            return true;
+        }
+
+        for (PathMatcher glob : excludedGlobs) {
+            if (glob.matches(fileName)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isGlob(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            if (GLOB_SPECIAL_CHARACTERS.indexOf(pattern.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
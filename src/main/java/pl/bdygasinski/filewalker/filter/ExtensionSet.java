@@ -0,0 +1,92 @@
+package pl.bdygasinski.filewalker.filter;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Open addressing hash set of file extensions, queried with the whole file name. Hash of the suffix after
+ * the last dot is computed in place, so lookups don't allocate substrings.
+ */
+public final class ExtensionSet {
+
+    private final String[] slots;
+    private final int mask;
+    private final int size;
+
+    private ExtensionSet(Set<String> extensions) {
+        int capacity = Integer.highestOneBit(Math.max(2, extensions.size() * 2) - 1) << 1;
+        this.slots = new String[capacity];
+        this.mask = capacity - 1;
+        this.size = extensions.size();
+
+        for (String extension : extensions) {
+            int slot = spread(extension.hashCode()) & mask;
+            while (slots[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = extension;
+        }
+    }
+
+    /**
+     * @param extensions extensions with or without leading dot, blank values are ignored
+     */
+    public static ExtensionSet of(Collection<String> extensions) {
+        return new ExtensionSet(normalize(extensions));
+    }
+
+    /**
+     * @return extensions without leading dot and without blank values, as the set holds them
+     */
+    public static Set<String> normalize(Collection<String> extensions) {
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String extension : extensions) {
+            String trimmed = extension.trim();
+            if (trimmed.startsWith(".")) {
+                trimmed = trimmed.substring(1);
+            }
+
+            if (!trimmed.isEmpty()) {
+                normalized.add(trimmed);
+            }
+        }
+        return normalized;
+    }
+
+    /**
+     * Extension is the part after the last dot, when the dot is neither the first nor the last character,
+     * same as {@link pl.bdygasinski.filewalker.model.Entry#fileExtension()} of a file.
+     */
+    public boolean containsExtensionOf(String fileName) {
+        int dotIndex = fileName.lastIndexOf('.');
+        if (dotIndex <= 0 || dotIndex == fileName.length() - 1) {
+            return false;
+        }
+
+        int start = dotIndex + 1;
+        int length = fileName.length() - start;
+        int hash = 0;
+        for (int i = start; i < fileName.length(); i++) {
+            hash = 31 * hash + fileName.charAt(i);
+        }
+
+        int slot = spread(hash) & mask;
+        String candidate;
+        while ((candidate = slots[slot]) != null) {
+            if (candidate.length() == length && fileName.regionMatches(start, candidate, 0, length)) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
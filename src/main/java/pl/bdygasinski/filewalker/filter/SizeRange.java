@@ -0,0 +1,58 @@
+package pl.bdygasinski.filewalker.filter;
+
+import pl.bdygasinski.filewalker.view.FileSizeFormatter;
+
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Inclusive range of file sizes in bytes, checked against attributes read by the walker,
+ * so files outside the range are rejected before any entry is created.
+ */
+public record SizeRange(long minBytes, long maxBytes) implements Predicate<BasicFileAttributes> {
+
+    private static final char RANGE_SEPARATOR = '-';
+
+    public SizeRange {
+        if (minBytes < 0) {
+            throw new IllegalArgumentException("Min size must be positive but got %s".formatted(minBytes));
+        }
+
+        if (maxBytes < minBytes) {
+            throw new IllegalArgumentException("Max size must not be lower than %s but got %s".formatted(minBytes, maxBytes));
+        }
+    }
+
+    /**
+     * Parses ranges like "1kB-10MB", open ranges "1kB-" and "-10MB", or a single exact size "4kB".
+     */
+    public static Optional<SizeRange> parse(String range) {
+        if (range == null) return Optional.empty();
+
+        int separatorIndex = range.indexOf(RANGE_SEPARATOR);
+        if (separatorIndex < 0) {
+            return FileSizeFormatter.toBytes(range)
+                    .map(bytes -> new SizeRange(bytes, bytes));
+        }
+
+        String min = range.substring(0, separatorIndex).trim();
+        String max = range.substring(separatorIndex + 1).trim();
+        if (min.isEmpty() && max.isEmpty()) return Optional.empty();
+
+        Optional<Long> minBytes = min.isEmpty() ? Optional.of(0L) : FileSizeFormatter.toBytes(min);
+        Optional<Long> maxBytes = max.isEmpty() ? Optional.of(Long.MAX_VALUE) : FileSizeFormatter.toBytes(max);
+        if (minBytes.isEmpty() || maxBytes.isEmpty() || maxBytes.get() < minBytes.get()) return Optional.empty();
+
+        return Optional.of(new SizeRange(minBytes.get(), maxBytes.get()));
+    }
+
+    public boolean contains(long sizeInBytes) {
+        return sizeInBytes >= minBytes && sizeInBytes <= maxBytes;
+    }
+
+    @Override
+    public boolean test(BasicFileAttributes attrs) {
+        return contains(attrs.size());
+    }
+}
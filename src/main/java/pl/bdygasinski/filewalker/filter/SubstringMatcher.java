@@ -0,0 +1,125 @@
+package pl.bdygasinski.filewalker.filter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton checking whether text contains any of the patterns in a single pass over the text.
+ * Goto and failure functions are folded into a full transition table over classes of characters used in
+ * patterns, so each character of the text costs two array reads regardless of number of patterns.
+ */
+public final class SubstringMatcher {
+
+    private static final int ROOT = 0;
+    private static final char OTHER_CHARACTERS = 0;
+
+    private final char[] characterClasses;
+    private final int classCount;
+    private final int[] transitions;
+    private final boolean[] matching;
+    private final boolean matchesEverything;
+
+    private SubstringMatcher(char[] characterClasses, int classCount, int[] transitions, boolean[] matching,
+                             boolean matchesEverything) {
+        this.characterClasses = characterClasses;
+        this.classCount = classCount;
+        this.transitions = transitions;
+        this.matching = matching;
+        this.matchesEverything = matchesEverything;
+    }
+
+    public static SubstringMatcher of(Collection<String> patterns) {
+        char[] characterClasses = new char[Character.MAX_VALUE + 1];
+        int classCount = 1;
+        boolean matchesEverything = false;
+
+        for (String pattern : patterns) {
+            matchesEverything |= pattern.isEmpty();
+            for (int i = 0; i < pattern.length(); i++) {
+                char character = pattern.charAt(i);
+                if (characterClasses[character] == OTHER_CHARACTERS) {
+                    characterClasses[character] = (char) classCount++;
+                }
+            }
+        }
+
+        List<int[]> trie = new ArrayList<>();
+        List<Boolean> terminal = new ArrayList<>();
+        trie.add(newNode(classCount));
+        terminal.add(false);
+
+        for (String pattern : patterns) {
+            int node = ROOT;
+            for (int i = 0; i < pattern.length(); i++) {
+                int characterClass = characterClasses[pattern.charAt(i)];
+                if (trie.get(node)[characterClass] < 0) {
+                    trie.get(node)[characterClass] = trie.size();
+                    trie.add(newNode(classCount));
+                    terminal.add(false);
+                }
+                node = trie.get(node)[characterClass];
+            }
+            terminal.set(node, true);
+        }
+
+        int stateCount = trie.size();
+        int[] transitions = new int[stateCount * classCount];
+        boolean[] matching = new boolean[stateCount];
+        int[] failure = new int[stateCount];
+        Queue<Integer> queue = new ArrayDeque<>();
+
+        for (int characterClass = 0; characterClass < classCount; characterClass++) {
+            int child = trie.get(ROOT)[characterClass];
+            if (child < 0) {
+                transitions[characterClass] = ROOT;
+            } else {
+                transitions[characterClass] = child;
+                failure[child] = ROOT;
+                queue.add(child);
+            }
+        }
+        matching[ROOT] = terminal.get(ROOT);
+
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            matching[node] = terminal.get(node) || matching[failure[node]];
+
+            for (int characterClass = 0; characterClass < classCount; characterClass++) {
+                int child = trie.get(node)[characterClass];
+                int fallback = transitions[failure[node] * classCount + characterClass];
+                if (child < 0) {
+                    transitions[node * classCount + characterClass] = fallback;
+                } else {
+                    transitions[node * classCount + characterClass] = child;
+                    failure[child] = fallback;
+                    queue.add(child);
+                }
+            }
+        }
+
+        return new SubstringMatcher(characterClasses, classCount, transitions, matching, matchesEverything);
+    }
+
+    public boolean matchesAny(CharSequence text) {
+        if (matchesEverything) return true;
+
+        int state = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            state = transitions[state * classCount + characterClasses[text.charAt(i)]];
+            if (matching[state]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] newNode(int classCount) {
+        int[] node = new int[classCount];
+        Arrays.fill(node, -1);
+        return node;
+    }
+}
@@ -0,0 +1,307 @@
+package pl.bdygasinski.filewalker.hash;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Checksums persisted between runs, keyed by file key of the attributes, or by path when file system has no file
+ * keys. Checksum is valid only while size and modification time of the file stay the same, otherwise lookup misses
+ * and the next put replaces it. Saved cache is an open addressing table of fixed size slots, which is memory mapped
+ * on load, so lookups read only the slots they probe and loading does not depend on number of checksums.
+ * <p>
+ * The table is mapped as a single buffer, which limits it to {@code 2^24} slots taking 1 GiB, so a cache holds at
+ * most {@value #MAX_CHECKSUMS} checksums, trees with more files need separate cache files. Header of a loaded table
+ * is checked on load, slots only when they are read. Damaged slot makes the cache ignore the whole loaded table,
+ * like a cache which can't be loaded at all, which is reported by {@link #getLoadFailure()}.
+ */
+public final class ChecksumCache {
+
+    private static final int MAGIC = 0x46574331;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int SLOT_SIZE = 64;
+    private static final int MAX_DIGEST_LENGTH = SLOT_SIZE - 3 * Long.BYTES - 1;
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 24;
+    private static final int MAX_CHECKSUMS = MAX_CAPACITY / 2 - 1;
+    private static final int SLOTS_PER_WRITE = 1024;
+
+    private final HashAlgorithm algorithm;
+    private final Path loadedFrom;
+    private final ByteBuffer loaded;
+    private final int loadedCapacity;
+    private volatile IOException loadFailure;
+    private final Map<Long, Slot> touched = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private ChecksumCache(HashAlgorithm algorithm, Path loadedFrom, ByteBuffer loaded, int loadedCapacity) {
+        this.algorithm = algorithm;
+        this.loadedFrom = loadedFrom;
+        this.loaded = loaded;
+        this.loadedCapacity = loadedCapacity;
+    }
+
+    public static ChecksumCache empty(HashAlgorithm algorithm) {
+        return new ChecksumCache(requireNonNull(algorithm, "Algorithm is required but got %s".formatted(algorithm)),
+                null, ByteBuffer.allocate(0), 0);
+    }
+
+    /**
+     * @return cache saved in the file or empty cache if the file does not exist or holds checksums of other algorithm
+     * @throws IOException when the file can't be read or its header is not a header of a checksum cache
+     */
+    public static ChecksumCache load(Path file, HashAlgorithm algorithm) throws IOException {
+        requireNonNull(algorithm, "Algorithm is required but got %s".formatted(algorithm));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Unsupported checksum cache format: %s".formatted(file));
+            }
+
+            ByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+            int capacity = table.getInt(12);
+            long count = table.getLong(16);
+            if (table.getInt(0) != MAGIC || table.getInt(4) != VERSION
+                    || capacity < MIN_CAPACITY || capacity > MAX_CAPACITY || Integer.bitCount(capacity) != 1
+                    || channel.size() != HEADER_SIZE + (long) capacity * SLOT_SIZE
+                    || count < 0 || count > capacity / 2) {
+                throw new IOException("Unsupported checksum cache format: %s".formatted(file));
+            }
+
+            if (table.getInt(8) != algorithm.ordinal()) {
+                return empty(algorithm);
+            }
+            return new ChecksumCache(algorithm, file.toAbsolutePath(), table, capacity);
+
+        } catch (NoSuchFileException e) {
+            return empty(algorithm);
+        }
+    }
+
+    public HashAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * @return failure of reading a damaged slot of the loaded table, after which the loaded table is ignored
+     */
+    public Optional<IOException> getLoadFailure() {
+        return Optional.ofNullable(loadFailure);
+    }
+
+    public Optional<String> get(Path path, BasicFileAttributes attrs) {
+        long key = keyOf(path, attrs);
+        long size = attrs.size();
+        long modifiedNanos = attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+
+        Slot slot = touched.get(key);
+        if (slot == null && loadFailure == null) {
+            try {
+                slot = findLoaded(key);
+
+            } catch (IOException e) {
+                loadFailure = e;
+            }
+        }
+
+        if (slot == null || slot.size() != size || slot.modifiedNanos() != modifiedNanos) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        touched.putIfAbsent(key, slot);
+        hits.increment();
+        return Optional.of(HexFormat.of().formatHex(slot.digest()));
+    }
+
+    public void put(Path path, BasicFileAttributes attrs, String checksum) {
+        byte[] digest = HexFormat.of().parseHex(checksum);
+        if (digest.length > MAX_DIGEST_LENGTH) {
+            throw new IllegalArgumentException("Checksum can have at most %s bytes but got %s".formatted(MAX_DIGEST_LENGTH, checksum));
+        }
+
+        touched.put(keyOf(path, attrs), new Slot(attrs.size(), attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS), digest));
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Writes to a temporary file next to the target first, so an interrupted save leaves the previous cache intact.
+     * Table is written in chunks of slots, with only keys and checksums placed in memory. The loaded table stays
+     * mapped until the cache is collected, systems which can't replace a mapped file fail saving over the file the
+     * cache was loaded from with the error of the replace.
+     *
+     * @param compact when set only checksums looked up or stored since load are kept, so checksums of files
+     *                which disappeared from the tree drop out, otherwise all loaded checksums are kept as well
+     */
+    public void save(Path file, boolean compact) throws IOException {
+        Map<Long, Slot> slots = new HashMap<>(touched);
+        if (!compact && loadFailure == null) {
+            try {
+                for (int i = 0; i < loadedCapacity; i++) {
+                    long key = loaded.getLong(slotOffset(i));
+                    if (key != 0) {
+                        slots.putIfAbsent(key, readSlot(i));
+                    }
+                }
+
+            } catch (IOException e) {
+                loadFailure = e;
+                slots = new HashMap<>(touched);
+            }
+        }
+
+        if (slots.size() > MAX_CHECKSUMS) {
+            throw new IOException("Checksum cache can hold at most %s checksums but got %s".formatted(MAX_CHECKSUMS, slots.size()));
+        }
+
+        int capacity = MIN_CAPACITY;
+        while (capacity < slots.size() * 2) {
+            capacity <<= 1;
+        }
+
+        long[] keys = new long[capacity];
+        Slot[] placed = new Slot[capacity];
+        for (Map.Entry<Long, Slot> entry : slots.entrySet()) {
+            place(keys, placed, entry.getKey(), entry.getValue());
+        }
+
+        Path absoluteFile = file.toAbsolutePath();
+        Path tmpFile = Files.createTempFile(absoluteFile.getParent(), absoluteFile.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmpFile, StandardOpenOption.WRITE)) {
+                writeTable(channel, capacity, slots.size(), keys, placed);
+            }
+
+            Files.move(tmpFile, absoluteFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+    }
+
+    private void writeTable(FileChannel channel, int capacity, long count, long[] keys, Slot[] placed) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(0, MAGIC)
+                .putInt(4, VERSION)
+                .putInt(8, algorithm.ordinal())
+                .putInt(12, capacity)
+                .putLong(16, count);
+        writeFully(channel, header);
+
+        ByteBuffer chunk = ByteBuffer.allocate(SLOTS_PER_WRITE * SLOT_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        for (int start = 0; start < capacity; start += SLOTS_PER_WRITE) {
+            int end = Math.min(capacity, start + SLOTS_PER_WRITE);
+            chunk.clear();
+            for (int i = start; i < end; i++) {
+                int offset = (i - start) * SLOT_SIZE;
+                for (int word = 0; word < SLOT_SIZE; word += Long.BYTES) {
+                    chunk.putLong(offset + word, 0);
+                }
+                if (keys[i] == 0) {
+                    continue;
+                }
+
+                Slot slot = placed[i];
+                chunk.putLong(offset, keys[i])
+                        .putLong(offset + Long.BYTES, slot.size())
+                        .putLong(offset + 2 * Long.BYTES, slot.modifiedNanos())
+                        .put(offset + 3 * Long.BYTES, (byte) slot.digest().length)
+                        .put(offset + 3 * Long.BYTES + 1, slot.digest());
+            }
+            chunk.limit((end - start) * SLOT_SIZE);
+            writeFully(channel, chunk);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private Slot findLoaded(long key) throws IOException {
+        if (loadedCapacity == 0) {
+            return null;
+        }
+
+        int mask = loadedCapacity - 1;
+        int index = (int) key & mask;
+        for (int probe = 0; probe < loadedCapacity; probe++, index = (index + 1) & mask) {
+            long slotKey = loaded.getLong(slotOffset(index));
+            if (slotKey == 0) {
+                return null;
+            }
+            if (slotKey == key) {
+                return readSlot(index);
+            }
+        }
+        throw new IOException("Checksum cache %s has no empty slot".formatted(loadedFrom));
+    }
+
+    private Slot readSlot(int index) throws IOException {
+        int offset = slotOffset(index);
+        int length = loaded.get(offset + 3 * Long.BYTES);
+        if (length < 0 || length > MAX_DIGEST_LENGTH) {
+            throw new IOException("Checksum cache %s has checksum of %s bytes in slot %s".formatted(loadedFrom, length, index));
+        }
+
+        byte[] digest = new byte[length];
+        loaded.get(offset + 3 * Long.BYTES + 1, digest);
+        return new Slot(loaded.getLong(offset + Long.BYTES), loaded.getLong(offset + 2 * Long.BYTES), digest);
+    }
+
+    private static void place(long[] keys, Slot[] placed, long key, Slot slot) {
+        int mask = keys.length - 1;
+        int index = (int) key & mask;
+        while (keys[index] != 0) {
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        placed[index] = slot;
+    }
+
+    private static int slotOffset(int index) {
+        return HEADER_SIZE + index * SLOT_SIZE;
+    }
+
+    /**
+     * Zero marks empty slot, so it is never used as a key.
+     */
+    private static long keyOf(Path path, BasicFileAttributes attrs) {
+        Object fileKey = attrs.fileKey();
+        String identity = fileKey != null
+                ? "key:" + fileKey
+                : "path:" + path.toAbsolutePath();
+
+        long key = Xxh64.hash(identity.getBytes(StandardCharsets.UTF_8));
+        return key == 0 ? 1 : key;
+    }
+
+    private record Slot(long size, long modifiedNanos, byte[] digest) {
+    }
+}
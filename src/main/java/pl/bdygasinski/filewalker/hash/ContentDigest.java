@@ -0,0 +1,19 @@
+package pl.bdygasinski.filewalker.hash;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Running checksum of a single content, fed with consecutive chunks.
+ */
+interface ContentDigest {
+
+    /**
+     * Consumes all remaining bytes of the buffer.
+     */
+    void update(ByteBuffer chunk);
+
+    /**
+     * @return hex encoded checksum of all chunks
+     */
+    String finish();
+}
@@ -0,0 +1,94 @@
+package pl.bdygasinski.filewalker.hash;
+
+import pl.bdygasinski.filewalker.content.OrderedPipeline;
+import pl.bdygasinski.filewalker.model.ChecksumSource;
+import pl.bdygasinski.filewalker.model.EntrySource;
+import pl.bdygasinski.filewalker.model.FileChecksum;
+import pl.bdygasinski.filewalker.model.FileEntry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Hashes every file pushed by an entry source in an {@link OrderedPipeline}, while the walk goes on in the thread
+ * pushing entries. Checksums are passed on in the order files came, unreadable files get an unreadable checksum.
+ */
+public final class ContentHashing {
+
+    private final FileHasher hasher;
+    private final ChecksumCache cache;
+    private final int workers;
+
+    public ContentHashing(HashAlgorithm algorithm, int workers) {
+        this(algorithm, workers, null);
+    }
+
+    /**
+     * @param cache consulted before any file is read, checksums computed for files missing in it are stored in it
+     */
+    public ContentHashing(HashAlgorithm algorithm, int workers, ChecksumCache cache) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Workers must be positive but got %s".formatted(workers));
+        }
+
+        requireNonNull(algorithm, "Algorithm is required but got %s".formatted(algorithm));
+        if (cache != null && cache.getAlgorithm() != algorithm) {
+            throw new IllegalArgumentException("Cache holds %s checksums but got %s".formatted(cache.getAlgorithm(), algorithm));
+        }
+
+        this.hasher = new FileHasher(algorithm, workers);
+        this.cache = cache;
+        this.workers = workers;
+    }
+
+    public ChecksumSource sourceFor(EntrySource entries) {
+        requireNonNull(entries, "Entries are required but got %s".formatted(entries));
+        return action -> forEachChecksum(entries, action);
+    }
+
+    public void forEachChecksum(EntrySource entries, Consumer<? super FileChecksum> action) {
+        try (var pipeline = new OrderedPipeline<FileChecksum>("content-hasher", workers, action)) {
+            entries.forEachEntry(entry -> {
+                if (entry instanceof FileEntry file) {
+                    pipeline.submit(() -> checksumOf(file));
+                }
+            });
+            pipeline.finish();
+        }
+    }
+
+    private FileChecksum checksumOf(FileEntry file) {
+        try {
+            return FileChecksum.of(file, checksumOf(file.path()));
+
+        } catch (IOException e) {
+            return FileChecksum.unreadable(file);
+        }
+    }
+
+    /**
+     * Attributes are read before the content, so a file changed while it is hashed is cached with stale
+     * attributes and misses on the next run instead of giving checksum of the old content.
+     */
+    private String checksumOf(Path path) throws IOException {
+        if (cache == null) {
+            return hasher.hash(path);
+        }
+
+        BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        Optional<String> cached = cache.get(path, attrs);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        String checksum = hasher.hash(path);
+        cache.put(path, attrs, checksum);
+        return checksum;
+    }
+}
@@ -0,0 +1,40 @@
+package pl.bdygasinski.filewalker.hash;
+
+import pl.bdygasinski.filewalker.content.ContentReader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Computes checksum of file content, safe to use from many threads. Content is fed to the digest straight from
+ * blocks of a {@link ContentReader}, so steady hashing allocates nothing per file besides the digest.
+ */
+public final class FileHasher {
+
+    private final HashAlgorithm algorithm;
+    private final ContentReader reader;
+
+    /**
+     * @param pooledBuffers number of read buffers, callers hashing on more threads wait for a free one
+     */
+    public FileHasher(HashAlgorithm algorithm, int pooledBuffers) {
+        this.algorithm = requireNonNull(algorithm, "Algorithm is required but got %s".formatted(algorithm));
+        this.reader = new ContentReader(pooledBuffers);
+    }
+
+    public HashAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public String hash(Path path) throws IOException {
+        ContentDigest digest = algorithm.newDigest();
+        reader.read(path, (block, last) -> {
+            int limit = block.limit();
+            digest.update(block);
+            return limit;
+        });
+        return digest.finish();
+    }
+}
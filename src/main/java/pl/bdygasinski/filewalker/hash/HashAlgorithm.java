@@ -0,0 +1,77 @@
+package pl.bdygasinski.filewalker.hash;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+public enum HashAlgorithm {
+    SHA256 {
+        @Override
+        ContentDigest newDigest() {
+            MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is required by every Java platform", e);
+            }
+
+            return new ContentDigest() {
+                @Override
+                public void update(ByteBuffer chunk) {
+                    digest.update(chunk);
+                }
+
+                @Override
+                public String finish() {
+                    return HexFormat.of().formatHex(digest.digest());
+                }
+            };
+        }
+    },
+    CRC32C {
+        @Override
+        ContentDigest newDigest() {
+            var crc = new CRC32C();
+            return new ContentDigest() {
+                @Override
+                public void update(ByteBuffer chunk) {
+                    crc.update(chunk);
+                }
+
+                @Override
+                public String finish() {
+                    return HexFormat.of().toHexDigits((int) crc.getValue());
+                }
+            };
+        }
+    },
+    XXH64 {
+        @Override
+        ContentDigest newDigest() {
+            return new Xxh64(0);
+        }
+    };
+
+    abstract ContentDigest newDigest();
+
+    /**
+     * Parses names like {@code sha256}, {@code crc32c}, {@code xxh} or {@code xxh64}, ignoring case and dashes.
+     */
+    public static Optional<HashAlgorithm> parse(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+
+        return switch (name.trim().replace("-", "").toLowerCase(Locale.ROOT)) {
+            case "sha256" -> Optional.of(SHA256);
+            case "crc32c" -> Optional.of(CRC32C);
+            case "xxh", "xxh64" -> Optional.of(XXH64);
+            default -> Optional.empty();
+        };
+    }
+}
@@ -0,0 +1,126 @@
+package pl.bdygasinski.filewalker.hash;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HexFormat;
+
+/**
+ * Streaming XXH64, non-cryptographic 64-bit hash processing input in 32 byte stripes of four little-endian lanes.
+ */
+final class Xxh64 implements ContentDigest {
+    private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME_3 = 0x165667B19E3779F9L;
+    private static final long PRIME_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME_5 = 0x27D4EB2F165667C5L;
+    private static final int STRIPE = 32;
+
+    private final long seed;
+    private final ByteBuffer pending = ByteBuffer.allocate(STRIPE).order(ByteOrder.LITTLE_ENDIAN);
+    private long lane1;
+    private long lane2;
+    private long lane3;
+    private long lane4;
+    private long totalLength;
+
+    Xxh64(long seed) {
+        this.seed = seed;
+        this.lane1 = seed + PRIME_1 + PRIME_2;
+        this.lane2 = seed + PRIME_2;
+        this.lane3 = seed;
+        this.lane4 = seed - PRIME_1;
+    }
+
+    @Override
+    public void update(ByteBuffer chunk) {
+        ByteBuffer input = chunk.slice().order(ByteOrder.LITTLE_ENDIAN);
+        int length = input.remaining();
+        int position = 0;
+        totalLength += length;
+        chunk.position(chunk.limit());
+
+        if (pending.position() > 0) {
+            int fill = Math.min(pending.remaining(), length);
+            pending.put(pending.position(), input, 0, fill).position(pending.position() + fill);
+            position = fill;
+            if (pending.hasRemaining()) {
+                return;
+            }
+            stripe(pending, 0);
+            pending.clear();
+        }
+
+        for (; length - position >= STRIPE; position += STRIPE) {
+            stripe(input, position);
+        }
+
+        pending.put(0, input, position, length - position).position(length - position);
+    }
+
+    static long hash(byte[] content) {
+        var xxh64 = new Xxh64(0);
+        xxh64.update(ByteBuffer.wrap(content));
+        return xxh64.value();
+    }
+
+    @Override
+    public String finish() {
+        return HexFormat.of().toHexDigits(value());
+    }
+
+    long value() {
+        long hash;
+        if (totalLength >= STRIPE) {
+            hash = Long.rotateLeft(lane1, 1) + Long.rotateLeft(lane2, 7)
+                    + Long.rotateLeft(lane3, 12) + Long.rotateLeft(lane4, 18);
+            hash = mergeRound(hash, lane1);
+            hash = mergeRound(hash, lane2);
+            hash = mergeRound(hash, lane3);
+            hash = mergeRound(hash, lane4);
+        } else {
+            hash = seed + PRIME_5;
+        }
+        hash += totalLength;
+
+        int remaining = pending.position();
+        int position = 0;
+        for (; remaining - position >= Long.BYTES; position += Long.BYTES) {
+            hash ^= round(0, pending.getLong(position));
+            hash = Long.rotateLeft(hash, 27) * PRIME_1 + PRIME_4;
+        }
+        if (remaining - position >= Integer.BYTES) {
+            hash ^= (pending.getInt(position) & 0xFFFFFFFFL) * PRIME_1;
+            hash = Long.rotateLeft(hash, 23) * PRIME_2 + PRIME_3;
+            position += Integer.BYTES;
+        }
+        for (; position < remaining; position++) {
+            hash ^= (pending.get(position) & 0xFFL) * PRIME_5;
+            hash = Long.rotateLeft(hash, 11) * PRIME_1;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= PRIME_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME_3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    private void stripe(ByteBuffer input, int position) {
+        lane1 = round(lane1, input.getLong(position));
+        lane2 = round(lane2, input.getLong(position + 8));
+        lane3 = round(lane3, input.getLong(position + 16));
+        lane4 = round(lane4, input.getLong(position + 24));
+    }
+
+    private static long round(long accumulator, long lane) {
+        accumulator += lane * PRIME_2;
+        accumulator = Long.rotateLeft(accumulator, 31);
+        return accumulator * PRIME_1;
+    }
+
+    private static long mergeRound(long hash, long lane) {
+        hash ^= round(0, lane);
+        return hash * PRIME_1 + PRIME_4;
+    }
+}
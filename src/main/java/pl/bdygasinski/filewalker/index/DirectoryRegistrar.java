@@ -0,0 +1,15 @@
+package pl.bdygasinski.filewalker.index;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Called for every directory before it is listed, so changes made while listing are not lost.
+ */
+@FunctionalInterface
+interface DirectoryRegistrar {
+
+    DirectoryRegistrar NONE = dir -> {};
+
+    void register(Path dir) throws IOException;
+}
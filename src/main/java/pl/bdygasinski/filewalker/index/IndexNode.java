@@ -0,0 +1,166 @@
+package pl.bdygasinski.filewalker.index;
+
+import pl.bdygasinski.filewalker.cache.CachedAttributes;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Single file or directory of the index. Failed node keeps the exception thrown when the path was read,
+ * directory node keeps its children in the order they were discovered. Attributes and failures are volatile,
+ * so they can be read without the index lock from a snapshot of children taken under it.
+ * <p>
+ * Directory node also keeps its files grouped by extension, next to subdirectories and failed children,
+ * so children matching an extension filter are looked up without going through the rest.
+ */
+final class IndexNode {
+
+    private final String name;
+    private volatile CachedAttributes attrs;
+    private volatile IOException failure;
+    private volatile IOException watchFailure;
+    private final Map<String, IndexNode> children;
+    private final Map<String, IndexNode> nonFiles;
+    private final Map<String, Map<String, IndexNode>> filesByExtension;
+    private long position;
+    private long lastPosition;
+
+    private IndexNode(String name, CachedAttributes attrs, IOException failure) {
+        this.name = name;
+        this.attrs = attrs;
+        this.failure = failure;
+        boolean isDirectory = attrs != null && attrs.isDirectory();
+        this.children = isDirectory ? new LinkedHashMap<>() : null;
+        this.nonFiles = isDirectory ? new HashMap<>() : null;
+        this.filesByExtension = isDirectory ? new HashMap<>() : null;
+    }
+
+    static IndexNode of(String name, CachedAttributes attrs) {
+        return new IndexNode(name, attrs, null);
+    }
+
+    static IndexNode failed(String name, IOException failure) {
+        return new IndexNode(name, null, failure);
+    }
+
+    String name() {
+        return name;
+    }
+
+    CachedAttributes attrs() {
+        return attrs;
+    }
+
+    IOException failure() {
+        return failure;
+    }
+
+    /**
+     * @return exception thrown when the directory was registered for events, null when it is watched
+     */
+    IOException watchFailure() {
+        return watchFailure;
+    }
+
+    void watchFailed(IOException watchFailure) {
+        this.watchFailure = watchFailure;
+    }
+
+    boolean isDirectory() {
+        return children != null;
+    }
+
+    /**
+     * Replaces attributes of the node in place, children of a directory stay as they were.
+     */
+    void update(CachedAttributes attrs) {
+        this.attrs = attrs;
+        this.failure = null;
+    }
+
+    IndexNode child(String name) {
+        return children == null ? null : children.get(name);
+    }
+
+    Collection<IndexNode> children() {
+        return children.values();
+    }
+
+    /**
+     * @return subdirectories, failed children and files with one of the extensions, in the order of
+     * {@link #children()}, files without an extension and with other extensions are left out
+     */
+    List<IndexNode> childrenWithExtensions(Set<String> extensions) {
+        List<IndexNode> found = new ArrayList<>(nonFiles.values());
+        for (String extension : extensions) {
+            Map<String, IndexNode> files = filesByExtension.get(extension);
+            if (files != null) {
+                found.addAll(files.values());
+            }
+        }
+        found.sort(Comparator.comparingLong(child -> child.position));
+        return found;
+    }
+
+    /**
+     * Child replacing one of the same name takes its place in the order of children.
+     */
+    void putChild(IndexNode child) {
+        IndexNode replaced = children.put(child.name, child);
+        if (replaced != null) {
+            unlink(replaced);
+            child.position = replaced.position;
+        } else {
+            child.position = ++lastPosition;
+        }
+
+        String extension = child.extension();
+        if (extension != null) {
+            filesByExtension.computeIfAbsent(extension, key -> new HashMap<>()).put(child.name, child);
+        } else if (child.isDirectory() || child.failure != null) {
+            nonFiles.put(child.name, child);
+        }
+    }
+
+    IndexNode removeChild(String name) {
+        IndexNode removed = children == null ? null : children.remove(name);
+        if (removed != null) {
+            unlink(removed);
+        }
+        return removed;
+    }
+
+    private void unlink(IndexNode child) {
+        nonFiles.remove(child.name);
+        String extension = child.extension();
+        if (extension == null) {
+            return;
+        }
+
+        Map<String, IndexNode> files = filesByExtension.get(extension);
+        files.remove(child.name);
+        if (files.isEmpty()) {
+            filesByExtension.remove(extension);
+        }
+    }
+
+    /**
+     * @return extension of a file read without failure, the same part of the name as
+     * {@link pl.bdygasinski.filewalker.filter.ExtensionSet} matches, null for other nodes
+     */
+    private String extension() {
+        if (isDirectory() || failure != null) {
+            return null;
+        }
+
+        int dotIndex = name.lastIndexOf('.');
+        return dotIndex <= 0 || dotIndex == name.length() - 1 ? null : name.substring(dotIndex + 1);
+    }
+}
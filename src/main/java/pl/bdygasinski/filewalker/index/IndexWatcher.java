@@ -0,0 +1,108 @@
+package pl.bdygasinski.filewalker.index;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Applies file system events of watched directories to the index on its own daemon thread. Every event refreshes
+ * the single path it names, lost events of a directory make the whole directory listed again. Directories which
+ * could not be registered, for example over the limit of watches, are listed again every {@link #RECONCILE_INTERVAL}.
+ */
+final class IndexWatcher implements AutoCloseable {
+
+    static final Duration RECONCILE_INTERVAL = Duration.ofSeconds(5);
+
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+    private Thread thread;
+
+    IndexWatcher(WatchService watchService) {
+        this.watchService = watchService;
+    }
+
+    void register(Path dir) throws IOException {
+        directories.put(dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), dir);
+    }
+
+    void unregisterTree(Path dir) {
+        directories.entrySet().removeIf(registered -> {
+            if (registered.getValue().startsWith(dir)) {
+                registered.getKey().cancel();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    void start(LiveIndex index) {
+        thread = Thread.ofPlatform()
+                .name("live-index-watcher")
+                .daemon()
+                .start(() -> processEvents(index));
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void processEvents(LiveIndex index) {
+        try {
+            long nextReconcile = System.nanoTime() + RECONCILE_INTERVAL.toNanos();
+            while (true) {
+                WatchKey key = watchService.poll(RECONCILE_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    process(index, key);
+                }
+
+                if (System.nanoTime() - nextReconcile >= 0) {
+                    index.reconcileUnwatched();
+                    nextReconcile = System.nanoTime() + RECONCILE_INTERVAL.toNanos();
+                }
+            }
+
+        } catch (ClosedWatchServiceException e) {
+            // Index closed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void process(LiveIndex index, WatchKey key) {
+        Path dir = directories.get(key);
+        if (dir != null) {
+            apply(index, dir, key);
+        }
+
+        if (!key.reset()) {
+            directories.remove(key);
+        }
+    }
+
+    private static void apply(LiveIndex index, Path dir, WatchKey key) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                index.rescan(dir);
+                return;
+            }
+
+            index.refresh(dir.resolve((Path) event.context()));
+        }
+    }
+}
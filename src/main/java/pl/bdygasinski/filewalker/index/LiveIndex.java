@@ -0,0 +1,416 @@
+package pl.bdygasinski.filewalker.index;
+
+import pl.bdygasinski.filewalker.cache.CachedAttributes;
+import pl.bdygasinski.filewalker.filesystem.EntryFileVisitor;
+import pl.bdygasinski.filewalker.filter.ExtensionSet;
+import pl.bdygasinski.filewalker.model.EntrySource;
+
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.FileVisitor;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * In-memory copy of a file tree, walked once and then kept up to date with file system events. Queries replay
+ * the index through a visitor instead of walking the disk, so they cost no file system calls. Replay stops at
+ * the depth limit of the visitor and, for queries filtering by extension, takes files of each directory from
+ * a lookup by extension, so it goes through directories within the depth and matching files only. Filters by
+ * name and size are still tested on every file replayed.
+ * <p>
+ * Changes are applied by a single thread, new subtrees are walked without the lock and swapped in under it. Queries
+ * hold the lock only while they copy children of the directory they are at, never while the visitor runs.
+ */
+public final class LiveIndex implements AutoCloseable {
+
+    public static final Duration RECONCILE_INTERVAL = IndexWatcher.RECONCILE_INTERVAL;
+
+    private final Path root;
+    private final DirectoryRegistrar registrar;
+    private final IndexWatcher watcher;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Set<Path> unwatched = ConcurrentHashMap.newKeySet();
+    private volatile IndexNode rootNode;
+
+    private LiveIndex(Path root, DirectoryRegistrar registrar, IndexWatcher watcher) {
+        this.root = requireNonNull(root, "Root is required but got %s".formatted(root));
+        this.registrar = registrar;
+        this.watcher = watcher;
+    }
+
+    /**
+     * Walks the tree and starts watching every directory of it on a background thread,
+     * until the index is closed.
+     */
+    public static LiveIndex watching(Path root) throws IOException {
+        IndexWatcher watcher = new IndexWatcher(root.getFileSystem().newWatchService());
+        LiveIndex index = new LiveIndex(root, watcher::register, watcher);
+        try {
+            index.rootNode = index.scan(root, nameOf(root));
+            watcher.start(index);
+            return index;
+
+        } catch (IOException | RuntimeException e) {
+            watcher.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Walks the tree once, the index does not follow later changes.
+     */
+    static LiveIndex of(Path root) throws IOException {
+        return of(root, DirectoryRegistrar.NONE);
+    }
+
+    static LiveIndex of(Path root, DirectoryRegistrar registrar) throws IOException {
+        LiveIndex index = new LiveIndex(root, registrar, null);
+        index.rootNode = index.scan(root, nameOf(root));
+        return index;
+    }
+
+    /**
+     * Gives source of entries the visitor picks from the index, with the same depth limit and filters
+     * as it would apply to a walk of the tree.
+     */
+    public EntrySource sourceFor(EntryFileVisitor visitor) {
+        return sourceFor(visitor, List.of());
+    }
+
+    /**
+     * Same as {@link #sourceFor(EntryFileVisitor)}, with files looked up by extension instead of replayed one by one.
+     *
+     * @param extensions extensions the visitor filters files by, empty list replays every file
+     */
+    public EntrySource sourceFor(EntryFileVisitor visitor, Collection<String> extensions) {
+        requireNonNull(visitor, "Visitor is required but got %s".formatted(visitor));
+        requireNonNull(extensions, "Extensions are required but got %s".formatted(extensions));
+
+        Set<String> lookedUp = ExtensionSet.normalize(extensions);
+        return action -> {
+            EntryFileVisitor streaming = visitor.streamingTo(action);
+            replay(streaming, node -> streaming.isPastMaxDepth() ? List.of() : childrenOf(node, lookedUp));
+        };
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * @return number of directories which could not be watched and are reconciled periodically instead
+     */
+    public int getUnwatchedDirectories() {
+        return unwatched.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+
+    void replay(FileVisitor<? super Path> visitor) {
+        replay(visitor, this::childrenOf);
+    }
+
+    /**
+     * @param children gives children of a directory the visitor entered, which are replayed in turn
+     */
+    private void replay(FileVisitor<? super Path> visitor, Function<IndexNode, List<IndexNode>> children) {
+        try {
+            replay(root, rootNode, visitor, children);
+
+        } catch (IOException e) {
+            throw new IllegalStateException("In-memory visit failed", e);
+        }
+    }
+
+    /**
+     * Brings single path up to date: reads it again, indexes whole subtree of a directory seen for the first time
+     * and drops the path from the index when it no longer exists.
+     */
+    void refresh(Path path) {
+        BasicFileAttributes attrs = null;
+        IOException failure = null;
+        try {
+            attrs = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+
+        } catch (NoSuchFileException e) {
+            // Dropped below
+        } catch (IOException e) {
+            failure = e;
+        }
+
+        String name = nameOf(path);
+        IndexNode scanned = attrs != null && attrs.isDirectory() && !isIndexedDirectory(path)
+                ? scanOrFailed(path, name)
+                : null;
+
+        lock.writeLock().lock();
+        try {
+            IndexNode parent = nodeOf(path.getParent());
+            if (parent == null || !parent.isDirectory()) {
+                return;
+            }
+
+            IndexNode current = parent.child(name);
+            if (failure != null) {
+                parent.putChild(IndexNode.failed(name, failure));
+            } else if (attrs == null) {
+                remove(parent, path);
+            } else if (current != null && current.isDirectory() && attrs.isDirectory()) {
+                current.update(CachedAttributes.copyOf(attrs));
+            } else if (attrs.isDirectory()) {
+                remove(parent, path);
+                parent.putChild(scanned != null ? scanned : scanOrFailed(path, name));
+            } else {
+                remove(parent, path);
+                parent.putChild(IndexNode.of(name, CachedAttributes.copyOf(attrs)));
+            }
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Lists the directory again and reconciles its children with the listing, used when events for it were lost.
+     * Subdirectories already in the index keep their content, they are watched on their own.
+     */
+    void rescan(Path dir) {
+        Set<String> listed = new HashSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path child : stream) {
+                listed.add(nameOf(child));
+                refresh(child);
+            }
+
+        } catch (NoSuchFileException e) {
+            refresh(dir);
+            return;
+
+        } catch (IOException | DirectoryIteratorException e) {
+            // Keep what is known, next event for the directory gives another chance
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            IndexNode node = nodeOf(dir);
+            if (node == null || !node.isDirectory()) {
+                return;
+            }
+
+            node.children().stream()
+                    .map(IndexNode::name)
+                    .filter(name -> !listed.contains(name))
+                    .toList()
+                    .forEach(name -> remove(node, dir.resolve(name)));
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tries to register every directory which could not be watched again and lists it again, so changes made in it
+     * since the last reconcile show up with a delay instead of never.
+     */
+    void reconcileUnwatched() {
+        for (Path dir : List.copyOf(unwatched)) {
+            try {
+                registrar.register(dir);
+                unwatched.remove(dir);
+                IndexNode node = indexedNode(dir);
+                if (node != null) {
+                    node.watchFailed(null);
+                }
+
+            } catch (IOException e) {
+                // Still over the limit, keeps being reconciled
+            }
+
+            rescan(dir);
+        }
+    }
+
+    private void remove(IndexNode parent, Path path) {
+        IndexNode removed = parent.removeChild(nameOf(path));
+        if (removed != null && removed.isDirectory()) {
+            unwatched.removeIf(dir -> dir.startsWith(path));
+            if (watcher != null) {
+                watcher.unregisterTree(path);
+            }
+        }
+    }
+
+    private boolean isIndexedDirectory(Path path) {
+        IndexNode node = indexedNode(path);
+        return node != null && node.isDirectory();
+    }
+
+    private IndexNode indexedNode(Path path) {
+        lock.readLock().lock();
+        try {
+            return nodeOf(path);
+
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<IndexNode> childrenOf(IndexNode node) {
+        lock.readLock().lock();
+        try {
+            return List.copyOf(node.children());
+
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<IndexNode> childrenOf(IndexNode node, Set<String> extensions) {
+        if (extensions.isEmpty()) {
+            return childrenOf(node);
+        }
+
+        lock.readLock().lock();
+        try {
+            return node.childrenWithExtensions(extensions);
+
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private IndexNode nodeOf(Path path) {
+        if (path == null || !path.startsWith(root)) {
+            return null;
+        }
+
+        IndexNode node = rootNode;
+        for (Path segment : root.relativize(path)) {
+            if (node == null || segment.toString().isEmpty()) {
+                break;
+            }
+            node = node.child(segment.toString());
+        }
+        return node;
+    }
+
+    private IndexNode scan(Path start, String startName) throws IOException {
+        TreeBuilder builder = new TreeBuilder(startName);
+        Files.walkFileTree(start, builder);
+        return builder.result;
+    }
+
+    private IndexNode scanOrFailed(Path start, String startName) {
+        try {
+            return scan(start, startName);
+
+        } catch (IOException e) {
+            return IndexNode.failed(startName, e);
+        }
+    }
+
+    private void replay(Path path, IndexNode node, FileVisitor<? super Path> visitor,
+                        Function<IndexNode, List<IndexNode>> children) throws IOException {
+        IOException failure = node.failure();
+        if (failure != null) {
+            visitor.visitFileFailed(path, failure);
+            return;
+        }
+
+        if (!node.isDirectory()) {
+            visitor.visitFile(path, node.attrs());
+            return;
+        }
+
+        if (visitor.preVisitDirectory(path, node.attrs()) != FileVisitResult.CONTINUE) {
+            return;
+        }
+
+        for (IndexNode child : children.apply(node)) {
+            replay(path.resolve(child.name()), child, visitor, children);
+        }
+        visitor.postVisitDirectory(path, null);
+    }
+
+    private static String nameOf(Path path) {
+        Path fileName = path.getFileName();
+        return fileName == null ? path.toString() : fileName.toString();
+    }
+
+    private final class TreeBuilder extends SimpleFileVisitor<Path> {
+        private final Deque<IndexNode> parents = new ArrayDeque<>();
+        private final String startName;
+        private IndexNode result;
+
+        private TreeBuilder(String startName) {
+            this.startName = startName;
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            IndexNode node = IndexNode.of(parents.isEmpty() ? startName : nameOf(dir), CachedAttributes.copyOf(attrs));
+            try {
+                registrar.register(dir);
+
+            } catch (IOException e) {
+                node.watchFailed(e);
+                unwatched.add(dir);
+            }
+
+            add(node);
+            parents.push(node);
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            add(IndexNode.of(parents.isEmpty() ? startName : nameOf(file), CachedAttributes.copyOf(attrs)));
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException exc) {
+            add(IndexNode.failed(parents.isEmpty() ? startName : nameOf(file), exc));
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+            parents.pop();
+            return FileVisitResult.CONTINUE;
+        }
+
+        private void add(IndexNode node) {
+            if (parents.isEmpty()) {
+                result = node;
+            } else {
+                parents.peek().putChild(node);
+            }
+        }
+    }
+}
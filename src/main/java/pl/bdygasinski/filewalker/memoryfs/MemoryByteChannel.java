@@ -0,0 +1,82 @@
+package pl.bdygasinski.filewalker.memoryfs;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * Read-only channel over the content of a file node.
+ */
+final class MemoryByteChannel implements SeekableByteChannel {
+
+    private final MemoryNode node;
+    private long position;
+    private boolean open = true;
+
+    MemoryByteChannel(MemoryNode node) {
+        this.node = node;
+    }
+
+    @Override
+    public int read(ByteBuffer destination) throws ClosedChannelException {
+        checkOpen();
+        if (position >= node.size()) {
+            return -1;
+        }
+
+        int count = (int) Math.min(destination.remaining(), node.size() - position);
+        for (int i = 0; i < count; i++) {
+            destination.put(node.contentAt(position++));
+        }
+        return count;
+    }
+
+    @Override
+    public int write(ByteBuffer source) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long position() throws ClosedChannelException {
+        checkOpen();
+        return position;
+    }
+
+    @Override
+    public SeekableByteChannel position(long newPosition) throws ClosedChannelException {
+        checkOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("Position must not be negative but got %s".formatted(newPosition));
+        }
+        position = newPosition;
+        return this;
+    }
+
+    @Override
+    public long size() throws ClosedChannelException {
+        checkOpen();
+        return node.size();
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() {
+        open = false;
+    }
+
+    private void checkOpen() throws ClosedChannelException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+    }
+}
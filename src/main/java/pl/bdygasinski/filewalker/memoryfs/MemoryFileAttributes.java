@@ -0,0 +1,55 @@
+package pl.bdygasinski.filewalker.memoryfs;
+
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * Attributes of a node, the node id is the file key.
+ */
+record MemoryFileAttributes(MemoryNode node) implements BasicFileAttributes {
+
+    @Override
+    public FileTime lastModifiedTime() {
+        return FileTime.fromMillis(node.lastModifiedMillis());
+    }
+
+    @Override
+    public FileTime lastAccessTime() {
+        return lastModifiedTime();
+    }
+
+    @Override
+    public FileTime creationTime() {
+        return lastModifiedTime();
+    }
+
+    @Override
+    public boolean isRegularFile() {
+        return !node.isDirectory();
+    }
+
+    @Override
+    public boolean isDirectory() {
+        return node.isDirectory();
+    }
+
+    @Override
+    public boolean isSymbolicLink() {
+        return false;
+    }
+
+    @Override
+    public boolean isOther() {
+        return false;
+    }
+
+    @Override
+    public long size() {
+        return node.size();
+    }
+
+    @Override
+    public Object fileKey() {
+        return node.id();
+    }
+}
@@ -0,0 +1,374 @@
+package pl.bdygasinski.filewalker.memoryfs;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.ClosedFileSystemException;
+import java.nio.file.FileStore;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.UserPrincipalLookupService;
+import java.nio.file.spi.FileSystemProvider;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Read-only file system kept in memory, for tests and benchmarks which need big trees without page cache noise.
+ * Trees are built once with {@link #builder()}, either from explicit paths or generated from a seed, so the same
+ * seed always gives the same tree. Every file system call can be slowed down by a fixed latency to mimic network
+ * file systems, calls are counted.
+ */
+public final class MemoryFileSystem extends FileSystem {
+
+    private static final AtomicInteger FILE_SYSTEM_IDS = new AtomicInteger();
+
+    private final String id;
+    private final MemoryFileSystemProvider provider;
+    private final MemoryNode root;
+    private final int nodeCount;
+    private final long latencyNanos;
+    private final LongAdder calls = new LongAdder();
+    private volatile boolean open = true;
+
+    private MemoryFileSystem(MemoryNode root, int nodeCount, Duration latency) {
+        this.id = "fs" + FILE_SYSTEM_IDS.incrementAndGet();
+        this.provider = new MemoryFileSystemProvider(this);
+        this.root = root;
+        this.nodeCount = nodeCount;
+        this.latencyNanos = latency.toNanos();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return number of files and directories, including the root
+     */
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @return number of file system calls so far, each of them paid the latency
+     */
+    public long callCount() {
+        return calls.sum();
+    }
+
+    public Duration latency() {
+        return Duration.ofNanos(latencyNanos);
+    }
+
+    @Override
+    public FileSystemProvider provider() {
+        return provider;
+    }
+
+    @Override
+    public void close() {
+        open = false;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public String getSeparator() {
+        return "/";
+    }
+
+    @Override
+    public Iterable<Path> getRootDirectories() {
+        return List.of(MemoryPath.root(this));
+    }
+
+    @Override
+    public Iterable<FileStore> getFileStores() {
+        return List.of();
+    }
+
+    @Override
+    public Set<String> supportedFileAttributeViews() {
+        return Set.of("basic");
+    }
+
+    @Override
+    public Path getPath(String first, String... more) {
+        return MemoryPath.parse(this, first, more);
+    }
+
+    /**
+     * Matches the string form of paths with the matcher of the default file system.
+     */
+    @Override
+    public PathMatcher getPathMatcher(String syntaxAndPattern) {
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher(syntaxAndPattern);
+        return path -> matcher.matches(Path.of(path.toString()));
+    }
+
+    @Override
+    public UserPrincipalLookupService getUserPrincipalLookupService() {
+        throw new UnsupportedOperationException("In-memory file system has no users");
+    }
+
+    @Override
+    public WatchService newWatchService() {
+        throw new UnsupportedOperationException("In-memory file system can't be watched");
+    }
+
+    @Override
+    public String toString() {
+        return "%s://%s".formatted(MemoryFileSystemProvider.SCHEME, id);
+    }
+
+    String id() {
+        return id;
+    }
+
+    /**
+     * Counts the call and waits for the latency, throws if the file system is closed.
+     */
+    void call() throws InterruptedIOException {
+        if (!open) {
+            throw new ClosedFileSystemException();
+        }
+
+        calls.increment();
+        long deadline = System.nanoTime() + latencyNanos;
+        for (long remaining = latencyNanos; remaining > 0; remaining = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for in-memory file system call");
+            }
+        }
+    }
+
+    MemoryNode lookup(MemoryPath path) throws NoSuchFileException {
+        MemoryNode node = root;
+        for (String name : ((MemoryPath) path.toAbsolutePath().normalize()).names()) {
+            node = node.isDirectory() ? node.child(name) : null;
+            if (node == null) {
+                throw new NoSuchFileException(path.toString());
+            }
+        }
+        return node;
+    }
+
+    public static final class Builder {
+
+        private static final String[] EXTENSIONS = {"txt", "java", "html", "png", "json", "md", "log", "jar", "csv", "xml"};
+        private static final long BASE_MODIFICATION_MILLIS = 1_700_000_000_000L;
+        private static final long MODIFICATION_SPREAD_MILLIS = Duration.ofDays(365).toMillis();
+
+        private final MemoryNode root = MemoryNode.directory(0, "", BASE_MODIFICATION_MILLIS, true);
+        private int nextId = 1;
+        private long seed = 0;
+        private int maxDepth = 8;
+        private int fanOut = 16;
+        private double directoryRatio = 0.1;
+        private double hiddenRatio = 0.05;
+        private double unreadableRatio = 0.01;
+        private Duration latency = Duration.ZERO;
+
+        private Builder() { }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * @param maxDepth deepest level of generated directories below the directory the tree is generated in
+         */
+        public Builder maxDepth(int maxDepth) {
+            if (maxDepth < 1) {
+                throw new IllegalArgumentException("Max depth must be positive but got %s".formatted(maxDepth));
+            }
+            this.maxDepth = maxDepth;
+            return this;
+        }
+
+        /**
+         * @param fanOut average number of children of a generated directory
+         */
+        public Builder fanOut(int fanOut) {
+            if (fanOut < 1) {
+                throw new IllegalArgumentException("Fan out must be positive but got %s".formatted(fanOut));
+            }
+            this.fanOut = fanOut;
+            return this;
+        }
+
+        public Builder directoryRatio(double directoryRatio) {
+            this.directoryRatio = checkRatio(directoryRatio);
+            return this;
+        }
+
+        public Builder hiddenRatio(double hiddenRatio) {
+            this.hiddenRatio = checkRatio(hiddenRatio);
+            return this;
+        }
+
+        public Builder unreadableRatio(double unreadableRatio) {
+            this.unreadableRatio = checkRatio(unreadableRatio);
+            return this;
+        }
+
+        public Builder latency(Duration latency) {
+            requireNonNull(latency, "Latency is required but got %s".formatted(latency));
+            if (latency.isNegative()) {
+                throw new IllegalArgumentException("Latency must not be negative but got %s".formatted(latency));
+            }
+            this.latency = latency;
+            return this;
+        }
+
+        public Builder directory(String path) {
+            directoryNode(path, true);
+            return this;
+        }
+
+        /**
+         * Adds directory whose attributes can be read, but which can't be listed.
+         */
+        public Builder unreadableDirectory(String path) {
+            directoryNode(path, false);
+            return this;
+        }
+
+        public Builder file(String path, long size) {
+            if (size < 0) {
+                throw new IllegalArgumentException("Size must not be negative but got %s".formatted(size));
+            }
+            String[] names = namesOf(path);
+            parentOf(names).addChild(MemoryNode.file(nextId++, lastName(names), size, BASE_MODIFICATION_MILLIS));
+            return this;
+        }
+
+        public Builder file(String path, byte[] content) {
+            String[] names = namesOf(path);
+            parentOf(names).addChild(MemoryNode.file(nextId++, lastName(names), content, BASE_MODIFICATION_MILLIS));
+            return this;
+        }
+
+        /**
+         * Generates tree of files and directories from the seed in the directory, which is created if needed.
+         * Directories are filled breadth first, with random number of children around the fan out, random sizes
+         * spread over orders of magnitude and hidden and unreadable entries in the configured ratios.
+         */
+        public Builder generate(String path, int entries) {
+            if (entries < 0) {
+                throw new IllegalArgumentException("Entries must not be negative but got %s".formatted(entries));
+            }
+
+            MemoryNode base = directoryNode(path, true);
+            var random = new SplittableRandom(seed);
+            Deque<MemoryNode> directories = new ArrayDeque<>();
+            Deque<Integer> depths = new ArrayDeque<>();
+            int created = 0;
+
+            while (created < entries) {
+                if (directories.isEmpty()) {
+                    directories.add(base);
+                    depths.add(0);
+                }
+
+                MemoryNode dir = directories.poll();
+                int depth = depths.poll();
+                int children = 1 + random.nextInt(2 * fanOut);
+                for (int i = 0; i < children && created < entries; i++, created++) {
+                    boolean isDirectory = depth + 1 < maxDepth && random.nextDouble() < directoryRatio;
+                    String name = (random.nextDouble() < hiddenRatio ? "." : "") + (isDirectory
+                            ? "dir-" + nextId
+                            : "file-%d.%s".formatted(nextId, EXTENSIONS[random.nextInt(EXTENSIONS.length)]));
+                    long lastModifiedMillis = BASE_MODIFICATION_MILLIS - random.nextLong(MODIFICATION_SPREAD_MILLIS);
+
+                    if (isDirectory) {
+                        boolean readable = random.nextDouble() >= unreadableRatio;
+                        MemoryNode child = MemoryNode.directory(nextId++, name, lastModifiedMillis, readable);
+                        dir.addChild(child);
+                        if (readable) {
+                            directories.add(child);
+                            depths.add(depth + 1);
+                        }
+                    } else {
+                        long size = random.nextLong(1L << random.nextInt(1, 28));
+                        dir.addChild(MemoryNode.file(nextId++, name, size, lastModifiedMillis));
+                    }
+                }
+            }
+            return this;
+        }
+
+        public MemoryFileSystem build() {
+            root.freeze();
+            return new MemoryFileSystem(root, nextId, latency);
+        }
+
+        private MemoryNode directoryNode(String path, boolean readable) {
+            MemoryNode node = root;
+            for (String name : namesOf(path)) {
+                MemoryNode child = node.child(name);
+                if (child == null) {
+                    child = MemoryNode.directory(nextId++, name, BASE_MODIFICATION_MILLIS, readable);
+                    node.addChild(child);
+                } else if (!child.isDirectory()) {
+                    throw new IllegalArgumentException("Path %s is not a directory".formatted(path));
+                }
+                node = child;
+            }
+            return node;
+        }
+
+        private MemoryNode parentOf(String[] names) {
+            String name = lastName(names);
+            MemoryNode parent = directoryNode(String.join("/", Arrays.copyOf(names, names.length - 1)), true);
+            if (parent.child(name) != null) {
+                throw new IllegalArgumentException("Path /%s already exists".formatted(String.join("/", names)));
+            }
+            return parent;
+        }
+
+        private static String[] namesOf(String path) {
+            return Arrays.stream(path.split("/"))
+                    .filter(name -> !name.isEmpty())
+                    .toArray(String[]::new);
+        }
+
+        private static String lastName(String[] names) {
+            if (names.length == 0) {
+                throw new IllegalArgumentException("Root can't be a file");
+            }
+            return names[names.length - 1];
+        }
+
+        private static double checkRatio(double ratio) {
+            if (ratio < 0 || ratio > 1) {
+                throw new IllegalArgumentException("Ratio must be between 0 and 1 but got %s".formatted(ratio));
+            }
+            return ratio;
+        }
+    }
+}
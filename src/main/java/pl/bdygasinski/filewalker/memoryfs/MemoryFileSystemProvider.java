@@ -0,0 +1,286 @@
+package pl.bdygasinski.filewalker.memoryfs;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.AccessMode;
+import java.nio.file.CopyOption;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileStore;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemException;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.LinkOption;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.ProviderMismatchException;
+import java.nio.file.ReadOnlyFileSystemException;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.FileAttributeView;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.spi.FileSystemProvider;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Provider of a single {@link MemoryFileSystem}. Only reading is supported, every call which reaches the tree
+ * goes through {@link MemoryFileSystem#call()}.
+ */
+final class MemoryFileSystemProvider extends FileSystemProvider {
+
+    static final String SCHEME = "memfs";
+
+    private final MemoryFileSystem fileSystem;
+
+    MemoryFileSystemProvider(MemoryFileSystem fileSystem) {
+        this.fileSystem = fileSystem;
+    }
+
+    @Override
+    public String getScheme() {
+        return SCHEME;
+    }
+
+    @Override
+    public FileSystem newFileSystem(URI uri, Map<String, ?> env) {
+        throw new UnsupportedOperationException("In-memory file systems are created with MemoryFileSystem.builder()");
+    }
+
+    @Override
+    public FileSystem getFileSystem(URI uri) {
+        if (!SCHEME.equals(uri.getScheme()) || !fileSystem.id().equals(uri.getAuthority())) {
+            throw new FileSystemNotFoundException(uri.toString());
+        }
+        return fileSystem;
+    }
+
+    @Override
+    public Path getPath(URI uri) {
+        return getFileSystem(uri).getPath(uri.getPath());
+    }
+
+    @Override
+    public SeekableByteChannel newByteChannel(Path path, Set<? extends OpenOption> options, FileAttribute<?>... attrs) throws IOException {
+        for (OpenOption option : options) {
+            if (option == StandardOpenOption.WRITE || option == StandardOpenOption.APPEND
+                    || option == StandardOpenOption.CREATE_NEW || option == StandardOpenOption.DELETE_ON_CLOSE) {
+                throw new ReadOnlyFileSystemException();
+            }
+        }
+
+        MemoryNode node = nodeOf(path);
+        if (node.isDirectory()) {
+            throw new FileSystemException(path.toString(), null, "Is a directory");
+        }
+        return new MemoryByteChannel(node);
+    }
+
+    @Override
+    public DirectoryStream<Path> newDirectoryStream(Path dir, DirectoryStream.Filter<? super Path> filter) throws IOException {
+        MemoryNode node = nodeOf(dir);
+        if (!node.isDirectory()) {
+            throw new NotDirectoryException(dir.toString());
+        }
+        if (!node.isReadable()) {
+            throw new AccessDeniedException(dir.toString());
+        }
+        return new ChildrenStream(dir, node.children(), filter);
+    }
+
+    @Override
+    public void createDirectory(Path dir, FileAttribute<?>... attrs) {
+        throw new ReadOnlyFileSystemException();
+    }
+
+    @Override
+    public void delete(Path path) {
+        throw new ReadOnlyFileSystemException();
+    }
+
+    @Override
+    public void copy(Path source, Path target, CopyOption... options) {
+        throw new ReadOnlyFileSystemException();
+    }
+
+    @Override
+    public void move(Path source, Path target, CopyOption... options) {
+        throw new ReadOnlyFileSystemException();
+    }
+
+    @Override
+    public boolean isSameFile(Path path, Path other) throws IOException {
+        return path.equals(other) || nodeOf(path) == nodeOf(other);
+    }
+
+    @Override
+    public boolean isHidden(Path path) {
+        Path fileName = checkPath(path).getFileName();
+        return fileName != null && fileName.toString().startsWith(".");
+    }
+
+    @Override
+    public FileStore getFileStore(Path path) {
+        throw new UnsupportedOperationException("In-memory file system has no file stores");
+    }
+
+    @Override
+    public void checkAccess(Path path, AccessMode... modes) throws IOException {
+        MemoryNode node = nodeOf(path);
+        for (AccessMode mode : modes) {
+            if (mode == AccessMode.WRITE || (mode == AccessMode.READ && !node.isReadable())) {
+                throw new AccessDeniedException(path.toString());
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <V extends FileAttributeView> V getFileAttributeView(Path path, Class<V> type, LinkOption... options) {
+        if (type != BasicFileAttributeView.class) {
+            return null;
+        }
+
+        return (V) new BasicFileAttributeView() {
+            @Override
+            public String name() {
+                return "basic";
+            }
+
+            @Override
+            public BasicFileAttributes readAttributes() throws IOException {
+                return MemoryFileSystemProvider.this.readAttributes(path, BasicFileAttributes.class);
+            }
+
+            @Override
+            public void setTimes(FileTime lastModifiedTime, FileTime lastAccessTime, FileTime createTime) {
+                throw new ReadOnlyFileSystemException();
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <A extends BasicFileAttributes> A readAttributes(Path path, Class<A> type, LinkOption... options) throws IOException {
+        if (!type.isAssignableFrom(MemoryFileAttributes.class)) {
+            throw new UnsupportedOperationException("Only basic attributes are supported but got %s".formatted(type));
+        }
+        return (A) new MemoryFileAttributes(nodeOf(path));
+    }
+
+    @Override
+    public Map<String, Object> readAttributes(Path path, String attributes, LinkOption... options) throws IOException {
+        String names = attributes.startsWith("basic:") ? attributes.substring("basic:".length()) : attributes;
+        if (names.contains(":")) {
+            throw new UnsupportedOperationException("Only basic attributes are supported but got %s".formatted(attributes));
+        }
+
+        BasicFileAttributes attrs = new MemoryFileAttributes(nodeOf(path));
+        Map<String, Object> all = new LinkedHashMap<>();
+        all.put("lastModifiedTime", attrs.lastModifiedTime());
+        all.put("lastAccessTime", attrs.lastAccessTime());
+        all.put("creationTime", attrs.creationTime());
+        all.put("size", attrs.size());
+        all.put("isRegularFile", attrs.isRegularFile());
+        all.put("isDirectory", attrs.isDirectory());
+        all.put("isSymbolicLink", attrs.isSymbolicLink());
+        all.put("isOther", attrs.isOther());
+        all.put("fileKey", attrs.fileKey());
+
+        if (names.equals("*")) {
+            return all;
+        }
+
+        Map<String, Object> selected = new LinkedHashMap<>();
+        for (String name : names.split(",")) {
+            if (!all.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown attribute %s".formatted(name));
+            }
+            selected.put(name, all.get(name));
+        }
+        return selected;
+    }
+
+    @Override
+    public void setAttribute(Path path, String attribute, Object value, LinkOption... options) {
+        throw new ReadOnlyFileSystemException();
+    }
+
+    private MemoryNode nodeOf(Path path) throws IOException {
+        MemoryPath memoryPath = checkPath(path);
+        fileSystem.call();
+        return fileSystem.lookup(memoryPath);
+    }
+
+    private MemoryPath checkPath(Path path) {
+        if (!(path instanceof MemoryPath memoryPath) || memoryPath.getFileSystem() != fileSystem) {
+            throw new ProviderMismatchException("Path %s is not from %s".formatted(path, fileSystem));
+        }
+        return memoryPath;
+    }
+
+    private static final class ChildrenStream implements DirectoryStream<Path> {
+        private final Path dir;
+        private final MemoryNode[] children;
+        private final Filter<? super Path> filter;
+        private boolean isIteratorTaken = false;
+        private boolean isClosed = false;
+
+        private ChildrenStream(Path dir, MemoryNode[] children, Filter<? super Path> filter) {
+            this.dir = dir;
+            this.children = children;
+            this.filter = filter;
+        }
+
+        @Override
+        public Iterator<Path> iterator() {
+            if (isIteratorTaken || isClosed) {
+                throw new IllegalStateException("Iterator already taken or stream closed");
+            }
+            isIteratorTaken = true;
+
+            return new Iterator<>() {
+                private int index = 0;
+                private Path next;
+
+                @Override
+                public boolean hasNext() {
+                    while (next == null && !isClosed && index < children.length) {
+                        Path candidate = dir.resolve(children[index++].name());
+                        try {
+                            if (filter == null || filter.accept(candidate)) {
+                                next = candidate;
+                            }
+                        } catch (IOException e) {
+                            throw new DirectoryIteratorException(e);
+                        }
+                    }
+                    return next != null;
+                }
+
+                @Override
+                public Path next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Path result = next;
+                    next = null;
+                    return result;
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            isClosed = true;
+        }
+    }
+}
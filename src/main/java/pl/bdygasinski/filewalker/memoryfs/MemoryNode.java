@@ -0,0 +1,140 @@
+package pl.bdygasinski.filewalker.memoryfs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * File or directory of the in-memory file system. Children of a directory are collected while the tree is built
+ * and frozen into an array sorted by name, which is also the listing order.
+ */
+final class MemoryNode {
+
+    private static final MemoryNode[] NO_CHILDREN = {};
+
+    private final int id;
+    private final String name;
+    private final boolean directory;
+    private final long size;
+    private final long lastModifiedMillis;
+    private final boolean readable;
+    private final byte[] content;
+    private List<MemoryNode> pendingChildren;
+    private MemoryNode[] children = NO_CHILDREN;
+
+    private MemoryNode(int id, String name, boolean directory, long size, long lastModifiedMillis, boolean readable, byte[] content) {
+        this.id = id;
+        this.name = name;
+        this.directory = directory;
+        this.size = size;
+        this.lastModifiedMillis = lastModifiedMillis;
+        this.readable = readable;
+        this.content = content;
+        this.pendingChildren = directory ? new ArrayList<>() : null;
+    }
+
+    static MemoryNode directory(int id, String name, long lastModifiedMillis, boolean readable) {
+        return new MemoryNode(id, name, true, 4096, lastModifiedMillis, readable, null);
+    }
+
+    static MemoryNode file(int id, String name, long size, long lastModifiedMillis) {
+        return new MemoryNode(id, name, false, size, lastModifiedMillis, true, null);
+    }
+
+    static MemoryNode file(int id, String name, byte[] content, long lastModifiedMillis) {
+        return new MemoryNode(id, name, false, content.length, lastModifiedMillis, true, content.clone());
+    }
+
+    int id() {
+        return id;
+    }
+
+    String name() {
+        return name;
+    }
+
+    boolean isDirectory() {
+        return directory;
+    }
+
+    long size() {
+        return size;
+    }
+
+    long lastModifiedMillis() {
+        return lastModifiedMillis;
+    }
+
+    boolean isReadable() {
+        return readable;
+    }
+
+    /**
+     * Files added without content have generated content, the same for every read of the same node.
+     */
+    byte contentAt(long position) {
+        if (content != null) {
+            return content[(int) position];
+        }
+        long mixed = (id * 0x9E3779B97F4A7C15L) ^ (position / 64);
+        return (byte) ((mixed ^ (mixed >>> 29)) + position);
+    }
+
+    MemoryNode[] children() {
+        return children;
+    }
+
+    MemoryNode child(String name) {
+        if (pendingChildren != null) {
+            for (MemoryNode child : pendingChildren) {
+                if (child.name.equals(name)) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        int low = 0;
+        int high = children.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int comparison = children[mid].name.compareTo(name);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return children[mid];
+            }
+        }
+        return null;
+    }
+
+    void addChild(MemoryNode child) {
+        pendingChildren.add(child);
+    }
+
+    /**
+     * Fixes children of the whole subtree, directories can't be changed afterwards.
+     */
+    void freeze() {
+        List<MemoryNode> directories = new ArrayList<>();
+        directories.add(this);
+        while (!directories.isEmpty()) {
+            MemoryNode dir = directories.removeLast();
+            if (dir.pendingChildren == null) {
+                continue;
+            }
+
+            dir.children = dir.pendingChildren.toArray(MemoryNode[]::new);
+            Arrays.sort(dir.children, Comparator.comparing(MemoryNode::name));
+            dir.pendingChildren = null;
+            for (MemoryNode child : dir.children) {
+                if (child.directory) {
+                    directories.add(child);
+                }
+            }
+        }
+    }
+}
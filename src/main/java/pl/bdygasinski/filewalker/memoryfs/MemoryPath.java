@@ -0,0 +1,250 @@
+package pl.bdygasinski.filewalker.memoryfs;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.ProviderMismatchException;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Path of the in-memory file system, a list of names which is absolute when it starts at {@code /}.
+ * Like on Unix, the empty path has a single empty name.
+ */
+final class MemoryPath implements Path {
+
+    private static final String[] EMPTY_NAMES = {""};
+
+    private final MemoryFileSystem fileSystem;
+    private final boolean absolute;
+    private final String[] names;
+
+    private MemoryPath(MemoryFileSystem fileSystem, boolean absolute, String[] names) {
+        this.fileSystem = fileSystem;
+        this.absolute = absolute;
+        this.names = !absolute && names.length == 0 ? EMPTY_NAMES : names;
+    }
+
+    static MemoryPath parse(MemoryFileSystem fileSystem, String first, String... more) {
+        var joined = new StringBuilder(first);
+        for (String part : more) {
+            if (!part.isEmpty()) {
+                joined.append('/').append(part);
+            }
+        }
+
+        String path = joined.toString();
+        String[] names = Arrays.stream(path.split("/"))
+                .filter(name -> !name.isEmpty())
+                .toArray(String[]::new);
+        return new MemoryPath(fileSystem, path.startsWith("/"), names);
+    }
+
+    static MemoryPath root(MemoryFileSystem fileSystem) {
+        return new MemoryPath(fileSystem, true, new String[0]);
+    }
+
+    String[] names() {
+        return isEmpty() ? new String[0] : names.clone();
+    }
+
+    @Override
+    public MemoryFileSystem getFileSystem() {
+        return fileSystem;
+    }
+
+    @Override
+    public boolean isAbsolute() {
+        return absolute;
+    }
+
+    @Override
+    public Path getRoot() {
+        return absolute ? root(fileSystem) : null;
+    }
+
+    @Override
+    public Path getFileName() {
+        if (names.length == 0) {
+            return null;
+        }
+        if (isEmpty()) {
+            return this;
+        }
+        return new MemoryPath(fileSystem, false, new String[]{names[names.length - 1]});
+    }
+
+    @Override
+    public Path getParent() {
+        if (names.length == 0 || (names.length == 1 && !absolute)) {
+            return null;
+        }
+        return new MemoryPath(fileSystem, absolute, Arrays.copyOf(names, names.length - 1));
+    }
+
+    @Override
+    public int getNameCount() {
+        return names.length;
+    }
+
+    @Override
+    public Path getName(int index) {
+        if (index < 0 || index >= names.length) {
+            throw new IllegalArgumentException("Name index %s out of %s names".formatted(index, names.length));
+        }
+        return new MemoryPath(fileSystem, false, new String[]{names[index]});
+    }
+
+    @Override
+    public Path subpath(int beginIndex, int endIndex) {
+        if (beginIndex < 0 || endIndex > names.length || beginIndex >= endIndex) {
+            throw new IllegalArgumentException("Invalid subpath %s-%s of %s names".formatted(beginIndex, endIndex, names.length));
+        }
+        return new MemoryPath(fileSystem, false, Arrays.copyOfRange(names, beginIndex, endIndex));
+    }
+
+    @Override
+    public boolean startsWith(Path other) {
+        MemoryPath that = checkPath(other);
+        if (that.absolute != absolute || that.names.length > names.length) {
+            return false;
+        }
+        if (that.isEmpty()) {
+            return isEmpty();
+        }
+        return Arrays.equals(names, 0, that.names.length, that.names, 0, that.names.length);
+    }
+
+    @Override
+    public boolean endsWith(Path other) {
+        MemoryPath that = checkPath(other);
+        if (that.absolute) {
+            return equals(that);
+        }
+        if (that.names.length > names.length || that.isEmpty()) {
+            return that.isEmpty() && isEmpty();
+        }
+        return Arrays.equals(names, names.length - that.names.length, names.length, that.names, 0, that.names.length);
+    }
+
+    @Override
+    public Path normalize() {
+        List<String> normalized = new ArrayList<>();
+        for (String name : names) {
+            if (name.equals(".") || name.isEmpty()) {
+                continue;
+            }
+            if (name.equals("..") && !normalized.isEmpty() && !normalized.getLast().equals("..")) {
+                normalized.removeLast();
+            } else if (!name.equals("..") || !absolute) {
+                normalized.add(name);
+            }
+        }
+        return new MemoryPath(fileSystem, absolute, normalized.toArray(String[]::new));
+    }
+
+    @Override
+    public Path resolve(Path other) {
+        MemoryPath that = checkPath(other);
+        if (that.absolute) {
+            return that;
+        }
+        if (that.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            return that;
+        }
+
+        String[] resolved = Arrays.copyOf(names, names.length + that.names.length);
+        System.arraycopy(that.names, 0, resolved, names.length, that.names.length);
+        return new MemoryPath(fileSystem, absolute, resolved);
+    }
+
+    @Override
+    public Path relativize(Path other) {
+        MemoryPath that = checkPath(other);
+        if (that.absolute != absolute) {
+            throw new IllegalArgumentException("Can't relativize %s against %s".formatted(that, this));
+        }
+
+        String[] from = names();
+        String[] to = that.names();
+        int common = 0;
+        while (common < from.length && common < to.length && from[common].equals(to[common])) {
+            common++;
+        }
+
+        List<String> relative = new ArrayList<>();
+        for (int i = common; i < from.length; i++) {
+            relative.add("..");
+        }
+        relative.addAll(Arrays.asList(to).subList(common, to.length));
+        return new MemoryPath(fileSystem, false, relative.toArray(String[]::new));
+    }
+
+    @Override
+    public URI toUri() {
+        try {
+            return new URI(MemoryFileSystemProvider.SCHEME, fileSystem.id(), toAbsolutePath().toString(), null);
+
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public MemoryPath toAbsolutePath() {
+        return absolute ? this : (MemoryPath) root(fileSystem).resolve(this);
+    }
+
+    @Override
+    public Path toRealPath(LinkOption... options) throws IOException {
+        MemoryPath real = (MemoryPath) toAbsolutePath().normalize();
+        fileSystem.provider().checkAccess(real);
+        return real;
+    }
+
+    @Override
+    public WatchKey register(WatchService watcher, WatchEvent.Kind<?>[] events, WatchEvent.Modifier... modifiers) {
+        throw new UnsupportedOperationException("In-memory file system can't be watched");
+    }
+
+    @Override
+    public int compareTo(Path other) {
+        return toString().compareTo(checkPath(other).toString());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof MemoryPath that)) return false;
+        return fileSystem == that.fileSystem && absolute == that.absolute && Arrays.equals(names, that.names);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Boolean.hashCode(absolute) + Arrays.hashCode(names);
+    }
+
+    @Override
+    public String toString() {
+        return (absolute ? "/" : "") + String.join("/", names);
+    }
+
+    private boolean isEmpty() {
+        return !absolute && names.length == 1 && names[0].isEmpty();
+    }
+
+    private MemoryPath checkPath(Path path) {
+        if (!(path instanceof MemoryPath memoryPath) || memoryPath.fileSystem != fileSystem) {
+            throw new ProviderMismatchException("Path %s is not from %s".formatted(path, fileSystem));
+        }
+        return memoryPath;
+    }
+}
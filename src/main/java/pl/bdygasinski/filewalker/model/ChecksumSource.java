@@ -0,0 +1,12 @@
+package pl.bdygasinski.filewalker.model;
+
+import java.util.function.Consumer;
+
+/**
+ * Source pushing checksums of files to the action in the order files were discovered.
+ */
+@FunctionalInterface
+public interface ChecksumSource {
+
+    void forEachChecksum(Consumer<? super FileChecksum> action);
+}
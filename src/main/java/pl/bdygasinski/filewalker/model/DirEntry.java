@@ -3,12 +3,24 @@ package pl.bdygasinski.filewalker.model;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+import java.util.StringJoiner;
 
 import static java.util.Objects.isNull;
 
-public record DirEntry(String baseName, int depthLevel, boolean isVisible, Path path) implements Entry {
+public final class DirEntry implements Entry {
 
-    public DirEntry {
+    private final String baseName;
+    private final int depthLevel;
+    private final boolean isVisible;
+    private final Path path;
+
+    public DirEntry(String baseName, int depthLevel, boolean isVisible, Path path) {
+        this(baseName, depthLevel, isVisible, path, true);
+    }
+
+    private DirEntry(String baseName, int depthLevel, boolean isVisible, Path path, boolean verifyPath) {
         if (isNull(baseName)) {
             throw new IllegalArgumentException("Basename can't be null but is %s".formatted(baseName));
         }
@@ -17,9 +29,14 @@ public record DirEntry(String baseName, int depthLevel, boolean isVisible, Path
             throw new IllegalArgumentException("Depth level must be positive but is %s".formatted(depthLevel));
         }
 
-        if (!Files.isDirectory(path)) {
+        if (verifyPath && !Files.isDirectory(path)) {
             throw new IllegalArgumentException("Can't create DirEntry from file path: %s".formatted(path));
         }
+
+        this.baseName = baseName;
+        this.depthLevel = depthLevel;
+        this.isVisible = isVisible;
+        this.path = path;
     }
 
     public static Entry fromPathAndDepthLevel(Path path, int depthLevel) {
@@ -32,4 +49,64 @@ public record DirEntry(String baseName, int depthLevel, boolean isVisible, Path
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Creates entry from attributes already read by the caller, so the path is not touched again.
+     * Attributes must describe a directory.
+     */
+    public static Entry fromAttributesAndDepthLevel(Path path, BasicFileAttributes attrs, int depthLevel) {
+        if (!attrs.isDirectory()) {
+            throw new IllegalArgumentException("Can't create DirEntry from file path: %s".formatted(path));
+        }
+
+        return new DirEntry(EntryNames.baseName(path), depthLevel, EntryNames.isVisible(path, attrs), path, false);
+    }
+
+    /**
+     * Recreates entry from values stored earlier, without touching the path.
+     */
+    static DirEntry fromColumns(Path path, int depthLevel, boolean isVisible) {
+        return new DirEntry(EntryNames.baseName(path), depthLevel, isVisible, path, false);
+    }
+
+    @Override
+    public String baseName() {
+        return baseName;
+    }
+
+    @Override
+    public int depthLevel() {
+        return depthLevel;
+    }
+
+    @Override
+    public boolean isVisible() {
+        return isVisible;
+    }
+
+    @Override
+    public Path path() {
+        return path;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", DirEntry.class.getSimpleName() + "[", "]")
+                .add("baseName=" + baseName)
+                .add("depthLevel=" + depthLevel)
+                .add("isVisible=" + isVisible)
+                .add("path=" + path)
+                .toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof DirEntry dirEntry)) return false;
+        return depthLevel == dirEntry.depthLevel && isVisible == dirEntry.isVisible
+                && Objects.equals(baseName, dirEntry.baseName) && Objects.equals(path, dirEntry.path);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(baseName, depthLevel, isVisible, path);
+    }
+}
@@ -0,0 +1,21 @@
+package pl.bdygasinski.filewalker.model;
+
+import java.nio.file.Path;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Sizes of all files in the subtree of a directory.
+ *
+ * @param failures files and directories below, which attributes or listing could not be read,
+ *                 so totals are lower bounds when it is positive
+ */
+public record DirectoryTotal(Path path, int depthLevel, long sizeInBytes, long files, long failures) {
+
+    public DirectoryTotal {
+        requireNonNull(path, "Path is required but got %s".formatted(path));
+        if (depthLevel < 0) {
+            throw new IllegalArgumentException("Depth level must be positive but is %s".formatted(depthLevel));
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package pl.bdygasinski.filewalker.model;
+
+import java.util.function.Consumer;
+
+/**
+ * Source pushing directory totals to the action as soon as subtrees are finished, so every directory comes after
+ * all of its subdirectories.
+ */
+@FunctionalInterface
+public interface DirectoryTotalSource {
+
+    void forEachTotal(Consumer<? super DirectoryTotal> action);
+}
@@ -0,0 +1,25 @@
+package pl.bdygasinski.filewalker.model;
+
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Files with the same content.
+ *
+ * @param digest hex encoded hash of the content
+ */
+public record DuplicateGroup(long sizeInBytes, String digest, List<FileEntry> files) {
+
+    public DuplicateGroup {
+        requireNonNull(digest, "Digest is required but got %s".formatted(digest));
+        files = List.copyOf(files);
+    }
+
+    /**
+     * @return bytes which would be freed by keeping only one of the files
+     */
+    public long wastedBytes() {
+        return sizeInBytes * (files.size() - 1);
+    }
+}
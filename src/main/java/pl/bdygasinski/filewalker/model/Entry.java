@@ -1,6 +1,7 @@
 package pl.bdygasinski.filewalker.model;
 
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayDeque;
 import java.util.List;
 import java.util.Optional;
@@ -42,4 +43,26 @@ public sealed interface Entry permits DirEntry, ErrorEntry, FileEntry {
 
         return new ErrorEntry(graphDepth, path);
     }
+
+    /**
+     * Tells whether entry of the path would be visible, without creating it or further file system calls.
+     */
+    static boolean isVisible(Path path, BasicFileAttributes attrs) {
+        return EntryNames.isVisible(path, attrs);
+    }
+
+    /**
+     * Builds entry from attributes the caller has already read, without further file system calls.
+     * Falls back to {@link #fromPathAndGraphDepth(Path, int)} when attributes are missing or describe
+     * a symbolic link, since the link target decides there whether it is a file or a directory.
+     */
+    static Entry fromAttributesAndGraphDepth(Path path, BasicFileAttributes attrs, int graphDepth) {
+        if (attrs == null || attrs.isSymbolicLink()) {
+            return fromPathAndGraphDepth(path, graphDepth);
+        }
+
+        return attrs.isDirectory()
+                ? DirEntry.fromAttributesAndDepthLevel(path, attrs, graphDepth)
+                : FileEntry.fromAttributesAndDepthLevel(path, attrs, graphDepth);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package pl.bdygasinski.filewalker.model;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.DosFileAttributes;
+
+final class EntryNames {
+
+    private EntryNames() { }
+
+    static String baseName(Path path) {
+        Path fileName = path.getFileName();
+        return fileName == null ? path.toString() : fileName.toString();
+    }
+
+    /**
+     * Hidden flag comes from DOS attributes where the file system has them, otherwise from the leading dot
+     * in the name, which is what {@link java.nio.file.Files#isHidden(Path)} checks on POSIX systems.
+     */
+    static boolean isVisible(Path path, BasicFileAttributes attrs) {
+        if (attrs instanceof DosFileAttributes dosAttrs) {
+            return !dosAttrs.isHidden();
+        }
+
+        Path fileName = path.getFileName();
+        return fileName == null || !fileName.toString().startsWith(".");
+    }
+}
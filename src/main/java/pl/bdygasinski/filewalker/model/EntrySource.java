@@ -0,0 +1,12 @@
+package pl.bdygasinski.filewalker.model;
+
+import java.util.function.Consumer;
+
+/**
+ * Source pushing entries to the action one by one as they are discovered, without collecting them first.
+ */
+@FunctionalInterface
+public interface EntrySource {
+
+    void forEachEntry(Consumer<? super Entry> action);
+}
@@ -0,0 +1,241 @@
+package pl.bdygasinski.filewalker.model;
+
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Column store of entries. Every entry takes a flags byte, a short depth and a long size, while its path is a node
+ * of the {@link PathTree} with an int parent reference and an int id of its interned name, about 19 bytes per entry
+ * instead of an object graph with a full path. Entries are recreated as {@link Entry} objects only when asked for,
+ * while sorting and aggregation can work on the primitive columns through the index based accessors.
+ * <p>
+ * Parent of an entry is the last added directory one level above it whose path is the parent path of the entry,
+ * which holds for entries added in walk order. Entries without such directory refer to their parent path directly.
+ * <p>
+ * {@link pl.bdygasinski.filewalker.filesystem.EntryFileVisitor} collects walked entries into a table, so results
+ * kept by providers cost the columns instead of an object per entry.
+ */
+public final class EntryTable implements EntrySource {
+
+    public static final byte FILE = 0;
+    public static final byte DIRECTORY = 1;
+    public static final byte ERROR = 2;
+
+    private static final int KIND_MASK = 0b011;
+    private static final int VISIBLE_FLAG = 0b100;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final char REPLACEMENT_CHARACTER = '\uFFFD';
+
+    private byte[] flags = new byte[INITIAL_CAPACITY];
+    private short[] depths = new short[INITIAL_CAPACITY];
+    private long[] sizes = new long[INITIAL_CAPACITY];
+    private int size;
+
+    private final PathTree paths = new PathTree();
+    private int[] openDirIndices = new int[8];
+    private Path[] openDirPaths = new Path[8];
+
+    public void add(Entry entry) {
+        requireNonNull(entry, "Entry is required but got %s".formatted(entry));
+        int depth = entry.depthLevel();
+        if (depth > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Depth level must be at most %s but got %s".formatted(Short.MAX_VALUE, depth));
+        }
+
+        ensureCapacity(size + 1);
+
+        byte kind = switch (entry) {
+            case FileEntry $ -> FILE;
+            case DirEntry $ -> DIRECTORY;
+            case ErrorEntry $ -> ERROR;
+        };
+        flags[size] = (byte) (kind | (entry.isVisible() ? VISIBLE_FLAG : 0));
+        depths[size] = (short) depth;
+        sizes[size] = kind == FILE ? entry.sizeInBytes().orElse(-1L) : -1L;
+        addPath(entry.path(), depth);
+
+        if (kind == DIRECTORY) {
+            openDirectory(size, entry.path(), depth);
+        }
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte kind(int index) {
+        return (byte) (flags[checkIndex(index)] & KIND_MASK);
+    }
+
+    public boolean isVisible(int index) {
+        return (flags[checkIndex(index)] & VISIBLE_FLAG) != 0;
+    }
+
+    public int depthLevel(int index) {
+        return depths[checkIndex(index)];
+    }
+
+    /**
+     * @return size of the file or -1 when it is unknown or the entry is not a file
+     */
+    public long sizeInBytes(int index) {
+        return sizes[checkIndex(index)];
+    }
+
+    /**
+     * @return index of the parent directory or -1 when the parent directory is not in the table
+     */
+    public int parentIndex(int index) {
+        return paths.parent(checkIndex(index));
+    }
+
+    public String baseName(int index) {
+        return paths.name(checkIndex(index));
+    }
+
+    public Path path(int index) {
+        return paths.path(checkIndex(index));
+    }
+
+    /**
+     * @return number of distinct names among all entries, each of them is stored once
+     */
+    public int distinctNames() {
+        return paths.distinctNames();
+    }
+
+    public Entry entry(int index) {
+        return entry(index, path(index));
+    }
+
+    /**
+     * Recreates entries in the order they were added, paths of the directories on the way are reused.
+     */
+    @Override
+    public void forEachEntry(Consumer<? super Entry> action) {
+        forEachEntry(size, action);
+    }
+
+    /**
+     * Gives read only view of entries added so far, entries added later are not part of it.
+     */
+    public List<Entry> asList() {
+        return new EntryList(size);
+    }
+
+    private void forEachEntry(int limit, Consumer<? super Entry> action) {
+        Path[] dirPaths = new Path[16];
+        int[] dirIndices = new int[16];
+
+        for (int i = 0; i < limit; i++) {
+            int parent = paths.parent(i);
+            int depth = depths[i];
+            Path parentPath;
+            if (parent < 0) {
+                parentPath = paths.externalParent(i);
+            } else if (depth > 0 && depth - 1 < dirPaths.length && dirIndices[depth - 1] == parent && dirPaths[depth - 1] != null) {
+                parentPath = dirPaths[depth - 1];
+            } else {
+                parentPath = path(parent);
+            }
+
+            Path path = paths.path(i, parentPath);
+            if ((flags[i] & KIND_MASK) == DIRECTORY) {
+                if (depth >= dirPaths.length) {
+                    dirPaths = Arrays.copyOf(dirPaths, depth * 2 + 1);
+                    dirIndices = Arrays.copyOf(dirIndices, depth * 2 + 1);
+                }
+                dirPaths[depth] = path;
+                dirIndices[depth] = i;
+            }
+            action.accept(entry(i, path));
+        }
+    }
+
+    private Entry entry(int index, Path path) {
+        boolean isVisible = (flags[index] & VISIBLE_FLAG) != 0;
+        return switch (flags[index] & KIND_MASK) {
+            case FILE -> FileEntry.fromColumns(path, depths[index], isVisible, sizes[index]);
+            case DIRECTORY -> DirEntry.fromColumns(path, depths[index], isVisible);
+            default -> new ErrorEntry(depths[index], path);
+        };
+    }
+
+    /**
+     * Names decoded with replacement characters, like file names which are not valid UTF-8, would resolve to other
+     * paths, so their paths are kept as they are.
+     */
+    private void addPath(Path path, int depth) {
+        String name = EntryNames.baseName(path);
+        Path parentPath = path.getParent();
+        if (parentPath == null) {
+            parentPath = path.getFileSystem().getPath("");
+        }
+
+        int node;
+        if (depth > 0 && depth - 1 < openDirPaths.length && parentPath.equals(openDirPaths[depth - 1])) {
+            node = paths.add(openDirIndices[depth - 1], name);
+        } else {
+            node = paths.addBelow(parentPath, name);
+        }
+
+        if (name.indexOf(REPLACEMENT_CHARACTER) >= 0) {
+            paths.keepPath(node, path);
+        }
+    }
+
+    private void openDirectory(int index, Path path, int depth) {
+        if (depth >= openDirPaths.length) {
+            openDirPaths = Arrays.copyOf(openDirPaths, depth * 2 + 1);
+            openDirIndices = Arrays.copyOf(openDirIndices, depth * 2 + 1);
+        }
+        openDirPaths[depth] = path;
+        openDirIndices[depth] = index;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= flags.length) {
+            return;
+        }
+
+        int newCapacity = Math.max(capacity, flags.length + (flags.length >> 1));
+        flags = Arrays.copyOf(flags, newCapacity);
+        depths = Arrays.copyOf(depths, newCapacity);
+        sizes = Arrays.copyOf(sizes, newCapacity);
+    }
+
+    private int checkIndex(int index) {
+        return Objects.checkIndex(index, size);
+    }
+
+    private final class EntryList extends AbstractList<Entry> implements RandomAccess {
+        private final int limit;
+
+        private EntryList(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public Entry get(int index) {
+            return entry(Objects.checkIndex(index, limit));
+        }
+
+        @Override
+        public int size() {
+            return limit;
+        }
+
+        @Override
+        public void forEach(Consumer<? super Entry> action) {
+            forEachEntry(limit, action);
+        }
+    }
+}
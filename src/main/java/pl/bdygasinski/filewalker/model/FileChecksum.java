@@ -0,0 +1,24 @@
+package pl.bdygasinski.filewalker.model;
+
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Checksum of a file content, missing when the file could not be read.
+ */
+public record FileChecksum(FileEntry file, Optional<String> checksum) {
+
+    public FileChecksum {
+        requireNonNull(file, "File is required but got %s".formatted(file));
+        requireNonNull(checksum, "Checksum is required but got %s".formatted(checksum));
+    }
+
+    public static FileChecksum of(FileEntry file, String checksum) {
+        return new FileChecksum(file, Optional.of(checksum));
+    }
+
+    public static FileChecksum unreadable(FileEntry file) {
+        return new FileChecksum(file, Optional.empty());
+    }
+}
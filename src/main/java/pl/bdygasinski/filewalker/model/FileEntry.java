@@ -3,6 +3,7 @@ package pl.bdygasinski.filewalker.model;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.StringJoiner;
@@ -11,12 +12,19 @@ import static java.util.Objects.requireNonNull;
 
 public final class FileEntry implements Entry {
 
+    private static final long UNKNOWN_SIZE = -1L;
+
     private final Path path;
     private final int depthLevel;
     private final boolean isVisible;
+    private final long sizeInBytes;
 
     FileEntry(Path path, int depthLevel, boolean isVisible) {
-        if (Files.isDirectory(path)) {
+        this(path, depthLevel, isVisible, UNKNOWN_SIZE, true);
+    }
+
+    private FileEntry(Path path, int depthLevel, boolean isVisible, long sizeInBytes, boolean verifyPath) {
+        if (verifyPath && Files.isDirectory(path)) {
             throw new IllegalArgumentException("Can't create FileEntry from directory path: %s".formatted(path));
         }
 
@@ -27,6 +35,7 @@ public final class FileEntry implements Entry {
         this.path = requireNonNull(path);
         this.depthLevel = depthLevel;
         this.isVisible = isVisible;
+        this.sizeInBytes = sizeInBytes;
     }
 
     public static Entry fromPathAndDepthLevel(Path path, int depthLevel) {
@@ -38,6 +47,25 @@ public final class FileEntry implements Entry {
         }
     }
 
+    /**
+     * Creates entry from attributes already read by the caller, so the path is not touched again
+     * and {@link #sizeInBytes()} answers from the attributes. Attributes must not describe a directory.
+     */
+    public static Entry fromAttributesAndDepthLevel(Path path, BasicFileAttributes attrs, int depthLevel) {
+        if (attrs.isDirectory()) {
+            throw new IllegalArgumentException("Can't create FileEntry from directory path: %s".formatted(path));
+        }
+
+        return new FileEntry(path, depthLevel, EntryNames.isVisible(path, attrs), attrs.size(), false);
+    }
+
+    /**
+     * Recreates entry from values stored earlier, without touching the path. Negative size is unknown size.
+     */
+    static FileEntry fromColumns(Path path, int depthLevel, boolean isVisible, long sizeInBytes) {
+        return new FileEntry(path, depthLevel, isVisible, sizeInBytes < 0 ? UNKNOWN_SIZE : sizeInBytes, false);
+    }
+
     @Override
     public String baseName() {
         return path.getFileName().toString();
@@ -72,6 +100,10 @@ public final class FileEntry implements Entry {
 
     @Override
     public Optional<Long> sizeInBytes() {
+        if (sizeInBytes != UNKNOWN_SIZE) {
+            return Optional.of(sizeInBytes);
+        }
+
         try {
             return Optional.of(Files.size(path));
 
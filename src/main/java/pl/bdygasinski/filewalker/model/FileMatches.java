@@ -0,0 +1,16 @@
+package pl.bdygasinski.filewalker.model;
+
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Lines of a file containing the searched pattern, in the order they appear in the file.
+ */
+public record FileMatches(FileEntry file, List<MatchedLine> lines) {
+
+    public FileMatches {
+        requireNonNull(file, "File is required but got %s".formatted(file));
+        lines = List.copyOf(requireNonNull(lines, "Lines are required but got %s".formatted(lines)));
+    }
+}
@@ -0,0 +1,19 @@
+package pl.bdygasinski.filewalker.model;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Lines and bytes of all files of a category or an extension.
+ *
+ * @param unreadable files which could not be read, not included in lines and bytes
+ */
+public record LineCount(String name, long files, long lines, long bytes, long unreadable) {
+
+    public LineCount {
+        requireNonNull(name, "Name is required but got %s".formatted(name));
+    }
+
+    public LineCount plus(LineCount other) {
+        return new LineCount(name, files + other.files, lines + other.lines, bytes + other.bytes, unreadable + other.unreadable);
+    }
+}
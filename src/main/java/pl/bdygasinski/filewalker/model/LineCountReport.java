@@ -0,0 +1,21 @@
+package pl.bdygasinski.filewalker.model;
+
+import java.util.List;
+
+/**
+ * Line counts of a tree grouped by file category and by extension, every group sorted by lines descending.
+ */
+public record LineCountReport(List<LineCount> categories, List<LineCount> extensions) {
+
+    public static final String TOTAL = "total";
+
+    public LineCountReport {
+        categories = List.copyOf(categories);
+        extensions = List.copyOf(extensions);
+    }
+
+    public LineCount total() {
+        return categories.stream()
+                .reduce(new LineCount(TOTAL, 0, 0, 0, 0), LineCount::plus);
+    }
+}
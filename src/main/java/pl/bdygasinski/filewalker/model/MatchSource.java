@@ -0,0 +1,12 @@
+package pl.bdygasinski.filewalker.model;
+
+import java.util.function.Consumer;
+
+/**
+ * Source pushing files containing the searched pattern to the action in the order files were discovered.
+ */
+@FunctionalInterface
+public interface MatchSource {
+
+    void forEachMatch(Consumer<? super FileMatches> action);
+}
@@ -0,0 +1,17 @@
+package pl.bdygasinski.filewalker.model;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Line of a file containing the searched pattern, numbered from 1.
+ */
+public record MatchedLine(long number, String text) {
+
+    public MatchedLine {
+        if (number < 1) {
+            throw new IllegalArgumentException("Line number must be positive but got %s".formatted(number));
+        }
+
+        requireNonNull(text, "Text is required but got %s".formatted(text));
+    }
+}
@@ -0,0 +1,90 @@
+package pl.bdygasinski.filewalker.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Interned path segment names. Every distinct name is stored once as UTF-8 bytes in a shared arena and referred to
+ * by its id, names are found again through an open addressing table of ids, without a String object per name.
+ */
+final class NamePool {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MAX_ARENA_SIZE = Integer.MAX_VALUE - 8;
+
+    private byte[] arena = new byte[INITIAL_CAPACITY * 8];
+    private int[] offsets = new int[INITIAL_CAPACITY + 1];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
+    private int size;
+
+    int intern(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int hash = Arrays.hashCode(bytes);
+        int mask = slots.length - 1;
+
+        for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (id < 0) {
+                id = append(bytes, hash);
+                slots[slot] = id + 1;
+                if (size * 2 > slots.length) {
+                    rehash();
+                }
+                return id;
+            }
+
+            if (hashes[id] == hash && Arrays.equals(arena, offsets[id], offsets[id + 1], bytes, 0, bytes.length)) {
+                return id;
+            }
+        }
+    }
+
+    String name(int id) {
+        return new String(arena, offsets[id], offsets[id + 1] - offsets[id], StandardCharsets.UTF_8);
+    }
+
+    int size() {
+        return size;
+    }
+
+    long arenaBytes() {
+        return offsets[size];
+    }
+
+    private int append(byte[] bytes, int hash) {
+        if (size == hashes.length) {
+            hashes = Arrays.copyOf(hashes, hashes.length * 2);
+            offsets = Arrays.copyOf(offsets, hashes.length + 1);
+        }
+
+        long end = (long) offsets[size] + bytes.length;
+        if (end > MAX_ARENA_SIZE) {
+            throw new IllegalStateException("Name arena can't grow beyond %s bytes".formatted(MAX_ARENA_SIZE));
+        }
+        if (end > arena.length) {
+            arena = Arrays.copyOf(arena, (int) Math.min(MAX_ARENA_SIZE, Math.max(end, arena.length * 2L)));
+        }
+
+        System.arraycopy(bytes, 0, arena, offsets[size], bytes.length);
+        offsets[size + 1] = (int) end;
+        hashes[size] = hash;
+        return size++;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = mix(hashes[id]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
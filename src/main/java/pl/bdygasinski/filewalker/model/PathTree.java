@@ -0,0 +1,138 @@
+package pl.bdygasinski.filewalker.model;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Paths stored as a tree of nodes, each holding only an interned id of its own name and a reference to its parent,
+ * so the common prefix and repeated names like {@code src} or {@code index.html} are stored once. Parent is either
+ * another node or, for nodes hanging directly below a path outside of the tree, that path. Full paths are built
+ * only when asked for.
+ * <p>
+ * Names which don't survive the way back from a string, like file names not valid in the encoding of the file
+ * system, are kept as the original paths of their nodes, see {@link #keepPath(int, Path)}.
+ */
+public final class PathTree {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final NamePool names = new NamePool();
+    private final List<Path> externalParents = new ArrayList<>();
+    private final Map<Integer, Path> keptPaths = new HashMap<>();
+    private int[] parents = new int[INITIAL_CAPACITY];
+    private int[] nameIds = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * @return id of the new node
+     */
+    public int add(int parent, String name) {
+        Objects.checkIndex(parent, size);
+        return append(parent, name);
+    }
+
+    /**
+     * Adds node directly below a path which is not in the tree, consecutive nodes with the same parent path
+     * share a single reference to it.
+     *
+     * @return id of the new node
+     */
+    public int addBelow(Path parentPath, String name) {
+        if (externalParents.isEmpty() || !externalParents.getLast().equals(parentPath)) {
+            externalParents.add(parentPath);
+        }
+        return append(-externalParents.size(), name);
+    }
+
+    /**
+     * Keeps the path of the node as it was given, paths of the node and nodes below it are built from it instead
+     * of its name.
+     */
+    public void keepPath(int node, Path path) {
+        keptPaths.put(Objects.checkIndex(node, size), requireNonNull(path, "Path is required but got %s".formatted(path)));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return id of the parent node or -1 when the parent is outside of the tree
+     */
+    public int parent(int node) {
+        int parent = parents[Objects.checkIndex(node, size)];
+        return parent >= 0 ? parent : -1;
+    }
+
+    public String name(int node) {
+        return names.name(nameIds[Objects.checkIndex(node, size)]);
+    }
+
+    /**
+     * Builds the path from the top, walking parents in a loop, so trees of any depth are safe to resolve.
+     */
+    public Path path(int node) {
+        Objects.checkIndex(node, size);
+        int depth = 0;
+        int top = node;
+        while (parents[top] >= 0 && !isKept(top)) {
+            top = parents[top];
+            depth++;
+        }
+
+        int[] chain = new int[depth];
+        for (int i = depth - 1, current = node; i >= 0; i--, current = parents[current]) {
+            chain[i] = current;
+        }
+
+        Path path = isKept(top) ? keptPaths.get(top) : externalParents.get(-parents[top] - 1).resolve(name(top));
+        for (int id : chain) {
+            path = path.resolve(name(id));
+        }
+        return path;
+    }
+
+    /**
+     * Resolves the node against the path of its parent node given by the caller, which saves rebuilding it
+     * when children of one directory are resolved one after another.
+     */
+    public Path path(int node, Path parentPath) {
+        Path kept = keptPaths.isEmpty() ? null : keptPaths.get(node);
+        return kept != null ? kept : parentPath.resolve(name(node));
+    }
+
+    /**
+     * @return path the node hangs below when its parent is outside of the tree, otherwise {@code null}
+     */
+    public Path externalParent(int node) {
+        int parent = parents[Objects.checkIndex(node, size)];
+        return parent < 0 ? externalParents.get(-parent - 1) : null;
+    }
+
+    public int distinctNames() {
+        return names.size();
+    }
+
+    private boolean isKept(int node) {
+        return !keptPaths.isEmpty() && keptPaths.containsKey(node);
+    }
+
+    private int append(int parent, String name) {
+        if (size == parents.length) {
+            int newCapacity = parents.length + (parents.length >> 1);
+            parents = Arrays.copyOf(parents, newCapacity);
+            nameIds = Arrays.copyOf(nameIds, newCapacity);
+        }
+
+        parents[size] = parent;
+        nameIds[size] = names.intern(name);
+        return size++;
+    }
+}
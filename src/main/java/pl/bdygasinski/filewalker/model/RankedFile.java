@@ -0,0 +1,12 @@
+package pl.bdygasinski.filewalker.model;
+
+import java.nio.file.Path;
+
+import static java.util.Objects.requireNonNull;
+
+public record RankedFile(Path path, long sizeInBytes, long lastModifiedMillis) {
+
+    public RankedFile {
+        requireNonNull(path, "Path is required but got %s".formatted(path));
+    }
+}
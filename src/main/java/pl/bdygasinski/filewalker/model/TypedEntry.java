@@ -0,0 +1,21 @@
+package pl.bdygasinski.filewalker.model;
+
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Entry with type of a file detected from its content, missing for directories, errors and files which could not
+ * be read.
+ */
+public record TypedEntry(Entry entry, Optional<String> fileType) {
+
+    public TypedEntry {
+        requireNonNull(entry, "Entry is required but got %s".formatted(entry));
+        requireNonNull(fileType, "File type is required but got %s".formatted(fileType));
+    }
+
+    public static TypedEntry untyped(Entry entry) {
+        return new TypedEntry(entry, Optional.empty());
+    }
+}
@@ -0,0 +1,12 @@
+package pl.bdygasinski.filewalker.model;
+
+import java.util.function.Consumer;
+
+/**
+ * Source pushing entries with their detected types to the action in the order entries were discovered.
+ */
+@FunctionalInterface
+public interface TypedEntrySource {
+
+    void forEachTypedEntry(Consumer<? super TypedEntry> action);
+}
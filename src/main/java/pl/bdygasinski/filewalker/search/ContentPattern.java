@@ -0,0 +1,54 @@
+package pl.bdygasinski.filewalker.search;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Pattern searched in raw file content, one line at a time. Implementations are immutable and safe to use from
+ * many threads.
+ */
+public sealed interface ContentPattern permits LiteralPattern, RegexPattern {
+
+    String REGEX_METACHARACTERS = "\\^$.|?*+()[]{}";
+
+    /**
+     * @param block bytes of whole lines starting at {@code from}
+     * @return index of a match within a line between {@code from} and {@code to} or -1 when there is none
+     */
+    int find(ByteBuffer block, int from, int to);
+
+    /**
+     * @throws IllegalArgumentException when text is empty or spans more than one line
+     */
+    static ContentPattern literal(String text) {
+        requireNonNull(text, "Text is required but got %s".formatted(text));
+        if (text.isEmpty() || text.indexOf('\n') >= 0) {
+            throw new IllegalArgumentException("Pattern must be a non empty single line but got '%s'".formatted(text));
+        }
+
+        return new LiteralPattern(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Regex without any metacharacter is searched like a literal, which skips decoding of lines.
+     *
+     * @throws IllegalArgumentException when regex is empty or invalid
+     */
+    static ContentPattern regex(String regex) {
+        requireNonNull(regex, "Regex is required but got %s".formatted(regex));
+        if (regex.chars().noneMatch(c -> REGEX_METACHARACTERS.indexOf(c) >= 0)) {
+            return literal(regex);
+        }
+
+        try {
+            return new RegexPattern(Pattern.compile(regex));
+
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException("Invalid regex: %s".formatted(e.getMessage()), e);
+        }
+    }
+}
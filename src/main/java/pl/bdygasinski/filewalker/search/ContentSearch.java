@@ -0,0 +1,64 @@
+package pl.bdygasinski.filewalker.search;
+
+import pl.bdygasinski.filewalker.content.OrderedPipeline;
+import pl.bdygasinski.filewalker.model.EntrySource;
+import pl.bdygasinski.filewalker.model.FileEntry;
+import pl.bdygasinski.filewalker.model.FileMatches;
+import pl.bdygasinski.filewalker.model.MatchSource;
+import pl.bdygasinski.filewalker.model.MatchedLine;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Searches every file pushed by an entry source in an {@link OrderedPipeline}, while the walk goes on in the thread
+ * pushing entries, the same way {@link pl.bdygasinski.filewalker.hash.ContentHashing} hashes them. Files containing
+ * the pattern are passed on in the order files came, files without matches, binary and unreadable ones are
+ * skipped.
+ */
+public final class ContentSearch {
+
+    private final FileSearcher searcher;
+    private final int workers;
+
+    public ContentSearch(ContentPattern pattern, int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Workers must be positive but got %s".formatted(workers));
+        }
+
+        this.searcher = new FileSearcher(requireNonNull(pattern, "Pattern is required but got %s".formatted(pattern)), workers);
+        this.workers = workers;
+    }
+
+    public MatchSource sourceFor(EntrySource entries) {
+        requireNonNull(entries, "Entries are required but got %s".formatted(entries));
+        return action -> forEachMatch(entries, action);
+    }
+
+    public void forEachMatch(EntrySource entries, Consumer<? super FileMatches> action) {
+        try (var pipeline = new OrderedPipeline<Optional<FileMatches>>("content-searcher", workers, matches -> matches.ifPresent(action))) {
+            entries.forEachEntry(entry -> {
+                if (entry instanceof FileEntry file) {
+                    pipeline.submit(() -> matchesOf(file));
+                }
+            });
+            pipeline.finish();
+        }
+    }
+
+    private Optional<FileMatches> matchesOf(FileEntry file) {
+        List<MatchedLine> matched;
+        try {
+            matched = searcher.search(file.path());
+
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+
+        return matched.isEmpty() ? Optional.empty() : Optional.of(new FileMatches(file, matched));
+    }
+}
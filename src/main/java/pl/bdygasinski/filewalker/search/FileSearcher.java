@@ -0,0 +1,94 @@
+package pl.bdygasinski.filewalker.search;
+
+import pl.bdygasinski.filewalker.content.BlockVisitor;
+import pl.bdygasinski.filewalker.content.ContentReader;
+import pl.bdygasinski.filewalker.model.MatchedLine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Finds lines of a file containing the pattern, safe to use from many threads. Content is searched straight in
+ * blocks of a {@link ContentReader}, block by block of whole lines, a line longer than a block is split, so a match
+ * crossing the split is not found.
+ * <p>
+ * Files with a NUL byte in the first {@value ContentReader#HEAD_SIZE} bytes are taken as binary and not read further.
+ */
+public final class FileSearcher {
+
+    private final ContentPattern pattern;
+    private final ContentReader reader;
+
+    /**
+     * @param pooledBuffers number of read buffers, callers searching on more threads wait for a free one
+     */
+    public FileSearcher(ContentPattern pattern, int pooledBuffers) {
+        this.pattern = requireNonNull(pattern, "Pattern is required but got %s".formatted(pattern));
+        this.reader = new ContentReader(pooledBuffers);
+    }
+
+    /**
+     * @return matching lines, empty for binary files
+     */
+    public List<MatchedLine> search(Path path) throws IOException {
+        var scan = new Scan();
+        reader.read(path, scan);
+        return scan.matches;
+    }
+
+    /**
+     * State of a single file search, lines are numbered by counting line feeds of the skipped content.
+     */
+    private final class Scan implements BlockVisitor {
+        private final List<MatchedLine> matches = new ArrayList<>();
+        private long lineFeeds;
+
+        @Override
+        public boolean head(ByteBuffer head) {
+            for (int i = 0; i < head.limit(); i++) {
+                if (head.get(i) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @param block content starting at a line start, from index 0 to its limit
+         * @return number of bytes searched, the rest is a beginning of a line to be searched with the next block
+         */
+        @Override
+        public int block(ByteBuffer block, boolean last) {
+            int limit = block.limit();
+            int end = last ? limit : Lines.endOfLastLine(block, 0, limit);
+            if (end == 0) {
+                end = limit;
+            }
+
+            int from = 0;
+            int counted = 0;
+            while (from < end) {
+                int match = pattern.find(block, from, end);
+                if (match < 0) {
+                    break;
+                }
+
+                int lineStart = Lines.startOf(block, from, match);
+                int lineEnd = Lines.endOf(block, match, end);
+                lineFeeds += Lines.count(block, counted, lineStart);
+                counted = lineStart;
+
+                matches.add(new MatchedLine(lineFeeds + 1, Lines.text(block, lineStart, lineEnd)));
+                from = lineEnd + 1;
+            }
+
+            lineFeeds += Lines.count(block, counted, end);
+            return end;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package pl.bdygasinski.filewalker.search;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Helpers finding lines in blocks of raw content with absolute reads, positions of blocks are never changed.
+ */
+final class Lines {
+
+    private static final byte NL = '\n';
+    private static final byte CR = '\r';
+
+    private Lines() {
+    }
+
+    /**
+     * @return index of line feed ending line containing {@code index} or {@code to} when the line isn't ended
+     */
+    static int endOf(ByteBuffer block, int index, int to) {
+        for (int i = index; i < to; i++) {
+            if (block.get(i) == NL) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    /**
+     * @return index of the first byte of line containing {@code index}, not lower than {@code from}
+     */
+    static int startOf(ByteBuffer block, int from, int index) {
+        for (int i = index - 1; i >= from; i--) {
+            if (block.get(i) == NL) {
+                return i + 1;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * @return index after the last line feed or {@code from} when there is none
+     */
+    static int endOfLastLine(ByteBuffer block, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            if (block.get(i) == NL) {
+                return i + 1;
+            }
+        }
+        return from;
+    }
+
+    static long count(ByteBuffer block, int from, int to) {
+        long count = 0;
+        for (int i = from; i < to; i++) {
+            if (block.get(i) == NL) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return line decoded as UTF-8 without carriage return of Windows line ending
+     */
+    static String text(ByteBuffer block, int start, int end) {
+        if (end > start && block.get(end - 1) == CR) {
+            end--;
+        }
+
+        byte[] bytes = new byte[end - start];
+        block.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
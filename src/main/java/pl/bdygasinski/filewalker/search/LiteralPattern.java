@@ -0,0 +1,48 @@
+package pl.bdygasinski.filewalker.search;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Boyer-Moore-Horspool search of UTF-8 bytes of the pattern, so most content is skipped by the length of
+ * the pattern without decoding it.
+ */
+final class LiteralPattern implements ContentPattern {
+
+    private final byte[] needle;
+    private final int[] shifts = new int[256];
+
+    LiteralPattern(byte[] needle) {
+        this.needle = needle.clone();
+
+        int last = needle.length - 1;
+        Arrays.fill(shifts, needle.length);
+        for (int i = 0; i < last; i++) {
+            shifts[needle[i] & 0xFF] = last - i;
+        }
+    }
+
+    @Override
+    public int find(ByteBuffer block, int from, int to) {
+        int last = needle.length - 1;
+        byte lastByte = needle[last];
+
+        for (int position = from; position + last < to; ) {
+            byte tail = block.get(position + last);
+            if (tail == lastByte && matchesAt(block, position, last)) {
+                return position;
+            }
+            position += shifts[tail & 0xFF];
+        }
+        return -1;
+    }
+
+    private boolean matchesAt(ByteBuffer block, int position, int length) {
+        for (int i = 0; i < length; i++) {
+            if (block.get(position + i) != needle[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
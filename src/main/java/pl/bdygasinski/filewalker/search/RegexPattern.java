@@ -0,0 +1,29 @@
+package pl.bdygasinski.filewalker.search;
+
+import java.nio.ByteBuffer;
+import java.util.regex.Pattern;
+
+/**
+ * Fallback for patterns which aren't plain text, every line is decoded before it is matched.
+ */
+final class RegexPattern implements ContentPattern {
+
+    private final Pattern pattern;
+
+    RegexPattern(Pattern pattern) {
+        this.pattern = pattern;
+    }
+
+    @Override
+    public int find(ByteBuffer block, int from, int to) {
+        int lineStart = from;
+        while (lineStart < to) {
+            int lineEnd = Lines.endOf(block, lineStart, to);
+            if (pattern.matcher(Lines.text(block, lineStart, lineEnd)).find()) {
+                return lineStart;
+            }
+            lineStart = lineEnd + 1;
+        }
+        return -1;
+    }
+}
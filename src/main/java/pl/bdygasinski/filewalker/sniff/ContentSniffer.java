@@ -0,0 +1,124 @@
+package pl.bdygasinski.filewalker.sniff;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Detects type of a file from magic bytes at the beginning of its content, safe to use from many threads. Only the
+ * first {@value #HEADER_SIZE} bytes are read, into a direct buffer reused by every file sniffed on the same thread.
+ * Content without a known signature is {@value #TEXT} when there is no NUL byte in the header and {@value #BINARY}
+ * otherwise.
+ * <p>
+ * Bitmap "BM" and DOS executable "MZ" signatures are short enough for plain text to start with them, so they are
+ * validated further. Bitmap needs a known size of the info header following the file header. Executable needs
+ * {@code e_lfanew} pointing to a {@code PE\0\0} signature within the header, otherwise it is accepted only when
+ * the header has a NUL byte.
+ */
+public final class ContentSniffer {
+
+    public static final String EMPTY = "empty";
+    public static final String TEXT = "text";
+    public static final String BINARY = "binary";
+    static final int HEADER_SIZE = 512;
+
+    private static final List<Signature> SIGNATURES = List.of(
+            Signature.of("image", 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A),
+            Signature.of("image", 0xFF, 0xD8, 0xFF),
+            Signature.ascii("image", "GIF87a"),
+            Signature.ascii("image", "GIF89a"),
+            Signature.of("image", 'I', 'I', 0x2A, 0x00),
+            Signature.of("image", 'M', 'M', 0x00, 0x2A),
+            Signature.ascii("document", "%PDF-"),
+            Signature.of("archive", 'P', 'K', 0x03, 0x04),
+            Signature.of("archive", 0x1F, 0x8B),
+            Signature.ascii("archive", "BZh"),
+            Signature.of("archive", 0xFD, '7', 'z', 'X', 'Z', 0x00),
+            Signature.of("archive", '7', 'z', 0xBC, 0xAF, 0x27, 0x1C),
+            Signature.of("archive", 0x28, 0xB5, 0x2F, 0xFD),
+            Signature.asciiAt(257, "archive", "ustar"),
+            Signature.of("executable", 0x7F, 'E', 'L', 'F'),
+            Signature.of("executable", 0xCF, 0xFA, 0xED, 0xFE),
+            Signature.of("code", 0xCA, 0xFE, 0xBA, 0xBE),
+            Signature.ascii("audio", "ID3"),
+            Signature.ascii("audio", "OggS"),
+            Signature.ascii("audio", "fLaC"),
+            Signature.asciiAt(4, "video", "ftyp"),
+            Signature.ascii("data", "SQLite format 3"),
+            Signature.ascii("data", "<?xml"),
+            Signature.ascii("script", "#!")
+    );
+
+    private static final Set<Integer> BITMAP_INFO_HEADER_SIZES = Set.of(12, 40, 52, 56, 64, 108, 124);
+    private static final int BITMAP_INFO_HEADER_OFFSET = 14;
+    private static final int PE_OFFSET_FIELD = 0x3C;
+
+    private static final ThreadLocal<ByteBuffer> HEADERS = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(HEADER_SIZE)
+            .order(ByteOrder.LITTLE_ENDIAN));
+
+    private final SignatureTrie signatures = SignatureTrie.compile(SIGNATURES);
+
+    public String sniff(Path path) throws IOException {
+        ByteBuffer header = HEADERS.get().clear();
+
+        try (SeekableByteChannel channel = Files.newByteChannel(path)) {
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    break;
+                }
+            }
+        }
+
+        header.flip();
+        if (!header.hasRemaining()) {
+            return EMPTY;
+        }
+
+        return validatedMatch(header)
+                .or(() -> signatures.match(header))
+                .orElseGet(() -> hasNulByte(header) ? BINARY : TEXT);
+    }
+
+    private static Optional<String> validatedMatch(ByteBuffer header) {
+        if (startsWith(header, 'B', 'M') && header.limit() >= BITMAP_INFO_HEADER_OFFSET + Integer.BYTES
+                && BITMAP_INFO_HEADER_SIZES.contains(header.getInt(BITMAP_INFO_HEADER_OFFSET))) {
+            return Optional.of("image");
+        }
+
+        if (startsWith(header, 'M', 'Z') && (isPortableExecutable(header) || hasNulByte(header))) {
+            return Optional.of("executable");
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isPortableExecutable(ByteBuffer header) {
+        if (header.limit() < PE_OFFSET_FIELD + Integer.BYTES) {
+            return false;
+        }
+
+        int peOffset = header.getInt(PE_OFFSET_FIELD);
+        return peOffset >= PE_OFFSET_FIELD + Integer.BYTES && peOffset <= header.limit() - 4
+                && header.get(peOffset) == 'P' && header.get(peOffset + 1) == 'E'
+                && header.get(peOffset + 2) == 0 && header.get(peOffset + 3) == 0;
+    }
+
+    private static boolean startsWith(ByteBuffer header, char first, char second) {
+        return header.limit() >= 2 && header.get(0) == first && header.get(1) == second;
+    }
+
+
+    private static boolean hasNulByte(ByteBuffer header) {
+        for (int i = 0; i < header.limit(); i++) {
+            if (header.get(i) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,119 @@
+package pl.bdygasinski.filewalker.sniff;
+
+import pl.bdygasinski.filewalker.content.OrderedPipeline;
+import pl.bdygasinski.filewalker.model.Entry;
+import pl.bdygasinski.filewalker.model.EntrySource;
+import pl.bdygasinski.filewalker.model.FileEntry;
+import pl.bdygasinski.filewalker.model.TypedEntry;
+import pl.bdygasinski.filewalker.model.TypedEntrySource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Detects types of files pushed by an entry source in an {@link OrderedPipeline}, while the walk goes on in the
+ * thread pushing entries. Entries are handed to workers in batches of {@value #BATCH_SIZE} files, so opening
+ * millions of small files costs one task per batch instead of one per file. Entries are passed on in the order they
+ * came.
+ * <p>
+ * Content recognized as text keeps the type of its extension when it is one of the text types, so source files
+ * stay code or script instead of plain text.
+ */
+public final class ContentSniffing {
+
+    static final int BATCH_SIZE = 64;
+
+    private final ContentSniffer sniffer = new ContentSniffer();
+    private final Function<String, String> categoryOfExtension;
+    private final Set<String> textCategories;
+    private final int workers;
+
+    /**
+     * @param categoryOfExtension gives category of an extension without the dot
+     */
+    public ContentSniffing(Function<String, String> categoryOfExtension, Set<String> textCategories, int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Workers must be positive but got %s".formatted(workers));
+        }
+
+        this.categoryOfExtension = requireNonNull(categoryOfExtension, "Classifier is required but got %s".formatted(categoryOfExtension));
+        this.textCategories = Set.copyOf(requireNonNull(textCategories, "Categories are required but got %s".formatted(textCategories)));
+        this.workers = workers;
+    }
+
+    public TypedEntrySource sourceFor(EntrySource entries) {
+        requireNonNull(entries, "Entries are required but got %s".formatted(entries));
+        return action -> forEachTypedEntry(entries, action);
+    }
+
+    public void forEachTypedEntry(EntrySource entries, Consumer<? super TypedEntry> action) {
+        try (var pipeline = new OrderedPipeline<List<TypedEntry>>("content-sniffer", workers, typed -> typed.forEach(action))) {
+            var batcher = new Batcher(pipeline);
+            entries.forEachEntry(batcher::add);
+            batcher.finish();
+        }
+    }
+
+    private List<TypedEntry> typedEntriesOf(List<Entry> entries) {
+        List<TypedEntry> typed = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            typed.add(new TypedEntry(entry, entry instanceof FileEntry file ? typeOf(file) : Optional.empty()));
+        }
+        return typed;
+    }
+
+    private Optional<String> typeOf(FileEntry file) {
+        String sniffed;
+        try {
+            sniffed = sniffer.sniff(file.path());
+
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+
+        if (!ContentSniffer.TEXT.equals(sniffed)) {
+            return Optional.of(sniffed);
+        }
+
+        String byExtension = categoryOfExtension.apply(file.fileExtension().orElse(""));
+        return Optional.of(textCategories.contains(byExtension) ? byExtension : ContentSniffer.TEXT);
+    }
+
+    private final class Batcher {
+        private final OrderedPipeline<List<TypedEntry>> pipeline;
+        private List<Entry> current = new ArrayList<>();
+        private int files;
+
+        private Batcher(OrderedPipeline<List<TypedEntry>> pipeline) {
+            this.pipeline = pipeline;
+        }
+
+        void add(Entry entry) {
+            current.add(entry);
+            if (entry instanceof FileEntry && ++files == BATCH_SIZE) {
+                submitCurrent();
+            }
+        }
+
+        void finish() {
+            if (!current.isEmpty()) {
+                submitCurrent();
+            }
+            pipeline.finish();
+        }
+
+        private void submitCurrent() {
+            List<Entry> batch = current;
+            pipeline.submit(() -> typedEntriesOf(batch));
+            current = new ArrayList<>();
+            files = 0;
+        }
+    }
+}
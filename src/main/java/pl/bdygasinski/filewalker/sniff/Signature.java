@@ -0,0 +1,38 @@
+package pl.bdygasinski.filewalker.sniff;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Magic bytes identifying a file type, found at a fixed offset of the content.
+ */
+record Signature(int offset, byte[] magic, String type) {
+
+    Signature {
+        if (offset < 0 || magic.length == 0 || offset + magic.length > ContentSniffer.HEADER_SIZE) {
+            throw new IllegalArgumentException("Signature must fit in the header but got offset %s and %s bytes"
+                    .formatted(offset, magic.length));
+        }
+
+        magic = magic.clone();
+    }
+
+    static Signature of(String type, int... magic) {
+        return at(0, type, magic);
+    }
+
+    static Signature at(int offset, String type, int... magic) {
+        byte[] bytes = new byte[magic.length];
+        for (int i = 0; i < magic.length; i++) {
+            bytes[i] = (byte) magic[i];
+        }
+        return new Signature(offset, bytes, type);
+    }
+
+    static Signature ascii(String type, String magic) {
+        return asciiAt(0, type, magic);
+    }
+
+    static Signature asciiAt(int offset, String type, String magic) {
+        return new Signature(offset, magic.getBytes(StandardCharsets.US_ASCII), type);
+    }
+}
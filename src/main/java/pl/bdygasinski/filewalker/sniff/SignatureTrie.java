@@ -0,0 +1,83 @@
+package pl.bdygasinski.filewalker.sniff;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Signatures compiled to one byte trie per offset, so a header is matched against all of them with a single walk
+ * per offset, at most as deep as the longest signature. Longer signatures win over their prefixes and lower
+ * offsets over higher ones.
+ */
+final class SignatureTrie {
+
+    private final int[] offsets;
+    private final Node[] roots;
+
+    private SignatureTrie(int[] offsets, Node[] roots) {
+        this.offsets = offsets;
+        this.roots = roots;
+    }
+
+    static SignatureTrie compile(List<Signature> signatures) {
+        var rootsByOffset = new TreeMap<Integer, Node>();
+        for (Signature signature : signatures) {
+            Node node = rootsByOffset.computeIfAbsent(signature.offset(), offset -> new Node());
+            for (byte b : signature.magic()) {
+                node = node.childOrNew(b);
+            }
+
+            if (node.type != null && !node.type.equals(signature.type())) {
+                throw new IllegalArgumentException("Signature of %s is already taken by %s".formatted(signature.type(), node.type));
+            }
+            node.type = signature.type();
+        }
+
+        return new SignatureTrie(
+                rootsByOffset.keySet().stream().mapToInt(Integer::intValue).toArray(),
+                rootsByOffset.values().toArray(Node[]::new));
+    }
+
+    /**
+     * @param header content from index 0 to its limit
+     */
+    Optional<String> match(ByteBuffer header) {
+        int limit = header.limit();
+        for (int i = 0; i < offsets.length && offsets[i] < limit; i++) {
+            String type = null;
+            Node node = roots[i];
+            for (int index = offsets[i]; index < limit; index++) {
+                node = node.children == null ? null : node.children[header.get(index) & 0xFF];
+                if (node == null) {
+                    break;
+                }
+                if (node.type != null) {
+                    type = node.type;
+                }
+            }
+
+            if (type != null) {
+                return Optional.of(type);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static final class Node {
+        private Node[] children;
+        private String type;
+
+        Node childOrNew(byte b) {
+            if (children == null) {
+                children = new Node[256];
+            }
+
+            int index = b & 0xFF;
+            if (children[index] == null) {
+                children[index] = new Node();
+            }
+            return children[index];
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package pl.bdygasinski.filewalker.view;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Collects lines in reusable buffers and writes them to the channel in big chunks, when the buffer is full,
+ * when the flush interval passed since the last write or on {@link #flush()}.
+ */
+final class BufferedConsoleWriter {
+
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    static final long DEFAULT_FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final String NL = System.lineSeparator();
+    private static final int MIN_BUFFER_SIZE = 2;
+    private static final int LINES_BETWEEN_CLOCK_CHECKS = 64;
+
+    private final WritableByteChannel channel;
+    private final CharsetEncoder encoder;
+    private final CharBuffer chars;
+    private final ByteBuffer bytes;
+    private final long flushIntervalNanos;
+    private long lastFlushNanos;
+    private int linesSinceClockCheck;
+    private long linesWritten;
+
+    BufferedConsoleWriter() {
+        this(Channels.newChannel(System.out), System.out.charset(), DEFAULT_BUFFER_SIZE, DEFAULT_FLUSH_INTERVAL_NANOS);
+    }
+
+    BufferedConsoleWriter(WritableByteChannel channel, Charset charset, int bufferSize, long flushIntervalNanos) {
+        if (bufferSize < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Buffer size must be at least %s but got %s".formatted(MIN_BUFFER_SIZE, bufferSize));
+        }
+
+        this.channel = requireNonNull(channel, "Channel is required but got %s".formatted(channel));
+        this.encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.chars = CharBuffer.allocate(bufferSize);
+        this.bytes = ByteBuffer.allocate((int) Math.ceil(bufferSize * encoder.maxBytesPerChar()));
+        this.flushIntervalNanos = flushIntervalNanos;
+        this.lastFlushNanos = System.nanoTime();
+    }
+
+    void writeLine(String line) {
+        append(line);
+        append(NL);
+        linesWritten++;
+
+        if (++linesSinceClockCheck >= LINES_BETWEEN_CLOCK_CHECKS) {
+            linesSinceClockCheck = 0;
+            if (System.nanoTime() - lastFlushNanos >= flushIntervalNanos) {
+                flush();
+            }
+        }
+    }
+
+    void flush() {
+        chars.flip();
+        try {
+            encoder.reset();
+            CoderResult result;
+            do {
+                result = encoder.encode(chars, bytes, true);
+                writeBytes();
+            } while (result.isOverflow());
+
+            while (encoder.flush(bytes).isOverflow()) {
+                writeBytes();
+            }
+            writeBytes();
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+
+        } finally {
+            chars.clear();
+            lastFlushNanos = System.nanoTime();
+        }
+    }
+
+    long linesWritten() {
+        return linesWritten;
+    }
+
+    private void append(String text) {
+        int start = 0;
+        while (start < text.length()) {
+            if (!chars.hasRemaining()) {
+                flush();
+            }
+
+            int end = Math.min(text.length(), start + chars.remaining());
+            if (end < text.length() && Character.isHighSurrogate(text.charAt(end - 1))) {
+                if (end - start == 1) {
+                    flush();
+                    continue;
+                }
+                end--;
+            }
+            chars.put(text, start, end);
+            start = end;
+        }
+    }
+
+    private void writeBytes() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+}
@@ -0,0 +1,35 @@
+package pl.bdygasinski.filewalker.view;
+
+import pl.bdygasinski.filewalker.model.ChecksumSource;
+import pl.bdygasinski.filewalker.model.FileChecksum;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Prints checksum and path of every file like sha256sum does, files which could not be read are marked instead.
+ */
+class ChecksumsVisualizer implements ContentVisualizer {
+
+    static final String UNREADABLE = "unreadable";
+
+    private final ChecksumSource source;
+
+    ChecksumsVisualizer(ChecksumSource source) {
+        this.source = requireNonNull(source);
+    }
+
+    @Override
+    public void listVisible() {
+        var writer = new BufferedConsoleWriter();
+        try {
+            source.forEachChecksum(checksum -> writer.writeLine(line(checksum)));
+
+        } finally {
+            writer.flush();
+        }
+    }
+
+    static String line(FileChecksum checksum) {
+        return "%s  %s".formatted(checksum.checksum().orElse(UNREADABLE), checksum.file().path());
+    }
+}
@@ -1,38 +1,119 @@
 package pl.bdygasinski.filewalker.view;
 
+import pl.bdygasinski.filewalker.model.EntrySource;
+import pl.bdygasinski.filewalker.model.TypedEntrySource;
+
+import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Function;
+import java.util.function.Consumer;
 
 import static java.util.Objects.requireNonNull;
 
 class ConsoleContentVisualizer implements ContentVisualizer {
 
-    private final List<DisplayableEntry> entries;
+    private final Consumer<Consumer<DisplayableEntry>> source;
 
     ConsoleContentVisualizer(List<DisplayableEntry> entries) {
-        this.entries = requireNonNull(entries);
+        requireNonNull(entries);
+        this.source = entries::forEach;
+    }
+
+    ConsoleContentVisualizer(EntrySource source) {
+        requireNonNull(source);
+        this.source = action -> source.forEachEntry(entry -> action.accept(new DisplayableEntry(entry)));
+    }
+
+    ConsoleContentVisualizer(TypedEntrySource source) {
+        requireNonNull(source);
+        this.source = action -> source.forEachTypedEntry(typed -> action.accept(new DisplayableEntry(typed.entry(), typed.fileType())));
     }
 
     @Override
     public void listVisible() {
-        if (allEntriesSameDepth()) {
-            printEntries(DisplayableEntry::entryName);
-        } else {
-            printEntries(DisplayableEntry::entryNameWithIndentation);
+        var event = new RenderEvent();
+        event.begin();
+        var writer = new BufferedConsoleWriter();
+        var printer = new DepthAwarePrinter(writer, event.isEnabled());
+        try {
+            source.accept(printer);
+            printer.finish();
+            writer.flush();
+
+        } catch (RuntimeException | Error e) {
+            flushAfterFailure(writer, e);
+            throw e;
+
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.lines = writer.linesWritten();
+                event.printingTime = printer.printingNanos;
+                event.commit();
+            }
         }
     }
 
-    private boolean allEntriesSameDepth() {
-        if (entries.isEmpty()) return true;
+    /**
+     * Lines written before the failure are still printed, failure of the flush is kept as suppressed by the
+     * original one instead of replacing it.
+     */
+    private static void flushAfterFailure(BufferedConsoleWriter writer, Throwable failure) {
+        try {
+            writer.flush();
 
-        int expectedDepth = entries.getFirst().entry().depthLevel();
-        return entries.stream()
-                .allMatch(e -> e.entry().depthLevel() == expectedDepth);
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+        }
     }
 
-    private void printEntries(Function<DisplayableEntry, String> customNameExtractor) {
-        entries.stream()
-                .map(customNameExtractor)
-                .forEach(System.out::println);
+    /**
+     * Entries are printed without indentation only when all of them are on the same depth. Entries are held back
+     * only until the first one with a different depth shows up, from then on they are printed as they come.
+     */
+    private static final class DepthAwarePrinter implements Consumer<DisplayableEntry> {
+        private final List<DisplayableEntry> pending = new ArrayList<>();
+        private final BufferedConsoleWriter writer;
+        private final boolean isTimed;
+        private boolean isIndented = false;
+        private long printingNanos;
+
+        private DepthAwarePrinter(BufferedConsoleWriter writer, boolean isTimed) {
+            this.writer = writer;
+            this.isTimed = isTimed;
+        }
+
+        @Override
+        public void accept(DisplayableEntry displayable) {
+            if (!isTimed) {
+                print(displayable);
+                return;
+            }
+
+            long start = System.nanoTime();
+            print(displayable);
+            printingNanos += System.nanoTime() - start;
+        }
+
+        private void print(DisplayableEntry displayable) {
+            if (isIndented) {
+                writer.writeLine(displayable.entryNameWithIndentation());
+                return;
+            }
+
+            if (!pending.isEmpty() && pending.getFirst().entry().depthLevel() != displayable.entry().depthLevel()) {
+                isIndented = true;
+                pending.forEach(held -> writer.writeLine(held.entryNameWithIndentation()));
+                pending.clear();
+                writer.writeLine(displayable.entryNameWithIndentation());
+                return;
+            }
+
+            pending.add(displayable);
+        }
+
+        void finish() {
+            pending.forEach(held -> writer.writeLine(held.entryName()));
+            pending.clear();
+        }
     }
-}
\ No newline at end of file
+}
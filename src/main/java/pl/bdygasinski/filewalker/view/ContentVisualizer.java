@@ -1,6 +1,16 @@
 package pl.bdygasinski.filewalker.view;
 
+import pl.bdygasinski.filewalker.model.ChecksumSource;
+import pl.bdygasinski.filewalker.model.DirectoryTotalSource;
+import pl.bdygasinski.filewalker.model.DuplicateGroup;
+import pl.bdygasinski.filewalker.model.EntrySource;
+import pl.bdygasinski.filewalker.model.LineCountReport;
+import pl.bdygasinski.filewalker.model.MatchSource;
+import pl.bdygasinski.filewalker.model.RankedFile;
+import pl.bdygasinski.filewalker.model.TypedEntrySource;
+
 import java.util.List;
+import java.util.function.Supplier;
 
 import static java.util.Objects.requireNonNull;
 
@@ -11,4 +21,39 @@ public interface ContentVisualizer {
     static ContentVisualizer forEntries(List<DisplayableEntry> entries) {
         return new ConsoleContentVisualizer(requireNonNull(entries));
     }
+
+    static ContentVisualizer forEntrySource(EntrySource source) {
+        return new ConsoleContentVisualizer(requireNonNull(source));
+    }
+
+    static ContentVisualizer forTypedEntrySource(TypedEntrySource source) {
+        return new ConsoleContentVisualizer(requireNonNull(source));
+    }
+
+    static ContentVisualizer forDirectoryTotals(DirectoryTotalSource source) {
+        return new DirectoryTotalsVisualizer(requireNonNull(source));
+    }
+
+    static ContentVisualizer forRankedFiles(List<RankedFile> ranking) {
+        return new RankedFilesVisualizer(requireNonNull(ranking));
+    }
+
+    static ContentVisualizer forDuplicateGroups(List<DuplicateGroup> groups) {
+        return new DuplicateGroupsVisualizer(requireNonNull(groups));
+    }
+
+    static ContentVisualizer forChecksums(ChecksumSource source) {
+        return new ChecksumsVisualizer(requireNonNull(source));
+    }
+
+    static ContentVisualizer forMatches(MatchSource source) {
+        return new MatchesVisualizer(requireNonNull(source));
+    }
+
+    /**
+     * @param report counted when lines are listed
+     */
+    static ContentVisualizer forLineCounts(Supplier<LineCountReport> report) {
+        return new LineCountsVisualizer(requireNonNull(report));
+    }
 }
\ No newline at end of file
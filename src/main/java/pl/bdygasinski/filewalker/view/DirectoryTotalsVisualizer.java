@@ -0,0 +1,38 @@
+package pl.bdygasinski.filewalker.view;
+
+import pl.bdygasinski.filewalker.model.DirectoryTotal;
+import pl.bdygasinski.filewalker.model.DirectoryTotalSource;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Prints one line per directory in the order totals come, with size, number of files and path like du does.
+ */
+class DirectoryTotalsVisualizer implements ContentVisualizer {
+
+    private final DirectoryTotalSource source;
+
+    DirectoryTotalsVisualizer(DirectoryTotalSource source) {
+        this.source = requireNonNull(source);
+    }
+
+    @Override
+    public void listVisible() {
+        var writer = new BufferedConsoleWriter();
+        try {
+            source.forEachTotal(total -> writer.writeLine(line(total)));
+
+        } finally {
+            writer.flush();
+        }
+    }
+
+    static String line(DirectoryTotal total) {
+        String line = "%-10s %10d files  %s".formatted(
+                FileSizeFormatter.toHumanReadable(total.sizeInBytes()), total.files(), total.path());
+
+        return total.failures() == 0
+                ? line
+                : "%s (%d unreadable)".formatted(line, total.failures());
+    }
+}
@@ -5,11 +5,20 @@ import pl.bdygasinski.filewalker.model.Entry;
 import pl.bdygasinski.filewalker.model.ErrorEntry;
 import pl.bdygasinski.filewalker.model.FileEntry;
 
-public record DisplayableEntry(Entry entry) {
+import java.util.Optional;
+
+/**
+ * @param fileType type detected from content, when missing the type is guessed from the extension
+ */
+public record DisplayableEntry(Entry entry, Optional<String> fileType) {
     static final String ERROR_ENTRY_DISPLAY_NAME_PREFIX = "Unaccessible entry:";
     static final String DIR_ENTRY_DISPLAY_NAME_PREFIX = "[dir]";
     static final short SPACES_PER_ENTRY_DEPTH_LEVEL = 4;
 
+    public DisplayableEntry(Entry entry) {
+        this(entry, Optional.empty());
+    }
+
     public String entryName() {
         return switch (entry) {
             case FileEntry $ -> fileNameEntry();
@@ -27,7 +36,8 @@ public record DisplayableEntry(Entry entry) {
     }
 
     private String fileNameEntry() {
-        String extensionLabel = FileTypeClassifier.classifyExtension(entry.fileExtension().orElse(""));
+        String extensionLabel = fileType
+                .orElseGet(() -> FileTypeClassifier.classifyExtension(entry.fileExtension().orElse("")));
 
         String humanReadableFileSize = entry.sizeInBytes()
                 .map(FileSizeFormatter::toHumanReadable)
@@ -0,0 +1,46 @@
+package pl.bdygasinski.filewalker.view;
+
+import pl.bdygasinski.filewalker.model.DuplicateGroup;
+import pl.bdygasinski.filewalker.model.FileEntry;
+
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Prints every group as a summary line followed by indented paths of its files.
+ */
+class DuplicateGroupsVisualizer implements ContentVisualizer {
+
+    private static final String INDENT = "    ";
+
+    private final List<DuplicateGroup> groups;
+
+    DuplicateGroupsVisualizer(List<DuplicateGroup> groups) {
+        this.groups = requireNonNull(groups);
+    }
+
+    @Override
+    public void listVisible() {
+        var writer = new BufferedConsoleWriter();
+        try {
+            for (DuplicateGroup group : groups) {
+                writer.writeLine(header(group));
+                for (FileEntry file : group.files()) {
+                    writer.writeLine(INDENT + file.path());
+                }
+            }
+
+        } finally {
+            writer.flush();
+        }
+    }
+
+    static String header(DuplicateGroup group) {
+        return "%d files of %s, %s wasted (%s)".formatted(
+                group.files().size(),
+                FileSizeFormatter.toHumanReadable(group.sizeInBytes()),
+                FileSizeFormatter.toHumanReadable(group.wastedBytes()),
+                group.digest());
+    }
+}
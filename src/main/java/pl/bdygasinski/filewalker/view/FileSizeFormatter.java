@@ -20,13 +20,21 @@ public class FileSizeFormatter {
         return String.format("%.1f %s", size, UNITS[unitIndex]);
     }
 
+    /**
+     * Parses values like "10 MB", "10MB" or "1.5kB", units are case-insensitive and whitespace before unit is optional.
+     */
     public static Optional<Long> toBytes(String humanReadableValue) {
         try {
-            String[] data = humanReadableValue.trim().split("\\s+");
-            if (data.length != 2) return Optional.empty();
+            String value = humanReadableValue.trim();
+            int unitIndex = 0;
+            while (unitIndex < value.length() && (Character.isDigit(value.charAt(unitIndex)) || value.charAt(unitIndex) == '.')) {
+                unitIndex++;
+            }
 
-            long value = Long.parseLong(data[0]);
-            String unit = data[1].toUpperCase();
+            if (unitIndex == 0) return Optional.empty();
+
+            double number = Double.parseDouble(value.substring(0, unitIndex));
+            String unit = value.substring(unitIndex).trim().toUpperCase();
 
             Optional<Long> multiplyValue = switch (unit) {
                 case "B" -> Optional.of(1L);
@@ -37,9 +45,9 @@ public class FileSizeFormatter {
                 default -> Optional.empty();
             };
 
-            return multiplyValue.map(unitValue -> unitValue * value);
+            return multiplyValue.map(unitValue -> Math.round(unitValue * number));
         } catch (Exception e) {
             return Optional.empty();
         }
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,15 @@
 package pl.bdygasinski.filewalker.view;
 
 import java.util.Map;
+import java.util.Set;
 
 public class FileTypeClassifier {
 
+    /**
+     * Types of files holding lines of text.
+     */
+    public static final Set<String> TEXT_TYPES = Set.of("code", "script", "data", "text");
+
     private static final Map<String, String> extensionToTypeMap = Map.ofEntries(
             // Image types
             Map.entry("png", "image"),
@@ -0,0 +1,53 @@
+package pl.bdygasinski.filewalker.view;
+
+import pl.bdygasinski.filewalker.model.LineCount;
+import pl.bdygasinski.filewalker.model.LineCountReport;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Prints a table of files, lines and size per file type, then per extension and the total like cloc does.
+ */
+class LineCountsVisualizer implements ContentVisualizer {
+
+    private static final String SEPARATOR = "-".repeat(56);
+
+    private final Supplier<LineCountReport> report;
+
+    LineCountsVisualizer(Supplier<LineCountReport> report) {
+        this.report = requireNonNull(report);
+    }
+
+    @Override
+    public void listVisible() {
+        LineCountReport counted = report.get();
+        var writer = new BufferedConsoleWriter();
+        try {
+            writeGroup(writer, "type", counted.categories());
+            writeGroup(writer, "extension", counted.extensions());
+            writer.writeLine(line(counted.total()));
+
+        } finally {
+            writer.flush();
+        }
+    }
+
+    private static void writeGroup(BufferedConsoleWriter writer, String header, List<LineCount> counts) {
+        writer.writeLine("%-12s %10s %14s %12s".formatted(header, "files", "lines", "size"));
+        writer.writeLine(SEPARATOR);
+        counts.forEach(count -> writer.writeLine(line(count)));
+        writer.writeLine(SEPARATOR);
+    }
+
+    static String line(LineCount count) {
+        String line = "%-12s %10d %14d %12s".formatted(
+                count.name(), count.files(), count.lines(), FileSizeFormatter.toHumanReadable(count.bytes()));
+
+        return count.unreadable() == 0
+                ? line
+                : "%s (%d unreadable)".formatted(line, count.unreadable());
+    }
+}
@@ -0,0 +1,38 @@
+package pl.bdygasinski.filewalker.view;
+
+import pl.bdygasinski.filewalker.model.FileMatches;
+import pl.bdygasinski.filewalker.model.MatchSource;
+import pl.bdygasinski.filewalker.model.MatchedLine;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Prints every matching line with its path and number like grep -n does.
+ */
+class MatchesVisualizer implements ContentVisualizer {
+
+    private final MatchSource source;
+
+    MatchesVisualizer(MatchSource source) {
+        this.source = requireNonNull(source);
+    }
+
+    @Override
+    public void listVisible() {
+        var writer = new BufferedConsoleWriter();
+        try {
+            source.forEachMatch(matches -> {
+                for (MatchedLine line : matches.lines()) {
+                    writer.writeLine(line(matches, line));
+                }
+            });
+
+        } finally {
+            writer.flush();
+        }
+    }
+
+    static String line(FileMatches matches, MatchedLine line) {
+        return "%s:%d:%s".formatted(matches.file().path(), line.number(), line.text());
+    }
+}
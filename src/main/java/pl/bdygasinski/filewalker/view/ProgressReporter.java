@@ -0,0 +1,136 @@
+package pl.bdygasinski.filewalker.view;
+
+import pl.bdygasinski.filewalker.filesystem.WalkStats;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Prints status line of a running walk at most once per interval, from its own thread sampling counters updated
+ * by visitors, so the walk takes no lock and makes no file system call for it. ETA assumes direct children of the
+ * root take similar time to walk, they are counted once with a single listing of the root when reporter starts.
+ */
+public final class ProgressReporter implements AutoCloseable {
+
+    public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(1);
+
+    private final Path root;
+    private final WalkStats stats;
+    private final Duration interval;
+    private final PrintStream out;
+    private final long startNanos;
+    private final Thread thread;
+
+    private ProgressReporter(Path root, WalkStats stats, Duration interval, PrintStream out) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Interval must be positive but got %s".formatted(interval));
+        }
+
+        this.root = requireNonNull(root, "Root is required but got %s".formatted(root));
+        this.stats = requireNonNull(stats, "Stats are required but got %s".formatted(stats));
+        this.interval = interval;
+        this.out = requireNonNull(out, "Output is required but got %s".formatted(out));
+        this.startNanos = System.nanoTime();
+        this.thread = Thread.ofPlatform()
+                .name("walk-progress")
+                .daemon()
+                .unstarted(this::run);
+    }
+
+    public static ProgressReporter start(Path root, WalkStats stats) {
+        return start(root, stats, DEFAULT_INTERVAL, System.err);
+    }
+
+    public static ProgressReporter start(Path root, WalkStats stats, Duration interval, PrintStream out) {
+        requireNonNull(interval, "Interval is required but got %s".formatted(interval));
+        var reporter = new ProgressReporter(root, stats, interval, out);
+        reporter.thread.start();
+        return reporter;
+    }
+
+    @Override
+    public void close() {
+        thread.interrupt();
+        try {
+            thread.join();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        long topLevel = countTopLevel();
+        long lastVisited = -1;
+
+        while (true) {
+            try {
+                Thread.sleep(interval);
+
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            long visited = stats.directories() + stats.files() + stats.failures();
+            if (visited != lastVisited) {
+                lastVisited = visited;
+                out.println(statusLine(stats, Duration.ofNanos(System.nanoTime() - startNanos), topLevel));
+            }
+        }
+    }
+
+    private long countTopLevel() {
+        try (var children = Files.list(root)) {
+            return children.count();
+
+        } catch (IOException | RuntimeException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * @param topLevel number of direct children of the root, ETA is unknown when it is not positive
+     */
+    static String statusLine(WalkStats stats, Duration elapsed, long topLevel) {
+        long nanos = Math.max(1, elapsed.toNanos());
+
+        return "%d dirs, %d files (%d matched), %s, %d errors, depth %d | %d dirs/s, %d files/s, %s/s | %s".formatted(
+                stats.directories(), stats.files(), stats.matchedFiles(),
+                FileSizeFormatter.toHumanReadable(stats.bytes()), stats.failures(), stats.currentDepth(),
+                perSecond(stats.directories(), nanos), perSecond(stats.files(), nanos),
+                FileSizeFormatter.toHumanReadable(perSecond(stats.bytes(), nanos)),
+                eta(stats.topLevelDone(), topLevel, nanos)
+        );
+    }
+
+    private static String eta(long done, long topLevel, long elapsedNanos) {
+        if (topLevel <= 0 || done <= 0) {
+            return "ETA unknown";
+        }
+
+        double fraction = Math.min(1.0, (double) done / topLevel);
+        long remainingNanos = (long) (elapsedNanos * (1 - fraction) / fraction);
+        return "%d%% of top level, ETA %s".formatted((int) (fraction * 100), formatDuration(remainingNanos));
+    }
+
+    private static String formatDuration(long nanos) {
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(nanos);
+        if (seconds >= 3600) {
+            return "%dh %02dm %02ds".formatted(seconds / 3600, seconds / 60 % 60, seconds % 60);
+        }
+        if (seconds >= 60) {
+            return "%dm %02ds".formatted(seconds / 60, seconds % 60);
+        }
+        return "%ds".formatted(seconds);
+    }
+
+    private static long perSecond(long count, long nanos) {
+        return (long) (count * (double) TimeUnit.SECONDS.toNanos(1) / nanos);
+    }
+}
@@ -0,0 +1,43 @@
+package pl.bdygasinski.filewalker.view;
+
+import pl.bdygasinski.filewalker.model.RankedFile;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Prints one line per file with size, modification time and path, in the order of the ranking.
+ */
+class RankedFilesVisualizer implements ContentVisualizer {
+
+    private static final DateTimeFormatter MODIFIED_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
+            .withZone(ZoneId.systemDefault());
+
+    private final List<RankedFile> ranking;
+
+    RankedFilesVisualizer(List<RankedFile> ranking) {
+        this.ranking = requireNonNull(ranking);
+    }
+
+    @Override
+    public void listVisible() {
+        var writer = new BufferedConsoleWriter();
+        try {
+            ranking.forEach(file -> writer.writeLine(line(file)));
+
+        } finally {
+            writer.flush();
+        }
+    }
+
+    static String line(RankedFile file) {
+        return "%-10s %s  %s".formatted(
+                FileSizeFormatter.toHumanReadable(file.sizeInBytes()),
+                MODIFIED_FORMAT.format(Instant.ofEpochMilli(file.lastModifiedMillis())),
+                file.path());
+    }
+}
@@ -0,0 +1,25 @@
+package pl.bdygasinski.filewalker.view;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Spans whole listing, which for streamed sources includes the walk itself, while printing time holds only
+ * the part spent on formatting and writing lines.
+ */
+@Name("pl.bdygasinski.filewalker.Render")
+@Label("Render")
+@Category("File Walker")
+@Description("Listing of entries to the console")
+class RenderEvent extends jdk.jfr.Event {
+
+    @Label("Lines")
+    long lines;
+
+    @Label("Printing Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long printingTime;
+}
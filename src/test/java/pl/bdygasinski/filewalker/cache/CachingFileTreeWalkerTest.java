@@ -0,0 +1,113 @@
+package pl.bdygasinski.filewalker.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pl.bdygasinski.filewalker.filesystem.EntryFileVisitor;
+import pl.bdygasinski.filewalker.model.Entry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static pl.bdygasinski.filewalker.helper.TestClassLoadingUtil.ROOT_DIR;
+import static pl.bdygasinski.filewalker.helper.TestClassLoadingUtil.pathFromClasspath;
+
+class CachingFileTreeWalkerTest {
+
+    private static final FileTime HOUR_AGO = FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS));
+
+    @TempDir
+    private Path tmpDir;
+
+    @DisplayName("walk()")
+    @Nested
+    class WalkTest {
+
+        @DisplayName("Should visit same entries as Files.walkFileTree()")
+        @ParameterizedTest
+        @ValueSource(ints = {0, 1, 2, 5})
+        void shouldVisitSameEntriesAsWalkFileTree(int maxDepth) throws IOException {
+            // Given
+            var givenPath = pathFromClasspath(ROOT_DIR);
+            var expected = new EntryFileVisitor(maxDepth, entry -> true);
+            Files.walkFileTree(givenPath, expected);
+            var cache = TreeSnapshot.empty();
+            var underTest = new CachingFileTreeWalker(cache);
+
+            for (int run = 0; run < 2; run++) {
+                var visitor = new EntryFileVisitor(maxDepth, entry -> true);
+
+                // When
+                underTest.walk(givenPath, visitor);
+
+                // Then
+                assertThat(visitor.getEntries())
+                        .containsExactlyElementsOf(expected.getEntries());
+            }
+        }
+
+        @DisplayName("Should reuse listing of unchanged directory and re-list changed one")
+        @Test
+        void shouldReuseListingOfUnchangedDirectory() throws IOException {
+            // Given
+            var givenFile = Files.writeString(tmpDir.resolve("a.txt"), "x");
+            Files.setLastModifiedTime(tmpDir, HOUR_AGO);
+            var underTest = new CachingFileTreeWalker(TreeSnapshot.empty());
+            underTest.walk(tmpDir, new EntryFileVisitor(1, entry -> true));
+
+            Files.writeString(givenFile, "xyz");
+            Files.setLastModifiedTime(tmpDir, HOUR_AGO);
+
+            // When
+            var cachedResult = walk(underTest);
+            Files.writeString(tmpDir.resolve("b.txt"), "b");
+            var relistedResult = walk(underTest);
+
+            // Then
+            assertThat(cachedResult)
+                    .filteredOn(entry -> entry.baseName().equals("a.txt"))
+                    .singleElement()
+                    .matches(entry -> entry.sizeInBytes().orElseThrow() == 1L);
+
+            assertThat(relistedResult)
+                    .extracting(Entry::baseName)
+                    .contains("a.txt", "b.txt");
+
+            assertThat(relistedResult)
+                    .filteredOn(entry -> entry.baseName().equals("a.txt"))
+                    .singleElement()
+                    .matches(entry -> entry.sizeInBytes().orElseThrow() == 3L);
+        }
+
+        @DisplayName("Should not cache directory modified just before the walk")
+        @Test
+        void shouldNotCacheRecentlyModifiedDirectory() throws IOException {
+            // Given
+            Files.writeString(tmpDir.resolve("a.txt"), "x");
+            var givenCache = TreeSnapshot.empty();
+            var underTest = new CachingFileTreeWalker(givenCache);
+
+            // When
+            underTest.walk(tmpDir, new EntryFileVisitor(1, entry -> true));
+
+            // Then
+            assertThat(givenCache.get(tmpDir))
+                    .isEmpty();
+        }
+
+        private List<Entry> walk(CachingFileTreeWalker walker) throws IOException {
+            var visitor = new EntryFileVisitor(1, entry -> true);
+            walker.walk(tmpDir, visitor);
+            return visitor.getEntries();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package pl.bdygasinski.filewalker.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+class LruDirectoryCacheTest {
+
+    private static final CachedAttributes DIR_ATTRS = new CachedAttributes(CachedAttributes.DIRECTORY, 0L, 100L, "key");
+    private static final CachedAttributes FILE_ATTRS = new CachedAttributes(CachedAttributes.REGULAR_FILE, 1L, 1L, null);
+
+    @DisplayName("constructor()")
+    @Nested
+    class ConstructorTest {
+
+        @DisplayName("Should throw if max children is not positive")
+        @ParameterizedTest
+        @ValueSource(longs = {0, -1})
+        void shouldThrowIfMaxChildrenIsNotPositive(long maxChildren) {
+            // When
+            var result = catchException(() -> new LruDirectoryCache(maxChildren));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining(String.valueOf(maxChildren));
+        }
+    }
+
+    @DisplayName("getValid()")
+    @Nested
+    class GetValidTest {
+
+        @DisplayName("Should count hit for listing valid for directory attributes")
+        @Test
+        void shouldCountHit() {
+            // Given
+            var underTest = new LruDirectoryCache(10);
+            var givenListing = listingWithChildren(2);
+            underTest.put(Path.of("a"), givenListing);
+
+            // When
+            var result = underTest.getValid(Path.of("a"), DIR_ATTRS);
+
+            // Then
+            assertThat(result)
+                    .contains(givenListing);
+            assertThat(underTest.stats())
+                    .isEqualTo(new CacheStats(1, 0, 0, 1, 2));
+        }
+
+        @DisplayName("Should count miss and drop stale listing")
+        @Test
+        void shouldCountMissAndDropStaleListing() {
+            // Given
+            var underTest = new LruDirectoryCache(10);
+            underTest.put(Path.of("a"), listingWithChildren(2));
+            var givenChangedAttrs = new CachedAttributes(CachedAttributes.DIRECTORY, 0L, 200L, "key");
+
+            // When
+            var result = underTest.getValid(Path.of("a"), givenChangedAttrs);
+
+            // Then
+            assertThat(result)
+                    .isEmpty();
+            assertThat(underTest.stats())
+                    .isEqualTo(new CacheStats(0, 1, 0, 0, 0));
+        }
+    }
+
+    @DisplayName("put()")
+    @Nested
+    class PutTest {
+
+        @DisplayName("Should evict least recently used listings when children exceed the limit")
+        @Test
+        void shouldEvictLeastRecentlyUsed() {
+            // Given
+            var underTest = new LruDirectoryCache(5);
+            underTest.put(Path.of("a"), listingWithChildren(2));
+            underTest.put(Path.of("b"), listingWithChildren(2));
+            underTest.getValid(Path.of("a"), DIR_ATTRS);
+
+            // When
+            underTest.put(Path.of("c"), listingWithChildren(2));
+
+            // Then
+            assertThat(underTest.get(Path.of("b")))
+                    .isEmpty();
+            assertThat(underTest.get(Path.of("a")))
+                    .isPresent();
+            assertThat(underTest.get(Path.of("c")))
+                    .isPresent();
+            assertThat(underTest.stats())
+                    .isEqualTo(new CacheStats(1, 0, 1, 2, 4));
+        }
+
+        @DisplayName("Should not store listing bigger than the whole cache")
+        @Test
+        void shouldNotStoreListingBiggerThanCache() {
+            // Given
+            var underTest = new LruDirectoryCache(3);
+            underTest.put(Path.of("a"), listingWithChildren(1));
+
+            // When
+            underTest.put(Path.of("b"), listingWithChildren(4));
+
+            // Then
+            assertThat(underTest.get(Path.of("b")))
+                    .isEmpty();
+            assertThat(underTest.stats())
+                    .isEqualTo(new CacheStats(0, 0, 0, 1, 1));
+        }
+
+        @DisplayName("Should replace listing of the same directory")
+        @Test
+        void shouldReplaceListingOfSameDirectory() {
+            // Given
+            var underTest = new LruDirectoryCache(10);
+            underTest.put(Path.of("a"), listingWithChildren(3));
+
+            // When
+            underTest.put(Path.of("a"), listingWithChildren(1));
+
+            // Then
+            assertThat(underTest.stats())
+                    .isEqualTo(new CacheStats(0, 0, 0, 1, 1));
+        }
+    }
+
+    private static CachedDirectory listingWithChildren(int count) {
+        return CachedDirectory.of(DIR_ATTRS, Collections.nCopies(count, new CachedChild("file", FILE_ATTRS)));
+    }
+}
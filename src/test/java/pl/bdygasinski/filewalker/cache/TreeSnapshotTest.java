@@ -0,0 +1,126 @@
+package pl.bdygasinski.filewalker.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+class TreeSnapshotTest {
+
+    @TempDir
+    private Path tmpDir;
+
+    @DisplayName("load()")
+    @Nested
+    class LoadTest {
+
+        @DisplayName("Should give empty snapshot if file does not exist")
+        @Test
+        void shouldGiveEmptySnapshotIfFileDoesNotExist() throws IOException {
+            // When
+            var result = TreeSnapshot.load(tmpDir.resolve("missing"));
+
+            // Then
+            assertThat(result.get(tmpDir))
+                    .isEmpty();
+        }
+
+        @DisplayName("Should throw if file is not a snapshot")
+        @Test
+        void shouldThrowIfFileIsNotSnapshot() throws IOException {
+            // Given
+            var givenFile = Files.writeString(tmpDir.resolve("snapshot"), "not a snapshot");
+
+            // When
+            var result = catchException(() -> TreeSnapshot.load(givenFile));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining(givenFile.toString());
+        }
+
+        @DisplayName("Should read listings written by save()")
+        @Test
+        void shouldReadListingsWrittenBySave() throws IOException {
+            // Given
+            var givenFile = tmpDir.resolve("snapshot");
+            var givenListing = new CachedDirectory(42L, "(dev=1,ino=2)", List.of(
+                    new CachedChild("a.txt", new CachedAttributes(CachedAttributes.REGULAR_FILE, 10L, 7L, null)),
+                    new CachedChild("sub", new CachedAttributes(CachedAttributes.DIRECTORY, 4096L, 8L, "(dev=1,ino=3)"))
+            ));
+            var underTest = TreeSnapshot.empty();
+            underTest.put(tmpDir, givenListing);
+            underTest.save(givenFile);
+
+            // When
+            var result = TreeSnapshot.load(givenFile);
+
+            // Then
+            assertThat(result.get(tmpDir))
+                    .contains(givenListing);
+        }
+    }
+
+    @DisplayName("save()")
+    @Nested
+    class SaveTest {
+
+        @DisplayName("Should keep only listings used since load")
+        @Test
+        void shouldKeepOnlyUsedListings() throws IOException {
+            // Given
+            var givenFile = tmpDir.resolve("snapshot");
+            var givenAttrs = Files.readAttributes(tmpDir, BasicFileAttributes.class);
+            var givenListing = CachedDirectory.of(givenAttrs, List.of());
+            var previous = TreeSnapshot.empty();
+            previous.put(tmpDir.resolve("used"), givenListing);
+            previous.put(tmpDir.resolve("removed"), givenListing);
+            previous.save(givenFile);
+
+            var underTest = TreeSnapshot.load(givenFile);
+            underTest.getValid(tmpDir.resolve("used"), givenAttrs);
+
+            // When
+            underTest.save(givenFile);
+
+            // Then
+            var result = TreeSnapshot.load(givenFile);
+            assertThat(result.get(tmpDir.resolve("used")))
+                    .contains(givenListing);
+            assertThat(result.get(tmpDir.resolve("removed")))
+                    .isEmpty();
+        }
+
+        @DisplayName("Should not keep listings which failed validation")
+        @Test
+        void shouldNotKeepStaleListings() throws IOException {
+            // Given
+            var givenFile = tmpDir.resolve("snapshot");
+            var previous = TreeSnapshot.empty();
+            previous.put(tmpDir.resolve("changed"), new CachedDirectory(1L, null, List.of()));
+            previous.save(givenFile);
+
+            var underTest = TreeSnapshot.load(givenFile);
+            var lookup = underTest.getValid(tmpDir.resolve("changed"), Files.readAttributes(tmpDir, BasicFileAttributes.class));
+
+            // When
+            underTest.save(givenFile);
+
+            // Then
+            assertThat(lookup)
+                    .isEmpty();
+            assertThat(TreeSnapshot.load(givenFile).get(tmpDir.resolve("changed")))
+                    .isEmpty();
+        }
+    }
+}
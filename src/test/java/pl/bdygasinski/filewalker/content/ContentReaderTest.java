@@ -0,0 +1,157 @@
+package pl.bdygasinski.filewalker.content;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pl.bdygasinski.filewalker.memoryfs.MemoryFileSystem;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+class ContentReaderTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private static byte[] randomContent(int size) {
+        byte[] content = new byte[size];
+        new SplittableRandom(size).nextBytes(content);
+        return content;
+    }
+
+    private static byte[] bytesOf(ByteBuffer buffer, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        return bytes;
+    }
+
+    @DisplayName("constructor()")
+    @Nested
+    class ConstructorTest {
+
+        @DisplayName("Should throw if there are no pooled buffers")
+        @Test
+        void shouldThrowWithoutBuffers() {
+            // When
+            var result = catchException(() -> new ContentReader(0));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("0");
+        }
+    }
+
+    @DisplayName("read()")
+    @Nested
+    class ReadTest {
+
+        @DisplayName("Should give whole content in blocks, the last one marked")
+        @ParameterizedTest
+        @ValueSource(ints = {0, 1, ContentReader.HEAD_SIZE + 1, ContentReader.BUFFER_SIZE * 2 + 3, (int) ContentReader.MAPPED_THRESHOLD + 17})
+        void shouldGiveWholeContent(int size) throws IOException {
+            // Given
+            byte[] givenContent = randomContent(size);
+            Path givenFile = Files.write(tempDir.resolve("file"), givenContent);
+            var content = new ByteArrayOutputStream();
+            List<Boolean> lastFlags = new ArrayList<>();
+            var underTest = new ContentReader(1);
+
+            // When
+            underTest.read(givenFile, (block, last) -> {
+                content.writeBytes(bytesOf(block, 0, block.limit()));
+                lastFlags.add(last);
+                return block.limit();
+            });
+
+            // Then
+            assertThat(content.toByteArray())
+                    .isEqualTo(givenContent);
+            assertThat(lastFlags)
+                    .endsWith(true)
+                    .containsOnlyOnce(true);
+        }
+
+        @DisplayName("Should give bytes not consumed again at the start of the next block")
+        @Test
+        void shouldGiveRestAgain() throws IOException {
+            // Given
+            byte[] givenContent = randomContent(ContentReader.BUFFER_SIZE * 3);
+            var givenFileSystem = MemoryFileSystem.builder().file("/file", givenContent).build();
+            var content = new ByteArrayOutputStream();
+            var underTest = new ContentReader(1);
+
+            // When
+            underTest.read(givenFileSystem.getPath("/file"), (block, last) -> {
+                int consumed = last ? block.limit() : block.limit() / 2;
+                content.writeBytes(bytesOf(block, 0, consumed));
+                return consumed;
+            });
+
+            // Then
+            assertThat(content.toByteArray())
+                    .isEqualTo(givenContent);
+        }
+
+        @DisplayName("Should stop after the head when visitor refuses it")
+        @ParameterizedTest
+        @ValueSource(ints = {ContentReader.BUFFER_SIZE * 2, (int) ContentReader.MAPPED_THRESHOLD + 17})
+        void shouldStopAfterHead(int size) throws IOException {
+            // Given
+            byte[] givenContent = randomContent(size);
+            Path givenFile = Files.write(tempDir.resolve("file"), givenContent);
+            List<byte[]> heads = new ArrayList<>();
+            List<ByteBuffer> blocks = new ArrayList<>();
+            var underTest = new ContentReader(1);
+
+            // When
+            underTest.read(givenFile, new BlockVisitor() {
+                @Override
+                public boolean head(ByteBuffer head) {
+                    heads.add(bytesOf(head, 0, head.limit()));
+                    return false;
+                }
+
+                @Override
+                public int block(ByteBuffer block, boolean last) {
+                    blocks.add(block);
+                    return block.limit();
+                }
+            });
+
+            // Then
+            assertThat(heads)
+                    .singleElement()
+                    .isEqualTo(bytesOf(ByteBuffer.wrap(givenContent), 0, ContentReader.HEAD_SIZE));
+            assertThat(blocks)
+                    .isEmpty();
+        }
+
+        @DisplayName("Should throw for missing file")
+        @Test
+        void shouldThrowForMissingFile() {
+            // Given
+            var underTest = new ContentReader(1);
+
+            // When
+            var result = catchException(() -> underTest.read(tempDir.resolve("missing"), (block, last) -> block.limit()));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(NoSuchFileException.class);
+        }
+    }
+}
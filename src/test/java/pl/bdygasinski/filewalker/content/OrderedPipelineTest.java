@@ -0,0 +1,84 @@
+package pl.bdygasinski.filewalker.content;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+class OrderedPipelineTest {
+
+    @DisplayName("constructor()")
+    @Nested
+    class ConstructorTest {
+
+        @DisplayName("Should throw if workers are not positive")
+        @Test
+        void shouldThrowWithoutWorkers() {
+            // When
+            var result = catchException(() -> new OrderedPipeline<Integer>("test", 0, ignored -> {
+            }));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("0");
+        }
+    }
+
+    @DisplayName("submit()")
+    @Nested
+    class SubmitTest {
+
+        @DisplayName("Should pass results on in the order tasks came")
+        @Test
+        void shouldKeepOrder() {
+            // Given
+            List<Integer> results = new ArrayList<>();
+
+            // When
+            try (var underTest = new OrderedPipeline<Integer>("test", 4, results::add)) {
+                for (int i = 0; i < 100; i++) {
+                    int task = i;
+                    underTest.submit(() -> {
+                        LockSupport.parkNanos((100 - task) * 10_000L);
+                        return task;
+                    });
+                }
+                underTest.finish();
+            }
+
+            // Then
+            assertThat(results)
+                    .containsExactlyElementsOf(IntStream.range(0, 100).boxed().toList());
+        }
+
+        @DisplayName("Should rethrow what a task threw")
+        @Test
+        void shouldRethrowFailure() {
+            // Given
+            var givenFailure = new IllegalStateException("broken");
+
+            // When
+            var result = catchException(() -> {
+                try (var underTest = new OrderedPipeline<Integer>("test", 2, ignored -> {
+                })) {
+                    underTest.submit(() -> {
+                        throw givenFailure;
+                    });
+                    underTest.finish();
+                }
+            });
+
+            // Then
+            assertThat(result)
+                    .isSameAs(givenFailure);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package pl.bdygasinski.filewalker.count;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import pl.bdygasinski.filewalker.content.ContentReader;
+import pl.bdygasinski.filewalker.memoryfs.MemoryFileSystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+class LineCounterTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private static byte[] randomLines(int size) {
+        byte[] content = new byte[size];
+        var random = new SplittableRandom(size);
+        for (int i = 0; i < size; i++) {
+            content[i] = random.nextInt(8) == 0 ? (byte) '\n' : (byte) random.nextInt(256);
+        }
+        return content;
+    }
+
+    private static long naiveLineFeeds(byte[] content, int from, int to) {
+        long count = 0;
+        for (int i = from; i < to; i++) {
+            if (content[i] == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @DisplayName("constructor()")
+    @Nested
+    class ConstructorTest {
+
+        @DisplayName("Should throw if there are no pooled buffers")
+        @Test
+        void shouldThrowWithoutBuffers() {
+            // When
+            var result = catchException(() -> new LineCounter(0));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("0");
+        }
+    }
+
+    @DisplayName("countLineFeeds()")
+    @Nested
+    class CountLineFeedsTest {
+
+        @DisplayName("Should count line feeds between position and limit like a byte by byte loop")
+        @Test
+        void shouldCountLikeByteLoop() {
+            // Given
+            var random = new SplittableRandom(11);
+            var givenContent = randomLines(4096);
+
+            for (int i = 0; i < 500; i++) {
+                int from = random.nextInt(givenContent.length);
+                int to = random.nextInt(from, givenContent.length + 1);
+                var givenBuffer = ByteBuffer.wrap(givenContent).position(from).limit(to);
+
+                // When
+                var result = LineCounter.countLineFeeds(givenBuffer);
+
+                // Then
+                assertThat(result)
+                        .as("from %d to %d", from, to)
+                        .isEqualTo(naiveLineFeeds(givenContent, from, to));
+            }
+        }
+
+        @DisplayName("Should not count bytes close to line feed")
+        @Test
+        void shouldNotCountNeighbourBytes() {
+            // Given
+            var givenBuffer = ByteBuffer.wrap(new byte[]{0x0B, 0x09, (byte) 0x8A, 0x0A, 0x00, 0x1A, 0x0A, (byte) 0xFF, 0x0A});
+
+            // When
+            var result = LineCounter.countLineFeeds(givenBuffer);
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(3);
+        }
+    }
+
+    @DisplayName("count()")
+    @Nested
+    class CountTest {
+
+        @DisplayName("Should count the last line also without line feed")
+        @ParameterizedTest
+        @CsvSource(delimiter = '|', value = {
+                "''|0",
+                "one|1",
+                "one\\n|1",
+                "one\\ntwo|2",
+                "\\n\\n|2"
+        })
+        void shouldCountLastLine(String givenContent, long expectedLines) throws IOException {
+            // Given
+            var givenBytes = givenContent.replace("\\n", "\n").getBytes(StandardCharsets.UTF_8);
+            var givenFileSystem = MemoryFileSystem.builder().file("/root/file", givenBytes).build();
+            var underTest = new LineCounter(1);
+
+            // When
+            var result = underTest.count(givenFileSystem.getPath("/root/file"));
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(new FileCount(expectedLines, givenBytes.length));
+        }
+
+        @DisplayName("Should count content read with buffers and memory mapped")
+        @ParameterizedTest
+        @ValueSource(ints = {ContentReader.BUFFER_SIZE + 3, (int) ContentReader.MAPPED_THRESHOLD + 5})
+        void shouldCountLargeFiles(int size) throws IOException {
+            // Given
+            var givenContent = randomLines(size);
+            givenContent[size - 1] = '\n';
+            var givenFile = Files.write(tempDir.resolve("file"), givenContent);
+            var underTest = new LineCounter(1);
+
+            // When
+            var result = underTest.count(givenFile);
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(new FileCount(naiveLineFeeds(givenContent, 0, size), size));
+        }
+    }
+}
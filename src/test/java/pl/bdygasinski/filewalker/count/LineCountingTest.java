@@ -0,0 +1,97 @@
+package pl.bdygasinski.filewalker.count;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import pl.bdygasinski.filewalker.memoryfs.MemoryFileSystem;
+import pl.bdygasinski.filewalker.model.Entry;
+import pl.bdygasinski.filewalker.model.LineCount;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+class LineCountingTest {
+
+    private static final Map<String, String> CATEGORIES = Map.of("java", "code", "py", "code", "txt", "text", "png", "image");
+
+    private static byte[] lines(int count) {
+        return "line\n".repeat(count).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @DisplayName("constructor()")
+    @Nested
+    class ConstructorTest {
+
+        @DisplayName("Should throw if there are no workers")
+        @Test
+        void shouldThrowWithoutWorkers() {
+            // When
+            var result = catchException(() -> new LineCounting(ext -> "code", Set.of("code"), 0));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("0");
+        }
+    }
+
+    @DisplayName("count()")
+    @Nested
+    class CountTest {
+
+        @DisplayName("Should sum lines per category and extension of counted categories only")
+        @Test
+        void shouldSumPerCategoryAndExtension() {
+            // Given
+            var givenFileSystem = MemoryFileSystem.builder()
+                    .file("/root/A.java", lines(10))
+                    .file("/root/b.java", lines(5))
+                    .file("/root/c.py", lines(20))
+                    .file("/root/d.txt", lines(1))
+                    .file("/root/e.png", lines(100))
+                    .file("/root/f", lines(100))
+                    .build();
+            var givenEntries = List.of("A.java", "b.java", "c.py", "d.txt", "e.png", "f").stream()
+                    .map(name -> Entry.fromPathAndGraphDepth(givenFileSystem.getPath("/root", name), 1))
+                    .toList();
+            var underTest = new LineCounting(ext -> CATEGORIES.getOrDefault(ext, "unknown"), Set.of("code", "text"), 3);
+
+            // When
+            var result = underTest.count(givenEntries::forEach);
+
+            // Then
+            assertThat(result.categories())
+                    .containsExactly(
+                            new LineCount("code", 3, 35, 175, 0),
+                            new LineCount("text", 1, 1, 5, 0));
+            assertThat(result.extensions())
+                    .containsExactly(
+                            new LineCount("py", 1, 20, 100, 0),
+                            new LineCount("java", 2, 15, 75, 0),
+                            new LineCount("txt", 1, 1, 5, 0));
+            assertThat(result.total())
+                    .isEqualTo(new LineCount("total", 4, 36, 180, 0));
+        }
+
+        @DisplayName("Should count files which can't be read as unreadable")
+        @Test
+        void shouldCountUnreadableFiles() {
+            // Given
+            var givenMissing = Entry.fromPathAndGraphDepth(Path.of("/missing-file-of-counting-test.txt"), 1);
+            var underTest = new LineCounting(ext -> CATEGORIES.getOrDefault(ext, "unknown"), Set.of("text"), 1);
+
+            // When
+            var result = underTest.count(action -> action.accept(givenMissing));
+
+            // Then
+            assertThat(result.categories())
+                    .containsExactly(new LineCount("text", 0, 0, 0, 1));
+        }
+    }
+}
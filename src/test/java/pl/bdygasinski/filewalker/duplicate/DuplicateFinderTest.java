@@ -0,0 +1,204 @@
+package pl.bdygasinski.filewalker.duplicate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pl.bdygasinski.filewalker.filesystem.ForkJoinFileTreeWalker;
+import pl.bdygasinski.filewalker.filesystem.SequentialFileTreeWalker;
+import pl.bdygasinski.filewalker.filesystem.WalkScope;
+import pl.bdygasinski.filewalker.memoryfs.MemoryFileSystem;
+import pl.bdygasinski.filewalker.model.DuplicateGroup;
+import pl.bdygasinski.filewalker.model.FileEntry;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+class DuplicateFinderTest {
+
+    private static final int LARGE_SIZE = 3 * ContentHasher.EDGE_SIZE;
+
+    @TempDir
+    private Path tempDir;
+
+    private static byte[] content(int size, byte fill) {
+        byte[] content = new byte[size];
+        Arrays.fill(content, fill);
+        return content;
+    }
+
+    private static Set<Set<String>> fileNameGroups(List<DuplicateGroup> groups) {
+        return groups.stream()
+                .map(group -> group.files().stream()
+                        .map(FileEntry::baseName)
+                        .collect(Collectors.toSet()))
+                .collect(Collectors.toSet());
+    }
+
+    private Path write(String name, byte[] content) throws IOException {
+        Path path = tempDir.resolve(name);
+        Files.createDirectories(path.getParent());
+        return Files.write(path, content);
+    }
+
+    @DisplayName("constructor()")
+    @Nested
+    class ConstructorTest {
+
+        @DisplayName("Should throw if hashing threads are not positive")
+        @Test
+        void shouldThrowIfHashingThreadsAreNotPositive() {
+            // When
+            var result = catchException(() -> new DuplicateFinder(new SequentialFileTreeWalker(), 0));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("0");
+        }
+    }
+
+    @DisplayName("fromPath()")
+    @Nested
+    class FromPathTest {
+
+        @DisplayName("Should group small files by content")
+        @Test
+        void shouldGroupSmallFilesByContent() throws IOException {
+            // Given
+            write("a/one.txt", "same".getBytes(StandardCharsets.UTF_8));
+            write("b/two.txt", "same".getBytes(StandardCharsets.UTF_8));
+            write("three.txt", "diff".getBytes(StandardCharsets.UTF_8));
+            write("unique.txt", "unique size".getBytes(StandardCharsets.UTF_8));
+            write("empty1.txt", new byte[0]);
+            write("empty2.txt", new byte[0]);
+            var underTest = new DuplicateFinder(new SequentialFileTreeWalker(), 2);
+
+            // When
+            var result = underTest.fromPath(tempDir);
+
+            // Then
+            assertThat(fileNameGroups(result))
+                    .containsExactly(Set.of("one.txt", "two.txt"));
+
+            assertThat(result.getFirst().sizeInBytes())
+                    .isEqualTo(4);
+        }
+
+        @DisplayName("Should not report hard links to the same file as duplicates")
+        @Test
+        void shouldNotReportHardLinksAsDuplicates() throws IOException {
+            // Given
+            var givenFile = write("a/one.txt", "same".getBytes(StandardCharsets.UTF_8));
+            Files.createDirectories(tempDir.resolve("b"));
+            Files.createLink(tempDir.resolve("b/link.txt"), givenFile);
+            write("c/two.txt", "same".getBytes(StandardCharsets.UTF_8));
+            var underTest = new DuplicateFinder(new ForkJoinFileTreeWalker(4), 2);
+
+            // When
+            var result = underTest.fromPath(tempDir);
+
+            // Then
+            assertThat(result)
+                    .singleElement()
+                    .extracting(group -> group.files().size())
+                    .isEqualTo(2);
+            assertThat(result.getFirst().files())
+                    .extracting(FileEntry::baseName)
+                    .contains("two.txt")
+                    .containsAnyOf("one.txt", "link.txt");
+        }
+
+        @DisplayName("Should leave out files of excluded directories and hidden files")
+        @Test
+        void shouldLeaveOutFilesOutOfScope() throws IOException {
+            // Given
+            write("one.txt", "same".getBytes(StandardCharsets.UTF_8));
+            write(".two.txt", "same".getBytes(StandardCharsets.UTF_8));
+            write("node_modules/three.txt", "same".getBytes(StandardCharsets.UTF_8));
+            write(".cache/four.txt", "same".getBytes(StandardCharsets.UTF_8));
+            var underTest = new DuplicateFinder(new ForkJoinFileTreeWalker(4), 2,
+                    WalkScope.listed(entry -> !entry.baseName().equals("node_modules")));
+
+            // When
+            var result = underTest.fromPath(tempDir);
+
+            // Then
+            assertThat(fileNameGroups(result))
+                    .containsExactly(Set.of("one.txt", "four.txt"));
+        }
+
+        @DisplayName("Should hash whole content of large files sharing edges")
+        @Test
+        void shouldHashWholeContentOfLargeFiles() throws IOException {
+            // Given
+            byte[] givenContent = content(LARGE_SIZE, (byte) 7);
+            byte[] givenDifferentMiddle = givenContent.clone();
+            givenDifferentMiddle[LARGE_SIZE / 2] = 8;
+
+            write("copy1.bin", givenContent);
+            write("dir/copy2.bin", givenContent);
+            write("dir/sub/copy3.bin", givenContent);
+            write("middle.bin", givenDifferentMiddle);
+            var underTest = new DuplicateFinder(new ForkJoinFileTreeWalker(4), 4);
+
+            // When
+            var result = underTest.fromPath(tempDir);
+
+            // Then
+            assertThat(fileNameGroups(result))
+                    .containsExactly(Set.of("copy1.bin", "copy2.bin", "copy3.bin"));
+
+            assertThat(result.getFirst().wastedBytes())
+                    .isEqualTo(2L * LARGE_SIZE);
+        }
+
+        @DisplayName("Should order groups by wasted bytes")
+        @Test
+        void shouldOrderGroupsByWastedBytes() throws IOException {
+            // Given
+            write("small1", content(10, (byte) 1));
+            write("small2", content(10, (byte) 1));
+            write("big1", content(1000, (byte) 2));
+            write("big2", content(1000, (byte) 2));
+            var underTest = new DuplicateFinder(new SequentialFileTreeWalker(), 1);
+
+            // When
+            var result = underTest.fromPath(tempDir);
+
+            // Then
+            assertThat(result)
+                    .extracting(DuplicateGroup::sizeInBytes)
+                    .containsExactly(1000L, 10L);
+        }
+
+        @DisplayName("Should read files of file systems without memory mapping")
+        @Test
+        void shouldReadFilesWithoutMemoryMapping() {
+            // Given
+            byte[] givenContent = content(LARGE_SIZE, (byte) 3);
+            var givenFileSystem = MemoryFileSystem.builder()
+                    .file("/root/a.bin", givenContent)
+                    .file("/root/b/b.bin", givenContent)
+                    .file("/root/c.bin", content(LARGE_SIZE, (byte) 4))
+                    .build();
+            var underTest = new DuplicateFinder(new SequentialFileTreeWalker(), 2);
+
+            // When
+            var result = underTest.fromPath(givenFileSystem.getPath("/root"));
+
+            // Then
+            assertThat(fileNameGroups(result))
+                    .containsExactly(Set.of("a.bin", "b.bin"));
+        }
+    }
+}
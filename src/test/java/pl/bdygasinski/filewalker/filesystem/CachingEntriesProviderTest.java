@@ -0,0 +1,78 @@
+package pl.bdygasinski.filewalker.filesystem;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pl.bdygasinski.filewalker.cache.CacheStats;
+import pl.bdygasinski.filewalker.cache.LruDirectoryCache;
+import pl.bdygasinski.filewalker.model.Entry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static pl.bdygasinski.filewalker.helper.TestClassLoadingUtil.ROOT_DIR;
+import static pl.bdygasinski.filewalker.helper.TestClassLoadingUtil.pathFromClasspath;
+
+class CachingEntriesProviderTest {
+
+    @TempDir
+    private Path tmpDir;
+
+    @DisplayName("getEntriesFromPath()")
+    @Nested
+    class GetEntriesFromPathTest {
+
+        @DisplayName("Should give same entries as sequential provider on every call")
+        @ParameterizedTest
+        @ValueSource(ints = {0, 1, 2, 5})
+        void shouldGiveSameEntriesAsSequentialProvider(int maxDepth) {
+            // Given
+            var givenPath = pathFromClasspath(ROOT_DIR);
+            var expected = new FileSystemEntriesProvider(new EntryFileVisitor(maxDepth, entry -> true))
+                    .getEntriesFromPath(givenPath);
+            var underTest = new CachingEntriesProvider(new EntryFileVisitor(maxDepth, entry -> true), new LruDirectoryCache(1_000));
+
+            // When
+            var first = underTest.getEntriesFromPath(givenPath);
+            var second = underTest.getEntriesFromPath(givenPath);
+
+            // Then
+            assertThat(first)
+                    .containsExactlyElementsOf(expected);
+            assertThat(second)
+                    .containsExactlyElementsOf(expected);
+        }
+
+        @DisplayName("Should read unchanged directories from the cache on repeated walks")
+        @Test
+        void shouldReadUnchangedDirectoriesFromCache() throws IOException {
+            // Given
+            var givenHourAgo = FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS));
+            Files.createFile(Files.createDirectory(tmpDir.resolve("dir")).resolve("file.txt"));
+            Files.setLastModifiedTime(tmpDir.resolve("dir"), givenHourAgo);
+            Files.setLastModifiedTime(tmpDir, givenHourAgo);
+            var givenCache = new LruDirectoryCache(1_000);
+            var underTest = new CachingEntriesProvider(new EntryFileVisitor(5, entry -> true), givenCache);
+
+            // When
+            var first = underTest.getEntriesFromPath(tmpDir);
+            var second = underTest.getEntriesFromPath(tmpDir);
+
+            // Then
+            assertThat(second)
+                    .extracting(Entry::baseName)
+                    .containsExactlyElementsOf(first.stream().map(Entry::baseName).toList())
+                    .contains("dir", "file.txt");
+            assertThat(givenCache.stats())
+                    .isEqualTo(new CacheStats(2, 2, 0, 2, 2));
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package pl.bdygasinski.filewalker.filesystem;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import pl.bdygasinski.filewalker.memoryfs.MemoryFileSystem;
+import pl.bdygasinski.filewalker.model.Entry;
+import pl.bdygasinski.filewalker.model.ErrorEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+import static pl.bdygasinski.filewalker.helper.TestClassLoadingUtil.*;
+
+class ConcurrentEntriesProviderTest {
+
+    @DisplayName("constructor()")
+    @Nested
+    class ConstructorTest {
+
+        @DisplayName("Should throw if visitor is null")
+        @Test
+        void shouldThrowIfVisitorIsNull() {
+            // When
+            var result = catchException(() -> new ConcurrentEntriesProvider(null, new ForkJoinFileTreeWalker(1)));
+
+            // Then
+            assertThat(result)
+                    .isNotNull()
+                    .hasMessageContaining("null");
+        }
+
+        @DisplayName("Should throw if parallelism is not positive")
+        @ParameterizedTest
+        @ValueSource(ints = {Integer.MIN_VALUE, 0})
+        void shouldThrowIfParallelismIsNotPositive(int parallelism) {
+            // When
+            var result = catchException(() -> new ForkJoinFileTreeWalker(parallelism));
+
+            // Then
+            assertThat(result)
+                    .isNotNull()
+                    .hasMessageContaining(String.valueOf(parallelism));
+        }
+
+        @DisplayName("Should throw if max in flight calls is not positive")
+        @ParameterizedTest
+        @ValueSource(ints = {Integer.MIN_VALUE, 0})
+        void shouldThrowIfMaxInFlightIsNotPositive(int maxInFlight) {
+            // When
+            var result = catchException(() -> new VirtualThreadFileTreeWalker(maxInFlight));
+
+            // Then
+            assertThat(result)
+                    .isNotNull()
+                    .hasMessageContaining(String.valueOf(maxInFlight));
+        }
+    }
+
+    @DisplayName("getEntriesFromPath()")
+    @Nested
+    class GetEntriesFromPathTest {
+
+        @DisplayName("Should return list with one error entry if can't access path")
+        @Test
+        void shouldReturnListWithOneErrorEntry() {
+            // Given
+            var givenPath = pathWithoutValidation("notValid");
+            var underTest = EntriesProvider.parallelWithVisitor(new EntryFileVisitor(0, entry -> true), 2);
+
+            // When
+            var result = underTest.getEntriesFromPath(givenPath);
+
+            // Then
+            assertThat(result)
+                    .containsExactly(new ErrorEntry(0, givenPath));
+        }
+
+        @DisplayName("Should return same entries in same order as sequential provider")
+        @ParameterizedTest
+        @ValueSource(ints = {0, 1, 2, 3, 10})
+        void shouldReturnSameEntriesAsSequentialProvider(int maxDepth) {
+            // Given
+            var givenPath = pathFromClasspath(ROOT_DIR);
+            var sequential = EntriesProvider.withVisitor(new EntryFileVisitor(maxDepth, entry -> true));
+            var underTest = EntriesProvider.parallelWithVisitor(new EntryFileVisitor(maxDepth, entry -> true), 4);
+
+            // When
+            var result = underTest.getEntriesFromPath(givenPath);
+
+            // Then
+            assertThat(result)
+                    .containsExactlyElementsOf(sequential.getEntriesFromPath(givenPath));
+        }
+
+        @DisplayName("Should return same entries in same order as sequential provider on virtual threads")
+        @ParameterizedTest
+        @ValueSource(ints = {0, 1, 2, 3, 10})
+        void shouldReturnSameEntriesAsSequentialProviderOnVirtualThreads(int maxDepth) {
+            // Given
+            var givenPath = pathFromClasspath(ROOT_DIR);
+            var sequential = EntriesProvider.withVisitor(new EntryFileVisitor(maxDepth, entry -> true));
+            var underTest = EntriesProvider.virtualThreadsWithVisitor(new EntryFileVisitor(maxDepth, entry -> true), 2);
+
+            // When
+            var result = underTest.getEntriesFromPath(givenPath);
+
+            // Then
+            assertThat(result)
+                    .containsExactlyElementsOf(sequential.getEntriesFromPath(givenPath));
+        }
+
+        @DisplayName("Should prune directories like sequential provider")
+        @Test
+        void shouldPruneDirectoriesLikeSequentialProvider() {
+            // Given
+            var givenPath = pathFromClasspath(ROOT_DIR);
+            var sequential = EntriesProvider.withVisitor(new EntryFileVisitor(5, entry -> true, entry -> !entry.baseName().equals("A")));
+            var underTest = EntriesProvider.parallelWithVisitor(new EntryFileVisitor(5, entry -> true, entry -> !entry.baseName().equals("A")), 3);
+
+            // When
+            var result = underTest.getEntriesFromPath(givenPath);
+
+            // Then
+            assertThat(result)
+                    .isNotEmpty()
+                    .noneMatch(entry -> entry.path().toString().contains("/A/") || entry.baseName().equals("A"))
+                    .containsExactlyElementsOf(sequential.getEntriesFromPath(givenPath));
+        }
+
+        @DisplayName("Should apply filter like sequential provider")
+        @Test
+        void shouldApplyFilterLikeSequentialProvider() {
+            // Given
+            var givenPath = pathFromClasspath(ROOT_DIR);
+            var sequential = EntriesProvider.withVisitor(new EntryFileVisitor(5, entry -> entry.baseName().endsWith(".txt")));
+            var underTest = EntriesProvider.parallelWithVisitor(new EntryFileVisitor(5, entry -> entry.baseName().endsWith(".txt")), 3);
+
+            // When
+            var result = underTest.getEntriesFromPath(givenPath);
+
+            // Then
+            assertThat(result)
+                    .isNotEmpty()
+                    .containsExactlyElementsOf(sequential.getEntriesFromPath(givenPath));
+        }
+    }
+
+    @DisplayName("forEachEntryFromPath()")
+    @Nested
+    class ForEachEntryFromPathTest {
+
+        private static final MemoryFileSystem FILE_SYSTEM = MemoryFileSystem.builder().seed(3).generate("/data", 5_000).build();
+
+        static Stream<Function<EntryFileVisitor, EntriesProvider>> parallelProviders() {
+            return Stream.of(
+                    visitor -> EntriesProvider.parallelWithVisitor(visitor, 4),
+                    visitor -> EntriesProvider.virtualThreadsWithVisitor(visitor, 8));
+        }
+
+        @DisplayName("Should stream same entries in same order as sequential provider")
+        @ParameterizedTest
+        @MethodSource("parallelProviders")
+        void shouldStreamSameEntriesAsSequentialProvider(Function<EntryFileVisitor, EntriesProvider> providerFactory) {
+            // Given
+            var givenPath = FILE_SYSTEM.getPath("/data");
+            var expected = EntriesProvider.withVisitor(new EntryFileVisitor(100, entry -> true)).getEntriesFromPath(givenPath);
+            var underTest = providerFactory.apply(new EntryFileVisitor(100, entry -> true));
+            List<Entry> result = new ArrayList<>();
+
+            // When
+            underTest.forEachEntryFromPath(givenPath, result::add);
+
+            // Then
+            assertThat(result)
+                    .hasSizeGreaterThan(1_000)
+                    .containsExactlyElementsOf(expected);
+        }
+    }
+}
@@ -4,14 +4,27 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
+import pl.bdygasinski.filewalker.memoryfs.MemoryFileSystem;
 import pl.bdygasinski.filewalker.model.DirEntry;
 import pl.bdygasinski.filewalker.model.Entry;
 import pl.bdygasinski.filewalker.model.ErrorEntry;
 import pl.bdygasinski.filewalker.model.FileEntry;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
 import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 import static org.assertj.core.api.Assertions.*;
 import static pl.bdygasinski.filewalker.helper.TestClassLoadingUtil.*;
@@ -163,6 +176,47 @@ class EntryFileVisitorTest {
         }
     }
 
+    @DisplayName("preVisitDirectory() with directory filter")
+    @Nested
+    class PreVisitDirectoryWithDirectoryFilterTest {
+
+        @DisplayName("Should skip subtree without adding entry if directory filter rejects it")
+        @Test
+        void shouldSkipRejectedDirectory() {
+            // Given
+            var underTest = new EntryFileVisitor(2, entry -> true, entry -> !entry.baseName().equals("EMPTY"));
+            underTest.preVisitDirectory(pathFromClasspath(ROOT_DIR), null);
+            var entriesBefore = underTest.getEntries();
+
+            // When
+            var result = underTest.preVisitDirectory(pathFromClasspath(EMPTY_DIR), null);
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(FileVisitResult.SKIP_SUBTREE);
+
+            assertThat(underTest.getEntries())
+                    .isEqualTo(entriesBefore);
+        }
+
+        @DisplayName("Should not apply directory filter to root")
+        @Test
+        void shouldNotApplyDirectoryFilterToRoot() {
+            // Given
+            var underTest = new EntryFileVisitor(1, entry -> true, entry -> false);
+
+            // When
+            var result = underTest.preVisitDirectory(pathFromClasspath(ROOT_DIR), null);
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(FileVisitResult.CONTINUE);
+
+            assertThat(underTest.getEntries())
+                    .hasSize(1);
+        }
+    }
+
     @DisplayName("postVisitDirectory()")
     @Nested
     class PostVisitDirectoryTest {
@@ -242,6 +296,28 @@ class EntryFileVisitorTest {
                     .isEmpty();
         }
 
+        @DisplayName("Should not create entry if attributes filter gives false")
+        @Test
+        void shouldNotUpdateWhenAttributesFilterReturnsFalse() throws IOException {
+            // Given
+            var givenPath = pathFromClasspath(TEXT_FILE);
+            var givenAttrs = Files.readAttributes(givenPath, BasicFileAttributes.class);
+            Predicate<Entry> givenFilter = entry -> {
+                throw new AssertionError("Entry filter should not be reached");
+            };
+            var underTest = new EntryFileVisitor(0, givenFilter, entry -> true, attrs -> attrs.size() > givenAttrs.size());
+
+            // When
+            var result = underTest.visitFile(givenPath, givenAttrs);
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(FileVisitResult.CONTINUE);
+
+            assertThat(underTest.getEntries())
+                    .isEmpty();
+        }
+
         @DisplayName("Should not update data if current depth > max depth")
         @Test
         void shouldNotUpdateData() {
@@ -294,4 +370,129 @@ class EntryFileVisitorTest {
                     .isInstanceOf(ErrorEntry.class);
         }
     }
-}
\ No newline at end of file
+
+    @DisplayName("fork() and join()")
+    @Nested
+    class ForkJoinTest {
+
+        @DisplayName("Should fork visitor at current depth without entries")
+        @Test
+        void shouldForkAtCurrentDepth() {
+            // Given
+            var givenContent = List.of(FileEntry.fromPathAndDepthLevel(pathFromClasspath(TEXT_FILE), 0));
+            var underTest = new EntryFileVisitor(3, entry -> true, givenContent);
+            underTest.incrementCurrDepth();
+
+            // When
+            var result = underTest.fork();
+
+            // Then
+            assertThat(result.getCurrDepth())
+                    .isEqualTo(underTest.getCurrDepth());
+
+            assertThat(result.getEntries())
+                    .isEmpty();
+        }
+
+        @DisplayName("Should append entries of forked visitor")
+        @Test
+        void shouldAppendEntriesOfForkedVisitor() {
+            // Given
+            var underTest = new EntryFileVisitor(0, entry -> true);
+            var forked = underTest.fork();
+            forked.visitFile(pathFromClasspath(TEXT_FILE), null);
+
+            // When
+            underTest.join(forked);
+
+            // Then
+            assertThat(underTest.getEntries())
+                    .containsExactly(FileEntry.fromPathAndDepthLevel(pathFromClasspath(TEXT_FILE), 0));
+            assertThat(forked.getEntries())
+                    .isEmpty();
+        }
+
+        @DisplayName("Should stream entries of the first forked visitor at once and later ones after it is joined")
+        @Test
+        void shouldStreamForkedEntriesInListingOrder() {
+            // Given
+            List<Entry> streamed = new ArrayList<>();
+            var underTest = new EntryFileVisitor(0, entry -> true).streamingTo(streamed::add);
+            var first = underTest.fork();
+            var second = underTest.fork();
+            second.visitFile(pathFromClasspath(HTML_FILE), null);
+            first.visitFile(pathFromClasspath(TEXT_FILE), null);
+
+            // When
+            var beforeJoin = List.copyOf(streamed);
+            underTest.join(first);
+
+            // Then
+            assertThat(beforeJoin)
+                    .containsExactly(FileEntry.fromPathAndDepthLevel(pathFromClasspath(TEXT_FILE), 0));
+            assertThat(streamed)
+                    .containsExactly(
+                            FileEntry.fromPathAndDepthLevel(pathFromClasspath(TEXT_FILE), 0),
+                            FileEntry.fromPathAndDepthLevel(pathFromClasspath(HTML_FILE), 0));
+        }
+
+        @DisplayName("Should give snapshot of entries which does not change with later entries")
+        @Test
+        void shouldGiveSnapshotOfEntries() {
+            // Given
+            var underTest = new EntryFileVisitor(0, entry -> true);
+            underTest.visitFile(pathFromClasspath(TEXT_FILE), null);
+            var snapshot = underTest.getEntries();
+
+            // When
+            underTest.visitFile(pathFromClasspath(HTML_FILE), null);
+
+            // Then
+            assertThat(snapshot)
+                    .hasSize(1);
+        }
+    }
+
+    @DisplayName("directory visit events")
+    @Nested
+    class DirectoryVisitEventTest {
+
+        @DisplayName("Should record listing time of every directory without its subdirectories")
+        @ParameterizedTest(name = "{0}")
+        @MethodSource("pl.bdygasinski.filewalker.filesystem.WalkStatsTest#providers")
+        void shouldRecordListingTimeOfEveryDirectory(String name, Function<EntryFileVisitor, EntriesProvider> providerFactory) throws IOException {
+            // Given
+            var givenFileSystem = MemoryFileSystem.builder()
+                    .file("/root/a/x.txt", 10)
+                    .file("/root/a/b/y.txt", 10)
+                    .file("/root/c/z.txt", 10)
+                    .build();
+            var givenDump = Files.createTempFile("directory-visit-", ".jfr");
+            var givenProvider = providerFactory.apply(new EntryFileVisitor(5, entry -> true));
+
+            // When
+            List<RecordedEvent> result;
+            try (var recording = new Recording()) {
+                recording.enable("pl.bdygasinski.filewalker.DirectoryVisit").withThreshold(Duration.ZERO);
+                recording.start();
+                givenProvider.forEachEntryFromPath(givenFileSystem.getPath("/root"), entry -> {});
+                recording.stop();
+                recording.dump(givenDump);
+                result = RecordingFile.readAllEvents(givenDump).stream()
+                        .filter(event -> event.getEventType().getName().equals("pl.bdygasinski.filewalker.DirectoryVisit"))
+                        .toList();
+            } finally {
+                Files.deleteIfExists(givenDump);
+            }
+
+            // Then
+            assertThat(result)
+                    .extracting(event -> event.getString("path"))
+                    .containsExactlyInAnyOrder("/root", "/root/a", "/root/a/b", "/root/c");
+            assertThat(result)
+                    .allSatisfy(event -> assertThat(event.getDuration("listingTime"))
+                            .isGreaterThanOrEqualTo(Duration.ZERO)
+                            .isLessThanOrEqualTo(event.getDuration().plusMillis(1)));
+        }
+    }
+}
@@ -10,6 +10,7 @@ import pl.bdygasinski.filewalker.model.Entry;
 import pl.bdygasinski.filewalker.model.ErrorEntry;
 import pl.bdygasinski.filewalker.model.FileEntry;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -105,4 +106,46 @@ class FileSystemEntriesProviderTest {
                     .allMatch(entry -> entry.depthLevel() <= maxDepthValue);
         }
     }
-}
\ No newline at end of file
+
+    @DisplayName("forEachEntryFromPath()")
+    @Nested
+    class ForEachEntryFromPathTest {
+
+        @DisplayName("Should pass one error entry if can't access path")
+        @Test
+        void shouldPassOneErrorEntry() {
+            // Given
+            var givenPath = pathWithoutValidation("notValid");
+            var result = new ArrayList<Entry>();
+
+            // When
+            underTest.forEachEntryFromPath(givenPath, result::add);
+
+            // Then
+            assertThat(result)
+                    .containsExactly(new ErrorEntry(0, givenPath));
+        }
+
+        @DisplayName("Should pass same entries as collected by getEntriesFromPath()")
+        @ParameterizedTest
+        @ValueSource(ints = {0, 1, 2, 5})
+        void shouldPassSameEntriesAsCollected(int maxDepthValue) {
+            // Given
+            var givenPath = pathFromClasspath(ROOT_DIR);
+            var givenVisitor = new EntryFileVisitor(maxDepthValue, entry -> true);
+            var underTest = new FileSystemEntriesProvider(givenVisitor);
+            var result = new ArrayList<Entry>();
+
+            // When
+            underTest.forEachEntryFromPath(givenPath, result::add);
+
+            // Then
+            assertThat(result)
+                    .containsExactlyElementsOf(new FileSystemEntriesProvider(new EntryFileVisitor(maxDepthValue, entry -> true))
+                            .getEntriesFromPath(givenPath));
+
+            assertThat(givenVisitor.getEntries())
+                    .isEmpty();
+        }
+    }
+}
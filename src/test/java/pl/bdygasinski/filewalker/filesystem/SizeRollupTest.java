@@ -0,0 +1,155 @@
+package pl.bdygasinski.filewalker.filesystem;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import pl.bdygasinski.filewalker.memoryfs.MemoryFileSystem;
+import pl.bdygasinski.filewalker.model.DirectoryTotal;
+
+import java.util.ArrayList;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+class SizeRollupTest {
+
+    private static final MemoryFileSystem FILE_SYSTEM = MemoryFileSystem.builder()
+            .file("/root/a/x.txt", 100)
+            .file("/root/a/b/y.txt", 20)
+            .file("/root/a/b/c/z.txt", 3)
+            .file("/root/d/w.txt", 1000)
+            .file("/root/top.txt", 4)
+            .directory("/root/empty")
+            .unreadableDirectory("/root/a/locked")
+            .build();
+
+    private static final MemoryFileSystem WITH_HIDDEN = MemoryFileSystem.builder()
+            .file("/root/.secret.bin", 9000)
+            .file("/root/node_modules/lib.js", 8000)
+            .file("/root/.cache/blob.bin", 700)
+            .file("/root/src/app.js", 100)
+            .build();
+
+    private static final MemoryFileSystem GENERATED = MemoryFileSystem.builder()
+            .seed(5)
+            .generate("/data", 5_000)
+            .build();
+
+    static Stream<Arguments> rollups() {
+        return Stream.of(
+                Arguments.of("sequential", SizeRollup.sequential(1)),
+                Arguments.of("fork/join", SizeRollup.parallel(1, 4)),
+                Arguments.of("virtual threads", SizeRollup.virtualThreads(1, 8))
+        );
+    }
+
+    @DisplayName("totalsFromPath()")
+    @Nested
+    class TotalsFromPathTest {
+
+        @DisplayName("Should sum whole subtrees but report only directories down to max depth")
+        @ParameterizedTest(name = "{0}")
+        @MethodSource("pl.bdygasinski.filewalker.filesystem.SizeRollupTest#rollups")
+        void shouldSumWholeSubtrees(String name, SizeRollup underTest) {
+            // When
+            var result = underTest.totalsFromPath(FILE_SYSTEM.getPath("/root"));
+
+            // Then
+            assertThat(result)
+                    .containsExactlyInAnyOrder(
+                            new DirectoryTotal(FILE_SYSTEM.getPath("/root/a"), 1, 123, 3, 1),
+                            new DirectoryTotal(FILE_SYSTEM.getPath("/root/d"), 1, 1000, 1, 0),
+                            new DirectoryTotal(FILE_SYSTEM.getPath("/root/empty"), 1, 0, 0, 0),
+                            new DirectoryTotal(FILE_SYSTEM.getPath("/root"), 0, 1127, 5, 1)
+                    );
+
+            assertThat(result.getLast().path())
+                    .isEqualTo(FILE_SYSTEM.getPath("/root"));
+        }
+
+        @DisplayName("Should give the same totals from every walker for a generated tree")
+        @Test
+        void shouldGiveSameTotalsFromEveryWalker() {
+            // Given
+            var root = GENERATED.getPath("/data");
+
+            // When
+            var sequential = SizeRollup.sequential(3).totalsFromPath(root);
+            var parallel = SizeRollup.parallel(3, 4).totalsFromPath(root);
+            var virtualThreads = SizeRollup.virtualThreads(3, 16).totalsFromPath(root);
+
+            // Then
+            assertThat(parallel)
+                    .containsExactlyInAnyOrderElementsOf(sequential);
+            assertThat(virtualThreads)
+                    .containsExactlyInAnyOrderElementsOf(sequential);
+        }
+
+        @DisplayName("Should skip excluded directories and hidden files, summing hidden directories without reporting them")
+        @ParameterizedTest(name = "{0}")
+        @MethodSource("pl.bdygasinski.filewalker.filesystem.SizeRollupTest#rollups")
+        void shouldFollowScope(String name, SizeRollup rollup) {
+            // Given
+            var underTest = rollup.within(WalkScope.listed(entry -> !entry.baseName().equals("node_modules")));
+
+            // When
+            var result = underTest.totalsFromPath(WITH_HIDDEN.getPath("/root"));
+
+            // Then
+            assertThat(result)
+                    .containsExactlyInAnyOrder(
+                            new DirectoryTotal(WITH_HIDDEN.getPath("/root/src"), 1, 100, 1, 0),
+                            new DirectoryTotal(WITH_HIDDEN.getPath("/root"), 0, 800, 2, 0)
+                    );
+        }
+
+        @DisplayName("Should report directory after all of its subdirectories")
+        @Test
+        void shouldReportDirectoryAfterSubdirectories() {
+            // Given
+            var result = new ArrayList<DirectoryTotal>();
+
+            // When
+            SizeRollup.parallel(10, 4).forEachTotalFromPath(GENERATED.getPath("/data"), result::add);
+
+            // Then
+            for (int i = 0; i < result.size(); i++) {
+                var parent = result.get(i).path();
+                assertThat(result.subList(i + 1, result.size()))
+                        .noneMatch(later -> later.path().startsWith(parent) && !later.path().equals(parent));
+            }
+        }
+    }
+
+    @DisplayName("sequential()")
+    @Nested
+    class SequentialTest {
+
+        @DisplayName("Should throw if max depth is negative")
+        @Test
+        void shouldThrowIfMaxDepthIsNegative() {
+            // When
+            var result = catchException(() -> SizeRollup.sequential(-1));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("-1");
+        }
+
+        @DisplayName("Should report single file given as root")
+        @Test
+        void shouldReportSingleFile() {
+            // When
+            var result = SizeRollup.sequential(0).totalsFromPath(FILE_SYSTEM.getPath("/root/top.txt"));
+
+            // Then
+            assertThat(result)
+                    .containsExactly(new DirectoryTotal(FILE_SYSTEM.getPath("/root/top.txt"), 0, 4, 1, 0));
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package pl.bdygasinski.filewalker.filesystem;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import pl.bdygasinski.filewalker.memoryfs.MemoryFileSystem;
+import pl.bdygasinski.filewalker.model.RankedFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+class TopFilesVisitorTest {
+
+    private static final MemoryFileSystem GENERATED = MemoryFileSystem.builder()
+            .seed(11)
+            .unreadableRatio(0)
+            .generate("/data", 5_000)
+            .build();
+
+    private static final MemoryFileSystem FILE_SYSTEM = MemoryFileSystem.builder()
+            .file("/root/a/big.log", 5000)
+            .file("/root/a/medium.txt", 300)
+            .file("/root/b/huge.txt", 9000)
+            .file("/root/small.txt", 10)
+            .build();
+
+    private static final MemoryFileSystem WITH_HIDDEN = MemoryFileSystem.builder()
+            .file("/root/.secret.bin", 9000)
+            .file("/root/node_modules/lib.js", 8000)
+            .file("/root/.cache/blob.bin", 7000)
+            .file("/root/src/app.js", 100)
+            .build();
+
+    private static List<Long> expectedKeys(RankingKey key, int limit) throws IOException {
+        try (Stream<Path> paths = Files.walk(GENERATED.getPath("/data"))) {
+            return paths
+                    .map(path -> readAttributes(path))
+                    .filter(BasicFileAttributes::isRegularFile)
+                    .map(key::of)
+                    .sorted(Comparator.reverseOrder())
+                    .limit(limit)
+                    .toList();
+        }
+    }
+
+    private static BasicFileAttributes readAttributes(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static List<Long> keys(List<RankedFile> ranking, RankingKey key) {
+        return ranking.stream()
+                .map(file -> key.of(file.sizeInBytes(), file.lastModifiedMillis()))
+                .toList();
+    }
+
+    @DisplayName("constructor()")
+    @Nested
+    class ConstructorTest {
+
+        @DisplayName("Should throw if limit is not positive")
+        @Test
+        void shouldThrowIfLimitIsNotPositive() {
+            // When
+            var result = catchException(() -> new TopFilesVisitor(0, RankingKey.SIZE));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("0");
+        }
+    }
+
+    @DisplayName("getRanking()")
+    @Nested
+    class GetRankingTest {
+
+        @DisplayName("Should keep highest ranked files of the whole tree with every walker")
+        @ParameterizedTest
+        @EnumSource(RankingKey.class)
+        void shouldKeepHighestRankedFiles(RankingKey key) throws IOException {
+            // Given
+            var givenVisitor = new TopFilesVisitor(100, key);
+            var expected = expectedKeys(key, 100);
+
+            // When
+            var sequential = TopFiles.sequential(givenVisitor).fromPath(GENERATED.getPath("/data"));
+            var parallel = TopFiles.parallel(givenVisitor, 4).fromPath(GENERATED.getPath("/data"));
+            var virtualThreads = TopFiles.virtualThreads(givenVisitor, 16).fromPath(GENERATED.getPath("/data"));
+
+            // Then
+            assertThat(keys(sequential, key)).containsExactlyElementsOf(expected);
+            assertThat(keys(parallel, key)).containsExactlyElementsOf(expected);
+            assertThat(keys(virtualThreads, key)).containsExactlyElementsOf(expected);
+        }
+
+        @DisplayName("Should hold fewer files than the limit when tree is small")
+        @Test
+        void shouldHoldAllFilesOfSmallTree() {
+            // Given
+            var underTest = TopFiles.sequential(new TopFilesVisitor(1000, RankingKey.SIZE));
+
+            // When
+            var result = underTest.fromPath(FILE_SYSTEM.getPath("/root"));
+
+            // Then
+            assertThat(result)
+                    .extracting(RankedFile::sizeInBytes)
+                    .containsExactly(9000L, 5000L, 300L, 10L);
+        }
+
+        @DisplayName("Should rank only files accepted by filters")
+        @Test
+        void shouldRankOnlyAcceptedFiles() {
+            // Given
+            var underTest = TopFiles.sequential(new TopFilesVisitor(2, RankingKey.SIZE,
+                    baseName -> baseName.endsWith(".txt"), attrs -> attrs.size() < 5000));
+
+            // When
+            var result = underTest.fromPath(FILE_SYSTEM.getPath("/root"));
+
+            // Then
+            assertThat(result)
+                    .extracting(file -> file.path().toString())
+                    .containsExactly("/root/a/medium.txt", "/root/small.txt");
+        }
+    }
+
+    @DisplayName("getRanking() with scope")
+    @Nested
+    class ScopeTest {
+
+        @DisplayName("Should skip excluded directories and hidden files with every walker")
+        @Test
+        void shouldSkipExcludedDirectoriesAndHiddenFiles() {
+            // Given
+            var givenVisitor = new TopFilesVisitor(10, RankingKey.SIZE, baseName -> true, attrs -> true,
+                    WalkScope.listed(entry -> !entry.baseName().equals("node_modules")));
+            var givenRoot = WITH_HIDDEN.getPath("/root");
+
+            // When
+            var sequential = TopFiles.sequential(givenVisitor).fromPath(givenRoot);
+            var parallel = TopFiles.parallel(givenVisitor, 4).fromPath(givenRoot);
+            var virtualThreads = TopFiles.virtualThreads(givenVisitor, 16).fromPath(givenRoot);
+
+            // Then
+            assertThat(sequential)
+                    .extracting(file -> file.path().toString())
+                    .containsExactly("/root/.cache/blob.bin", "/root/src/app.js");
+            assertThat(parallel)
+                    .containsExactlyElementsOf(sequential);
+            assertThat(virtualThreads)
+                    .containsExactlyElementsOf(sequential);
+        }
+    }
+
+    @DisplayName("fork() and join()")
+    @Nested
+    class ForkJoinTest {
+
+        @DisplayName("Should take heap only for files ranking above full heap of the origin")
+        @Test
+        void shouldNotTakeHeapForFilesBelowOrigin() throws IOException {
+            // Given
+            var underTest = new TopFilesVisitor(1, RankingKey.SIZE);
+            var huge = FILE_SYSTEM.getPath("/root/b/huge.txt");
+            var small = FILE_SYSTEM.getPath("/root/small.txt");
+            underTest.visitFile(huge, Files.readAttributes(huge, BasicFileAttributes.class));
+            var forked = underTest.fork();
+
+            // When
+            forked.visitFile(small, Files.readAttributes(small, BasicFileAttributes.class));
+            underTest.join(forked);
+
+            // Then
+            assertThat(forked.getRanking())
+                    .isEmpty();
+            assertThat(underTest.getRanking())
+                    .extracting(RankedFile::sizeInBytes)
+                    .containsExactly(9000L);
+        }
+
+        @DisplayName("Should move files of forked visitor to the origin and release its heap")
+        @Test
+        void shouldReleaseHeapOfJoinedVisitor() throws IOException {
+            // Given
+            var underTest = new TopFilesVisitor(2, RankingKey.SIZE);
+            var forked = underTest.fork();
+            var big = FILE_SYSTEM.getPath("/root/a/big.log");
+            forked.visitFile(big, Files.readAttributes(big, BasicFileAttributes.class));
+
+            // When
+            underTest.join(forked);
+
+            // Then
+            assertThat(forked.getRanking())
+                    .isEmpty();
+            assertThat(underTest.getRanking())
+                    .extracting(RankedFile::sizeInBytes)
+                    .containsExactly(5000L);
+        }
+    }
+
+    @DisplayName("RankingKey.parse()")
+    @Nested
+    class ParseTest {
+
+        @DisplayName("Should parse key ignoring case and reject unknown one")
+        @Test
+        void shouldParseKey() {
+            // Then
+            assertThat(RankingKey.parse("Size")).contains(RankingKey.SIZE);
+            assertThat(RankingKey.parse("mtime")).contains(RankingKey.MTIME);
+            assertThat(RankingKey.parse("name")).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package pl.bdygasinski.filewalker.filesystem;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import pl.bdygasinski.filewalker.memoryfs.MemoryFileSystem;
+import pl.bdygasinski.filewalker.model.Entry;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+class WalkStatsTest {
+
+    private static final MemoryFileSystem FILE_SYSTEM = MemoryFileSystem.builder()
+            .file("/root/a/x.txt", 10)
+            .file("/root/a/y.log", 10)
+            .file("/root/a/b/z.txt", 10)
+            .file("/root/big.txt", 1000)
+            .file("/root/node_modules/m.js", 10)
+            .unreadableDirectory("/root/locked")
+            .build();
+
+    static Stream<Arguments> providers() {
+        return Stream.of(
+                Arguments.of("sequential", (Function<EntryFileVisitor, EntriesProvider>) EntriesProvider::withVisitor),
+                Arguments.of("fork/join", (Function<EntryFileVisitor, EntriesProvider>) visitor -> EntriesProvider.parallelWithVisitor(visitor, 4)),
+                Arguments.of("virtual threads", (Function<EntryFileVisitor, EntriesProvider>) visitor -> EntriesProvider.virtualThreadsWithVisitor(visitor, 8))
+        );
+    }
+
+    @DisplayName("recorded by visitor")
+    @Nested
+    class RecordingTest {
+
+        @DisplayName("Should count callbacks of the whole walk")
+        @ParameterizedTest(name = "{0}")
+        @MethodSource("pl.bdygasinski.filewalker.filesystem.WalkStatsTest#providers")
+        void shouldCountCallbacksOfWholeWalk(String name, Function<EntryFileVisitor, EntriesProvider> providerFactory) {
+            // Given
+            var underTest = new WalkStats();
+            var visitor = new EntryFileVisitor(
+                    5,
+                    entry -> entry.baseName().endsWith(".txt"),
+                    entry -> !entry.baseName().equals("node_modules"),
+                    attrs -> attrs.size() < 100
+            ).recordingTo(underTest);
+
+            // When
+            providerFactory.apply(visitor).forEachEntryFromPath(FILE_SYSTEM.getPath("/root"), entry -> {});
+
+            // Then
+            assertThat(underTest.directories()).isEqualTo(3);
+            assertThat(underTest.files()).isEqualTo(4);
+            assertThat(underTest.rejectedFiles()).isEqualTo(2);
+            assertThat(underTest.excludedDirectories()).isEqualTo(1);
+            assertThat(underTest.failures()).isEqualTo(1);
+            assertThat(underTest.visitedPaths()).isEqualTo(9);
+            assertThat(underTest.visitorCallbacks()).isEqualTo(12);
+            assertThat(underTest.matchedFiles()).isEqualTo(2);
+            assertThat(underTest.bytes()).isEqualTo(1030);
+            assertThat(underTest.topLevelDone()).isEqualTo(4);
+            assertThat(underTest.currentDepth()).isPositive();
+        }
+
+        @DisplayName("Should count directories skipped because of depth limit")
+        @Test
+        void shouldCountDirectoriesBeyondMaxDepth() {
+            // Given
+            var underTest = new WalkStats();
+            var visitor = new EntryFileVisitor(1, entry -> true).recordingTo(underTest);
+
+            // When
+            var result = EntriesProvider.withVisitor(visitor).getEntriesFromPath(FILE_SYSTEM.getPath("/root"));
+
+            // Then
+            assertThat(result)
+                    .extracting(Entry::path)
+                    .extracting(Path::toString)
+                    .containsExactlyInAnyOrder("/root", "/root/a", "/root/big.txt", "/root/node_modules", "/root/locked");
+
+            assertThat(underTest.skippedDirectories())
+                    .isEqualTo(1);
+        }
+
+        @DisplayName("Should not record anything without stats")
+        @Test
+        void shouldNotRecordWithoutStats() {
+            // Given
+            var underTest = new WalkStats();
+            var visitor = new EntryFileVisitor(5, entry -> true);
+            visitor.recordingTo(underTest);
+
+            // When
+            EntriesProvider.withVisitor(visitor).getEntriesFromPath(FILE_SYSTEM.getPath("/root"));
+
+            // Then
+            assertThat(underTest.visitorCallbacks())
+                    .isZero();
+        }
+    }
+
+    @DisplayName("summary()")
+    @Nested
+    class SummaryTest {
+
+        @DisplayName("Should report rates per second of elapsed time")
+        @Test
+        void shouldReportRatesPerSecond() {
+            // Given
+            var underTest = new WalkStats();
+            for (int i = 0; i < 10; i++) {
+                underTest.directoryEntered(1);
+            }
+            for (int i = 0; i < 300; i++) {
+                underTest.fileVisited();
+            }
+
+            // When
+            var result = underTest.summary(Duration.ofSeconds(2));
+
+            // Then
+            assertThat(result)
+                    .contains("10 directories and 300 files in 2000 ms (5 dirs/s, 150 files/s)")
+                    .contains("320 visitor callbacks: 310 paths visited, 10 directories entered");
+        }
+
+        @DisplayName("Should not divide by zero for empty elapsed time")
+        @Test
+        void shouldHandleZeroElapsedTime() {
+            // When
+            var result = catchException(() -> new WalkStats().summary(Duration.ZERO));
+
+            // Then
+            assertThat(result)
+                    .isNull();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package pl.bdygasinski.filewalker.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import pl.bdygasinski.filewalker.model.FileEntry;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static pl.bdygasinski.filewalker.helper.TestClassLoadingUtil.pathFromClasspath;
+
+class CompiledNameFilterTest {
+
+    @DisplayName("test()")
+    @Nested
+    class TestTest {
+
+        @DisplayName("Should require both any extension and any partial name to match")
+        @ParameterizedTest(name = "When names={0} and extensions={1} result should be {2}")
+        @CsvSource(delimiter = ';', value = {
+                "'';''; true",
+                "App;''; true",
+                "Jason,App;java; true",
+                "Jason;java; false",
+                "'';json,java; true",
+                "'';json,py; false"
+        })
+        void shouldRequireBothFiltersToMatch(String names, String extensions, boolean expected) {
+            // Given
+            var givenEntry = FileEntry.fromPathAndDepthLevel(pathFromClasspath("/ROOT/FILES/App.java"), 0);
+            var underTest = CompiledNameFilter.compile(split(names), split(extensions));
+
+            // When
+            var result = underTest.test(givenEntry);
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(expected);
+        }
+
+    }
+
+    @DisplayName("compileForBaseNames()")
+    @Nested
+    class CompileForBaseNamesTest {
+
+        @DisplayName("Should match base names like entry filter matches entries")
+        @ParameterizedTest(name = "When names={0} and extensions={1} result should be {2}")
+        @CsvSource(delimiter = ';', value = {
+                "'';''; true",
+                "Jason,App;java; true",
+                "Jason;java; false",
+                "'';json,py; false"
+        })
+        void shouldMatchBaseNames(String names, String extensions, boolean expected) {
+            // Given
+            var underTest = CompiledNameFilter.compileForBaseNames(split(names), split(extensions));
+
+            // When
+            var result = underTest.test("App.java");
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(expected);
+        }
+    }
+
+    private static List<String> split(String values) {
+        return values.isEmpty() ? List.of() : List.of(values.split(","));
+    }
+}
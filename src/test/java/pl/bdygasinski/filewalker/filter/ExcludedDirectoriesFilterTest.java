@@ -0,0 +1,52 @@
+package pl.bdygasinski.filewalker.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pl.bdygasinski.filewalker.model.DirEntry;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static pl.bdygasinski.filewalker.helper.TestClassLoadingUtil.*;
+
+class ExcludedDirectoriesFilterTest {
+
+    @DisplayName("test()")
+    @Nested
+    class TestTest {
+
+        @DisplayName("Should reject directory matching plain name or glob")
+        @ParameterizedTest(name = "When pattern={0} directory should be rejected")
+        @ValueSource(strings = {"EMPTY", "EMP*", "?MPTY", "{A,EMPTY}", " EMPTY "})
+        void shouldRejectMatchingDirectory(String pattern) {
+            // Given
+            var givenEntry = DirEntry.fromPathAndDepthLevel(pathFromClasspath(EMPTY_DIR), 1);
+            var underTest = ExcludedDirectoriesFilter.fromPatterns(List.of("node_modules", pattern));
+
+            // When
+            var result = underTest.test(givenEntry);
+
+            // Then
+            assertThat(result)
+                    .isFalse();
+        }
+
+        @DisplayName("Should accept directory not matching any pattern")
+        @Test
+        void shouldAcceptNotMatchingDirectory() {
+            // Given
+            var givenEntry = DirEntry.fromPathAndDepthLevel(pathFromClasspath(EMPTY_DIR), 1);
+            var underTest = ExcludedDirectoriesFilter.fromPatterns(List.of("EMPTY2", "target", ".git", "E*Y?", ""));
+
+            // When
+            var result = underTest.test(givenEntry);
+
+            // Then
+            assertThat(result)
+                    .isTrue();
+        }
+    }
+}
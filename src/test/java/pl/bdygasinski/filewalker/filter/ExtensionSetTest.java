@@ -0,0 +1,44 @@
+package pl.bdygasinski.filewalker.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExtensionSetTest {
+
+    @DisplayName("containsExtensionOf()")
+    @Nested
+    class ContainsExtensionOfTest {
+
+        @DisplayName("Should match extension after last dot like FileEntry.fileExtension()")
+        @ParameterizedTest(name = "When file name={0} result should be {1}")
+        @CsvSource({
+                "App.java, true",
+                "archive.tar.gz, true",
+                "main.js, true",
+                "main.json, false",
+                "data.csv, true",
+                "image.JAVA, false",
+                ".java, false",
+                "java, false",
+                "file., false",
+                "main.kt, false"
+        })
+        void shouldMatchExtensionAfterLastDot(String fileName, boolean expected) {
+            // Given
+            var underTest = ExtensionSet.of(List.of("java", ".gz", " js", "csv", "c", ""));
+
+            // When
+            var result = underTest.containsExtensionOf(fileName);
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(expected);
+        }
+    }
+}
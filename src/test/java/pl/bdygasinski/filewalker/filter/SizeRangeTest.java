@@ -0,0 +1,86 @@
+package pl.bdygasinski.filewalker.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+class SizeRangeTest {
+
+    @DisplayName("constructor()")
+    @Nested
+    class ConstructorTest {
+
+        @DisplayName("Should throw if max is lower than min")
+        @Test
+        void shouldThrowIfMaxIsLowerThanMin() {
+            // When
+            var result = catchException(() -> new SizeRange(10, 9));
+
+            // Then
+            assertThat(result)
+                    .isNotNull()
+                    .hasMessageContaining("9");
+        }
+    }
+
+    @DisplayName("parse()")
+    @Nested
+    class ParseTest {
+
+        @DisplayName("Should parse closed, open and exact ranges")
+        @ParameterizedTest(name = "When range={0} bounds should be {1} and {2}")
+        @CsvSource({
+                "1kB-10MB, 1024, 10485760",
+                "1 KB - 10 MB, 1024, 10485760",
+                "1.5kb-, 1536, 9223372036854775807",
+                "-2B, 0, 2",
+                "4kB, 4096, 4096"
+        })
+        void shouldParseRange(String range, long expectedMin, long expectedMax) {
+            // When
+            var result = SizeRange.parse(range);
+
+            // Then
+            assertThat(result)
+                    .contains(new SizeRange(expectedMin, expectedMax));
+        }
+
+        @DisplayName("Should give empty result for invalid range")
+        @ParameterizedTest(name = "When range={0} result should be empty")
+        @ValueSource(strings = {"", "-", "10XB-1MB", "1MB-1kB", "kB-MB", "1..2MB"})
+        void shouldGiveEmptyResultForInvalidRange(String range) {
+            // When
+            var result = SizeRange.parse(range);
+
+            // Then
+            assertThat(result)
+                    .isEmpty();
+        }
+    }
+
+    @DisplayName("contains()")
+    @Nested
+    class ContainsTest {
+
+        @DisplayName("Should include both bounds")
+        @ParameterizedTest(name = "When size={0} result should be {1}")
+        @CsvSource({"9, false", "10, true", "20, true", "21, false"})
+        void shouldIncludeBothBounds(long size, boolean expected) {
+            // Given
+            var underTest = new SizeRange(10, 20);
+
+            // When
+            var result = underTest.contains(size);
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(expected);
+        }
+    }
+}
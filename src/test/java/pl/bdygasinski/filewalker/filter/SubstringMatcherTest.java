@@ -0,0 +1,89 @@
+package pl.bdygasinski.filewalker.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SubstringMatcherTest {
+
+    @DisplayName("matchesAny()")
+    @Nested
+    class MatchesAnyTest {
+
+        @DisplayName("Should match when text contains any pattern")
+        @ParameterizedTest(name = "When text={0} result should be {1}")
+        @CsvSource({
+                "ushers, true",
+                "hers.txt, true",
+                "xhx, false",
+                "shx, false",
+                "README, false",
+                "zażółć, true"
+        })
+        void shouldMatchWhenTextContainsAnyPattern(String text, boolean expected) {
+            // Given
+            var underTest = SubstringMatcher.of(List.of("he", "she", "his", "hers", "żół"));
+
+            // When
+            var result = underTest.matchesAny(text);
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(expected);
+        }
+
+        @DisplayName("Should match everything when any pattern is empty")
+        @Test
+        void shouldMatchEverythingWithEmptyPattern() {
+            // Given
+            var underTest = SubstringMatcher.of(List.of("abc", ""));
+
+            // When
+            var result = underTest.matchesAny("xyz");
+
+            // Then
+            assertThat(result)
+                    .isTrue();
+        }
+
+        @DisplayName("Should give same results as String.contains for many patterns")
+        @Test
+        void shouldGiveSameResultsAsContains() {
+            // Given
+            var random = new Random(42);
+            var givenPatterns = new ArrayList<String>();
+            for (int i = 0; i < 300; i++) {
+                givenPatterns.add(randomText(random, 2 + random.nextInt(4)));
+            }
+            var underTest = SubstringMatcher.of(givenPatterns);
+
+            for (int i = 0; i < 2_000; i++) {
+                var givenText = randomText(random, random.nextInt(20));
+
+                // When
+                var result = underTest.matchesAny(givenText);
+
+                // Then
+                assertThat(result)
+                        .as(givenText)
+                        .isEqualTo(givenPatterns.stream().anyMatch(givenText::contains));
+            }
+        }
+
+        private static String randomText(Random random, int length) {
+            var text = new StringBuilder();
+            for (int i = 0; i < length; i++) {
+                text.append((char) ('a' + random.nextInt(6)));
+            }
+            return text.toString();
+        }
+    }
+}
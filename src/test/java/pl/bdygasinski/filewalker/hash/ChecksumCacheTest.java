@@ -0,0 +1,369 @@
+package pl.bdygasinski.filewalker.hash;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pl.bdygasinski.filewalker.memoryfs.MemoryFileSystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+class ChecksumCacheTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @DisplayName("get()")
+    @Nested
+    class GetTest {
+
+        @DisplayName("Should return checksum saved in the previous run for unchanged file")
+        @Test
+        void shouldHitUnchangedFile() throws IOException {
+            // Given
+            var givenFile = givenFile("a.txt", "content");
+            var givenCacheFile = tempDir.resolve("cache.bin");
+            var previousRun = ChecksumCache.empty(HashAlgorithm.SHA256);
+            previousRun.put(givenFile, attributesOf(givenFile), "abc123");
+            previousRun.save(givenCacheFile, false);
+
+            var underTest = ChecksumCache.load(givenCacheFile, HashAlgorithm.SHA256);
+
+            // When
+            var result = underTest.get(givenFile, attributesOf(givenFile));
+
+            // Then
+            assertThat(result)
+                    .contains("abc123");
+            assertThat(underTest.hits())
+                    .isOne();
+        }
+
+        @DisplayName("Should miss when file was modified since it was cached")
+        @Test
+        void shouldMissModifiedFile() throws IOException {
+            // Given
+            var givenFile = givenFile("a.txt", "content");
+            var givenCacheFile = tempDir.resolve("cache.bin");
+            var previousRun = ChecksumCache.empty(HashAlgorithm.SHA256);
+            previousRun.put(givenFile, attributesOf(givenFile), "abc123");
+            previousRun.save(givenCacheFile, false);
+
+            Files.setLastModifiedTime(givenFile, FileTime.from(Instant.parse("2001-01-01T00:00:00Z")));
+            var underTest = ChecksumCache.load(givenCacheFile, HashAlgorithm.SHA256);
+
+            // When
+            var result = underTest.get(givenFile, attributesOf(givenFile));
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(Optional.empty());
+            assertThat(underTest.misses())
+                    .isOne();
+        }
+
+        @DisplayName("Should miss when size changed")
+        @Test
+        void shouldMissResizedFile() throws IOException {
+            // Given
+            var givenFile = givenFile("a.txt", "content");
+            var givenAttrs = attributesOf(givenFile);
+            var underTest = ChecksumCache.empty(HashAlgorithm.CRC32C);
+            underTest.put(givenFile, givenAttrs, "0a0b0c0d");
+
+            Files.writeString(givenFile, "longer content");
+            Files.setLastModifiedTime(givenFile, givenAttrs.lastModifiedTime());
+
+            // When
+            var result = underTest.get(givenFile, attributesOf(givenFile));
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(Optional.empty());
+        }
+
+        @DisplayName("Should keep every entry when cache grows past its capacity")
+        @Test
+        void shouldKeepEntriesAfterGrowing() throws IOException {
+            // Given
+            var givenCacheFile = tempDir.resolve("cache.bin");
+            var previousRun = ChecksumCache.empty(HashAlgorithm.XXH64);
+            for (int i = 0; i < 100; i++) {
+                var file = givenFile("file-" + i, "content " + i);
+                previousRun.put(file, attributesOf(file), "%016x".formatted(i));
+            }
+            previousRun.save(givenCacheFile, false);
+
+            var underTest = ChecksumCache.load(givenCacheFile, HashAlgorithm.XXH64);
+
+            // When
+            for (int i = 0; i < 100; i++) {
+                var file = tempDir.resolve("file-" + i);
+                assertThat(underTest.get(file, attributesOf(file)))
+                        .contains("%016x".formatted(i));
+            }
+
+            // Then
+            assertThat(underTest.hits())
+                    .isEqualTo(100);
+        }
+    }
+
+    @DisplayName("load()")
+    @Nested
+    class LoadTest {
+
+        @DisplayName("Should return empty cache when file doesn't exist")
+        @Test
+        void shouldReturnEmptyCacheForMissingFile() throws IOException {
+            // When
+            var result = ChecksumCache.load(tempDir.resolve("missing.bin"), HashAlgorithm.SHA256);
+
+            // Then
+            assertThat(result.getAlgorithm())
+                    .isEqualTo(HashAlgorithm.SHA256);
+        }
+
+        @DisplayName("Should ignore cache written with other algorithm")
+        @Test
+        void shouldIgnoreOtherAlgorithm() throws IOException {
+            // Given
+            var givenFile = givenFile("a.txt", "content");
+            var givenCacheFile = tempDir.resolve("cache.bin");
+            var previousRun = ChecksumCache.empty(HashAlgorithm.CRC32C);
+            previousRun.put(givenFile, attributesOf(givenFile), "0a0b0c0d");
+            previousRun.save(givenCacheFile, false);
+
+            // When
+            var result = ChecksumCache.load(givenCacheFile, HashAlgorithm.SHA256);
+
+            // Then
+            assertThat(result.get(givenFile, attributesOf(givenFile)))
+                    .isEqualTo(Optional.empty());
+        }
+
+        @DisplayName("Should throw when header holds more checksums than table can")
+        @Test
+        void shouldThrowForCountOverCapacity() throws IOException {
+            // Given
+            var givenFile = givenFile("a.txt", "content");
+            var givenCacheFile = tempDir.resolve("cache.bin");
+            var previousRun = ChecksumCache.empty(HashAlgorithm.SHA256);
+            previousRun.put(givenFile, attributesOf(givenFile), "abc123");
+            previousRun.save(givenCacheFile, false);
+            overwrite(givenCacheFile, 16, littleEndian(Long.BYTES).putLong(0, 9));
+
+            // When
+            var result = catchException(() -> ChecksumCache.load(givenCacheFile, HashAlgorithm.SHA256));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(IOException.class);
+        }
+
+        @DisplayName("Should ignore loaded table and report failure when slot has checksum longer than a slot")
+        @Test
+        void shouldIgnoreTableWithDamagedSlot() throws IOException {
+            // Given
+            var givenFile = givenFile("a.txt", "content");
+            var givenCacheFile = tempDir.resolve("cache.bin");
+            var previousRun = ChecksumCache.empty(HashAlgorithm.SHA256);
+            previousRun.put(givenFile, attributesOf(givenFile), "abc123");
+            previousRun.save(givenCacheFile, false);
+            for (int slot = 0; slot < 16; slot++) {
+                overwrite(givenCacheFile, 32 + slot * 64 + 24, littleEndian(1).put(0, (byte) 100));
+            }
+            var underTest = ChecksumCache.load(givenCacheFile, HashAlgorithm.SHA256);
+
+            // When
+            var result = underTest.get(givenFile, attributesOf(givenFile));
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(Optional.empty());
+            assertThat(underTest.getLoadFailure())
+                    .isPresent();
+        }
+
+        @DisplayName("Should stop probing table without empty slots")
+        @Test
+        void shouldStopProbingFullTable() throws IOException {
+            // Given
+            var givenFile = givenFile("a.txt", "content");
+            var givenCacheFile = tempDir.resolve("cache.bin");
+            var table = littleEndian(32 + 16 * 64)
+                    .putInt(0, 0x46574331)
+                    .putInt(4, 1)
+                    .putInt(8, HashAlgorithm.SHA256.ordinal())
+                    .putInt(12, 16)
+                    .putLong(16, 8);
+            for (int slot = 0; slot < 16; slot++) {
+                table.putLong(32 + slot * 64, slot + 1);
+            }
+            Files.write(givenCacheFile, table.array());
+            var underTest = ChecksumCache.load(givenCacheFile, HashAlgorithm.SHA256);
+
+            // When
+            var result = underTest.get(givenFile, attributesOf(givenFile));
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(Optional.empty());
+            assertThat(underTest.getLoadFailure())
+                    .isPresent();
+        }
+
+        @DisplayName("Should throw for file which is not a checksum cache")
+        @Test
+        void shouldThrowForGarbage() throws IOException {
+            // Given
+            var givenCacheFile = givenFile("cache.bin", "definitely not a checksum cache file");
+
+            // When
+            var result = catchException(() -> ChecksumCache.load(givenCacheFile, HashAlgorithm.SHA256));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(IOException.class);
+        }
+    }
+
+    @DisplayName("save()")
+    @Nested
+    class SaveTest {
+
+        @DisplayName("Should keep entries of previous runs unless compacted")
+        @Test
+        void shouldDropUntouchedEntriesOnlyWhenCompacted() throws IOException {
+            // Given
+            var givenUsed = givenFile("used.txt", "used");
+            var givenStale = givenFile("stale.txt", "stale");
+            var givenCacheFile = tempDir.resolve("cache.bin");
+            var firstRun = ChecksumCache.empty(HashAlgorithm.SHA256);
+            firstRun.put(givenUsed, attributesOf(givenUsed), "01");
+            firstRun.put(givenStale, attributesOf(givenStale), "02");
+            firstRun.save(givenCacheFile, false);
+
+            var secondRun = ChecksumCache.load(givenCacheFile, HashAlgorithm.SHA256);
+            secondRun.get(givenUsed, attributesOf(givenUsed));
+
+            // When
+            secondRun.save(tempDir.resolve("kept.bin"), false);
+            secondRun.save(tempDir.resolve("compacted.bin"), true);
+
+            // Then
+            var kept = ChecksumCache.load(tempDir.resolve("kept.bin"), HashAlgorithm.SHA256);
+            assertThat(kept.get(givenStale, attributesOf(givenStale)))
+                    .contains("02");
+
+            var compacted = ChecksumCache.load(tempDir.resolve("compacted.bin"), HashAlgorithm.SHA256);
+            assertThat(compacted.get(givenUsed, attributesOf(givenUsed)))
+                    .contains("01");
+            assertThat(compacted.get(givenStale, attributesOf(givenStale)))
+                    .isEqualTo(Optional.empty());
+        }
+
+        @DisplayName("Should write table bigger than a single write")
+        @Test
+        void shouldWriteTableInChunks() throws IOException {
+            // Given
+            var builder = MemoryFileSystem.builder();
+            for (int i = 0; i < 3_000; i++) {
+                builder.file("/data/file-" + i, i);
+            }
+            var givenFileSystem = builder.build();
+            var givenCacheFile = tempDir.resolve("cache.bin");
+            var previousRun = ChecksumCache.empty(HashAlgorithm.XXH64);
+            for (int i = 0; i < 3_000; i++) {
+                var file = givenFileSystem.getPath("/data/file-" + i);
+                previousRun.put(file, attributesOf(file), "%016x".formatted(i));
+            }
+
+            // When
+            previousRun.save(givenCacheFile, false);
+
+            // Then
+            var underTest = ChecksumCache.load(givenCacheFile, HashAlgorithm.XXH64);
+            for (int i = 0; i < 3_000; i++) {
+                var file = givenFileSystem.getPath("/data/file-" + i);
+                assertThat(underTest.get(file, attributesOf(file)))
+                        .contains("%016x".formatted(i));
+            }
+        }
+
+        @DisplayName("Should replace the file the cache was loaded from")
+        @Test
+        void shouldReplaceLoadedFile() throws IOException {
+            // Given
+            var givenOld = givenFile("old.txt", "old");
+            var givenNew = givenFile("new.txt", "new");
+            var givenCacheFile = tempDir.resolve("cache.bin");
+            var firstRun = ChecksumCache.empty(HashAlgorithm.SHA256);
+            firstRun.put(givenOld, attributesOf(givenOld), "01");
+            firstRun.save(givenCacheFile, false);
+
+            var secondRun = ChecksumCache.load(givenCacheFile, HashAlgorithm.SHA256);
+            secondRun.put(givenNew, attributesOf(givenNew), "02");
+
+            // When
+            secondRun.save(givenCacheFile, false);
+
+            // Then
+            var result = ChecksumCache.load(givenCacheFile, HashAlgorithm.SHA256);
+            assertThat(result.get(givenOld, attributesOf(givenOld)))
+                    .contains("01");
+            assertThat(result.get(givenNew, attributesOf(givenNew)))
+                    .contains("02");
+        }
+
+        @DisplayName("Should keep answering from the loaded table after saving over its file")
+        @Test
+        void shouldKeepAnsweringAfterReplacingLoadedFile() throws IOException {
+            // Given
+            var givenOld = givenFile("old.txt", "old");
+            var givenCacheFile = tempDir.resolve("cache.bin");
+            var firstRun = ChecksumCache.empty(HashAlgorithm.SHA256);
+            firstRun.put(givenOld, attributesOf(givenOld), "01");
+            firstRun.save(givenCacheFile, false);
+            var underTest = ChecksumCache.load(givenCacheFile, HashAlgorithm.SHA256);
+
+            // When
+            underTest.save(givenCacheFile, true);
+
+            // Then
+            assertThat(underTest.get(givenOld, attributesOf(givenOld)))
+                    .contains("01");
+        }
+    }
+
+    private static ByteBuffer littleEndian(int size) {
+        return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void overwrite(Path file, long position, ByteBuffer bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(bytes, position);
+        }
+    }
+
+    private Path givenFile(String name, String content) throws IOException {
+        return Files.writeString(tempDir.resolve(name), content);
+    }
+
+    private static BasicFileAttributes attributesOf(Path path) throws IOException {
+        return Files.readAttributes(path, BasicFileAttributes.class);
+    }
+}
@@ -0,0 +1,154 @@
+package pl.bdygasinski.filewalker.hash;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import pl.bdygasinski.filewalker.filesystem.EntriesProvider;
+import pl.bdygasinski.filewalker.filesystem.EntryFileVisitor;
+import pl.bdygasinski.filewalker.memoryfs.MemoryFileSystem;
+import pl.bdygasinski.filewalker.model.Entry;
+import pl.bdygasinski.filewalker.model.FileChecksum;
+import pl.bdygasinski.filewalker.model.FileEntry;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+class ContentHashingTest {
+
+    private static final MemoryFileSystem FILE_SYSTEM = smallFiles(20, 25);
+
+    /**
+     * Tree of small files only, with sizes spread from empty up to a few blocks, so every file is hashed quickly.
+     */
+    private static MemoryFileSystem smallFiles(int directories, int filesPerDirectory) {
+        var builder = MemoryFileSystem.builder();
+        for (int dir = 0; dir < directories; dir++) {
+            for (int file = 0; file < filesPerDirectory; file++) {
+                builder.file("/data/dir-%d/sub-%d/file-%d.bin".formatted(dir / 4, dir, file), (dir * 7919L + file * 104_729L) % 300_000);
+            }
+        }
+        return builder.build();
+    }
+
+    @DisplayName("constructor()")
+    @Nested
+    class ConstructorTest {
+
+        @DisplayName("Should throw if there are no workers")
+        @Test
+        void shouldThrowWithoutWorkers() {
+            // When
+            var result = catchException(() -> new ContentHashing(HashAlgorithm.SHA256, 0));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("0");
+        }
+
+        @DisplayName("Should throw if cache holds checksums of other algorithm")
+        @Test
+        void shouldThrowForCacheOfOtherAlgorithm() {
+            // When
+            var result = catchException(() -> new ContentHashing(HashAlgorithm.SHA256, 1, ChecksumCache.empty(HashAlgorithm.XXH64)));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("XXH64");
+        }
+    }
+
+    @DisplayName("forEachChecksum()")
+    @Nested
+    class ForEachChecksumTest {
+
+        @DisplayName("Should hash every file in the order files were walked")
+        @Test
+        void shouldHashFilesInWalkOrder() throws IOException {
+            // Given
+            var givenSource = EntriesProvider.withVisitor(new EntryFileVisitor(Integer.MAX_VALUE, entry -> true))
+                    .sourceFromPath(FILE_SYSTEM.getPath("/data"));
+            var expectedFiles = new ArrayList<Path>();
+            givenSource.forEachEntry(entry -> {
+                if (entry instanceof FileEntry) {
+                    expectedFiles.add(entry.path());
+                }
+            });
+            var referenceHasher = new FileHasher(HashAlgorithm.XXH64, 1);
+            var underTest = new ContentHashing(HashAlgorithm.XXH64, 4);
+            var result = new ArrayList<FileChecksum>();
+
+            // When
+            underTest.forEachChecksum(givenSource, result::add);
+
+            // Then
+            assertThat(result)
+                    .extracting(checksum -> checksum.file().path())
+                    .containsExactlyElementsOf(expectedFiles);
+
+            for (FileChecksum checksum : result.subList(0, 50)) {
+                assertThat(checksum.checksum())
+                        .contains(referenceHasher.hash(checksum.file().path()));
+            }
+        }
+
+        @DisplayName("Should report files which can't be read")
+        @Test
+        void shouldReportUnreadableFiles() {
+            // Given
+            var givenFileSystem = MemoryFileSystem.builder().file("/root/present", 3).build();
+            var givenPresent = (FileEntry) Entry.fromPathAndGraphDepth(givenFileSystem.getPath("/root/present"), 1);
+            var givenMissing = (FileEntry) Entry.fromPathAndGraphDepth(Path.of("/missing-file-of-hashing-test"), 1);
+            var underTest = new ContentHashing(HashAlgorithm.CRC32C, 2);
+            var result = new ArrayList<FileChecksum>();
+
+            // When
+            underTest.forEachChecksum(action -> List.of(givenMissing, givenPresent).forEach(action), result::add);
+
+            // Then
+            assertThat(result)
+                    .extracting(FileChecksum::checksum)
+                    .satisfiesExactly(
+                            missing -> assertThat(missing).isEqualTo(Optional.empty()),
+                            present -> assertThat(present).isPresent()
+                    );
+        }
+
+        @DisplayName("Should take checksums of unchanged files from the cache")
+        @Test
+        void shouldUseCachedChecksums() throws IOException {
+            // Given
+            var givenFileSystem = MemoryFileSystem.builder()
+                    .file("/root/a", 10)
+                    .file("/root/b", 20)
+                    .build();
+            var givenFiles = List.of(
+                    (FileEntry) Entry.fromPathAndGraphDepth(givenFileSystem.getPath("/root/a"), 1),
+                    (FileEntry) Entry.fromPathAndGraphDepth(givenFileSystem.getPath("/root/b"), 1));
+            var givenCache = ChecksumCache.empty(HashAlgorithm.SHA256);
+            new ContentHashing(HashAlgorithm.SHA256, 2, givenCache).forEachChecksum(givenFiles::forEach, checksum -> {});
+
+            var underTest = new ContentHashing(HashAlgorithm.SHA256, 2, givenCache);
+            var result = new ArrayList<FileChecksum>();
+
+            // When
+            underTest.forEachChecksum(givenFiles::forEach, result::add);
+
+            // Then
+            assertThat(givenCache.hits())
+                    .isEqualTo(2);
+            assertThat(result)
+                    .extracting(FileChecksum::checksum)
+                    .containsExactly(
+                            Optional.of(new FileHasher(HashAlgorithm.SHA256, 1).hash(givenFiles.get(0).path())),
+                            Optional.of(new FileHasher(HashAlgorithm.SHA256, 1).hash(givenFiles.get(1).path())));
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package pl.bdygasinski.filewalker.hash;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pl.bdygasinski.filewalker.content.ContentReader;
+import pl.bdygasinski.filewalker.memoryfs.MemoryFileSystem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.SplittableRandom;
+import java.util.zip.CRC32C;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+class FileHasherTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private static byte[] randomContent(int size) {
+        byte[] content = new byte[size];
+        new SplittableRandom(size).nextBytes(content);
+        return content;
+    }
+
+    @DisplayName("constructor()")
+    @Nested
+    class ConstructorTest {
+
+        @DisplayName("Should throw if there are no pooled buffers")
+        @Test
+        void shouldThrowWithoutBuffers() {
+            // When
+            var result = catchException(() -> new FileHasher(HashAlgorithm.SHA256, 0));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("0");
+        }
+    }
+
+    @DisplayName("hash()")
+    @Nested
+    class HashTest {
+
+        @DisplayName("Should give SHA-256 of content read with buffers and memory mapped")
+        @ParameterizedTest
+        @ValueSource(ints = {0, 1, ContentReader.BUFFER_SIZE + 1, (int) ContentReader.MAPPED_THRESHOLD + 17})
+        void shouldGiveSha256(int size) throws IOException, NoSuchAlgorithmException {
+            // Given
+            byte[] givenContent = randomContent(size);
+            Path givenFile = Files.write(tempDir.resolve("file"), givenContent);
+            var underTest = new FileHasher(HashAlgorithm.SHA256, 1);
+
+            // When
+            var result = underTest.hash(givenFile);
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(givenContent)));
+        }
+
+        @DisplayName("Should give CRC32C of content")
+        @ParameterizedTest
+        @ValueSource(ints = {5, (int) ContentReader.MAPPED_THRESHOLD * 2})
+        void shouldGiveCrc32c(int size) throws IOException {
+            // Given
+            byte[] givenContent = randomContent(size);
+            Path givenFile = Files.write(tempDir.resolve("file"), givenContent);
+            var expected = new CRC32C();
+            expected.update(givenContent);
+            var underTest = new FileHasher(HashAlgorithm.CRC32C, 1);
+
+            // When
+            var result = underTest.hash(givenFile);
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(HexFormat.of().toHexDigits((int) expected.getValue()));
+        }
+
+        @DisplayName("Should give the same checksum of file systems without file channels")
+        @Test
+        void shouldHashFilesWithoutFileChannels() throws IOException {
+            // Given
+            byte[] givenContent = randomContent((int) ContentReader.MAPPED_THRESHOLD + 5);
+            Path givenFile = Files.write(tempDir.resolve("file"), givenContent);
+            var givenFileSystem = MemoryFileSystem.builder().file("/file", givenContent).build();
+            var underTest = new FileHasher(HashAlgorithm.XXH64, 2);
+
+            // When
+            var result = underTest.hash(givenFileSystem.getPath("/file"));
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(underTest.hash(givenFile));
+        }
+
+        @DisplayName("Should throw and give the buffer back when file can't be read")
+        @Test
+        void shouldThrowForMissingFile() throws IOException {
+            // Given
+            var underTest = new FileHasher(HashAlgorithm.SHA256, 1);
+
+            // When
+            var result = catchException(() -> underTest.hash(tempDir.resolve("missing")));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(NoSuchFileException.class);
+
+            assertThat(underTest.hash(Files.write(tempDir.resolve("present"), new byte[]{1})))
+                    .isNotEmpty();
+        }
+    }
+
+    @DisplayName("HashAlgorithm.parse()")
+    @Nested
+    class ParseTest {
+
+        @DisplayName("Should parse algorithm names")
+        @Test
+        void shouldParseNames() {
+            // Then
+            assertThat(HashAlgorithm.parse("SHA-256")).contains(HashAlgorithm.SHA256);
+            assertThat(HashAlgorithm.parse("crc32c")).contains(HashAlgorithm.CRC32C);
+            assertThat(HashAlgorithm.parse("xxh")).contains(HashAlgorithm.XXH64);
+            assertThat(HashAlgorithm.parse("md5")).isEmpty();
+        }
+    }
+}
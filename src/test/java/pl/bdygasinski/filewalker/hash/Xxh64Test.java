@@ -0,0 +1,62 @@
+package pl.bdygasinski.filewalker.hash;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Xxh64Test {
+
+    private static String hash(byte[] content, int chunkSize) {
+        var underTest = new Xxh64(0);
+        for (int offset = 0; offset < content.length; offset += chunkSize) {
+            underTest.update(ByteBuffer.wrap(content, offset, Math.min(chunkSize, content.length - offset)));
+        }
+        return underTest.finish();
+    }
+
+    @DisplayName("finish()")
+    @Nested
+    class FinishTest {
+
+        @DisplayName("Should match reference values")
+        @ParameterizedTest(name = "For \"{0}\" hash should be {1}")
+        @CsvSource(delimiter = ';', value = {
+                "'';ef46db3751d8e999",
+                "a;d24ec4f1a98c6e5b",
+                "abc;44bc2cf5ad770999",
+                "Nobody inspects the spammish repetition;fbcea83c8a378bf1"
+        })
+        void shouldMatchReferenceValues(String content, String expected) {
+            // When
+            var result = hash(content.getBytes(StandardCharsets.US_ASCII), Integer.MAX_VALUE);
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(expected);
+        }
+
+        @DisplayName("Should not depend on how content is split into chunks")
+        @ParameterizedTest
+        @ValueSource(ints = {1, 3, 7, 31, 32, 33, 100, 4096})
+        void shouldNotDependOnChunks(int chunkSize) {
+            // Given
+            byte[] givenContent = new byte[10_007];
+            new SplittableRandom(1).nextBytes(givenContent);
+
+            // When
+            var result = hash(givenContent, chunkSize);
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(hash(givenContent, givenContent.length));
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package pl.bdygasinski.filewalker.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pl.bdygasinski.filewalker.filesystem.EntryFileVisitor;
+import pl.bdygasinski.filewalker.filter.CompiledNameFilter;
+import pl.bdygasinski.filewalker.model.Entry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static pl.bdygasinski.filewalker.helper.TestClassLoadingUtil.ROOT_DIR;
+import static pl.bdygasinski.filewalker.helper.TestClassLoadingUtil.pathFromClasspath;
+
+class LiveIndexTest {
+
+    private static final Duration EVENT_TIMEOUT = Duration.ofSeconds(10);
+
+    @TempDir
+    private Path tmpDir;
+
+    @DisplayName("sourceFor()")
+    @Nested
+    class SourceForTest {
+
+        @DisplayName("Should give same entries as walk of the tree")
+        @ParameterizedTest
+        @ValueSource(ints = {0, 1, 2, 5})
+        void shouldGiveSameEntriesAsWalk(int maxDepth) throws IOException {
+            // Given
+            var givenPath = pathFromClasspath(ROOT_DIR);
+            var expected = new EntryFileVisitor(maxDepth, entry -> true);
+            Files.walkFileTree(givenPath, expected);
+            var underTest = LiveIndex.of(givenPath);
+
+            // When
+            var result = query(underTest, new EntryFileVisitor(maxDepth, entry -> true));
+
+            // Then
+            assertThat(result)
+                    .containsExactlyElementsOf(expected.getEntries());
+        }
+
+        @DisplayName("Should apply filters of the visitor")
+        @Test
+        void shouldApplyFiltersOfVisitor() throws IOException {
+            // Given
+            Files.writeString(tmpDir.resolve("small.txt"), "x");
+            Files.writeString(tmpDir.resolve("big.txt"), "x".repeat(100));
+            Files.writeString(tmpDir.resolve("big.md"), "x".repeat(100));
+            var givenVisitor = new EntryFileVisitor(1, entry -> entry.baseName().endsWith(".txt"),
+                    entry -> true, attrs -> attrs.size() > 10);
+            var underTest = LiveIndex.of(tmpDir);
+
+            // When
+            var result = query(underTest, givenVisitor);
+
+            // Then
+            assertThat(result)
+                    .filteredOn(entry -> entry.depthLevel() > 0)
+                    .extracting(Entry::baseName)
+                    .containsExactly("big.txt");
+        }
+    }
+
+    @DisplayName("sourceFor() with extensions")
+    @Nested
+    class SourceForExtensionsTest {
+
+        @DisplayName("Should give same entries as walk filtered by the extensions")
+        @ParameterizedTest
+        @ValueSource(ints = {0, 1, 2, 5})
+        void shouldGiveSameEntriesAsFilteredWalk(int maxDepth) throws IOException {
+            // Given
+            var givenPath = pathFromClasspath(ROOT_DIR);
+            var givenExtensions = List.of("txt", ".csv");
+            var givenFilter = CompiledNameFilter.compile(List.of(), givenExtensions);
+            var expected = new EntryFileVisitor(maxDepth, givenFilter);
+            Files.walkFileTree(givenPath, expected);
+            var underTest = LiveIndex.of(givenPath);
+
+            // When
+            var result = new ArrayList<Entry>();
+            underTest.sourceFor(new EntryFileVisitor(maxDepth, givenFilter), givenExtensions).forEachEntry(result::add);
+
+            // Then
+            assertThat(result)
+                    .containsExactlyElementsOf(expected.getEntries());
+        }
+
+        @DisplayName("Should look up files changed since the index was built in listing order")
+        @Test
+        void shouldLookUpChangedFiles() throws IOException {
+            // Given
+            Files.createFile(tmpDir.resolve("first.txt"));
+            Files.createFile(tmpDir.resolve("second.md"));
+            Files.createDirectory(tmpDir.resolve("dir"));
+            var underTest = LiveIndex.of(tmpDir);
+            Files.delete(tmpDir.resolve("first.txt"));
+            Files.createFile(tmpDir.resolve("third.txt"));
+            underTest.refresh(tmpDir.resolve("first.txt"));
+            underTest.refresh(tmpDir.resolve("third.txt"));
+
+            // When
+            var result = new ArrayList<Entry>();
+            underTest.sourceFor(new EntryFileVisitor(1, entry -> true), List.of("txt")).forEachEntry(result::add);
+
+            // Then
+            assertThat(result)
+                    .filteredOn(entry -> entry.depthLevel() > 0)
+                    .extracting(Entry::baseName)
+                    .containsExactly("dir", "third.txt");
+        }
+    }
+
+    @DisplayName("rescan()")
+    @Nested
+    class RescanTest {
+
+        @DisplayName("Should reconcile directory with its current listing")
+        @Test
+        void shouldReconcileDirectory() throws IOException {
+            // Given
+            Files.createFile(tmpDir.resolve("removed.txt"));
+            Files.createFile(tmpDir.resolve("kept.txt"));
+            var underTest = LiveIndex.of(tmpDir);
+            Files.delete(tmpDir.resolve("removed.txt"));
+            Files.createDirectories(tmpDir.resolve("added/nested"));
+            Files.createFile(tmpDir.resolve("added/nested/file.txt"));
+
+            // When
+            underTest.rescan(tmpDir);
+
+            // Then
+            assertThat(query(underTest, new EntryFileVisitor(5, entry -> true)))
+                    .filteredOn(entry -> entry.depthLevel() > 0)
+                    .extracting(Entry::baseName)
+                    .containsExactlyInAnyOrder("kept.txt", "added", "nested", "file.txt");
+        }
+    }
+
+    @DisplayName("reconcileUnwatched()")
+    @Nested
+    class ReconcileUnwatchedTest {
+
+        @DisplayName("Should index directory which can't be watched and reconcile it later")
+        @Test
+        void shouldReconcileUnwatchedDirectory() throws IOException {
+            // Given
+            Files.createDirectories(tmpDir.resolve("unwatched/nested"));
+            Files.createFile(tmpDir.resolve("unwatched/nested/old.txt"));
+            var givenUnwatched = tmpDir.resolve("unwatched");
+            var underTest = LiveIndex.of(tmpDir, dir -> {
+                if (dir.equals(givenUnwatched)) {
+                    throw new IOException("Watch limit reached");
+                }
+            });
+            Files.createFile(givenUnwatched.resolve("new.txt"));
+
+            // When
+            underTest.reconcileUnwatched();
+
+            // Then
+            assertThat(underTest.getUnwatchedDirectories())
+                    .isOne();
+            assertThat(query(underTest, new EntryFileVisitor(5, entry -> true)))
+                    .filteredOn(entry -> entry.depthLevel() > 0)
+                    .extracting(Entry::baseName)
+                    .containsExactlyInAnyOrder("unwatched", "nested", "old.txt", "new.txt");
+        }
+    }
+
+    @DisplayName("replay()")
+    @Nested
+    class ReplayTest {
+
+        @DisplayName("Should let index change while visitor is running")
+        @Test
+        void shouldNotHoldLockWhileVisiting() throws Exception {
+            // Given
+            Files.createFile(tmpDir.resolve("first.txt"));
+            var underTest = LiveIndex.of(tmpDir);
+            var added = new ArrayList<Boolean>();
+
+            // When
+            underTest.sourceFor(new EntryFileVisitor(1, entry -> true)).forEachEntry(entry -> {
+                if (added.isEmpty()) {
+                    var refresh = Thread.ofPlatform().start(() -> {
+                        try {
+                            Files.createFile(tmpDir.resolve("second.txt"));
+                            underTest.refresh(tmpDir.resolve("second.txt"));
+
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    added.add(join(refresh));
+                }
+            });
+
+            // Then
+            assertThat(added)
+                    .containsExactly(true);
+            assertThat(query(underTest, new EntryFileVisitor(1, entry -> true)))
+                    .extracting(Entry::baseName)
+                    .contains("first.txt", "second.txt");
+        }
+
+        private static boolean join(Thread thread) {
+            try {
+                return thread.join(EVENT_TIMEOUT);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    @DisplayName("watching()")
+    @Nested
+    class WatchingTest {
+
+        @DisplayName("Should follow created and deleted files")
+        @Test
+        void shouldFollowCreatedAndDeletedFiles() throws Exception {
+            // Given
+            Files.createFile(tmpDir.resolve("deleted.txt"));
+            Files.createDirectory(tmpDir.resolve("dir"));
+
+            try (var underTest = LiveIndex.watching(tmpDir)) {
+                // When
+                Files.delete(tmpDir.resolve("deleted.txt"));
+                Files.createFile(tmpDir.resolve("dir/created.txt"));
+                Files.createDirectories(tmpDir.resolve("new/nested"));
+                Files.createFile(tmpDir.resolve("new/nested/deep.txt"));
+
+                // Then
+                var result = awaitNames(underTest, names -> !names.contains("deleted.txt")
+                        && names.contains("created.txt") && names.contains("deep.txt"));
+
+                assertThat(result)
+                        .containsExactlyInAnyOrder("dir", "created.txt", "new", "nested", "deep.txt");
+            }
+        }
+
+        @DisplayName("Should follow changed file size")
+        @Test
+        void shouldFollowChangedFileSize() throws Exception {
+            // Given
+            var givenFile = Files.writeString(tmpDir.resolve("file.txt"), "x");
+
+            try (var underTest = LiveIndex.watching(tmpDir)) {
+                // When
+                Files.writeString(givenFile, "x".repeat(50));
+
+                // Then
+                var result = await(underTest, new EntryFileVisitor(1, entry -> true, entry -> true, attrs -> attrs.size() == 50));
+
+                assertThat(result)
+                        .filteredOn(entry -> entry.depthLevel() > 0)
+                        .extracting(Entry::baseName)
+                        .containsExactly("file.txt");
+            }
+        }
+    }
+
+    private static List<Entry> query(LiveIndex index, EntryFileVisitor visitor) {
+        var entries = new ArrayList<Entry>();
+        index.sourceFor(visitor).forEachEntry(entries::add);
+        return entries;
+    }
+
+    private static List<String> awaitNames(LiveIndex index, Predicate<List<String>> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + EVENT_TIMEOUT.toNanos();
+        List<String> names;
+        do {
+            names = query(index, new EntryFileVisitor(5, entry -> true)).stream()
+                    .filter(entry -> entry.depthLevel() > 0)
+                    .map(Entry::baseName)
+                    .toList();
+            if (condition.test(names)) {
+                break;
+            }
+            Thread.sleep(20);
+        } while (System.nanoTime() < deadline);
+
+        return names;
+    }
+
+    private static List<Entry> await(LiveIndex index, EntryFileVisitor visitor) throws InterruptedException {
+        long deadline = System.nanoTime() + EVENT_TIMEOUT.toNanos();
+        List<Entry> entries;
+        do {
+            entries = query(index, visitor);
+            if (entries.stream().anyMatch(entry -> entry.depthLevel() > 0)) {
+                break;
+            }
+            Thread.sleep(20);
+        } while (System.nanoTime() < deadline);
+
+        return entries;
+    }
+}
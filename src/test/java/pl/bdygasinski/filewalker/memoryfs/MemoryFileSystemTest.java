@@ -0,0 +1,214 @@
+package pl.bdygasinski.filewalker.memoryfs;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import pl.bdygasinski.filewalker.filesystem.EntriesProvider;
+import pl.bdygasinski.filewalker.filesystem.EntryFileVisitor;
+import pl.bdygasinski.filewalker.model.Entry;
+import pl.bdygasinski.filewalker.model.ErrorEntry;
+
+import java.io.IOException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.ReadOnlyFileSystemException;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+class MemoryFileSystemTest {
+
+    @DisplayName("generate()")
+    @Nested
+    class GenerateTest {
+
+        @DisplayName("Should generate the same tree from the same seed")
+        @Test
+        void shouldGenerateSameTreeFromSameSeed() throws IOException {
+            // Given
+            var givenFirst = MemoryFileSystem.builder().seed(7).generate("/data", 5_000).build();
+            var givenSecond = MemoryFileSystem.builder().seed(7).generate("/data", 5_000).build();
+            var givenOther = MemoryFileSystem.builder().seed(8).generate("/data", 5_000).build();
+
+            // When
+            var first = walk(givenFirst.getPath("/data"));
+            var second = walk(givenSecond.getPath("/data"));
+            var other = walk(givenOther.getPath("/data"));
+
+            // Then
+            assertThat(first)
+                    .isEqualTo(second)
+                    .isNotEqualTo(other);
+        }
+
+        @DisplayName("Should generate requested number of entries")
+        @Test
+        void shouldGenerateRequestedNumberOfEntries() throws IOException {
+            // Given
+            var underTest = MemoryFileSystem.builder().seed(1).generate("/data", 20_000).build();
+
+            // When
+            var result = walk(underTest.getPath("/data"));
+
+            // Then
+            assertThat(result)
+                    .hasSize(20_000 + 1);
+            assertThat(underTest.nodeCount())
+                    .isEqualTo(20_000 + 2);
+        }
+
+        @DisplayName("Should generate hidden entries and unreadable directories")
+        @Test
+        void shouldGenerateHiddenAndUnreadableEntries() {
+            // Given
+            var underTest = MemoryFileSystem.builder()
+                    .seed(3)
+                    .directoryRatio(0.5)
+                    .hiddenRatio(0.2)
+                    .unreadableRatio(0.2)
+                    .generate("/data", 2_000)
+                    .build();
+
+            // When
+            var result = EntriesProvider.withVisitor(new EntryFileVisitor(100, entry -> true))
+                    .getEntriesFromPath(underTest.getPath("/data"));
+
+            // Then
+            assertThat(result)
+                    .hasAtLeastOneElementOfType(ErrorEntry.class)
+                    .hasSizeLessThan(2_000);
+            assertThat(result)
+                    .extracting(Entry::baseName)
+                    .noneMatch(name -> name.startsWith("."));
+        }
+    }
+
+    @DisplayName("provider()")
+    @Nested
+    class ProviderTest {
+
+        @DisplayName("Should read explicit files and directories")
+        @Test
+        void shouldReadExplicitEntries() throws IOException {
+            // Given
+            var underTest = MemoryFileSystem.builder()
+                    .file("/a/b/text.txt", "hello".getBytes())
+                    .file("/a/big.bin", 1_000_000)
+                    .directory("/a/empty")
+                    .unreadableDirectory("/a/locked")
+                    .build();
+
+            // When
+            var listing = Files.list(underTest.getPath("/a")).map(Path::toString).toList();
+            var content = Files.readString(underTest.getPath("/a/b/text.txt"));
+            var attrs = Files.readAttributes(underTest.getPath("/a/big.bin"), BasicFileAttributes.class);
+            var locked = catchException(() -> Files.list(underTest.getPath("/a/locked")));
+
+            // Then
+            assertThat(listing)
+                    .containsExactly("/a/b", "/a/big.bin", "/a/empty", "/a/locked");
+            assertThat(content)
+                    .isEqualTo("hello");
+            assertThat(attrs.size())
+                    .isEqualTo(1_000_000);
+            assertThat(Files.readAllBytes(underTest.getPath("/a/big.bin")))
+                    .hasSize(1_000_000)
+                    .isEqualTo(Files.readAllBytes(underTest.getPath("/a/big.bin")));
+            assertThat(locked)
+                    .isInstanceOf(AccessDeniedException.class);
+            assertThat(Files.isDirectory(underTest.getPath("/a/locked")))
+                    .isTrue();
+        }
+
+        @DisplayName("Should reject changes")
+        @Test
+        void shouldRejectChanges() {
+            // Given
+            var underTest = MemoryFileSystem.builder().directory("/a").build();
+
+            // When
+            var result = catchException(() -> Files.createDirectory(underTest.getPath("/a/b")));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(ReadOnlyFileSystemException.class);
+        }
+
+        @DisplayName("Should count calls and delay each by the latency")
+        @Test
+        void shouldCountAndDelayCalls() throws IOException {
+            // Given
+            var givenLatency = Duration.ofMillis(5);
+            var underTest = MemoryFileSystem.builder().directory("/a").latency(givenLatency).build();
+
+            // When
+            long start = System.nanoTime();
+            Files.readAttributes(underTest.getPath("/a"), BasicFileAttributes.class);
+            Files.readAttributes(underTest.getPath("/a"), BasicFileAttributes.class);
+            var result = Duration.ofNanos(System.nanoTime() - start);
+
+            // Then
+            assertThat(result)
+                    .isGreaterThanOrEqualTo(givenLatency.multipliedBy(2));
+            assertThat(underTest.callCount())
+                    .isEqualTo(2);
+        }
+    }
+
+    @DisplayName("walkers")
+    @Nested
+    class WalkersTest {
+
+        @DisplayName("Should give same entries with every provider on a big generated tree")
+        @Test
+        void shouldGiveSameEntriesWithEveryProvider() {
+            // Given
+            var givenFileSystem = MemoryFileSystem.builder().seed(11).generate("/data", 50_000).build();
+            var givenRoot = givenFileSystem.getPath("/data");
+            var expected = EntriesProvider.withVisitor(new EntryFileVisitor(100, entry -> true))
+                    .getEntriesFromPath(givenRoot);
+
+            // When
+            var results = Stream.of(
+                    EntriesProvider.parallelWithVisitor(new EntryFileVisitor(100, entry -> true), 8),
+                    EntriesProvider.virtualThreadsWithVisitor(new EntryFileVisitor(100, entry -> true), 64)
+            ).map(provider -> provider.getEntriesFromPath(givenRoot)).toList();
+
+            // Then
+            assertThat(results)
+                    .allSatisfy(result -> assertThat(result).containsExactlyElementsOf(expected));
+        }
+    }
+
+    private static List<String> walk(Path root) throws IOException {
+        var visited = new ArrayList<String>();
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                visited.add(dir + "/");
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                visited.add(file + " " + attrs.size());
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                visited.add(file + " !");
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return visited;
+    }
+}
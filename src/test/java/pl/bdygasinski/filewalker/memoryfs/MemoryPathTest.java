@@ -0,0 +1,76 @@
+package pl.bdygasinski.filewalker.memoryfs;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemoryPathTest {
+
+    private final MemoryFileSystem fileSystem = MemoryFileSystem.builder().build();
+
+    @DisplayName("structure")
+    @Nested
+    class StructureTest {
+
+        @DisplayName("Should split path into names like Unix paths")
+        @Test
+        void shouldSplitIntoNames() {
+            // Given
+            var underTest = fileSystem.getPath("/a//b", "c/");
+
+            // Then
+            assertThat(underTest.toString()).isEqualTo("/a/b/c");
+            assertThat(underTest.isAbsolute()).isTrue();
+            assertThat(underTest.getNameCount()).isEqualTo(3);
+            assertThat(underTest.getFileName()).hasToString("c");
+            assertThat(underTest.getParent()).hasToString("/a/b");
+            assertThat(underTest.getRoot()).hasToString("/");
+            assertThat(underTest.getRoot().getParent()).isNull();
+            assertThat(underTest.getRoot().getFileName()).isNull();
+            assertThat(fileSystem.getPath("a").getParent()).isNull();
+            assertThat(fileSystem.getPath("").getNameCount()).isEqualTo(1);
+        }
+    }
+
+    @DisplayName("resolve() and relativize()")
+    @Nested
+    class ResolveTest {
+
+        @DisplayName("Should give back the other path when relativized path is resolved")
+        @ParameterizedTest
+        @CsvSource({"/a/b,/a/b/c/d", "/a/b,/a/x", "/a,/a", "/,/a/b", "a/b,a/c"})
+        void shouldResolveRelativizedPath(String from, String to) {
+            // Given
+            var givenFrom = fileSystem.getPath(from);
+            var givenTo = fileSystem.getPath(to);
+
+            // When
+            var result = givenFrom.resolve(givenFrom.relativize(givenTo)).normalize();
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(givenTo);
+        }
+
+        @DisplayName("Should match prefixes and suffixes by whole names")
+        @Test
+        void shouldMatchPrefixesAndSuffixes() {
+            // Given
+            Path underTest = fileSystem.getPath("/data/src/main");
+
+            // Then
+            assertThat(underTest.startsWith(fileSystem.getPath("/data"))).isTrue();
+            assertThat(underTest.startsWith(fileSystem.getPath("/dat"))).isFalse();
+            assertThat(underTest.startsWith(fileSystem.getPath("data"))).isFalse();
+            assertThat(underTest.endsWith(fileSystem.getPath("src/main"))).isTrue();
+            assertThat(underTest.endsWith(fileSystem.getPath("ain"))).isFalse();
+            assertThat(fileSystem.getPath("/a/./b/../c").normalize()).hasToString("/a/c");
+        }
+    }
+}
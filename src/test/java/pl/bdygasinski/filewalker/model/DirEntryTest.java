@@ -6,6 +6,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchException;
 import static pl.bdygasinski.filewalker.helper.TestClassLoadingUtil.*;
@@ -138,4 +142,40 @@ class DirEntryTest {
                     .isEqualTo(givenPath);
         }
     }
-}
\ No newline at end of file
+
+    @DisplayName("fromAttributesAndDepthLevel()")
+    @Nested
+    class FromAttributesAndDepthLevelTest {
+
+        @DisplayName("Should be equal to entry created from path")
+        @Test
+        void shouldBeEqualToEntryCreatedFromPath() throws IOException {
+            // Given
+            var givenPath = pathFromClasspath(EMPTY_DIR);
+            var givenAttrs = Files.readAttributes(givenPath, BasicFileAttributes.class);
+
+            // When
+            var result = DirEntry.fromAttributesAndDepthLevel(givenPath, givenAttrs, 2);
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(DirEntry.fromPathAndDepthLevel(givenPath, 2));
+        }
+
+        @DisplayName("Should throw if attributes describe file")
+        @Test
+        void shouldThrowIfAttributesDescribeFile() throws IOException {
+            // Given
+            var givenPath = pathFromClasspath(TEXT_FILE);
+            var givenAttrs = Files.readAttributes(givenPath, BasicFileAttributes.class);
+
+            // When
+            var result = catchException(() -> DirEntry.fromAttributesAndDepthLevel(givenPath, givenAttrs, 0));
+
+            // Then
+            assertThat(result)
+                    .isNotNull()
+                    .hasMessageContaining(givenPath.toString());
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package pl.bdygasinski.filewalker.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pl.bdygasinski.filewalker.filesystem.EntriesProvider;
+import pl.bdygasinski.filewalker.filesystem.EntryFileVisitor;
+import pl.bdygasinski.filewalker.memoryfs.MemoryFileSystem;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+import static pl.bdygasinski.filewalker.helper.TestClassLoadingUtil.ROOT_DIR;
+import static pl.bdygasinski.filewalker.helper.TestClassLoadingUtil.pathFromClasspath;
+import static pl.bdygasinski.filewalker.helper.TestClassLoadingUtil.pathWithoutValidation;
+
+class EntryTableTest {
+
+    @DisplayName("forEachEntry()")
+    @Nested
+    class ForEachEntryTest {
+
+        @DisplayName("Should give back entries of a walk in the same order")
+        @ParameterizedTest
+        @ValueSource(ints = {0, 1, 2, 5})
+        void shouldGiveBackEntriesOfWalk(int maxDepth) {
+            // Given
+            var givenEntries = EntriesProvider.withVisitor(new EntryFileVisitor(maxDepth, entry -> true))
+                    .getEntriesFromPath(pathFromClasspath(ROOT_DIR));
+            var underTest = new EntryTable();
+            givenEntries.forEach(underTest::add);
+
+            // When
+            var result = new ArrayList<Entry>();
+            underTest.forEachEntry(result::add);
+
+            // Then
+            assertThat(result)
+                    .containsExactlyElementsOf(givenEntries);
+            assertThat(result)
+                    .extracting(Entry::sizeInBytes)
+                    .containsExactlyElementsOf(givenEntries.stream().map(Entry::sizeInBytes).toList());
+        }
+
+        @DisplayName("Should give back error entries")
+        @Test
+        void shouldGiveBackErrorEntries() {
+            // Given
+            var givenEntry = new ErrorEntry(3, pathWithoutValidation("missing/file"));
+            var underTest = new EntryTable();
+            underTest.add(givenEntry);
+
+            // When
+            var result = new ArrayList<Entry>();
+            underTest.forEachEntry(result::add);
+
+            // Then
+            assertThat(result)
+                    .containsExactly(givenEntry);
+        }
+
+        @DisplayName("Should keep paths of names decoded with replacement characters, with paths below them")
+        @Test
+        void shouldKeepPathsOfUndecodableNames() {
+            // Given
+            var givenFileSystem = MemoryFileSystem.builder().build();
+            var givenDir = givenFileSystem.getPath("/root/bad\uFFFDname");
+            var givenFile = givenDir.resolve("file.txt");
+            var underTest = new EntryTable();
+            underTest.add(DirEntry.fromColumns(givenDir, 0, true));
+            underTest.add(FileEntry.fromColumns(givenFile, 1, true, 5));
+
+            // When
+            var result = new ArrayList<Entry>();
+            underTest.forEachEntry(result::add);
+
+            // Then
+            assertThat(result.getFirst().path())
+                    .isSameAs(givenDir);
+            assertThat(result.getLast().path())
+                    .isEqualTo(givenFile);
+            assertThat(underTest.path(1))
+                    .isEqualTo(givenFile);
+        }
+
+        @DisplayName("Should give back relative paths without parent on the file system they came from")
+        @Test
+        void shouldKeepFileSystemOfRelativePaths() {
+            // Given
+            var givenFileSystem = MemoryFileSystem.builder().build();
+            var givenPath = givenFileSystem.getPath("file.txt");
+            var underTest = new EntryTable();
+            underTest.add(FileEntry.fromColumns(givenPath, 0, true, 5));
+
+            // When
+            var result = underTest.path(0);
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(givenPath);
+            assertThat(result.getFileSystem())
+                    .isSameAs(givenFileSystem);
+        }
+    }
+
+    @DisplayName("entry()")
+    @Nested
+    class EntryTest {
+
+        @DisplayName("Should recreate every entry by its index")
+        @Test
+        void shouldRecreateEntryByIndex() {
+            // Given
+            var givenEntries = EntriesProvider.withVisitor(new EntryFileVisitor(5, entry -> true))
+                    .getEntriesFromPath(pathFromClasspath(ROOT_DIR));
+            var underTest = new EntryTable();
+            givenEntries.forEach(underTest::add);
+
+            // When
+            var result = new ArrayList<Entry>();
+            for (int i = 0; i < underTest.size(); i++) {
+                result.add(underTest.entry(i));
+            }
+
+            // Then
+            assertThat(result)
+                    .containsExactlyElementsOf(givenEntries);
+        }
+
+        @DisplayName("Should throw for index out of the table")
+        @Test
+        void shouldThrowForIndexOutOfTable() {
+            // Given
+            var underTest = new EntryTable();
+
+            // When
+            var result = catchException(() -> underTest.entry(0));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(IndexOutOfBoundsException.class);
+        }
+    }
+
+    @DisplayName("asList()")
+    @Nested
+    class AsListTest {
+
+        @DisplayName("Should give entries added so far and ignore entries added later")
+        @Test
+        void shouldGiveEntriesAddedSoFar() {
+            // Given
+            var givenFirst = new ErrorEntry(1, Path.of("a", "x"));
+            var givenSecond = new ErrorEntry(1, Path.of("a", "y"));
+            var underTest = new EntryTable();
+            underTest.add(givenFirst);
+
+            // When
+            var result = underTest.asList();
+            underTest.add(givenSecond);
+
+            // Then
+            assertThat(result)
+                    .containsExactly(givenFirst);
+            assertThat(underTest.asList())
+                    .containsExactly(givenFirst, givenSecond);
+        }
+
+        @DisplayName("Should be read only")
+        @Test
+        void shouldBeReadOnly() {
+            // Given
+            var underTest = new EntryTable().asList();
+
+            // When
+            var result = catchException(() -> underTest.add(new ErrorEntry(0, Path.of("a"))));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(UnsupportedOperationException.class);
+        }
+    }
+
+    @DisplayName("column accessors")
+    @Nested
+    class ColumnsTest {
+
+        @DisplayName("Should expose columns of added entries")
+        @Test
+        void shouldExposeColumns() {
+            // Given
+            var givenRoot = pathFromClasspath(ROOT_DIR);
+            var givenEntries = EntriesProvider.withVisitor(new EntryFileVisitor(5, entry -> true))
+                    .getEntriesFromPath(givenRoot);
+            var underTest = new EntryTable();
+            givenEntries.forEach(underTest::add);
+
+            for (int i = 0; i < underTest.size(); i++) {
+                var expected = givenEntries.get(i);
+
+                // When
+                var kind = underTest.kind(i);
+                var parent = underTest.parentIndex(i);
+
+                // Then
+                assertThat(kind)
+                        .isEqualTo(expected instanceof DirEntry ? EntryTable.DIRECTORY : EntryTable.FILE);
+                assertThat(underTest.baseName(i))
+                        .isEqualTo(expected.baseName());
+                assertThat(underTest.depthLevel(i))
+                        .isEqualTo(expected.depthLevel());
+                assertThat(underTest.sizeInBytes(i))
+                        .isEqualTo(expected.sizeInBytes().orElse(-1L));
+                if (expected.path().equals(givenRoot)) {
+                    assertThat(parent).isEqualTo(-1);
+                } else {
+                    assertThat(underTest.path(parent)).isEqualTo(expected.path().getParent());
+                }
+            }
+        }
+
+        @DisplayName("Should keep entries with equal names of different parents apart")
+        @Test
+        void shouldKeepEntriesOfDifferentParentsApart() {
+            // Given
+            var givenEntries = List.<Entry>of(
+                    new ErrorEntry(1, Path.of("a", "x")),
+                    new ErrorEntry(1, Path.of("b", "x"))
+            );
+            var underTest = new EntryTable();
+
+            // When
+            givenEntries.forEach(underTest::add);
+
+            // Then
+            assertThat(underTest.path(0))
+                    .isEqualTo(Path.of("a", "x"));
+            assertThat(underTest.path(1))
+                    .isEqualTo(Path.of("b", "x"));
+        }
+    }
+}
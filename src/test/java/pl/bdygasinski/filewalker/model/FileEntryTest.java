@@ -6,6 +6,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchException;
 import static pl.bdygasinski.filewalker.helper.TestClassLoadingUtil.*;
@@ -109,4 +113,70 @@ class FileEntryTest {
                     .isEqualTo(isVisible);
         }
     }
-}
\ No newline at end of file
+
+    @DisplayName("fromAttributesAndDepthLevel()")
+    @Nested
+    class FromAttributesAndDepthLevelTest {
+
+        @DisplayName("Should take size from attributes")
+        @Test
+        void shouldTakeSizeFromAttributes() throws IOException {
+            // Given
+            var givenPath = pathFromClasspath(TEXT_FILE);
+            var givenAttrs = Files.readAttributes(givenPath, BasicFileAttributes.class);
+
+            // When
+            var result = FileEntry.fromAttributesAndDepthLevel(givenPath, givenAttrs, 0);
+
+            // Then
+            assertThat(result.sizeInBytes())
+                    .contains(givenAttrs.size());
+        }
+
+        @DisplayName("Should mark dot file as not visible")
+        @Test
+        void shouldMarkDotFileAsNotVisible() throws IOException {
+            // Given
+            var givenPath = pathFromClasspath(HIDDEN_FILE);
+            var givenAttrs = Files.readAttributes(givenPath, BasicFileAttributes.class);
+
+            // When
+            var result = FileEntry.fromAttributesAndDepthLevel(givenPath, givenAttrs, 0);
+
+            // Then
+            assertThat(result.isVisible())
+                    .isEqualTo(!Files.isHidden(givenPath));
+        }
+
+        @DisplayName("Should be equal to entry created from path")
+        @Test
+        void shouldBeEqualToEntryCreatedFromPath() throws IOException {
+            // Given
+            var givenPath = pathFromClasspath(HTML_FILE);
+            var givenAttrs = Files.readAttributes(givenPath, BasicFileAttributes.class);
+
+            // When
+            var result = FileEntry.fromAttributesAndDepthLevel(givenPath, givenAttrs, 1);
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(FileEntry.fromPathAndDepthLevel(givenPath, 1));
+        }
+
+        @DisplayName("Should throw if attributes describe directory")
+        @Test
+        void shouldThrowIfAttributesDescribeDirectory() throws IOException {
+            // Given
+            var givenPath = pathFromClasspath(ROOT_DIR);
+            var givenAttrs = Files.readAttributes(givenPath, BasicFileAttributes.class);
+
+            // When
+            var result = catchException(() -> FileEntry.fromAttributesAndDepthLevel(givenPath, givenAttrs, 0));
+
+            // Then
+            assertThat(result)
+                    .isNotNull()
+                    .hasMessageContaining(givenPath.toString());
+        }
+    }
+}
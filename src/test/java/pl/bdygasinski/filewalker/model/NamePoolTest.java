@@ -0,0 +1,57 @@
+package pl.bdygasinski.filewalker.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NamePoolTest {
+
+    @DisplayName("intern()")
+    @Nested
+    class InternTest {
+
+        @DisplayName("Should give same id for equal names")
+        @Test
+        void shouldGiveSameIdForEqualNames() {
+            // Given
+            var underTest = new NamePool();
+            var givenId = underTest.intern("index.html");
+
+            // When
+            var result = underTest.intern(new String("index.html"));
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(givenId);
+            assertThat(underTest.size())
+                    .isEqualTo(1);
+        }
+
+        @DisplayName("Should give back every name after growing")
+        @Test
+        void shouldGiveBackEveryNameAfterGrowing() {
+            // Given
+            var underTest = new NamePool();
+            var givenIds = new ArrayList<Integer>();
+
+            // When
+            for (int i = 0; i < 10_000; i++) {
+                givenIds.add(underTest.intern("file-" + i + "-zażółć"));
+            }
+
+            // Then
+            for (int i = 0; i < 10_000; i++) {
+                assertThat(underTest.name(givenIds.get(i)))
+                        .isEqualTo("file-" + i + "-zażółć");
+                assertThat(underTest.intern("file-" + i + "-zażółć"))
+                        .isEqualTo(givenIds.get(i));
+            }
+            assertThat(underTest.size())
+                    .isEqualTo(10_000);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package pl.bdygasinski.filewalker.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+class PathTreeTest {
+
+    @DisplayName("add()")
+    @Nested
+    class AddTest {
+
+        @DisplayName("Should throw if parent node does not exist")
+        @Test
+        void shouldThrowIfParentDoesNotExist() {
+            // Given
+            var underTest = new PathTree();
+
+            // When
+            var result = catchException(() -> underTest.add(0, "name"));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(IndexOutOfBoundsException.class);
+        }
+
+        @DisplayName("Should store repeated names once")
+        @Test
+        void shouldStoreRepeatedNamesOnce() {
+            // Given
+            var underTest = new PathTree();
+            var first = underTest.addBelow(Path.of("projects"), "first");
+            var second = underTest.addBelow(Path.of("projects"), "second");
+
+            // When
+            underTest.add(underTest.add(first, "src"), "index.html");
+            underTest.add(underTest.add(second, "src"), "index.html");
+
+            // Then
+            assertThat(underTest.size())
+                    .isEqualTo(6);
+            assertThat(underTest.distinctNames())
+                    .isEqualTo(4);
+        }
+    }
+
+    @DisplayName("path()")
+    @Nested
+    class PathTest {
+
+        @DisplayName("Should build path from parent chain")
+        @Test
+        void shouldBuildPathFromParentChain() {
+            // Given
+            var underTest = new PathTree();
+            var root = underTest.addBelow(Path.of("mnt", "data"), "projects");
+            var src = underTest.add(root, "src");
+            var file = underTest.add(src, "index.html");
+
+            // When
+            var result = underTest.path(file);
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(Path.of("mnt", "data", "projects", "src", "index.html"));
+            assertThat(underTest.parent(file))
+                    .isEqualTo(src);
+            assertThat(underTest.parent(root))
+                    .isEqualTo(-1);
+            assertThat(underTest.externalParent(root))
+                    .isEqualTo(Path.of("mnt", "data"));
+        }
+
+        @DisplayName("Should keep nodes below different external parents apart")
+        @Test
+        void shouldKeepExternalParentsApart() {
+            // Given
+            var underTest = new PathTree();
+            var first = underTest.addBelow(Path.of("a"), "x");
+            var second = underTest.addBelow(Path.of("b"), "x");
+
+            // When
+            var result = underTest.path(second);
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(Path.of("b", "x"));
+            assertThat(underTest.path(first))
+                    .isEqualTo(Path.of("a", "x"));
+        }
+
+        @DisplayName("Should build path of very deep node without recursion")
+        @Test
+        void shouldBuildVeryDeepPath() {
+            // Given
+            var underTest = new PathTree();
+            var node = underTest.addBelow(Path.of("root"), "d");
+            for (int i = 0; i < 100_000; i++) {
+                node = underTest.add(node, "d");
+            }
+
+            // When
+            var result = underTest.path(node);
+
+            // Then
+            assertThat(result.getNameCount())
+                    .isEqualTo(100_002);
+            assertThat(result.getFileName())
+                    .isEqualTo(Path.of("d"));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package pl.bdygasinski.filewalker.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+class ContentPatternTest {
+
+    private static ByteBuffer bufferOf(String content) {
+        return ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @DisplayName("literal()")
+    @Nested
+    class LiteralTest {
+
+        @DisplayName("Should throw for empty or multi line text")
+        @ParameterizedTest
+        @ValueSource(strings = {"", "two\nlines"})
+        void shouldThrowForInvalidText(String givenText) {
+            // When
+            var result = catchException(() -> ContentPattern.literal(givenText));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @DisplayName("Should find the first occurrence like String.indexOf does")
+        @Test
+        void shouldFindFirstOccurrence() {
+            // Given
+            var random = new SplittableRandom(7);
+            for (int i = 0; i < 1_000; i++) {
+                var content = random.ints(random.nextInt(1, 200), 'a', 'e')
+                        .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
+                        .toString();
+                var needle = random.ints(random.nextInt(1, 5), 'a', 'e')
+                        .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
+                        .toString();
+                var from = random.nextInt(content.length());
+                var underTest = ContentPattern.literal(needle);
+
+                // When
+                var result = underTest.find(bufferOf(content), from, content.length());
+
+                // Then
+                assertThat(result)
+                        .as("%s in %s from %d", needle, content, from)
+                        .isEqualTo(content.indexOf(needle, from));
+            }
+        }
+
+        @DisplayName("Should not find occurrence ending after the searched range")
+        @Test
+        void shouldStayWithinRange() {
+            // Given
+            var underTest = ContentPattern.literal("needle");
+
+            // When
+            var result = underTest.find(bufferOf("a needle"), 0, 7);
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(-1);
+        }
+
+        @DisplayName("Should find non ASCII text by its UTF-8 bytes")
+        @Test
+        void shouldFindUtf8Text() {
+            // Given
+            var givenContent = "abc żółw";
+            var underTest = ContentPattern.literal("żółw");
+
+            // When
+            var result = underTest.find(bufferOf(givenContent), 0, givenContent.getBytes(StandardCharsets.UTF_8).length);
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(4);
+        }
+    }
+
+    @DisplayName("regex()")
+    @Nested
+    class RegexTest {
+
+        @DisplayName("Should throw for invalid regex")
+        @Test
+        void shouldThrowForInvalidRegex() {
+            // When
+            var result = catchException(() -> ContentPattern.regex("unclosed("));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("unclosed(");
+        }
+
+        @DisplayName("Should search regex without metacharacters as literal")
+        @Test
+        void shouldUseLiteralForPlainText() {
+            // When
+            var result = ContentPattern.regex("plain text");
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(LiteralPattern.class);
+        }
+
+        @DisplayName("Should return start of the first matching line")
+        @Test
+        void shouldReturnStartOfMatchingLine() {
+            // Given
+            var givenContent = "first\nsecond 42\nthird 7\n";
+            var underTest = ContentPattern.regex("^\\w+ \\d$");
+
+            // When
+            var result = underTest.find(bufferOf(givenContent), 0, givenContent.length());
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(givenContent.indexOf("third"));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package pl.bdygasinski.filewalker.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import pl.bdygasinski.filewalker.memoryfs.MemoryFileSystem;
+import pl.bdygasinski.filewalker.model.Entry;
+import pl.bdygasinski.filewalker.model.FileEntry;
+import pl.bdygasinski.filewalker.model.FileMatches;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+class ContentSearchTest {
+
+    @DisplayName("constructor()")
+    @Nested
+    class ConstructorTest {
+
+        @DisplayName("Should throw if there are no workers")
+        @Test
+        void shouldThrowWithoutWorkers() {
+            // When
+            var result = catchException(() -> new ContentSearch(ContentPattern.literal("a"), 0));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("0");
+        }
+    }
+
+    @DisplayName("forEachMatch()")
+    @Nested
+    class ForEachMatchTest {
+
+        @DisplayName("Should pass on only files containing the pattern in the order they came")
+        @Test
+        void shouldPassOnMatchingFilesInOrder() {
+            // Given
+            var builder = MemoryFileSystem.builder();
+            for (int i = 0; i < 500; i++) {
+                var content = i % 3 == 0 ? "file %d\nneedle %d\n".formatted(i, i) : "file %d\n".formatted(i);
+                builder.file("/root/file-%03d".formatted(i), content.getBytes(StandardCharsets.UTF_8));
+            }
+            var givenFileSystem = builder.build();
+            var givenFiles = IntStream.range(0, 500)
+                    .mapToObj(i -> (FileEntry) Entry.fromPathAndGraphDepth(givenFileSystem.getPath("/root/file-%03d".formatted(i)), 1))
+                    .toList();
+            var underTest = new ContentSearch(ContentPattern.literal("needle"), 4);
+            var result = new ArrayList<FileMatches>();
+
+            // When
+            underTest.forEachMatch(givenFiles::forEach, result::add);
+
+            // Then
+            assertThat(result)
+                    .extracting(matches -> matches.lines().getFirst().text())
+                    .containsExactlyElementsOf(IntStream.range(0, 500)
+                            .filter(i -> i % 3 == 0)
+                            .mapToObj("needle %d"::formatted)
+                            .toList());
+        }
+
+        @DisplayName("Should skip files which can't be read")
+        @Test
+        void shouldSkipUnreadableFiles() {
+            // Given
+            var givenFileSystem = MemoryFileSystem.builder()
+                    .file("/root/present", "needle".getBytes(StandardCharsets.UTF_8))
+                    .build();
+            var givenPresent = (FileEntry) Entry.fromPathAndGraphDepth(givenFileSystem.getPath("/root/present"), 1);
+            var givenMissing = (FileEntry) Entry.fromPathAndGraphDepth(Path.of("/missing-file-of-search-test"), 1);
+            var underTest = new ContentSearch(ContentPattern.literal("needle"), 2);
+            var result = new ArrayList<FileMatches>();
+
+            // When
+            underTest.forEachMatch(action -> List.of(givenMissing, givenPresent).forEach(action), result::add);
+
+            // Then
+            assertThat(result)
+                    .extracting(FileMatches::file)
+                    .containsExactly(givenPresent);
+        }
+    }
+}
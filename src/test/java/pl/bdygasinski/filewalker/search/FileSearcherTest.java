@@ -0,0 +1,140 @@
+package pl.bdygasinski.filewalker.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pl.bdygasinski.filewalker.content.ContentReader;
+import pl.bdygasinski.filewalker.memoryfs.MemoryFileSystem;
+import pl.bdygasinski.filewalker.model.MatchedLine;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+class FileSearcherTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @DisplayName("constructor()")
+    @Nested
+    class ConstructorTest {
+
+        @DisplayName("Should throw if there are no pooled buffers")
+        @Test
+        void shouldThrowWithoutBuffers() {
+            // When
+            var result = catchException(() -> new FileSearcher(ContentPattern.literal("a"), 0));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("0");
+        }
+    }
+
+    @DisplayName("search()")
+    @Nested
+    class SearchTest {
+
+        @DisplayName("Should find numbered lines in content read with buffers and memory mapped")
+        @ParameterizedTest
+        @ValueSource(ints = {10, ContentReader.BUFFER_SIZE / 10, (int) ContentReader.MAPPED_THRESHOLD / 10})
+        void shouldFindNumberedLines(int lines) throws IOException {
+            // Given
+            var content = new StringBuilder();
+            var expected = new ArrayList<MatchedLine>();
+            for (int i = 1; i <= lines; i++) {
+                var line = i % 997 == 3 ? "line %d has a needle".formatted(i) : "line %d".formatted(i);
+                content.append(line).append('\n');
+                if (line.contains("needle")) {
+                    expected.add(new MatchedLine(i, line));
+                }
+            }
+            var givenFile = Files.writeString(tempDir.resolve("lines.txt"), content);
+            var underTest = new FileSearcher(ContentPattern.literal("needle"), 1);
+
+            // When
+            var result = underTest.search(givenFile);
+
+            // Then
+            assertThat(result)
+                    .isNotEmpty()
+                    .containsExactlyElementsOf(expected);
+        }
+
+        @DisplayName("Should find match in the last line without line feed and drop carriage returns")
+        @Test
+        void shouldHandleLineEndings() throws IOException {
+            // Given
+            var givenFileSystem = MemoryFileSystem.builder()
+                    .file("/root/file", "first match\r\nsecond\r\nthird match".getBytes(StandardCharsets.UTF_8))
+                    .build();
+            var underTest = new FileSearcher(ContentPattern.literal("match"), 1);
+
+            // When
+            var result = underTest.search(givenFileSystem.getPath("/root/file"));
+
+            // Then
+            assertThat(result)
+                    .containsExactly(new MatchedLine(1, "first match"), new MatchedLine(3, "third match"));
+        }
+
+        @DisplayName("Should report every matching line once")
+        @Test
+        void shouldReportLineOnce() throws IOException {
+            // Given
+            var givenFileSystem = MemoryFileSystem.builder()
+                    .file("/root/file", "aa aa aa\nbb\naa".getBytes(StandardCharsets.UTF_8))
+                    .build();
+            var underTest = new FileSearcher(ContentPattern.regex("a+"), 1);
+
+            // When
+            var result = underTest.search(givenFileSystem.getPath("/root/file"));
+
+            // Then
+            assertThat(result)
+                    .containsExactly(new MatchedLine(1, "aa aa aa"), new MatchedLine(3, "aa"));
+        }
+
+        @DisplayName("Should skip binary file")
+        @Test
+        void shouldSkipBinaryFile() throws IOException {
+            // Given
+            var givenFileSystem = MemoryFileSystem.builder()
+                    .file("/root/file", "needle\0needle\n".getBytes(StandardCharsets.UTF_8))
+                    .build();
+            var underTest = new FileSearcher(ContentPattern.literal("needle"), 1);
+
+            // When
+            var result = underTest.search(givenFileSystem.getPath("/root/file"));
+
+            // Then
+            assertThat(result)
+                    .isEmpty();
+        }
+
+        @DisplayName("Should throw for missing file")
+        @Test
+        void shouldThrowForMissingFile() {
+            // Given
+            var underTest = new FileSearcher(ContentPattern.literal("needle"), 1);
+
+            // When
+            var result = catchException(() -> underTest.search(tempDir.resolve("missing")));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(NoSuchFileException.class);
+        }
+    }
+}
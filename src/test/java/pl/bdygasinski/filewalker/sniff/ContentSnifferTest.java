@@ -0,0 +1,163 @@
+package pl.bdygasinski.filewalker.sniff;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import pl.bdygasinski.filewalker.memoryfs.MemoryFileSystem;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+import static pl.bdygasinski.filewalker.helper.TestClassLoadingUtil.FILE_WITHOUT_EXTENSION;
+import static pl.bdygasinski.filewalker.helper.TestClassLoadingUtil.pathFromClasspath;
+
+class ContentSnifferTest {
+
+    private static final ContentSniffer UNDER_TEST = new ContentSniffer();
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+
+    private static byte[] tarHeader() {
+        byte[] header = new byte[1024];
+        System.arraycopy("ustar".getBytes(StandardCharsets.US_ASCII), 0, header, 257, 5);
+        return header;
+    }
+
+    private static byte[] bitmapHeader() {
+        byte[] header = new byte[54];
+        header[0] = 'B';
+        header[1] = 'M';
+        header[14] = 40;
+        return header;
+    }
+
+    private static byte[] portableExecutableHeader() {
+        byte[] header = new byte[0x84];
+        header[0] = 'M';
+        header[1] = 'Z';
+        header[0x3C] = (byte) 0x80;
+        header[0x80] = 'P';
+        header[0x81] = 'E';
+        return header;
+    }
+
+    private static String sniffContent(byte[] content) throws IOException {
+        var fileSystem = MemoryFileSystem.builder().file("/root/file", content).build();
+        return UNDER_TEST.sniff(fileSystem.getPath("/root/file"));
+    }
+
+    static Stream<Arguments> signatures() {
+        return Stream.of(
+                Arguments.of(bytes(0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0, 0, 0, 0x0D), "image"),
+                Arguments.of(bytes(0xFF, 0xD8, 0xFF, 0xE0, 0, 0x10), "image"),
+                Arguments.of("%PDF-1.7\n".getBytes(StandardCharsets.US_ASCII), "document"),
+                Arguments.of(bytes('P', 'K', 0x03, 0x04, 0x14, 0), "archive"),
+                Arguments.of(tarHeader(), "archive"),
+                Arguments.of(bitmapHeader(), "image"),
+                Arguments.of(portableExecutableHeader(), "executable"),
+                Arguments.of(bytes(0x7F, 'E', 'L', 'F', 2, 1, 1, 0), "executable"),
+                Arguments.of(bytes(0, 0, 0, 0x20, 'f', 't', 'y', 'p', 'i', 's', 'o', 'm'), "video"),
+                Arguments.of("#!/bin/sh\necho\n".getBytes(StandardCharsets.US_ASCII), "script")
+        );
+    }
+
+    static Stream<String> textsWithShortSignatures() {
+        return Stream.of(
+                "BMW service history\nOil changed at 120000 km\n",
+                "MZ stands for the initials of Mark Zbikowski\n" + "x".repeat(100)
+        );
+    }
+
+    @DisplayName("sniff()")
+    @Nested
+    class SniffTest {
+
+        @DisplayName("Should detect type from magic bytes")
+        @ParameterizedTest
+        @MethodSource("pl.bdygasinski.filewalker.sniff.ContentSnifferTest#signatures")
+        void shouldDetectTypeFromMagicBytes(byte[] givenContent, String expectedType) throws IOException {
+            // When
+            var result = sniffContent(givenContent);
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(expectedType);
+        }
+
+        @DisplayName("Should detect text which starts like a bitmap or an executable")
+        @ParameterizedTest
+        @MethodSource("pl.bdygasinski.filewalker.sniff.ContentSnifferTest#textsWithShortSignatures")
+        void shouldDetectTextStartingWithShortSignature(String givenText) throws IOException {
+            // When
+            var result = sniffContent(givenText.getBytes(StandardCharsets.US_ASCII));
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(ContentSniffer.TEXT);
+        }
+
+        @DisplayName("Should detect empty file regardless of its extension")
+        @Test
+        void shouldDetectEmptyFile() throws IOException {
+            // Given
+            var givenFileSystem = MemoryFileSystem.builder().file("/root/view.jpeg", 0).build();
+
+            // When
+            var result = UNDER_TEST.sniff(givenFileSystem.getPath("/root/view.jpeg"));
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(ContentSniffer.EMPTY);
+        }
+
+        @DisplayName("Should detect text file without extension")
+        @Test
+        void shouldDetectTextWithoutExtension() throws IOException {
+            // Given
+            var givenPath = pathFromClasspath(FILE_WITHOUT_EXTENSION);
+
+            // When
+            var result = UNDER_TEST.sniff(givenPath);
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(ContentSniffer.TEXT);
+        }
+
+        @DisplayName("Should detect binary content without known signature")
+        @Test
+        void shouldDetectUnknownBinary() throws IOException {
+            // When
+            var result = sniffContent(bytes('d', 'a', 't', 'a', 0, 1, 2, 3));
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(ContentSniffer.BINARY);
+        }
+
+        @DisplayName("Should throw for missing file")
+        @Test
+        void shouldThrowForMissingFile() {
+            // When
+            var result = catchException(() -> UNDER_TEST.sniff(Path.of("/missing-file-of-sniffer-test")));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(NoSuchFileException.class);
+        }
+    }
+}
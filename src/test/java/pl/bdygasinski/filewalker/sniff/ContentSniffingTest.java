@@ -0,0 +1,111 @@
+package pl.bdygasinski.filewalker.sniff;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import pl.bdygasinski.filewalker.filesystem.EntriesProvider;
+import pl.bdygasinski.filewalker.filesystem.EntryFileVisitor;
+import pl.bdygasinski.filewalker.memoryfs.MemoryFileSystem;
+import pl.bdygasinski.filewalker.model.Entry;
+import pl.bdygasinski.filewalker.model.FileEntry;
+import pl.bdygasinski.filewalker.model.TypedEntry;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+class ContentSniffingTest {
+
+    private static final Map<String, String> CATEGORIES = Map.of("java", "code", "txt", "text", "jpeg", "image");
+
+    private static ContentSniffing sniffing(int workers) {
+        return new ContentSniffing(ext -> CATEGORIES.getOrDefault(ext, "unknown"), Set.of("code", "text"), workers);
+    }
+
+    @DisplayName("constructor()")
+    @Nested
+    class ConstructorTest {
+
+        @DisplayName("Should throw if there are no workers")
+        @Test
+        void shouldThrowWithoutWorkers() {
+            // When
+            var result = catchException(() -> sniffing(0));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("0");
+        }
+    }
+
+    @DisplayName("forEachTypedEntry()")
+    @Nested
+    class ForEachTypedEntryTest {
+
+        @DisplayName("Should pass on every entry in the order entries were walked")
+        @Test
+        void shouldKeepWalkOrder() {
+            // Given
+            var givenFileSystem = MemoryFileSystem.builder()
+                    .seed(5)
+                    .unreadableRatio(0)
+                    .generate("/data", ContentSniffing.BATCH_SIZE * 20)
+                    .build();
+            var givenSource = EntriesProvider.withVisitor(new EntryFileVisitor(Integer.MAX_VALUE, entry -> true))
+                    .sourceFromPath(givenFileSystem.getPath("/data"));
+            var expectedEntries = new ArrayList<Entry>();
+            givenSource.forEachEntry(expectedEntries::add);
+            var underTest = sniffing(4);
+            var result = new ArrayList<TypedEntry>();
+
+            // When
+            underTest.forEachTypedEntry(givenSource, result::add);
+
+            // Then
+            assertThat(result)
+                    .extracting(TypedEntry::entry)
+                    .containsExactlyElementsOf(expectedEntries);
+            assertThat(result)
+                    .allSatisfy(typed -> assertThat(typed.fileType().isPresent())
+                            .isEqualTo(typed.entry() instanceof FileEntry));
+        }
+
+        @DisplayName("Should keep text type of extension for text content and leave unreadable files untyped")
+        @Test
+        void shouldRefineTextWithExtension() {
+            // Given
+            var givenFileSystem = MemoryFileSystem.builder()
+                    .file("/root/Main.java", "class Main {}".getBytes(StandardCharsets.UTF_8))
+                    .file("/root/notes.jpeg", "plain notes".getBytes(StandardCharsets.UTF_8))
+                    .file("/root/view.jpeg", 0)
+                    .build();
+            var givenEntries = new ArrayList<Entry>();
+            for (String name : List.of("Main.java", "notes.jpeg", "view.jpeg")) {
+                givenEntries.add(Entry.fromPathAndGraphDepth(givenFileSystem.getPath("/root", name), 1));
+            }
+            givenEntries.add(Entry.fromPathAndGraphDepth(Path.of("/missing-file-of-sniffing-test"), 1));
+            var underTest = sniffing(2);
+            var result = new ArrayList<TypedEntry>();
+
+            // When
+            underTest.forEachTypedEntry(givenEntries::forEach, result::add);
+
+            // Then
+            assertThat(result)
+                    .extracting(TypedEntry::fileType)
+                    .containsExactly(
+                            Optional.of("code"),
+                            Optional.of(ContentSniffer.TEXT),
+                            Optional.of(ContentSniffer.EMPTY),
+                            Optional.empty());
+        }
+    }
+}
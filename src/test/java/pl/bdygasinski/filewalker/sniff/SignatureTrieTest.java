@@ -0,0 +1,97 @@
+package pl.bdygasinski.filewalker.sniff;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+class SignatureTrieTest {
+
+    private static ByteBuffer header(String content) {
+        return ByteBuffer.wrap(content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @DisplayName("compile()")
+    @Nested
+    class CompileTest {
+
+        @DisplayName("Should throw if the same magic bytes are given for different types")
+        @Test
+        void shouldThrowForConflictingSignatures() {
+            // When
+            var result = catchException(() -> SignatureTrie.compile(List.of(
+                    Signature.ascii("image", "AB"),
+                    Signature.ascii("audio", "AB"))));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("audio")
+                    .hasMessageContaining("image");
+        }
+    }
+
+    @DisplayName("match()")
+    @Nested
+    class MatchTest {
+
+        private final SignatureTrie underTest = SignatureTrie.compile(List.of(
+                Signature.ascii("short", "AB"),
+                Signature.ascii("long", "ABCD"),
+                Signature.asciiAt(2, "shifted", "XY")));
+
+        @DisplayName("Should prefer longer signature over its prefix")
+        @Test
+        void shouldPreferLongestSignature() {
+            // When
+            var result = underTest.match(header("ABCDEF"));
+
+            // Then
+            assertThat(result)
+                    .contains("long");
+        }
+
+        @DisplayName("Should fall back to prefix when longer signature doesn't match")
+        @Test
+        void shouldFallBackToPrefix() {
+            // When
+            var result = underTest.match(header("ABCX"));
+
+            // Then
+            assertThat(result)
+                    .contains("short");
+        }
+
+        @DisplayName("Should match signature at its offset only")
+        @Test
+        void shouldMatchAtOffset() {
+            // When
+            var shifted = underTest.match(header("__XY"));
+            var notShifted = underTest.match(header("XY__"));
+
+            // Then
+            assertThat(shifted)
+                    .contains("shifted");
+            assertThat(notShifted)
+                    .isEqualTo(Optional.empty());
+        }
+
+        @DisplayName("Should not match signature cut off by the end of the header")
+        @Test
+        void shouldNotMatchCutSignature() {
+            // When
+            var result = underTest.match(header("A"));
+
+            // Then
+            assertThat(result)
+                    .isEqualTo(Optional.empty());
+        }
+    }
+}
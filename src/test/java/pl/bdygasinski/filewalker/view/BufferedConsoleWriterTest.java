@@ -0,0 +1,82 @@
+package pl.bdygasinski.filewalker.view;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+class BufferedConsoleWriterTest {
+
+    private static final String NL = System.lineSeparator();
+
+    private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    @DisplayName("constructor()")
+    @Nested
+    class ConstructorTest {
+
+        @DisplayName("Should throw if buffer can't hold surrogate pair")
+        @Test
+        void shouldThrowIfBufferIsTooSmall() {
+            // When
+            var result = catchException(() -> new BufferedConsoleWriter(
+                    Channels.newChannel(outputStream), StandardCharsets.UTF_8, 1, Long.MAX_VALUE));
+
+            // Then
+            assertThat(result)
+                    .isNotNull()
+                    .hasMessageContaining("1");
+        }
+    }
+
+    @DisplayName("writeLine()")
+    @Nested
+    class WriteLineTest {
+
+        @DisplayName("Should not write anything before flush when buffer is not full")
+        @Test
+        void shouldHoldLinesUntilFlush() {
+            // Given
+            var underTest = new BufferedConsoleWriter(
+                    Channels.newChannel(outputStream), StandardCharsets.UTF_8, 1024, Long.MAX_VALUE);
+
+            // When
+            underTest.writeLine("first");
+
+            // Then
+            assertThat(outputStream.toString(StandardCharsets.UTF_8))
+                    .isEmpty();
+
+            underTest.flush();
+            assertThat(outputStream.toString(StandardCharsets.UTF_8))
+                    .isEqualTo("first" + NL);
+        }
+
+        @DisplayName("Should write all lines in order regardless of buffer size")
+        @ParameterizedTest
+        @ValueSource(ints = {2, 3, 7, 64, 4096})
+        void shouldWriteAllLinesInOrder(int bufferSize) {
+            // Given
+            var givenLines = List.of("(text) 1.txt (0 B)", "[dir] zażółć", "", "emoji 📁 dir", "    [dir] A");
+            var underTest = new BufferedConsoleWriter(
+                    Channels.newChannel(outputStream), StandardCharsets.UTF_8, bufferSize, Long.MAX_VALUE);
+
+            // When
+            givenLines.forEach(underTest::writeLine);
+            underTest.flush();
+
+            // Then
+            assertThat(outputStream.toString(StandardCharsets.UTF_8))
+                    .isEqualTo(String.join(NL, givenLines) + NL);
+        }
+    }
+}
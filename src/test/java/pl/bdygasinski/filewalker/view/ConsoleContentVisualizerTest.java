@@ -6,13 +6,16 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import pl.bdygasinski.filewalker.helper.TestClassLoadingUtil;
 import pl.bdygasinski.filewalker.model.Entry;
+import pl.bdygasinski.filewalker.model.EntrySource;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
 import static pl.bdygasinski.filewalker.helper.TestClassLoadingUtil.*;
 
 class ConsoleContentVisualizerTest {
@@ -58,5 +61,87 @@ class ConsoleContentVisualizerTest {
                     .isEqualTo(expected);
 
         }
+    
+        @DisplayName("Should print entries written before source failed and rethrow its failure")
+        @Test
+        void shouldPrintEntriesBeforeFailure() {
+            // Given
+            var givenEntries = List.of(
+                    Entry.fromPathAndGraphDepth(pathFromClasspath(ROOT_DIR), 0),
+                    Entry.fromPathAndGraphDepth(pathFromClasspath(TEXT_FILE), 1)
+            );
+            var givenFailure = new IllegalStateException("Walk failed");
+            EntrySource givenSource = action -> {
+                givenEntries.forEach(action);
+                throw givenFailure;
+            };
+            var underTest = new ConsoleContentVisualizer(givenSource);
+
+            // When
+            var result = catchException(underTest::listVisible);
+
+            // Then
+            assertThat(result)
+                    .isSameAs(givenFailure);
+            var expected = givenEntries
+                    .stream()
+                    .map(DisplayableEntry::new)
+                    .map(DisplayableEntry::entryNameWithIndentation)
+                    .collect(Collectors.joining(NL, "", NL));
+
+            assertThat(outputStream.toString())
+                    .isEqualTo(expected);
+        }
+
+        @DisplayName("Should print entries from source without indentation when all have same depth")
+        @Test
+        void shouldPrintSourceWithoutIndentation() {
+            // Given
+            var givenEntries = Stream.of(TEXT_FILE, HTML_FILE)
+                    .map(TestClassLoadingUtil::pathFromClasspath)
+                    .map(path -> Entry.fromPathAndGraphDepth(path, 1))
+                    .toList();
+            EntrySource givenSource = givenEntries::forEach;
+            var underTest = new ConsoleContentVisualizer(givenSource);
+
+            // When
+            underTest.listVisible();
+
+            // Then
+            var expected = givenEntries
+                    .stream()
+                    .map(DisplayableEntry::new)
+                    .map(DisplayableEntry::entryName)
+                    .collect(Collectors.joining(NL, "", NL));
+
+            assertThat(outputStream.toString())
+                    .isEqualTo(expected);
+        }
+
+        @DisplayName("Should print entries from source with indentation when depths differ")
+        @Test
+        void shouldPrintSourceWithIndentation() {
+            // Given
+            var givenEntries = List.of(
+                    Entry.fromPathAndGraphDepth(pathFromClasspath(ROOT_DIR), 0),
+                    Entry.fromPathAndGraphDepth(pathFromClasspath(HTML_FILE), 0),
+                    Entry.fromPathAndGraphDepth(pathFromClasspath(TEXT_FILE), 1)
+            );
+            EntrySource givenSource = givenEntries::forEach;
+            var underTest = new ConsoleContentVisualizer(givenSource);
+
+            // When
+            underTest.listVisible();
+
+            // Then
+            var expected = givenEntries
+                    .stream()
+                    .map(DisplayableEntry::new)
+                    .map(DisplayableEntry::entryNameWithIndentation)
+                    .collect(Collectors.joining(NL, "", NL));
+
+            assertThat(outputStream.toString())
+                    .isEqualTo(expected);
+        }
     }
-}
\ No newline at end of file
+}
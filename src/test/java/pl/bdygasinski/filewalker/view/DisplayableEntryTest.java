@@ -8,6 +8,8 @@ import pl.bdygasinski.filewalker.model.DirEntry;
 import pl.bdygasinski.filewalker.model.ErrorEntry;
 import pl.bdygasinski.filewalker.model.FileEntry;
 
+import java.util.Optional;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static pl.bdygasinski.filewalker.helper.TestClassLoadingUtil.*;
 
@@ -65,5 +67,21 @@ class DisplayableEntryTest {
             assertThat(result)
                     .isEqualTo("%s %s".formatted(DisplayableEntry.DIR_ENTRY_DISPLAY_NAME_PREFIX, givenEntry.baseName()));
         }
+
+        @DisplayName("Should display detected file type instead of type of extension")
+        @Test
+        void shouldDisplayDetectedFileType() {
+            // Given
+            var givenPath = pathFromClasspath(TEXT_FILE);
+            var givenEntry = FileEntry.fromPathAndDepthLevel(givenPath, 0);
+            var underTest = new DisplayableEntry(givenEntry, Optional.of("binary"));
+
+            // When
+            String result = underTest.entryName();
+
+            // Then
+            assertThat(result)
+                    .startsWith("(binary) %s".formatted(givenEntry.baseName()));
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+package pl.bdygasinski.filewalker.view;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import pl.bdygasinski.filewalker.filesystem.EntriesProvider;
+import pl.bdygasinski.filewalker.filesystem.EntryFileVisitor;
+import pl.bdygasinski.filewalker.filesystem.WalkStats;
+import pl.bdygasinski.filewalker.memoryfs.MemoryFileSystem;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+class ProgressReporterTest {
+
+    private static final MemoryFileSystem FILE_SYSTEM = MemoryFileSystem.builder()
+            .file("/root/a/x.txt", 1024)
+            .file("/root/a/y.txt", 1024)
+            .file("/root/b/z.txt", 2048)
+            .file("/root/c.txt", 0)
+            .build();
+
+    private static WalkStats walkedStats() {
+        var stats = new WalkStats();
+        var visitor = new EntryFileVisitor(5, entry -> true).recordingTo(stats);
+        EntriesProvider.withVisitor(visitor).forEachEntryFromPath(FILE_SYSTEM.getPath("/root"), entry -> {});
+        return stats;
+    }
+
+    @DisplayName("statusLine()")
+    @Nested
+    class StatusLineTest {
+
+        @DisplayName("Should report counters and rates")
+        @Test
+        void shouldReportCountersAndRates() {
+            // Given
+            var givenStats = walkedStats();
+
+            // When
+            var result = ProgressReporter.statusLine(givenStats, Duration.ofSeconds(2), 3);
+
+            // Then
+            assertThat(result)
+                    .startsWith("3 dirs, 4 files (4 matched), 4.0 KB, 0 errors, depth ")
+                    .contains("1 dirs/s, 2 files/s, 2.0 KB/s");
+        }
+
+        @DisplayName("Should estimate remaining time from finished top level entries")
+        @Test
+        void shouldEstimateRemainingTime() {
+            // Given
+            var givenStats = walkedStats();
+
+            // When
+            var result = ProgressReporter.statusLine(givenStats, Duration.ofSeconds(30), 12);
+
+            // Then
+            assertThat(result)
+                    .endsWith("25% of top level, ETA 1m 30s");
+        }
+
+        @DisplayName("Should not estimate remaining time without top level count")
+        @Test
+        void shouldNotEstimateWithoutTopLevelCount() {
+            // When
+            var result = ProgressReporter.statusLine(new WalkStats(), Duration.ZERO, 0);
+
+            // Then
+            assertThat(result)
+                    .endsWith("ETA unknown");
+        }
+    }
+
+    @DisplayName("start()")
+    @Nested
+    class StartTest {
+
+        @DisplayName("Should throw if interval is not positive")
+        @Test
+        void shouldThrowIfIntervalIsNotPositive() {
+            // When
+            var result = catchException(() -> ProgressReporter.start(
+                    FILE_SYSTEM.getPath("/root"), new WalkStats(), Duration.ZERO, System.err));
+
+            // Then
+            assertThat(result)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("PT0S");
+        }
+
+        @DisplayName("Should print sampled status until closed")
+        @Test
+        void shouldPrintStatusUntilClosed() throws InterruptedException {
+            // Given
+            var givenOutput = new ByteArrayOutputStream();
+            var givenStats = walkedStats();
+
+            // When
+            try (var underTest = ProgressReporter.start(FILE_SYSTEM.getPath("/root"), givenStats,
+                    Duration.ofMillis(10), new PrintStream(givenOutput, true, StandardCharsets.UTF_8))) {
+
+                long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+                while (givenOutput.size() == 0 && System.nanoTime() < deadline) {
+                    Thread.sleep(10);
+                }
+                Thread.sleep(50);
+            }
+
+            // Then
+            assertThat(givenOutput.toString(StandardCharsets.UTF_8).lines())
+                    .hasSize(1)
+                    .first()
+                    .asString()
+                    .contains("100% of top level, ETA 0s");
+        }
+    }
+}